@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.sqlobject.Bind;
+import org.skife.jdbi.v2.sqlobject.GenerateSqlObject;
+import org.skife.jdbi.v2.sqlobject.SqlObjectBuilder;
+import org.skife.jdbi.v2.sqlobject.SqlQuery;
+import org.skife.jdbi.v2.sqlobject.SqlUpdate;
+
+/**
+ * Startup cost of a sql object: creation and first call, with the implementation generated at compile time (see
+ * {@link GenerateSqlObject}) vs at runtime.
+ * <p>
+ * A sql object type is only cold once per JVM: each fork measures a single cold invocation, after the shared
+ * initialization (H2, ByteBuddy, sql object machinery) was done on other sql object types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(30)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+public class SqlObjectStartupBenchmark {
+
+    private DBI dbi;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        final JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL(String.format("jdbc:h2:mem:%s;DB_CLOSE_DELAY=-1", UUID.randomUUID()));
+        dbi = new DBI(dataSource);
+        dbi.withHandle(handle -> handle.update("create table accounts (id int primary key, name varchar(64), email varchar(64))"));
+
+        dbi.onDemand(SetupGeneratedDao.class).count();
+        dbi.onDemand(SetupRuntimeDao.class).count();
+    }
+
+    @Benchmark
+    public Object createGenerated() {
+        return dbi.onDemand(GeneratedDao.class);
+    }
+
+    @Benchmark
+    public Object createRuntime() {
+        return dbi.onDemand(RuntimeDao.class);
+    }
+
+    @Benchmark
+    public int firstCallGenerated() {
+        return dbi.onDemand(GeneratedDao.class).count();
+    }
+
+    @Benchmark
+    public int firstCallRuntime() {
+        return dbi.onDemand(RuntimeDao.class).count();
+    }
+
+    @Benchmark
+    public int firstCallWarmedUp(final WarmedUp warmedUp) {
+        return dbi.onDemand(GeneratedDao.class).count();
+    }
+
+    // Like an application calling SqlObjectBuilder#warmUp when it starts
+    @State(Scope.Benchmark)
+    public static class WarmedUp {
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            SqlObjectBuilder.warmUp(SqlObjectStartupBenchmark.class.getClassLoader());
+        }
+    }
+
+    // The same statements for both kinds of sql objects: each fork only uses one of them
+    public interface AccountDao {
+
+        @SqlQuery("select count(*) from accounts")
+        int count();
+
+        @SqlQuery("select name from accounts where id = :id")
+        String getName(@Bind("id") int id);
+
+        @SqlQuery("select email from accounts where id = :id")
+        String getEmail(@Bind("id") int id);
+
+        @SqlQuery("select id from accounts where name = :name")
+        Integer getId(@Bind("name") String name);
+
+        @SqlUpdate("insert into accounts (id, name, email) values (:id, :name, :email)")
+        int insert(@Bind("id") int id, @Bind("name") String name, @Bind("email") String email);
+
+        @SqlUpdate("update accounts set name = :name where id = :id")
+        int updateName(@Bind("id") int id, @Bind("name") String name);
+
+        @SqlUpdate("update accounts set email = :email where id = :id")
+        int updateEmail(@Bind("id") int id, @Bind("email") String email);
+
+        @SqlUpdate("delete from accounts where id = :id")
+        int delete(@Bind("id") int id);
+    }
+
+    @GenerateSqlObject
+    public interface GeneratedDao extends AccountDao {}
+
+    public interface RuntimeDao extends AccountDao {}
+
+    @GenerateSqlObject
+    public interface SetupGeneratedDao {
+
+        @SqlQuery("select count(*) from accounts where id > 0")
+        int count();
+    }
+
+    public interface SetupRuntimeDao {
+
+        @SqlQuery("select count(*) from accounts where id < 0")
+        int count();
+    }
+}
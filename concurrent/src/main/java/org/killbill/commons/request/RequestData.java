@@ -22,6 +22,10 @@ package org.killbill.commons.request;
 public class RequestData {
     private final String requestId;
 
+    // Read-your-writes consistency token: a write was issued and not committed yet, and commit time (epoch millis) of the last write
+    private volatile boolean pendingWrite;
+    private volatile long lastWriteCommitMillis;
+
     public RequestData(final String requestId) {
         this.requestId = requestId;
     }
@@ -29,4 +33,31 @@ public class RequestData {
     public String getRequestId() {
         return requestId;
     }
+
+    public void markPendingWrite() {
+        pendingWrite = true;
+    }
+
+    public boolean hasPendingWrite() {
+        return pendingWrite;
+    }
+
+    /**
+     * Record that the writes of this request, if any, have been committed
+     *
+     * @param commitMillis commit time, in epoch millis
+     */
+    public void markWritesCommitted(final long commitMillis) {
+        if (pendingWrite) {
+            lastWriteCommitMillis = commitMillis;
+            pendingWrite = false;
+        }
+    }
+
+    /**
+     * @return commit time (epoch millis) of the last write of this request, 0 if none
+     */
+    public long getLastWriteCommitMillis() {
+        return lastWriteCommitMillis;
+    }
 }
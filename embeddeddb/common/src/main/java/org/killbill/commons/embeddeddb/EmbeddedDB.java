@@ -25,8 +25,14 @@ import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.regex.Pattern;
 
 import javax.sql.DataSource;
@@ -67,6 +73,11 @@ public abstract class EmbeddedDB {
         return Boolean .getBoolean("killbill.test.use.connection.pool");
     }
 
+    // Number of tables truncated concurrently by cleanupAllTables()
+    public int getCleanupParallelism() {
+        return Integer.getInteger("killbill.test.cleanup.parallelism", 1);
+    }
+
     public abstract DBEngine getDBEngine();
 
     public abstract void initialize() throws IOException, SQLException;
@@ -169,9 +180,11 @@ public abstract class EmbeddedDB {
     }
 
     public void cleanupAllTables() throws IOException {
-        for (final String tableName : allTables) {
-            cleanupTable(tableName);
-        }
+        cleanupAllTables(getCleanupParallelism());
+    }
+
+    public void cleanupAllTables(final int parallelism) throws IOException {
+        forEachTable(allTables, parallelism, this::cleanupTable);
     }
 
     public void cleanupTable(final String table) throws IOException {
@@ -183,6 +196,90 @@ public abstract class EmbeddedDB {
         }
     }
 
+    public boolean supportsSnapshots() {
+        return false;
+    }
+
+    /**
+     * Capture the schema and data of the database, to be restored by {@link #restore(String)} (e.g. before each test)
+     * instead of truncating all tables. Taking a snapshot with an existing name replaces it.
+     * <p>
+     * Depending on the engine, this requires exclusive access to the database, like {@link #restore(String)}: on PostgreSQL,
+     * both terminate every other session on the database (pooled connections are evicted first), so no transaction
+     * may be in flight.
+     *
+     * @param name snapshot name, made of lowercase letters, digits and underscores
+     */
+    public void snapshot(final String name) throws IOException {
+        throw new UnsupportedOperationException("Snapshots aren't supported for " + getDBEngine());
+    }
+
+    /**
+     * Reset the database to the state captured by {@link #snapshot(String)}: tables created since are dropped.
+     *
+     * @param name snapshot name
+     */
+    public void restore(final String name) throws IOException {
+        throw new UnsupportedOperationException("Snapshots aren't supported for " + getDBEngine());
+    }
+
+    private static final Pattern SNAPSHOT_NAME = Pattern.compile("^[a-z0-9_]+$");
+
+    protected static String checkSnapshotName(final String name) {
+        if (name == null || !SNAPSHOT_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Invalid snapshot name: " + name);
+        }
+        return name;
+    }
+
+    // Pooled connections may be dropped by the database when restoring a snapshot: don't hand them out again
+    protected void evictPooledConnections() throws IOException {
+        final DataSource dataSource = getDataSource();
+        if (dataSource instanceof HikariDataSource && ((HikariDataSource) dataSource).getHikariPoolMXBean() != null) {
+            ((HikariDataSource) dataSource).getHikariPoolMXBean().softEvictConnections();
+        }
+    }
+
+    protected interface TableJob {
+
+        void work(String table) throws IOException;
+    }
+
+    // Each job should use its own connection when run in parallel
+    protected void forEachTable(final Collection<String> tables, final int parallelism, final TableJob job) throws IOException {
+        if (parallelism <= 1 || tables.size() <= 1) {
+            for (final String table : tables) {
+                job.work(table);
+            }
+            return;
+        }
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, tables.size()),
+                                                                      Thread.ofVirtual().name("embeddeddb-", 0).factory());
+        try {
+            final List<Future<?>> futures = new ArrayList<>(tables.size());
+            for (final String table : tables) {
+                futures.add(executor.submit(() -> {
+                    job.work(table);
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException(e);
+        } catch (final ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     protected void execute(final String query) throws SQLException, IOException {
         execute(query, new ResultSetJob());
     }
@@ -25,7 +25,11 @@ import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 
 import javax.sql.DataSource;
@@ -39,6 +43,9 @@ public class H2EmbeddedDB extends EmbeddedDB {
 
     private final AtomicBoolean started = new AtomicBoolean(false);
 
+    // Snapshot name -> SCRIPT output, kept in memory
+    private final Map<String, List<String>> snapshots = new ConcurrentHashMap<>();
+
     private Server server;
 
     static {
@@ -115,6 +122,50 @@ public class H2EmbeddedDB extends EmbeddedDB {
         }
     }
 
+    @Override
+    public boolean supportsSnapshots() {
+        return true;
+    }
+
+    @Override
+    public void snapshot(final String name) throws IOException {
+        checkSnapshotName(name);
+        final List<String> script = new ArrayList<>();
+        try {
+            executeQuery("script", new ResultSetJob() {
+                @Override
+                public void work(final ResultSet resultSet) throws SQLException {
+                    while (resultSet.next()) {
+                        script.add(resultSet.getString(1));
+                    }
+                }
+            });
+        } catch (final SQLException e) {
+            throw new IOException(e);
+        }
+        snapshots.put(name, script);
+    }
+
+    @Override
+    public void restore(final String name) throws IOException {
+        final List<String> script = snapshots.get(checkSnapshotName(name));
+        if (script == null) {
+            throw new IOException("No snapshot " + name + " for " + jdbcConnectionString);
+        }
+
+        try (final Connection connection = getConnection();
+             final Statement statement = connection.createStatement()) {
+            statement.execute("drop all objects");
+            for (final String sql : script) {
+                statement.execute(sql);
+            }
+        } catch (final SQLException e) {
+            throw new IOException(e);
+        }
+
+        refreshTableNames();
+    }
+
     protected void createDataSource() throws IOException {
         if (useConnectionPooling()) {
             dataSource = createHikariDataSource();
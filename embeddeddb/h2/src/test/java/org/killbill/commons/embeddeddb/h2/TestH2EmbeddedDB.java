@@ -0,0 +1,118 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.embeddeddb.h2;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TestH2EmbeddedDB {
+
+    private H2EmbeddedDB embeddedDB;
+
+    @BeforeMethod(groups = "fast")
+    public void beforeMethod() throws IOException {
+        embeddedDB = new H2EmbeddedDB();
+        embeddedDB.start();
+        embeddedDB.executeScript("create table accounts (record_id serial primary key, name varchar(32) not null);" +
+                                 "create table invoices (record_id serial primary key, amount int not null);" +
+                                 "insert into accounts (name) values ('a'), ('b');" +
+                                 "insert into invoices (amount) values (1);");
+        embeddedDB.refreshTableNames();
+    }
+
+    @AfterMethod(groups = "fast")
+    public void afterMethod() throws IOException {
+        if (embeddedDB != null) {
+            embeddedDB.stop();
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testCleanupAllTablesInParallel() throws Exception {
+        Assert.assertEquals(embeddedDB.getAllTables().size(), 2);
+
+        embeddedDB.cleanupAllTables(4);
+
+        Assert.assertEquals(count("accounts"), 0);
+        Assert.assertEquals(count("invoices"), 0);
+    }
+
+    @Test(groups = "fast")
+    public void testSnapshotAndRestore() throws Exception {
+        Assert.assertTrue(embeddedDB.supportsSnapshots());
+        embeddedDB.snapshot("initial");
+
+        embeddedDB.executeScript("insert into accounts (name) values ('c');" +
+                                 "delete from invoices;" +
+                                 "create table payments (record_id serial primary key);");
+        embeddedDB.refreshTableNames();
+        Assert.assertEquals(embeddedDB.getAllTables().size(), 3);
+
+        embeddedDB.restore("initial");
+
+        Assert.assertEquals(embeddedDB.getAllTables().size(), 2);
+        Assert.assertEquals(names(), List.of("a", "b"));
+        Assert.assertEquals(count("invoices"), 1);
+
+        // Identity columns restart from their snapshot value
+        embeddedDB.executeScript("insert into accounts (name) values ('d');");
+        Assert.assertEquals(count("accounts where record_id = 3 and name = 'd'"), 1);
+
+        // Snapshots can be restored repeatedly
+        embeddedDB.cleanupAllTables();
+        embeddedDB.restore("initial");
+        Assert.assertEquals(names(), List.of("a", "b"));
+    }
+
+    @Test(groups = "fast", expectedExceptions = IOException.class)
+    public void testUnknownSnapshot() throws IOException {
+        embeddedDB.restore("unknown");
+    }
+
+    @Test(groups = "fast", expectedExceptions = IllegalArgumentException.class)
+    public void testInvalidSnapshotName() throws IOException {
+        embeddedDB.snapshot("drop table accounts");
+    }
+
+    private int count(final String from) throws SQLException, IOException {
+        try (final Connection connection = embeddedDB.getDataSource().getConnection();
+             final ResultSet resultSet = connection.createStatement().executeQuery("select count(*) from " + from)) {
+            resultSet.next();
+            return resultSet.getInt(1);
+        }
+    }
+
+    private List<String> names() throws SQLException, IOException {
+        final List<String> names = new ArrayList<>();
+        try (final Connection connection = embeddedDB.getDataSource().getConnection();
+             final ResultSet resultSet = connection.createStatement().executeQuery("select name from accounts order by record_id")) {
+            while (resultSet.next()) {
+                names.add(resultSet.getString(1));
+            }
+        }
+        return names;
+    }
+}
@@ -20,10 +20,21 @@
 package org.killbill.commons.embeddeddb.mysql;
 
 import java.io.IOException;
+import java.sql.Connection;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 import javax.sql.DataSource;
 
@@ -40,6 +51,11 @@ public class MySQLEmbeddedDB extends EmbeddedDB {
 
     protected final AtomicBoolean started = new AtomicBoolean(false);
 
+    private static final Pattern AUTO_INCREMENT = Pattern.compile(" AUTO_INCREMENT=(\\d+)");
+
+    // Snapshot name -> state of each table when the snapshot was taken
+    private final Map<String, Map<String, TableState>> snapshots = new ConcurrentHashMap<>();
+
     public MySQLEmbeddedDB() {
         // Avoid dashes - MySQL doesn't like them
         this("mydb_" + UUID.randomUUID().toString().substring(0, 8),
@@ -90,20 +106,197 @@ public class MySQLEmbeddedDB extends EmbeddedDB {
 
     @Override
     public void refreshTableNames() throws IOException {
-        final String query = String.format("select table_name from information_schema.tables where table_schema = '%s' and table_type = 'BASE TABLE';", databaseName);
+        final List<String> tables = getTableNames(databaseName);
+        allTables.clear();
+        allTables.addAll(tables);
+    }
+
+    private List<String> getTableNames(final String schema) throws IOException {
+        final String query = String.format("select table_name from information_schema.tables where table_schema = '%s' and table_type = 'BASE TABLE';", schema);
+        final List<String> tables = new ArrayList<>();
         try {
             executeQuery(query, new ResultSetJob() {
                 @Override
                 public void work(final ResultSet resultSet) throws SQLException {
-                    allTables.clear();
                     while (resultSet.next()) {
-                        allTables.add(resultSet.getString(1));
+                        tables.add(resultSet.getString(1));
                     }
                 }
             });
         } catch (final SQLException e) {
             throw new IOException(e);
         }
+        return tables;
+    }
+
+    @Override
+    public boolean supportsSnapshots() {
+        return true;
+    }
+
+    // Each snapshot is a copy of all tables in a sibling schema, along with their checksum and definition
+    @Override
+    public void snapshot(final String name) throws IOException {
+        final String snapshotSchema = getSnapshotSchema(name);
+        refreshTableNames();
+        try {
+            executeUpdate(String.format("drop database if exists `%s`", snapshotSchema));
+            executeUpdate(String.format("create database `%s`", snapshotSchema));
+        } catch (final SQLException e) {
+            throw new IOException(e);
+        }
+
+        final Map<String, TableState> tableStates = new ConcurrentHashMap<>();
+        forEachTable(allTables, getCleanupParallelism(), table -> {
+            copyTable(snapshotSchema, databaseName, table, false);
+            tableStates.put(table, getTableState(table));
+        });
+        snapshots.put(name, tableStates);
+    }
+
+    /**
+     * Each table is read once (CHECKSUM TABLE and SHOW CREATE TABLE) to find out whether it changed since the snapshot:
+     * only the modified tables are truncated and copied back from the snapshot schema (re-created if their definition
+     * changed), and the tables created since the snapshot are dropped. Unchanged tables aren't written to.
+     * <p>
+     * Without the table states (snapshot taken by another instance), every table is copied back.
+     */
+    @Override
+    public void restore(final String name) throws IOException {
+        final String snapshotSchema = getSnapshotSchema(name);
+        final List<String> snapshotTables = getTableNames(snapshotSchema);
+        if (snapshotTables.isEmpty()) {
+            throw new IOException("No snapshot " + name + " for " + databaseName);
+        }
+        final Map<String, TableState> tableStates = snapshots.get(name);
+
+        refreshTableNames();
+        final Set<String> existingTables = new HashSet<>(allTables);
+        for (final String table : allTables) {
+            if (!snapshotTables.contains(table)) {
+                try {
+                    executeUpdate(String.format("drop table `%s`.`%s`", databaseName, table));
+                } catch (final SQLException e) {
+                    throw new IOException(e);
+                }
+            }
+        }
+        forEachTable(snapshotTables, getCleanupParallelism(), table -> restoreTable(snapshotSchema,
+                                                                                    table,
+                                                                                    existingTables.contains(table),
+                                                                                    tableStates == null ? null : tableStates.get(table)));
+
+        refreshTableNames();
+    }
+
+    private String getSnapshotSchema(final String name) {
+        return databaseName + "_snapshot_" + checkSnapshotName(name);
+    }
+
+    private void restoreTable(final String snapshotSchema, final String table, final boolean exists, final TableState snapshotState) throws IOException {
+        if (!exists || snapshotState == null) {
+            copyTable(databaseName, snapshotSchema, table, false);
+        } else {
+            final TableState state = getTableState(table);
+            if (state.equals(snapshotState)) {
+                return;
+            }
+            // The table is re-created when its definition changed
+            copyTable(databaseName, snapshotSchema, table, state.definition.equals(snapshotState.definition));
+        }
+
+        if (snapshotState != null && snapshotState.autoIncrement != null) {
+            // Truncating resets the counter, and CREATE TABLE ... LIKE doesn't copy it
+            executeWithoutForeignKeyChecks(String.format("alter table `%s`.`%s` auto_increment = %s", databaseName, table, snapshotState.autoIncrement));
+        }
+    }
+
+    // The existing table is truncated when keepDefinition is true, dropped and re-created otherwise
+    private void copyTable(final String toSchema, final String fromSchema, final String table, final boolean keepDefinition) throws IOException {
+        final String insert = String.format("insert into `%s`.`%s` select * from `%s`.`%s`", toSchema, table, fromSchema, table);
+        if (keepDefinition) {
+            executeWithoutForeignKeyChecks(String.format("truncate table `%s`.`%s`", toSchema, table),
+                                           insert);
+        } else {
+            executeWithoutForeignKeyChecks(String.format("drop table if exists `%s`.`%s`", toSchema, table),
+                                           String.format("create table `%s`.`%s` like `%s`.`%s`", toSchema, table, fromSchema, table),
+                                           insert);
+        }
+    }
+
+    private void executeWithoutForeignKeyChecks(final String... queries) throws IOException {
+        try (final Connection connection = getConnection();
+             final Statement statement = connection.createStatement()) {
+            // Connections may be pooled: restore the session setting
+            statement.execute("set foreign_key_checks = 0");
+            try {
+                for (final String query : queries) {
+                    statement.execute(query);
+                }
+            } finally {
+                statement.execute("set foreign_key_checks = 1");
+            }
+        } catch (final SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private TableState getTableState(final String table) throws IOException {
+        try (final Connection connection = getConnection();
+             final Statement statement = connection.createStatement()) {
+            String definition;
+            try (final ResultSet resultSet = statement.executeQuery(String.format("show create table `%s`.`%s`", databaseName, table))) {
+                resultSet.next();
+                definition = resultSet.getString(2);
+            }
+            Long autoIncrement = null;
+            final Matcher matcher = AUTO_INCREMENT.matcher(definition);
+            if (matcher.find()) {
+                autoIncrement = Long.valueOf(matcher.group(1));
+                definition = matcher.replaceFirst("");
+            }
+
+            final long checksum;
+            try (final ResultSet resultSet = statement.executeQuery(String.format("checksum table `%s`.`%s`", databaseName, table))) {
+                resultSet.next();
+                checksum = resultSet.getLong(2);
+            }
+            return new TableState(definition, autoIncrement, checksum);
+        } catch (final SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
+    private static final class TableState {
+
+        private final String definition;
+        private final Long autoIncrement;
+        private final long checksum;
+
+        private TableState(final String definition, final Long autoIncrement, final long checksum) {
+            this.definition = definition;
+            this.autoIncrement = autoIncrement;
+            this.checksum = checksum;
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final TableState that = (TableState) o;
+            return checksum == that.checksum &&
+                   definition.equals(that.definition) &&
+                   Objects.equals(autoIncrement, that.autoIncrement);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(definition, autoIncrement, checksum);
+        }
     }
 
     @Override
@@ -24,8 +24,11 @@ import org.postgresql.ds.PGSimpleDataSource;
 
 import javax.sql.DataSource;
 import java.io.IOException;
+import java.sql.Connection;
+import java.sql.DriverManager;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
 
@@ -88,6 +91,53 @@ public class PostgreSQLEmbeddedDB extends EmbeddedDB {
         }
     }
 
+    @Override
+    public boolean supportsSnapshots() {
+        return true;
+    }
+
+    // Each snapshot is a template database, copied back (file level copy) on restore.
+    // Both require exclusive access to the database: every other session on it is terminated
+    @Override
+    public void snapshot(final String name) throws IOException {
+        final String snapshotDatabase = getSnapshotDatabase(name);
+        // CREATE DATABASE ... TEMPLATE requires no other session on the template, so open sessions are killed here too
+        evictPooledConnections();
+        executeOnMaintenanceDatabase(terminateSessions(databaseName),
+                                     String.format("drop database if exists %s", snapshotDatabase),
+                                     String.format("create database %s template %s owner %s", snapshotDatabase, databaseName, username));
+    }
+
+    @Override
+    public void restore(final String name) throws IOException {
+        final String snapshotDatabase = getSnapshotDatabase(name);
+        evictPooledConnections();
+        executeOnMaintenanceDatabase(terminateSessions(databaseName),
+                                     String.format("drop database %s", databaseName),
+                                     String.format("create database %s template %s owner %s", databaseName, snapshotDatabase, username));
+        refreshTableNames();
+    }
+
+    private String getSnapshotDatabase(final String name) {
+        return databaseName + "_snapshot_" + checkSnapshotName(name);
+    }
+
+    private static String terminateSessions(final String database) {
+        return String.format("select pg_terminate_backend(pid) from pg_stat_activity where datname = '%s' and pid <> pg_backend_pid()", database);
+    }
+
+    private void executeOnMaintenanceDatabase(final String... queries) throws IOException {
+        final String maintenanceConnectionString = String.format("jdbc:postgresql://localhost:%s/postgres?user=%s", port, username);
+        try (final Connection connection = DriverManager.getConnection(maintenanceConnectionString);
+             final Statement statement = connection.createStatement()) {
+            for (final String query : queries) {
+                statement.execute(query);
+            }
+        } catch (final SQLException e) {
+            throw new IOException(e);
+        }
+    }
+
     @Override
     public DataSource getDataSource() throws IOException {
         if (!started.get()) {
@@ -22,13 +22,34 @@ package org.killbill.commons.jdbi;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Base64;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
 
+import jakarta.annotation.Nullable;
+
 import org.antlr.stringtemplate.StringTemplate;
 import org.antlr.stringtemplate.StringTemplateGroup;
 import org.antlr.stringtemplate.language.AngleBracketTemplateLexer;
+import org.antlr.stringtemplate.language.FormalArgument;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.utils.annotation.VisibleForTesting;
 import org.skife.jdbi.v2.StatementContext;
 import org.skife.jdbi.v2.tweak.StatementLocator;
 
@@ -36,12 +57,37 @@ import static java.nio.charset.StandardCharsets.UTF_8;
 import static java.nio.charset.StandardCharsets.US_ASCII;
 
 // Similar to StringTemplate3StatementLocator, but safe to use in conjunction with dbi#setStatementLocator
+//
+// The rendered SQL is cached, keyed by the template name and the values of the attributes the template references (its formal
+// arguments, or all the attributes defined for templates without any formal argument, like literals). Cache misses are rendered
+// on per-thread template instances, so that no lock is taken once all the templates have been seen. Once the cache is full, the
+// least recently used statements are evicted.
 public class ReusableStringTemplate3StatementLocator implements StatementLocator {
 
+    public static final int DEFAULT_RENDERED_SQL_CACHE_SIZE = 500;
+
+    private static final int MAX_TEMPLATE_INFOS = 10000;
+    private static final TemplateInfo NOT_A_TEMPLATE = new TemplateInfo(null, null, null);
+    private static final Object UNCACHEABLE_VALUE = new Object();
+
     protected final StringTemplateGroup group;
     protected final StringTemplateGroup literals = new StringTemplateGroup("literals", AngleBracketTemplateLexer.class);
     protected final boolean treatLiteralsAsTemplates;
 
+    @VisibleForTesting
+    final Map<RenderedSqlKey, String> renderedSqlCache = new ConcurrentHashMap<>();
+
+    private final int renderedSqlCacheSize;
+    private final Map<String, TemplateInfo> templateInfos = new ConcurrentHashMap<>();
+    private final ThreadLocal<Map<String, StringTemplate>> templateInstances = ThreadLocal.withInitial(HashMap::new);
+    // Last access (System.nanoTime()) of each cache entry
+    private final Map<RenderedSqlKey, AtomicLong> lastAccesses = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    @VisibleForTesting
+    final LongAdder evictions = new LongAdder();
+
     public ReusableStringTemplate3StatementLocator(final Class baseClass) {
         this(mungify("/" + baseClass.getName()) + ".sql.stg", false, false);
     }
@@ -59,7 +105,21 @@ public class ReusableStringTemplate3StatementLocator implements StatementLocator
     public ReusableStringTemplate3StatementLocator(final String templateGroupFilePathOnClasspath,
                                                    final boolean allowImplicitTemplateGroup,
                                                    final boolean treatLiteralsAsTemplates) {
+        this(templateGroupFilePathOnClasspath, allowImplicitTemplateGroup, treatLiteralsAsTemplates, DEFAULT_RENDERED_SQL_CACHE_SIZE, null);
+    }
+
+    /**
+     * @param renderedSqlCacheSize max number of rendered statements cached (0 disables the cache)
+     * @param metricRegistry       if specified, the cache hits, misses, evictions and hit rate are exposed as gauges, named after
+     *                             the template group and this locator
+     */
+    public ReusableStringTemplate3StatementLocator(final String templateGroupFilePathOnClasspath,
+                                                   final boolean allowImplicitTemplateGroup,
+                                                   final boolean treatLiteralsAsTemplates,
+                                                   final int renderedSqlCacheSize,
+                                                   @Nullable final MetricRegistry metricRegistry) {
         this.treatLiteralsAsTemplates = treatLiteralsAsTemplates;
+        this.renderedSqlCacheSize = renderedSqlCacheSize;
         final InputStream ins = getClass().getResourceAsStream(templateGroupFilePathOnClasspath);
         if (allowImplicitTemplateGroup && ins == null) {
             this.group = new StringTemplateGroup("empty template group", AngleBracketTemplateLexer.class);
@@ -77,39 +137,238 @@ public class ReusableStringTemplate3StatementLocator implements StatementLocator
                                                 e);
             }
         }
+
+        if (metricRegistry != null) {
+            // Several locators may use the same template group (e.g. one per DBI)
+            final String metricPrefix = String.format("%s.%s.%s.renderedSqlCache",
+                                                      ReusableStringTemplate3StatementLocator.class.getSimpleName(),
+                                                      group.getName(),
+                                                      Integer.toHexString(System.identityHashCode(this)));
+            metricRegistry.gauge(metricPrefix + ".hits", hits::sum);
+            metricRegistry.gauge(metricPrefix + ".misses", misses::sum);
+            metricRegistry.gauge(metricPrefix + ".evictions", evictions::sum);
+            metricRegistry.gauge(metricPrefix + ".hitRate", this::getHitRate);
+        }
     }
 
-    // Note! This code needs to be thread safe. We just synchronize the whole method for now, we could probably do better...
-    public synchronized String locate(final String name, final StatementContext ctx) throws Exception {
-        if (group.isDefined(name)) {
-            final StringTemplate t = group.lookupTemplate(name);
-            for (final Map.Entry<String, Object> entry : ctx.getAttributes().entrySet()) {
-                t.setAttribute(entry.getKey(), entry.getValue());
-            }
-            final String sql = t.toString();
+    // Note! This code needs to be thread safe: the cache and the template metadata are concurrent maps, and templates are rendered on per-thread instances
+    public String locate(final String name, final StatementContext ctx) throws Exception {
+        final TemplateInfo templateInfo = getTemplateInfo(name);
+        if (templateInfo == NOT_A_TEMPLATE) {
+            return name;
+        }
 
-            // Reset the template attributes
-            t.setAttributes(null);
+        final RenderedSqlKey key = templateInfo.buildKey(ctx.getAttributes());
+        if (key == null) {
+            // Attribute values which can't be part of a key
+            misses.increment();
+            return render(templateInfo, ctx);
+        }
+
+        final String cachedSql = renderedSqlCache.get(key);
+        if (cachedSql != null) {
+            hits.increment();
+            final AtomicLong lastAccess = lastAccesses.get(key);
+            if (lastAccess != null) {
+                lastAccess.lazySet(System.nanoTime());
+            }
+            return cachedSql;
+        }
 
+        misses.increment();
+        final String sql = render(templateInfo, ctx);
+        // Make sure the cache is bounded in case of lots of various attributes defined (see ST4StatementLocator)
+        if (renderedSqlCache.size() >= renderedSqlCacheSize && !evictLeastRecentlyUsed()) {
             return sql;
+        }
+        lastAccesses.put(key, new AtomicLong(System.nanoTime()));
+        renderedSqlCache.put(key, sql);
+        return sql;
+    }
+
+    // Evict the least recently used 10% of the entries. Returns false if another thread is already evicting.
+    private boolean evictLeastRecentlyUsed() {
+        if (renderedSqlCacheSize <= 0 || !evictionLock.tryLock()) {
+            return false;
+        }
+        try {
+            final List<Entry<RenderedSqlKey, AtomicLong>> entries = new ArrayList<>(lastAccesses.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().get()));
+            final int nbToEvict = Math.max(1, entries.size() / 10);
+            for (int i = 0; i < nbToEvict && i < entries.size(); i++) {
+                final RenderedSqlKey key = entries.get(i).getKey();
+                lastAccesses.remove(key);
+                if (renderedSqlCache.remove(key) != null) {
+                    evictions.increment();
+                }
+            }
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    @VisibleForTesting
+    double getHitRate() {
+        final long nbHits = hits.sum();
+        final long total = nbHits + misses.sum();
+        return total == 0 ? 0.0 : (double) nbHits / total;
+    }
+
+    private TemplateInfo getTemplateInfo(final String name) {
+        TemplateInfo templateInfo = templateInfos.get(name);
+        if (templateInfo == null) {
+            templateInfo = lookupTemplateInfo(name);
+            // Raw SQL statements (not templates) could be of unbounded variety
+            if (templateInfos.size() < MAX_TEMPLATE_INFOS) {
+                templateInfos.put(name, templateInfo);
+            }
+        }
+        return templateInfo;
+    }
+
+    private TemplateInfo lookupTemplateInfo(final String name) {
+        if (group.isDefined(name)) {
+            return new TemplateInfo(group, name, group.lookupTemplate(name).getFormalArguments());
         } else if (treatLiteralsAsTemplates) {
             // no template in the template group, but we want literals to be templates
             final String key = Base64.getEncoder().encodeToString(name.getBytes(US_ASCII));
-            if (!literals.isDefined(key)) {
-                literals.defineTemplate(key, name);
+            synchronized (literals) {
+                if (!literals.isDefined(key)) {
+                    literals.defineTemplate(key, name);
+                }
             }
-            final StringTemplate t = literals.lookupTemplate(key);
+            return new TemplateInfo(literals, key, literals.lookupTemplate(key).getFormalArguments());
+        } else {
+            return NOT_A_TEMPLATE;
+        }
+    }
+
+    private String render(final TemplateInfo templateInfo, final StatementContext ctx) {
+        final StringTemplate t = templateInstances.get().computeIfAbsent(templateInfo.templateName, templateInfo.templateGroup::getInstanceOf);
+        try {
             for (final Map.Entry<String, Object> entry : ctx.getAttributes().entrySet()) {
                 t.setAttribute(entry.getKey(), entry.getValue());
             }
-            final String sql = t.toString();
-
+            return t.toString();
+        } finally {
             // Reset the template attributes
             t.setAttributes(null);
+        }
+    }
 
-            return sql;
-        } else {
-            return name;
+    private static final class TemplateInfo {
+
+        private final StringTemplateGroup templateGroup;
+        private final String templateName;
+        // Sorted attributes referenced by the template, null if the template doesn't declare any (all attributes defined are then part of the key)
+        private final String[] referencedAttributes;
+
+        private TemplateInfo(final StringTemplateGroup templateGroup, final String templateName, final Map<?, ?> formalArguments) {
+            this.templateGroup = templateGroup;
+            this.templateName = templateName;
+            if (formalArguments == null || formalArguments == FormalArgument.UNKNOWN || formalArguments.isEmpty()) {
+                this.referencedAttributes = null;
+            } else {
+                this.referencedAttributes = formalArguments.keySet().stream().map(String::valueOf).sorted().toArray(String[]::new);
+            }
+        }
+
+        // Null if an attribute value can't be part of a key
+        private RenderedSqlKey buildKey(final Map<String, Object> attributes) {
+            final Object[] values;
+            if (referencedAttributes != null) {
+                values = new Object[referencedAttributes.length];
+                for (int i = 0; i < referencedAttributes.length; i++) {
+                    values[i] = toKeyValue(attributes.get(referencedAttributes[i]));
+                    if (values[i] == UNCACHEABLE_VALUE) {
+                        return null;
+                    }
+                }
+            } else if (attributes.isEmpty()) {
+                values = new Object[0];
+            } else {
+                final Map<String, Object> sortedAttributes = new TreeMap<>(attributes);
+                values = new Object[2 * sortedAttributes.size()];
+                int i = 0;
+                for (final Map.Entry<String, Object> entry : sortedAttributes.entrySet()) {
+                    values[i++] = entry.getKey();
+                    values[i] = toKeyValue(entry.getValue());
+                    if (values[i++] == UNCACHEABLE_VALUE) {
+                        return null;
+                    }
+                }
+            }
+            return new RenderedSqlKey(templateName, values);
+        }
+
+        // The key must not change once cached: immutable values are used as is, collections and arrays are copied,
+        // and statements rendered from other values (which may be mutated later on) aren't cached
+        private static Object toKeyValue(final Object value) {
+            if (value == null ||
+                value instanceof String ||
+                value instanceof Boolean ||
+                value instanceof Character ||
+                value instanceof Integer ||
+                value instanceof Long ||
+                value instanceof Short ||
+                value instanceof Byte ||
+                value instanceof Double ||
+                value instanceof Float ||
+                value instanceof BigDecimal ||
+                value instanceof BigInteger ||
+                value instanceof UUID ||
+                value instanceof Enum) {
+                return value;
+            } else if (value instanceof Collection) {
+                return toKeyValues(((Collection<?>) value).toArray());
+            } else if (value instanceof Object[]) {
+                return toKeyValues((Object[]) value);
+            } else {
+                return UNCACHEABLE_VALUE;
+            }
+        }
+
+        private static Object toKeyValues(final Object[] elements) {
+            final Object[] keyValues = new Object[elements.length];
+            for (int i = 0; i < elements.length; i++) {
+                keyValues[i] = toKeyValue(elements[i]);
+                if (keyValues[i] == UNCACHEABLE_VALUE) {
+                    return UNCACHEABLE_VALUE;
+                }
+            }
+            return Collections.unmodifiableList(Arrays.asList(keyValues));
+        }
+    }
+
+    @VisibleForTesting
+    static final class RenderedSqlKey {
+
+        private final String templateName;
+        private final Object[] values;
+        private final int hashCode;
+
+        private RenderedSqlKey(final String templateName, final Object[] values) {
+            this.templateName = templateName;
+            this.values = values;
+            this.hashCode = 31 * templateName.hashCode() + Arrays.hashCode(values);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final RenderedSqlKey that = (RenderedSqlKey) o;
+            return templateName.equals(that.templateName) && Arrays.equals(values, that.values);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
         }
     }
 
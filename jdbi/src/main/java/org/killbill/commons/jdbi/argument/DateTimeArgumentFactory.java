@@ -23,13 +23,22 @@ import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Timestamp;
 import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
 
 import org.joda.time.DateTime;
 import org.skife.jdbi.v2.StatementContext;
 import org.skife.jdbi.v2.tweak.Argument;
-import org.skife.jdbi.v2.tweak.ArgumentFactory;
+import org.skife.jdbi.v2.tweak.TypedArgumentFactory;
 
-public class DateTimeArgumentFactory implements ArgumentFactory<DateTime> {
+public class DateTimeArgumentFactory implements TypedArgumentFactory<DateTime> {
+
+    private static final Collection<Class<?>> SUPPORTED_TYPES = List.of(DateTime.class);
+
+    @Override
+    public Collection<Class<?>> getSupportedTypes() {
+        return SUPPORTED_TYPES;
+    }
 
     @Override
     public boolean accepts(final Class<?> expectedType, final Object value, final StatementContext ctx) {
@@ -22,13 +22,22 @@ package org.killbill.commons.jdbi.argument;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.sql.Types;
+import java.util.Collection;
+import java.util.List;
 import java.util.UUID;
 
 import org.skife.jdbi.v2.StatementContext;
 import org.skife.jdbi.v2.tweak.Argument;
-import org.skife.jdbi.v2.tweak.ArgumentFactory;
+import org.skife.jdbi.v2.tweak.TypedArgumentFactory;
 
-public class UUIDArgumentFactory implements ArgumentFactory<UUID> {
+public class UUIDArgumentFactory implements TypedArgumentFactory<UUID> {
+
+    private static final Collection<Class<?>> SUPPORTED_TYPES = List.of(UUID.class);
+
+    @Override
+    public Collection<Class<?>> getSupportedTypes() {
+        return SUPPORTED_TYPES;
+    }
 
     @Override
     public boolean accepts(final Class<?> expectedType, final Object value, final StatementContext ctx) {
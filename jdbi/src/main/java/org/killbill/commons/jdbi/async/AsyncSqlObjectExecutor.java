@@ -0,0 +1,217 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.async;
+
+import java.sql.SQLException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.killbill.commons.metrics.api.Counter;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.metrics.api.Timer;
+import org.killbill.commons.request.Request;
+import org.killbill.commons.request.RequestData;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.IDBI;
+import org.skife.jdbi.v2.tweak.HandleCallback;
+
+import javax.sql.DataSource;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Runs the {@link java.util.concurrent.CompletableFuture} sql object methods, each one on its own virtual thread and its own handle.
+ * <p>
+ * At most <code>maxConnections</code> handles are open at any time (the maximum size of the HikariCP pool
+ * when built from its data source, so that callers queue here rather than in the pool), and at most <code>maxPending</code> calls are queued or running:
+ * beyond that, calls fail right away with a {@link RejectedExecutionException}. The {@link Request} data of the caller
+ * is carried over to the virtual thread.
+ * When a metric registry is configured, the time spent waiting for a connection (admission and pool checkout)
+ * is recorded in <code>jdbi.async.poolWait</code>, and rejected calls are counted in <code>jdbi.async.rejected</code>.
+ */
+public class AsyncSqlObjectExecutor {
+
+    public static final String POOL_WAIT_METRIC = "jdbi.async.poolWait";
+    public static final String REJECTED_METRIC = "jdbi.async.rejected";
+
+    // Hikari's default maximumPoolSize, for other data sources
+    private static final int DEFAULT_MAX_CONNECTIONS = 10;
+    private static final int DEFAULT_MAX_PENDING = 1000;
+
+    private final ThreadFactory threadFactory = Thread.ofVirtual().name("jdbi-async-", 0).factory();
+    private final AtomicInteger pending = new AtomicInteger();
+    private final Semaphore connections;
+    private final int maxPending;
+    private final Timer poolWait;
+    private final Counter rejected;
+
+    public AsyncSqlObjectExecutor() {
+        this(DEFAULT_MAX_CONNECTIONS, DEFAULT_MAX_PENDING, null);
+    }
+
+    public AsyncSqlObjectExecutor(final DataSource dataSource) {
+        this(dataSource, DEFAULT_MAX_PENDING, null);
+    }
+
+    public AsyncSqlObjectExecutor(final DataSource dataSource, final int maxPending, @Nullable final MetricRegistry metricRegistry) {
+        this(maxPoolSize(dataSource), maxPending, metricRegistry);
+    }
+
+    public AsyncSqlObjectExecutor(final int maxConnections, final int maxPending, @Nullable final MetricRegistry metricRegistry) {
+        this.connections = new Semaphore(Math.max(1, maxConnections), true);
+        this.maxPending = Math.max(maxConnections, maxPending);
+        this.poolWait = metricRegistry == null ? null : metricRegistry.timer(POOL_WAIT_METRIC);
+        this.rejected = metricRegistry == null ? null : metricRegistry.counter(REJECTED_METRIC);
+    }
+
+    /**
+     * Run the callback with a new handle, closed once the callback returns
+     *
+     * @param dbi      DBI to open the handle from
+     * @param callback the work to do
+     * @return the result of the callback
+     */
+    public <T> CompletableFuture<T> withHandle(final IDBI dbi, final HandleCallback<T> callback) {
+        return withHandle(dbi::open, callback);
+    }
+
+    /**
+     * Run the callback with the handle opened by <code>opener</code> on the executor thread, closed once the callback returns
+     *
+     * @param opener   opens the handle, e.g. routing it to a replica
+     * @param callback the work to do
+     * @return the result of the callback
+     */
+    public <T> CompletableFuture<T> withHandle(final Callable<Handle> opener, final HandleCallback<T> callback) {
+        return execute(submittedNanos -> {
+            try (final Handle handle = opener.call()) {
+                recordPoolWait(submittedNanos);
+                return callback.withHandle(handle);
+            }
+        });
+    }
+
+    private <T> CompletableFuture<T> execute(final Task<T> task) {
+        final CompletableFuture<T> future = new CompletableFuture<T>();
+        if (pending.incrementAndGet() > maxPending) {
+            pending.decrementAndGet();
+            if (rejected != null) {
+                rejected.inc(1);
+            }
+            future.completeExceptionally(new RejectedExecutionException("Too many pending sql object calls: " + maxPending));
+            return future;
+        }
+
+        final long submittedNanos = System.nanoTime();
+        final RequestData requestData = Request.getPerThreadRequestData();
+        try {
+            threadFactory.newThread(() -> {
+                Request.setPerThreadRequestData(requestData);
+                run(task, future, submittedNanos);
+            }).start();
+        } catch (final RuntimeException | Error e) {
+            pending.decrementAndGet();
+            future.completeExceptionally(e);
+        }
+        return future;
+    }
+
+    private <T> void run(final Task<T> task, final CompletableFuture<T> future, final long submittedNanos) {
+        T result = null;
+        Throwable failure = null;
+        boolean admitted = false;
+        try {
+            connections.acquire();
+            admitted = true;
+
+            result = task.run(submittedNanos);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failure = e;
+        } catch (final Throwable e) {
+            failure = e;
+        } finally {
+            if (admitted) {
+                connections.release();
+            }
+            pending.decrementAndGet();
+        }
+
+        // Completed last, so that dependent stages don't run while holding the connection
+        if (failure == null) {
+            future.complete(result);
+        } else {
+            future.completeExceptionally(failure);
+        }
+    }
+
+    private void recordPoolWait(final long submittedNanos) {
+        if (poolWait != null) {
+            poolWait.update(System.nanoTime() - submittedNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * @return the number of calls queued or running
+     */
+    public int getPending() {
+        return pending.get();
+    }
+
+    /**
+     * @return the number of handles which can still be opened without waiting
+     */
+    public int getAvailableConnections() {
+        return connections.availablePermits();
+    }
+
+    private static int maxPoolSize(final DataSource dataSource) {
+        try {
+            return HikariPoolSize.of(dataSource);
+        } catch (final NoClassDefFoundError e) {
+            // HikariCP isn't on the classpath
+            return DEFAULT_MAX_CONNECTIONS;
+        }
+    }
+
+    private interface Task<T> {
+
+        T run(long submittedNanos) throws Exception;
+    }
+
+    // Separate class, so that HikariCP is only loaded when looking up the pool size
+    private static final class HikariPoolSize {
+
+        private static int of(final DataSource dataSource) {
+            try {
+                if (dataSource.isWrapperFor(HikariConfigMXBean.class)) {
+                    return dataSource.unwrap(HikariConfigMXBean.class).getMaximumPoolSize();
+                }
+            } catch (final SQLException ignored) {
+                // Not a pool
+            }
+            return DEFAULT_MAX_CONNECTIONS;
+        }
+    }
+}
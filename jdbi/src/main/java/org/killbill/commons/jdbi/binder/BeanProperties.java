@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.binder;
+
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Readable JavaBean properties of a class, introspected once per class and shared by the bean binders
+ * ({@link org.skife.jdbi.v2.sqlobject.BindBean}, {@link SmartBindBean} and {@link org.skife.jdbi.v2.SQLStatement#bindFromProperties(Object)}).
+ * <p>
+ * Getters are bound to generated accessors (via {@link LambdaMetafactory}), falling back to method handles
+ * and then to reflection when the class cannot be accessed that way. Metadata is attached to the class itself
+ * (see {@link ClassValue}), so it doesn't prevent the class (e.g. from a plugin) from being unloaded.
+ */
+public final class BeanProperties {
+
+    private static final ClassValue<BeanProperties> CACHE = new ClassValue<BeanProperties>() {
+        @Override
+        protected BeanProperties computeValue(final Class<?> type) {
+            return new BeanProperties(type);
+        }
+    };
+
+    private final List<Property> properties;
+    private final Map<String, Property> propertiesByName;
+
+    private BeanProperties(final Class<?> type) {
+        final PropertyDescriptor[] descriptors;
+        try {
+            descriptors = Introspector.getBeanInfo(type).getPropertyDescriptors();
+        } catch (final IntrospectionException e) {
+            throw new IllegalArgumentException(String.format("Unable to introspect bean %s", type.getName()), e);
+        }
+
+        Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (final IllegalAccessException | RuntimeException e) {
+            // E.g. class from a named module not opened to us
+            lookup = null;
+        }
+
+        final List<Property> readableProperties = new ArrayList<>(descriptors.length);
+        final Map<String, Property> readablePropertiesByName = new HashMap<>();
+        for (final PropertyDescriptor descriptor : descriptors) {
+            final Method readMethod = descriptor.getReadMethod();
+            if (readMethod != null) {
+                final Property property = new Property(descriptor.getName(), readMethod, generateGetter(lookup, type, readMethod));
+                readableProperties.add(property);
+                readablePropertiesByName.put(property.name, property);
+            }
+        }
+        this.properties = Collections.unmodifiableList(readableProperties);
+        this.propertiesByName = readablePropertiesByName;
+    }
+
+    /**
+     * @param type the bean class
+     * @return the (cached) properties of that class
+     * @throws IllegalArgumentException if the class cannot be introspected
+     */
+    public static BeanProperties forClass(final Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * @return the readable properties, in introspection order
+     */
+    public List<Property> getProperties() {
+        return properties;
+    }
+
+    /**
+     * @param name the property name
+     * @return the readable property with that name, or null if there is none
+     */
+    public Property getProperty(final String name) {
+        return propertiesByName.get(name);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Function<Object, Object> generateGetter(final Lookup lookup, final Class<?> type, final Method readMethod) {
+        if (lookup != null) {
+            final MethodHandle getterHandle;
+            try {
+                getterHandle = lookup.unreflect(readMethod);
+            } catch (final IllegalAccessException e) {
+                return reflectiveGetter(readMethod);
+            }
+
+            try {
+                return (Function<Object, Object>) LambdaMetafactory.metafactory(lookup,
+                                                                                "apply",
+                                                                                MethodType.methodType(Function.class),
+                                                                                MethodType.methodType(Object.class, Object.class),
+                                                                                getterHandle,
+                                                                                MethodType.methodType(MethodType.methodType(readMethod.getReturnType()).wrap().returnType(), type))
+                                                                   .getTarget()
+                                                                   .invokeExact();
+            } catch (final Throwable e) {
+                final MethodHandle genericGetterHandle = getterHandle.asType(MethodType.methodType(Object.class, Object.class));
+                return bean -> {
+                    try {
+                        return genericGetterHandle.invokeExact(bean);
+                    } catch (final RuntimeException | Error t) {
+                        throw t;
+                    } catch (final Throwable t) {
+                        throw new GetterException(t);
+                    }
+                };
+            }
+        }
+        return reflectiveGetter(readMethod);
+    }
+
+    private static Function<Object, Object> reflectiveGetter(final Method readMethod) {
+        return bean -> {
+            try {
+                return readMethod.invoke(bean);
+            } catch (final IllegalAccessException e) {
+                throw new GetterException(e);
+            } catch (final InvocationTargetException e) {
+                throw new GetterException(e.getCause());
+            }
+        };
+    }
+
+    public static final class Property {
+
+        private final String name;
+        private final Method readMethod;
+        private final Function<Object, Object> getter;
+
+        private Property(final String name, final Method readMethod, final Function<Object, Object> getter) {
+            this.name = name;
+            this.readMethod = readMethod;
+            this.getter = getter;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        /**
+         * @return the return type of the getter
+         */
+        public Class<?> getType() {
+            return readMethod.getReturnType();
+        }
+
+        /**
+         * @param bean the bean to read from
+         * @return the property value
+         * @throws InvocationTargetException if the getter failed, wrapping what it threw
+         */
+        public Object get(final Object bean) throws InvocationTargetException {
+            try {
+                return getter.apply(bean);
+            } catch (final GetterException e) {
+                throw new InvocationTargetException(e.getCause());
+            } catch (final RuntimeException e) {
+                throw new InvocationTargetException(e);
+            }
+        }
+
+        @Override
+        public String toString() {
+            return name;
+        }
+    }
+
+    // Carries checked exceptions out of the getter functions
+    private static final class GetterException extends RuntimeException {
+
+        private static final long serialVersionUID = 4319856017213563401L;
+
+        private GetterException(final Throwable cause) {
+            super(cause);
+        }
+    }
+}
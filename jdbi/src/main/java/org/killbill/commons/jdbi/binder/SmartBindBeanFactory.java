@@ -19,11 +19,7 @@
 
 package org.killbill.commons.jdbi.binder;
 
-import java.beans.BeanInfo;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
 
 import org.skife.jdbi.v2.SQLStatement;
 import org.skife.jdbi.v2.sqlobject.BindBean;
@@ -44,15 +40,11 @@ public class SmartBindBeanFactory implements BinderFactory {
             }
 
             try {
-                final BeanInfo infos = Introspector.getBeanInfo(arg.getClass());
-                final PropertyDescriptor[] props = infos.getPropertyDescriptors();
-                for (final PropertyDescriptor prop : props) {
-                    final Method readMethod = prop.getReadMethod();
-                    if (readMethod != null) {
-                        // [OPTIMIZATION] Avoid implicit creation of StringBuilder (concatenation) when no custom annotation value is specified
-                        final String name = prefix == null ? prop.getName() : prefix + prop.getName();
-                        q.dynamicBind(readMethod.getReturnType(), name, readMethod.invoke(arg));
-                    }
+                // [OPTIMIZATION] Bean introspection and getters are cached per class
+                for (final BeanProperties.Property prop : BeanProperties.forClass(arg.getClass()).getProperties()) {
+                    // [OPTIMIZATION] Avoid implicit creation of StringBuilder (concatenation) when no custom annotation value is specified
+                    final String name = prefix == null ? prop.getName() : prefix + prop.getName();
+                    q.dynamicBind(prop.getType(), name, prop.get(arg));
                 }
             } catch (final Exception e) {
                 throw new IllegalStateException("unable to bind bean properties", e);
@@ -33,6 +33,8 @@ import org.killbill.commons.jdbi.argument.LocalDateArgumentFactory;
 import org.killbill.commons.jdbi.argument.UUIDArgumentFactory;
 import org.killbill.commons.jdbi.log.Slf4jLogging;
 import org.killbill.commons.jdbi.mapper.UUIDMapper;
+import org.killbill.commons.jdbi.statement.ConnectionCachingStatementBuilderFactory;
+import org.killbill.commons.metrics.api.MetricRegistry;
 import org.skife.jdbi.v2.DBI;
 import org.skife.jdbi.v2.IDBI;
 import org.skife.jdbi.v2.ResultSetMapperFactory;
@@ -46,6 +48,8 @@ import org.skife.jdbi.v2.tweak.TransactionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.zaxxer.hikari.HikariDataSource;
+
 public class DBIProvider implements Provider<IDBI> {
 
     private static final Logger logger = LoggerFactory.getLogger(DBIProvider.class);
@@ -61,6 +65,7 @@ public class DBIProvider implements Provider<IDBI> {
     private TimingCollector timingCollector;
     private StatementRewriter statementRewriter;
     private StatementBuilderFactory statementBuilderFactory;
+    private MetricRegistry metricRegistry;
 
     @Inject
     public DBIProvider(final DaoConfig config, final DataSource ds, final TransactionHandler transactionHandler) {
@@ -112,6 +117,11 @@ public class DBIProvider implements Provider<IDBI> {
         this.statementBuilderFactory = statementBuilderFactory;
     }
 
+    @Inject
+    public void setMetricRegistry(@Nullable final MetricRegistry metricRegistry) {
+        this.metricRegistry = metricRegistry;
+    }
+
     @Override
     public IDBI get() {
         final DBI dbi = new DBI(ds);
@@ -122,6 +132,9 @@ public class DBIProvider implements Provider<IDBI> {
 
         if (statementBuilderFactory != null) {
             dbi.setStatementBuilderFactory(statementBuilderFactory);
+        } else if (config != null && config.isStatementCacheEnabled()) {
+            // Statements are only cached on connections opened by the DataSourceProvider with the same configuration
+            dbi.setStatementBuilderFactory(new ConnectionCachingStatementBuilderFactory(statementCacheName(), config.getStatementCacheSize(), metricRegistry));
         }
 
         for (final ArgumentFactory argumentFactory : argumentFactorySet) {
@@ -154,6 +167,13 @@ public class DBIProvider implements Provider<IDBI> {
         return dbi;
     }
 
+    private String statementCacheName() {
+        if (ds instanceof HikariDataSource) {
+            return ((HikariDataSource) ds).getPoolName();
+        }
+        return ds.getClass().getSimpleName() + "-" + Integer.toHexString(System.identityHashCode(ds));
+    }
+
     protected void setDefaultArgumentFactorySet() {
         argumentFactorySet.add(new UUIDArgumentFactory());
         argumentFactorySet.add(new DateTimeZoneArgumentFactory());
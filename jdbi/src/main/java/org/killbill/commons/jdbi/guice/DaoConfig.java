@@ -99,6 +99,16 @@ public interface DaoConfig {
     @Default("true")
     boolean isPreparedStatementsCacheEnabled();
 
+    @Description("Whether to cache prepared statements on the pooled connections, across handles (for drivers without client-side caching)")
+    @Config("org.killbill.dao.statementCache.enabled")
+    @Default("false")
+    boolean isStatementCacheEnabled();
+
+    @Description("Maximum number of idle prepared statements cached per pooled connection")
+    @Config("org.killbill.dao.statementCache.size")
+    @Default("250")
+    int getStatementCacheSize();
+
     @Description("Enable server-side prepared statements")
     @Config("org.killbill.dao.useServerPrepStmts")
     @Default("true")
@@ -153,4 +163,29 @@ public interface DaoConfig {
     @Config("org.killbill.dao.readOnly")
     @Default("false")
     boolean isReadOnly();
+
+    @Description("Whether to supervise the connection pool (wait time percentiles, saturation warnings, connection usage per sql object method)")
+    @Config("org.killbill.dao.poolSupervisor.enabled")
+    @Default("false")
+    boolean isPoolSupervisorEnabled();
+
+    @Description("Duration of the pool supervisor evaluation windows")
+    @Config("org.killbill.dao.poolSupervisor.evaluationInterval")
+    @Default("10s")
+    TimeSpan getPoolSupervisorEvaluationInterval();
+
+    @Description("99th percentile wait time for a connection above which the pool is considered saturated")
+    @Config("org.killbill.dao.poolSupervisor.waitThreshold")
+    @Default("100ms")
+    TimeSpan getPoolSupervisorWaitThreshold();
+
+    @Description("Lower bound when resizing the pool (0 for maxActive)")
+    @Config("org.killbill.dao.poolSupervisor.minMaxActive")
+    @Default("0")
+    int getPoolSupervisorMinMaxActive();
+
+    @Description("Upper bound when resizing the pool (0 for maxActive, i.e. no resizing)")
+    @Config("org.killbill.dao.poolSupervisor.maxMaxActive")
+    @Default("0")
+    int getPoolSupervisorMaxMaxActive();
 }
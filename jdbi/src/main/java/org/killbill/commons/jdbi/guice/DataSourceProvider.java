@@ -22,6 +22,7 @@ package org.killbill.commons.jdbi.guice;
 import java.io.IOException;
 import java.net.URI;
 import java.sql.SQLException;
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
 
 import jakarta.annotation.Nullable;
@@ -31,8 +32,10 @@ import javax.sql.DataSource;
 
 import org.killbill.commons.embeddeddb.EmbeddedDB;
 import org.killbill.commons.health.api.HealthCheckRegistry;
+import org.killbill.commons.jdbi.hikari.HikariPoolSupervisor;
 import org.killbill.commons.jdbi.hikari.KillBillHealthChecker;
 import org.killbill.commons.jdbi.hikari.KillBillMetricsTrackerFactory;
+import org.killbill.commons.jdbi.statement.StatementCachingDataSource;
 import org.killbill.commons.metrics.api.MetricRegistry;
 import org.killbill.commons.utils.annotation.VisibleForTesting;
 import org.skife.config.TimeSpan;
@@ -41,7 +44,11 @@ import org.slf4j.LoggerFactory;
 
 import com.zaxxer.hikari.HikariConfig;
 import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
 import com.zaxxer.hikari.pool.HikariPool.PoolInitializationException;
+import com.zaxxer.hikari.util.DriverDataSource;
+import com.zaxxer.hikari.util.PropertyElf;
+import com.zaxxer.hikari.util.UtilityElf;
 
 public class DataSourceProvider implements Provider<DataSource> {
 
@@ -162,8 +169,20 @@ public class DataSourceProvider implements Provider<DataSource> {
 
             hikariConfig.setRegisterMbeans(true);
 
-            if (metricRegistry != null) {
-                hikariConfig.setMetricsTrackerFactory(new KillBillMetricsTrackerFactory(metricRegistry));
+            final MetricsTrackerFactory metricsTrackerFactory = metricRegistry != null ? new KillBillMetricsTrackerFactory(metricRegistry) : null;
+            final HikariPoolSupervisor poolSupervisor;
+            if (config.isPoolSupervisorEnabled()) {
+                poolSupervisor = new HikariPoolSupervisor(new HikariPoolSupervisor.Configuration()
+                                                                  .withEvaluationInterval(Duration.ofMillis(toMilliSeconds(config.getPoolSupervisorEvaluationInterval())))
+                                                                  .withWaitThreshold(Duration.ofMillis(toMilliSeconds(config.getPoolSupervisorWaitThreshold())))
+                                                                  .withPoolSizeBounds(config.getPoolSupervisorMinMaxActive(), config.getPoolSupervisorMaxMaxActive()),
+                                                          metricRegistry);
+                hikariConfig.setMetricsTrackerFactory(poolSupervisor.metricsTrackerFactory(metricsTrackerFactory));
+            } else {
+                poolSupervisor = null;
+                if (metricsTrackerFactory != null) {
+                    hikariConfig.setMetricsTrackerFactory(metricsTrackerFactory);
+                }
             }
 
             if (poolName != null) {
@@ -183,7 +202,10 @@ public class DataSourceProvider implements Provider<DataSource> {
                 }
             }
 
-            if (dataSourceClassName != null) {
+            if (config.isStatementCacheEnabled()) {
+                // Hook on the physical connections, for the statements cache of the ConnectionCachingStatementBuilderFactory
+                hikariConfig.setDataSource(new StatementCachingDataSource(buildDriverDataSource(hikariConfig)));
+            } else if (dataSourceClassName != null) {
                 hikariConfig.setDataSourceClassName(dataSourceClassName);
             } else {
                 // Old-school DriverManager-based JDBC
@@ -194,7 +216,11 @@ public class DataSourceProvider implements Provider<DataSource> {
             }
 
             try {
-                final DataSource hikariDataSource = new HikariDataSource(hikariConfig);
+                final HikariDataSource hikariDataSource = new HikariDataSource(hikariConfig);
+                if (poolSupervisor != null) {
+                    // Stops by itself once the pool is closed
+                    poolSupervisor.start(hikariDataSource);
+                }
                 if (healthCheckRegistry != null) {
                     KillBillHealthChecker.registerHealthChecks(hikariDataSource, hikariConfig, healthCheckRegistry);
                 }
@@ -207,6 +233,17 @@ public class DataSourceProvider implements Provider<DataSource> {
         }
     }
 
+    // What Hikari does with the dataSourceClassName or jdbcUrl
+    private DataSource buildDriverDataSource(final HikariConfig hikariConfig) {
+        if (dataSourceClassName != null) {
+            final DataSource dataSource = UtilityElf.createInstance(dataSourceClassName, DataSource.class);
+            PropertyElf.setTargetFromProperties(dataSource, hikariConfig.getDataSourceProperties());
+            return dataSource;
+        } else {
+            return new DriverDataSource(config.getJdbcUrl(), driverClassName, hikariConfig.getDataSourceProperties(), config.getUsername(), config.getPassword());
+        }
+    }
+
     static int toSeconds(final TimeSpan timeSpan) {
         return toSeconds(timeSpan.getPeriod(), timeSpan.getUnit());
     }
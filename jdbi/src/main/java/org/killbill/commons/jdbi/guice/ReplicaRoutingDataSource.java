@@ -0,0 +1,369 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.guice;
+
+import java.io.PrintWriter;
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+
+import javax.sql.DataSource;
+
+import org.killbill.commons.jdbi.DelegatingConnection;
+import org.killbill.commons.request.Request;
+import org.killbill.commons.request.RequestData;
+import org.killbill.commons.utils.annotation.VisibleForTesting;
+import org.skife.jdbi.v2.sqlobject.SqlObjectBuilder;
+import org.skife.jdbi.v2.sqlobject.SqlObjectConnectionRouter;
+import org.slf4j.LoggerFactory;
+
+/**
+ * A DataSource sending the {@link ReplicaRead} queries to a read replica, and everything else to the primary database.
+ * <p>
+ * The replica is used only if its replication lag, probed at most once per refresh interval, is below the configured
+ * threshold. Reads also honour the writes of the current {@link Request}: sql object updates mark the {@link RequestData}
+ * of the thread through their primary connection, the commit (or release, in auto-commit mode) of that connection records
+ * the time of the write, and replica reads of that request go to the primary until the replica has caught up with that write.
+ */
+public class ReplicaRoutingDataSource implements DataSource {
+
+    private static final org.slf4j.Logger logger = LoggerFactory.getLogger(ReplicaRoutingDataSource.class);
+
+    // Set by the sql objects while opening the handle of a replica read
+    private static final ThreadLocal<Boolean> replicaRead = new ThreadLocal<Boolean>();
+    // Whether a routing data source was ever created, to skip the write tracking otherwise
+    private static final AtomicBoolean routingConfigured = new AtomicBoolean(false);
+
+    // Installed once a routing data source is created, so that sql objects don't route anything otherwise
+    private static final SqlObjectConnectionRouter SQL_OBJECT_ROUTER = new SqlObjectConnectionRouter() {
+
+        @Override
+        public boolean startRead(final Class<?> sqlObjectType, final Method method) {
+            return (method.isAnnotationPresent(ReplicaRead.class) || sqlObjectType.isAnnotationPresent(ReplicaRead.class)) && startReplicaRead();
+        }
+
+        @Override
+        public void endRead() {
+            endReplicaRead();
+        }
+
+        @Override
+        public void beforeWrite(final Connection connection) {
+            if (isTrackingWrites()) {
+                // Read-your-writes: keep the replica reads of this request on the primary
+                markWrite(connection);
+            }
+        }
+    };
+
+    /**
+     * Replication lag of a replica, in milliseconds (Long.MAX_VALUE if replication is broken).
+     */
+    public interface ReplicaLagProbe {
+
+        long getLagMillis(Connection replicaConnection) throws SQLException;
+    }
+
+    // H2 and other engines without replication
+    public static final ReplicaLagProbe NO_LAG_PROBE = connection -> 0L;
+
+    public static final ReplicaLagProbe MYSQL_LAG_PROBE = connection -> {
+        try (final Statement statement = connection.createStatement()) {
+            ResultSet rs;
+            String column;
+            try {
+                rs = statement.executeQuery("SHOW REPLICA STATUS");
+                column = "Seconds_Behind_Source";
+            } catch (final SQLException e) {
+                // MySQL < 8.0.22 and MariaDB
+                rs = statement.executeQuery("SHOW SLAVE STATUS");
+                column = "Seconds_Behind_Master";
+            }
+            try {
+                if (!rs.next()) {
+                    // Not a replica
+                    return 0L;
+                }
+                final long secondsBehind = rs.getLong(column);
+                return rs.wasNull() ? Long.MAX_VALUE : secondsBehind * 1000L;
+            } finally {
+                rs.close();
+            }
+        }
+    };
+
+    public static final ReplicaLagProbe POSTGRESQL_LAG_PROBE = connection -> {
+        try (final Statement statement = connection.createStatement();
+             final ResultSet rs = statement.executeQuery("select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 " +
+                                                         "else coalesce(extract(epoch from (now() - pg_last_xact_replay_timestamp())) * 1000, 0) end")) {
+            return rs.next() ? rs.getLong(1) : 0L;
+        }
+    };
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final ReplicaLagProbe lagProbe;
+    private final Configuration configuration;
+    private final AtomicBoolean probing = new AtomicBoolean(false);
+
+    // Unknown until probed
+    private volatile long replicaLagMillis = Long.MAX_VALUE;
+    private volatile long lastProbeNanos;
+    private volatile boolean probed = false;
+
+    public ReplicaRoutingDataSource(final DataSource primary, final DataSource replica, final ReplicaLagProbe lagProbe) {
+        this(primary, replica, lagProbe, new Configuration());
+    }
+
+    public ReplicaRoutingDataSource(final DataSource primary, final DataSource replica, final ReplicaLagProbe lagProbe, final Configuration configuration) {
+        this.primary = primary;
+        this.replica = replica;
+        this.lagProbe = lagProbe;
+        this.configuration = configuration;
+        if (routingConfigured.compareAndSet(false, true)) {
+            SqlObjectBuilder.setConnectionRouter(SQL_OBJECT_ROUTER);
+        }
+    }
+
+    /**
+     * Route the connections opened by the current thread to the replica (if possible), until {@link #endReplicaRead()}
+     *
+     * @return false if the thread was already routed to the replica
+     */
+    public static boolean startReplicaRead() {
+        if (Boolean.TRUE.equals(replicaRead.get())) {
+            return false;
+        }
+        replicaRead.set(Boolean.TRUE);
+        return true;
+    }
+
+    public static void endReplicaRead() {
+        replicaRead.remove();
+    }
+
+    /**
+     * @return whether the writes of the current thread may need to be tracked (see {@link #markWrite(Connection)})
+     */
+    public static boolean isTrackingWrites() {
+        return routingConfigured.get() && Request.getPerThreadRequestData() != null;
+    }
+
+    /**
+     * Record that the current request is writing to the primary database through this connection. Does nothing if the
+     * connection doesn't come from a ReplicaRoutingDataSource (or wasn't opened on behalf of a request).
+     *
+     * @param connection the connection of the handle running the write
+     */
+    public static void markWrite(final Connection connection) {
+        if (connection instanceof WriteTrackingConnection) {
+            ((WriteTrackingConnection) connection).recordWrite();
+        }
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (Boolean.TRUE.equals(replicaRead.get()) && isReplicaUsable()) {
+            try {
+                return replica.getConnection();
+            } catch (final SQLException e) {
+                logger.warn("Unable to connect to the replica, falling back to the primary database", e);
+            }
+        }
+        return trackWrites(primary.getConnection());
+    }
+
+    @Override
+    public Connection getConnection(final String username, final String password) throws SQLException {
+        return trackWrites(primary.getConnection(username, password));
+    }
+
+    @VisibleForTesting
+    boolean isReplicaUsable() {
+        final long lagMillis = getReplicaLagMillis();
+        if (lagMillis > configuration.maxLag.toMillis()) {
+            return false;
+        }
+
+        final RequestData requestData = Request.getPerThreadRequestData();
+        if (requestData == null) {
+            return true;
+        }
+        if (requestData.hasPendingWrite()) {
+            return false;
+        }
+        final long lastWriteCommitMillis = requestData.getLastWriteCommitMillis();
+        return lastWriteCommitMillis == 0 ||
+               System.currentTimeMillis() - lastWriteCommitMillis > lagMillis + configuration.readYourWritesMargin.toMillis();
+    }
+
+    @VisibleForTesting
+    long getReplicaLagMillis() {
+        final long now = System.nanoTime();
+        if ((!probed || now - lastProbeNanos >= configuration.lagRefreshInterval.toNanos()) && probing.compareAndSet(false, true)) {
+            try {
+                replicaLagMillis = probeReplicaLag();
+                lastProbeNanos = now;
+                probed = true;
+            } finally {
+                probing.set(false);
+            }
+        }
+        return replicaLagMillis;
+    }
+
+    private long probeReplicaLag() {
+        try (final Connection connection = replica.getConnection()) {
+            return lagProbe.getLagMillis(connection);
+        } catch (final SQLException | RuntimeException e) {
+            logger.warn("Unable to probe the replica lag, reads will be routed to the primary database", e);
+            return Long.MAX_VALUE;
+        }
+    }
+
+    // Record the commit time of the writes of the current request
+    private Connection trackWrites(final Connection connection) {
+        final RequestData requestData = Request.getPerThreadRequestData();
+        if (requestData == null) {
+            return connection;
+        }
+        return new WriteTrackingConnection(connection, requestData);
+    }
+
+    @Override
+    public PrintWriter getLogWriter() throws SQLException {
+        return primary.getLogWriter();
+    }
+
+    @Override
+    public void setLogWriter(final PrintWriter out) throws SQLException {
+        primary.setLogWriter(out);
+    }
+
+    @Override
+    public void setLoginTimeout(final int seconds) throws SQLException {
+        primary.setLoginTimeout(seconds);
+    }
+
+    @Override
+    public int getLoginTimeout() throws SQLException {
+        return primary.getLoginTimeout();
+    }
+
+    @Override
+    public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+        return primary.getParentLogger();
+    }
+
+    @Override
+    public <T> T unwrap(final Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return primary.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(final Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || primary.isWrapperFor(iface);
+    }
+
+    private static final class WriteTrackingConnection extends DelegatingConnection {
+
+        private final RequestData requestData;
+
+        // Whether writes were issued since the last commit (a connection is used by one thread at a time)
+        private boolean pendingWrite = false;
+
+        private WriteTrackingConnection(final Connection delegate, final RequestData requestData) {
+            super(delegate);
+            this.requestData = requestData;
+        }
+
+        private void recordWrite() {
+            pendingWrite = true;
+            requestData.markPendingWrite();
+        }
+
+        // Writes are committed on commit, or right away in auto-commit mode (recorded when the connection is released).
+        // Other connections of the request (e.g. reads on the primary) don't end its pending writes.
+        @Override
+        public void commit() throws SQLException {
+            super.commit();
+            writesCommitted();
+        }
+
+        @Override
+        public void close() throws SQLException {
+            super.close();
+            writesCommitted();
+        }
+
+        private void writesCommitted() {
+            if (pendingWrite) {
+                pendingWrite = false;
+                requestData.markWritesCommitted(System.currentTimeMillis());
+            }
+        }
+    }
+
+    public static class Configuration {
+
+        private final Duration maxLag;
+        private final Duration lagRefreshInterval;
+        private final Duration readYourWritesMargin;
+
+        public Configuration() {
+            this(Duration.ofSeconds(5), Duration.ofSeconds(1), Duration.ofSeconds(1));
+        }
+
+        private Configuration(final Duration maxLag, final Duration lagRefreshInterval, final Duration readYourWritesMargin) {
+            this.maxLag = maxLag;
+            this.lagRefreshInterval = lagRefreshInterval;
+            this.readYourWritesMargin = readYourWritesMargin;
+        }
+
+        /**
+         * @param maxLag replication lag above which reads go to the primary database
+         */
+        public Configuration withMaxLag(final Duration maxLag) {
+            return new Configuration(maxLag, lagRefreshInterval, readYourWritesMargin);
+        }
+
+        /**
+         * @param lagRefreshInterval how often the replication lag is probed
+         */
+        public Configuration withLagRefreshInterval(final Duration lagRefreshInterval) {
+            return new Configuration(maxLag, lagRefreshInterval, readYourWritesMargin);
+        }
+
+        /**
+         * @param readYourWritesMargin how long after the replica is expected to have caught up with a write of the request
+         *                             (given the last probed lag) its reads keep going to the primary database, to account for
+         *                             the probe resolution and staleness
+         */
+        public Configuration withReadYourWritesMargin(final Duration readYourWritesMargin) {
+            return new Configuration(maxLag, lagRefreshInterval, readYourWritesMargin);
+        }
+    }
+}
@@ -0,0 +1,664 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.hikari;
+
+import java.io.Closeable;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+import org.killbill.commons.metrics.api.Counter;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.utils.annotation.VisibleForTesting;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.zaxxer.hikari.HikariConfigMXBean;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+import jakarta.annotation.Nullable;
+
+/**
+ * Supervises a HikariCP pool: connection wait time percentiles, connections in use, timeouts and time connections are
+ * held per sql object method are aggregated over evaluation windows. The peak demand of a window is the highest number of
+ * connections in use plus threads waiting for one, sampled whenever a connection is handed out or given back, and at the
+ * end of the window: threads waiting for a connection are counted while they wait, not only once served or timed out.
+ * <p>
+ * At the end of each window, the pool is considered saturated if connection requests timed out, threads were still
+ * waiting for a connection or the 99th percentile wait time reached the configured threshold: a structured warning is
+ * logged, and the maximum pool size is grown, within the configured bounds, through the Hikari config MXBean. After
+ * enough consecutive windows using at most half of the pool, the maximum pool size is shrunk back towards its lower bound.
+ * <p>
+ * The supervisor needs to see the pool events: its {@link #metricsTrackerFactory(MetricsTrackerFactory)} must be set on
+ * the Hikari configuration before the data source is created, and {@link #start(HikariDataSource)} called afterwards.
+ * The supervisor stops when the pool is closed.
+ */
+public class HikariPoolSupervisor implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(HikariPoolSupervisor.class);
+
+    private static final String METRIC_CATEGORY = "pool.supervisor";
+    private static final String METRIC_NAME_WAIT_P50 = "WaitP50";
+    private static final String METRIC_NAME_WAIT_P99 = "WaitP99";
+    private static final String METRIC_NAME_PEAK_DEMAND = "PeakDemand";
+    private static final String METRIC_NAME_MAX_POOL_SIZE = "MaximumPoolSize";
+    private static final String METRIC_NAME_SATURATIONS = "Saturations";
+    private static final String METRIC_NAME_RESIZES = "Resizes";
+
+    // Methods listed in saturation warnings
+    private static final int TOP_METHODS = 5;
+
+    private final Configuration configuration;
+    private final MetricRegistry registry;
+
+    private final WaitHistogram waits = new WaitHistogram();
+    private final LongAdder timeouts = new LongAdder();
+    private final AtomicInteger inUse = new AtomicInteger();
+    private final AtomicInteger peakDemand = new AtomicInteger();
+    private final Map<Method, MethodUsage> methodUsages = new ConcurrentHashMap<>();
+    private final AtomicLong untrackedMethods = new AtomicLong();
+    private final AtomicLong saturations = new AtomicLong();
+    private final AtomicLong resizes = new AtomicLong();
+
+    private volatile HikariPoolMXBean pool;
+    private volatile HikariConfigMXBean poolConfig;
+    private volatile String poolName;
+    private volatile ScheduledExecutorService scheduler;
+    private volatile WindowStatistics lastWindow;
+    private int minPoolSize;
+    private int maxPoolSize;
+    private int quietWindows;
+    private Counter saturationsCounter;
+    private Counter resizesCounter;
+
+    public HikariPoolSupervisor(@Nullable final MetricRegistry registry) {
+        this(new Configuration(), registry);
+    }
+
+    public HikariPoolSupervisor(final Configuration configuration, @Nullable final MetricRegistry registry) {
+        this.configuration = configuration;
+        this.registry = registry;
+    }
+
+    /**
+     * @param delegate factory to forward the pool events to (e.g. {@link KillBillMetricsTrackerFactory}), may be null
+     * @return the factory to set on the Hikari configuration
+     */
+    public MetricsTrackerFactory metricsTrackerFactory(@Nullable final MetricsTrackerFactory delegate) {
+        return (poolName, poolStats) -> new SupervisedMetricsTracker(delegate == null ? null : delegate.create(poolName, poolStats));
+    }
+
+    /**
+     * Start the evaluation windows
+     *
+     * @param dataSource the supervised data source, created with the {@link #metricsTrackerFactory(MetricsTrackerFactory)}
+     */
+    public synchronized void start(final HikariDataSource dataSource) {
+        if (poolConfig != null) {
+            throw new IllegalStateException("The supervisor is already started");
+        }
+
+        this.pool = dataSource.getHikariPoolMXBean();
+        this.poolConfig = dataSource.getHikariConfigMXBean();
+        this.poolName = dataSource.getPoolName();
+        final int initialMaxPoolSize = poolConfig.getMaximumPoolSize();
+        this.minPoolSize = configuration.minPoolSize > 0 ? configuration.minPoolSize : initialMaxPoolSize;
+        this.maxPoolSize = Math.max(minPoolSize, configuration.maxPoolSize > 0 ? configuration.maxPoolSize : initialMaxPoolSize);
+        SqlObjectMethodContext.register();
+
+        if (registry != null) {
+            registry.gauge(metricName(METRIC_NAME_WAIT_P50), () -> lastWindow == null ? 0.0 : lastWindow.getWaitP50Millis());
+            registry.gauge(metricName(METRIC_NAME_WAIT_P99), () -> lastWindow == null ? 0.0 : lastWindow.getWaitP99Millis());
+            registry.gauge(metricName(METRIC_NAME_PEAK_DEMAND), () -> lastWindow == null ? 0 : lastWindow.getPeakDemand());
+            final HikariConfigMXBean supervisedConfig = poolConfig;
+            registry.gauge(metricName(METRIC_NAME_MAX_POOL_SIZE), supervisedConfig::getMaximumPoolSize);
+            saturationsCounter = registry.counter(metricName(METRIC_NAME_SATURATIONS));
+            resizesCounter = registry.counter(metricName(METRIC_NAME_RESIZES));
+        }
+
+        if (!configuration.evaluationInterval.isZero()) {
+            final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                final Thread thread = new Thread(runnable, "hikari-pool-supervisor-" + poolName);
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long intervalMillis = configuration.evaluationInterval.toMillis();
+            executor.scheduleWithFixedDelay(this::evaluateQuietly, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+            this.scheduler = executor;
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (poolConfig == null) {
+            return;
+        }
+
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            scheduler = null;
+        }
+        if (registry != null) {
+            registry.remove(metricName(METRIC_NAME_WAIT_P50));
+            registry.remove(metricName(METRIC_NAME_WAIT_P99));
+            registry.remove(metricName(METRIC_NAME_PEAK_DEMAND));
+            registry.remove(metricName(METRIC_NAME_MAX_POOL_SIZE));
+            registry.remove(metricName(METRIC_NAME_SATURATIONS));
+            registry.remove(metricName(METRIC_NAME_RESIZES));
+        }
+        SqlObjectMethodContext.unregister();
+        pool = null;
+        poolConfig = null;
+    }
+
+    /**
+     * @return the statistics of the last evaluation window, null before the first evaluation
+     */
+    @Nullable
+    public WindowStatistics getLastWindow() {
+        return lastWindow;
+    }
+
+    public long getSaturations() {
+        return saturations.get();
+    }
+
+    public long getResizes() {
+        return resizes.get();
+    }
+
+    /**
+     * @return time connections were held, per sql object method (DeclaringClass.method)
+     */
+    public Map<String, ConnectionUsage> getConnectionUsages() {
+        final Map<String, ConnectionUsage> usages = new HashMap<>();
+        for (final Map.Entry<Method, MethodUsage> entry : methodUsages.entrySet()) {
+            usages.put(methodName(entry.getKey()), entry.getValue().snapshot());
+        }
+        return usages;
+    }
+
+    private void evaluateQuietly() {
+        try {
+            if (poolConfig != null) {
+                evaluate();
+            }
+        } catch (final RuntimeException e) {
+            logger.warn("Unable to evaluate the connection pool", e);
+        }
+    }
+
+    /**
+     * Close the current window: check for saturation and resize the pool if needed
+     *
+     * @return the statistics of the window
+     */
+    @VisibleForTesting
+    synchronized WindowStatistics evaluate() {
+        final HikariPoolMXBean pool = this.pool;
+        final HikariConfigMXBean poolConfig = this.poolConfig;
+        if (poolConfig == null) {
+            throw new IllegalStateException("The supervisor isn't started");
+        }
+
+        final long[] waitCounts = waits.drain();
+        final long windowTimeouts = timeouts.sumThenReset();
+        final int waiting = pool.getThreadsAwaitingConnection();
+        // The demand at the end of this window is the starting demand of the next one
+        final int currentDemand = inUse.get() + waiting;
+        final int windowPeakDemand = Math.max(peakDemand.getAndSet(currentDemand), currentDemand);
+        final int maximumPoolSize = poolConfig.getMaximumPoolSize();
+
+        final WindowStatistics window = new WindowStatistics(WaitHistogram.count(waitCounts),
+                                                             WaitHistogram.percentile(waitCounts, 0.5) / 1e3,
+                                                             WaitHistogram.percentile(waitCounts, 0.99) / 1e3,
+                                                             windowTimeouts,
+                                                             windowPeakDemand,
+                                                             pool.getActiveConnections(),
+                                                             pool.getIdleConnections(),
+                                                             pool.getTotalConnections(),
+                                                             waiting,
+                                                             maximumPoolSize);
+        final List<String> topMethods = drainTopMethods();
+        lastWindow = window;
+
+        if (window.isSaturated(configuration.waitThreshold)) {
+            quietWindows = 0;
+            saturations.incrementAndGet();
+            if (saturationsCounter != null) {
+                saturationsCounter.inc(1);
+            }
+            logger.warn("Connection pool saturated: pool={} active={} idle={} total={} maximumPoolSize={} waiting={} timeouts={} " +
+                        "requests={} waitP50Ms={} waitP99Ms={} peakDemand={} topMethods={}",
+                        poolName, window.getActive(), window.getIdle(), window.getTotal(), maximumPoolSize,
+                        waiting, windowTimeouts, window.getRequests(), window.getWaitP50Millis(), window.getWaitP99Millis(),
+                        windowPeakDemand, topMethods);
+
+            if (maximumPoolSize < maxPoolSize) {
+                resize(poolConfig, Math.min(maxPoolSize, maximumPoolSize + step(maximumPoolSize)));
+            }
+        } else if (windowPeakDemand <= maximumPoolSize / 2 && maximumPoolSize > minPoolSize) {
+            quietWindows++;
+            if (quietWindows >= configuration.shrinkAfterWindows) {
+                quietWindows = 0;
+                resize(poolConfig, Math.max(Math.max(minPoolSize, windowPeakDemand + 1), maximumPoolSize - step(maximumPoolSize)));
+            }
+        } else {
+            quietWindows = 0;
+        }
+
+        return window;
+    }
+
+    private void resize(final HikariConfigMXBean poolConfig, final int newMaximumPoolSize) {
+        final int maximumPoolSize = poolConfig.getMaximumPoolSize();
+        if (newMaximumPoolSize == maximumPoolSize) {
+            return;
+        }
+
+        poolConfig.setMaximumPoolSize(newMaximumPoolSize);
+        if (poolConfig.getMinimumIdle() > newMaximumPoolSize) {
+            poolConfig.setMinimumIdle(newMaximumPoolSize);
+        }
+        resizes.incrementAndGet();
+        if (resizesCounter != null) {
+            resizesCounter.inc(1);
+        }
+        logger.info("Connection pool resized: pool={} maximumPoolSize={} previousMaximumPoolSize={} bounds=[{}, {}]",
+                    poolConfig.getPoolName(), newMaximumPoolSize, maximumPoolSize, minPoolSize, maxPoolSize);
+    }
+
+    // Grow or shrink by a quarter of the pool, at least one connection at a time
+    private static int step(final int maximumPoolSize) {
+        return Math.max(1, maximumPoolSize / 4);
+    }
+
+    private List<String> drainTopMethods() {
+        final Map<String, Long> windowMillis = new HashMap<>();
+        for (final Map.Entry<Method, MethodUsage> entry : methodUsages.entrySet()) {
+            final long millis = entry.getValue().windowMillis.sumThenReset();
+            if (millis > 0) {
+                windowMillis.put(methodName(entry.getKey()), millis);
+            }
+        }
+        return windowMillis.entrySet()
+                           .stream()
+                           .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                           .limit(TOP_METHODS)
+                           .map(entry -> entry.getKey() + "=" + entry.getValue() + "ms")
+                           .collect(Collectors.toUnmodifiableList());
+    }
+
+    private void recordUsage(final long elapsedBorrowedMillis) {
+        final int current = inUse.decrementAndGet();
+        if (current < 0) {
+            // Connection borrowed before the supervisor saw the pool
+            inUse.compareAndSet(current, 0);
+        } else {
+            // Threads still waiting are about to be handed the connection back
+            recordDemand(current);
+        }
+
+        final Method method = SqlObjectMethodContext.current();
+        if (method == null) {
+            return;
+        }
+
+        MethodUsage usage = methodUsages.get(method);
+        if (usage == null) {
+            if (methodUsages.size() >= configuration.maxTrackedMethods) {
+                untrackedMethods.incrementAndGet();
+                return;
+            }
+            usage = methodUsages.computeIfAbsent(method, m -> new MethodUsage());
+        }
+        usage.record(elapsedBorrowedMillis);
+    }
+
+    private void recordAcquisition(final long elapsedAcquiredNanos) {
+        waits.record(elapsedAcquiredNanos);
+        recordDemand(inUse.incrementAndGet());
+    }
+
+    private void recordDemand(final int currentInUse) {
+        final HikariPoolMXBean pool = this.pool;
+        // Cheap: the size of the waiters queue of the pool
+        final int demand = currentInUse + (pool == null ? 0 : pool.getThreadsAwaitingConnection());
+        if (demand > peakDemand.get()) {
+            peakDemand.accumulateAndGet(demand, Math::max);
+        }
+    }
+
+    private String metricName(final String name) {
+        return String.format("%s.%s.%s", poolName, METRIC_CATEGORY, name);
+    }
+
+    private static String methodName(final Method method) {
+        return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+    }
+
+    private final class SupervisedMetricsTracker implements IMetricsTracker {
+
+        private final IMetricsTracker delegate;
+
+        private SupervisedMetricsTracker(@Nullable final IMetricsTracker delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void recordConnectionCreatedMillis(final long connectionCreatedMillis) {
+            if (delegate != null) {
+                delegate.recordConnectionCreatedMillis(connectionCreatedMillis);
+            }
+        }
+
+        @Override
+        public void recordConnectionAcquiredNanos(final long elapsedAcquiredNanos) {
+            recordAcquisition(elapsedAcquiredNanos);
+            if (delegate != null) {
+                delegate.recordConnectionAcquiredNanos(elapsedAcquiredNanos);
+            }
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(final long elapsedBorrowedMillis) {
+            // Called by the thread giving the connection back to the pool
+            recordUsage(elapsedBorrowedMillis);
+            if (delegate != null) {
+                delegate.recordConnectionUsageMillis(elapsedBorrowedMillis);
+            }
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            // Hikari records the wait first: the request counted as demand, but no connection was handed out
+            inUse.decrementAndGet();
+            timeouts.increment();
+            if (delegate != null) {
+                delegate.recordConnectionTimeout();
+            }
+        }
+
+        @Override
+        public void close() {
+            // The pool is shutting down
+            HikariPoolSupervisor.this.close();
+            if (delegate != null) {
+                delegate.close();
+            }
+        }
+    }
+
+    private static final class WaitHistogram {
+
+        // One bucket per power of 2 microseconds
+        private static final int BUCKETS = 40;
+
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+
+        private void record(final long nanos) {
+            final long micros = TimeUnit.NANOSECONDS.toMicros(nanos);
+            buckets.incrementAndGet(Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros)));
+        }
+
+        private long[] drain() {
+            final long[] counts = new long[BUCKETS];
+            for (int i = 0; i < BUCKETS; i++) {
+                counts[i] = buckets.getAndSet(i, 0);
+            }
+            return counts;
+        }
+
+        private static long count(final long[] counts) {
+            long total = 0;
+            for (final long count : counts) {
+                total += count;
+            }
+            return total;
+        }
+
+        // Upper bound of the bucket, in microseconds
+        private static long percentile(final long[] counts, final double quantile) {
+            final long rank = (long) Math.ceil(quantile * count(counts));
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank && seen > 0) {
+                    return i == 0 ? 0 : (1L << i) - 1;
+                }
+            }
+            return 0;
+        }
+    }
+
+    private static final class MethodUsage {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalMillis = new LongAdder();
+        private final LongAdder windowMillis = new LongAdder();
+        private final AtomicLong maxMillis = new AtomicLong();
+
+        private void record(final long millis) {
+            count.increment();
+            totalMillis.add(millis);
+            windowMillis.add(millis);
+            if (millis > maxMillis.get()) {
+                maxMillis.accumulateAndGet(millis, Math::max);
+            }
+        }
+
+        private ConnectionUsage snapshot() {
+            return new ConnectionUsage(count.sum(), totalMillis.sum(), maxMillis.get());
+        }
+    }
+
+    /**
+     * Time connections were held by a sql object method
+     */
+    public static final class ConnectionUsage {
+
+        private final long count;
+        private final long totalMillis;
+        private final long maxMillis;
+
+        private ConnectionUsage(final long count, final long totalMillis, final long maxMillis) {
+            this.count = count;
+            this.totalMillis = totalMillis;
+            this.maxMillis = maxMillis;
+        }
+
+        public long getCount() {
+            return count;
+        }
+
+        public long getTotalMillis() {
+            return totalMillis;
+        }
+
+        public long getMaxMillis() {
+            return maxMillis;
+        }
+
+        @Override
+        public String toString() {
+            return "ConnectionUsage{count=" + count + ", totalMillis=" + totalMillis + ", maxMillis=" + maxMillis + '}';
+        }
+    }
+
+    /**
+     * Pool statistics over an evaluation window (the pool counts are sampled at the end of the window)
+     */
+    public static final class WindowStatistics {
+
+        private final long requests;
+        private final double waitP50Millis;
+        private final double waitP99Millis;
+        private final long timeouts;
+        private final int peakDemand;
+        private final int active;
+        private final int idle;
+        private final int total;
+        private final int waiting;
+        private final int maximumPoolSize;
+
+        private WindowStatistics(final long requests,
+                                 final double waitP50Millis,
+                                 final double waitP99Millis,
+                                 final long timeouts,
+                                 final int peakDemand,
+                                 final int active,
+                                 final int idle,
+                                 final int total,
+                                 final int waiting,
+                                 final int maximumPoolSize) {
+            this.requests = requests;
+            this.waitP50Millis = waitP50Millis;
+            this.waitP99Millis = waitP99Millis;
+            this.timeouts = timeouts;
+            this.peakDemand = peakDemand;
+            this.active = active;
+            this.idle = idle;
+            this.total = total;
+            this.waiting = waiting;
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        private boolean isSaturated(final Duration waitThreshold) {
+            return timeouts > 0 || waiting > 0 || (requests > 0 && waitP99Millis >= waitThreshold.toMillis());
+        }
+
+        public long getRequests() {
+            return requests;
+        }
+
+        public double getWaitP50Millis() {
+            return waitP50Millis;
+        }
+
+        public double getWaitP99Millis() {
+            return waitP99Millis;
+        }
+
+        public long getTimeouts() {
+            return timeouts;
+        }
+
+        public int getPeakDemand() {
+            return peakDemand;
+        }
+
+        public int getActive() {
+            return active;
+        }
+
+        public int getIdle() {
+            return idle;
+        }
+
+        public int getTotal() {
+            return total;
+        }
+
+        public int getWaiting() {
+            return waiting;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+    }
+
+    public static class Configuration {
+
+        private final int minPoolSize;
+        private final int maxPoolSize;
+        private final Duration evaluationInterval;
+        private final Duration waitThreshold;
+        private final int shrinkAfterWindows;
+        private final int maxTrackedMethods;
+
+        public Configuration() {
+            this(0, 0, Duration.ofSeconds(10), Duration.ofMillis(100), 6, 1000);
+        }
+
+        private Configuration(final int minPoolSize,
+                              final int maxPoolSize,
+                              final Duration evaluationInterval,
+                              final Duration waitThreshold,
+                              final int shrinkAfterWindows,
+                              final int maxTrackedMethods) {
+            this.minPoolSize = minPoolSize;
+            this.maxPoolSize = maxPoolSize;
+            this.evaluationInterval = evaluationInterval;
+            this.waitThreshold = waitThreshold;
+            this.shrinkAfterWindows = shrinkAfterWindows;
+            this.maxTrackedMethods = maxTrackedMethods;
+        }
+
+        /**
+         * @param minPoolSize lower bound of the maximum pool size (0, the default, for the size the pool was started with)
+         * @param maxPoolSize upper bound of the maximum pool size (0, the default, for the size the pool was started with):
+         *                    the pool is never resized when both bounds are the initial size
+         */
+        public Configuration withPoolSizeBounds(final int minPoolSize, final int maxPoolSize) {
+            return new Configuration(minPoolSize, maxPoolSize, evaluationInterval, waitThreshold, shrinkAfterWindows, maxTrackedMethods);
+        }
+
+        /**
+         * @param evaluationInterval duration of the evaluation windows (zero to only evaluate on demand)
+         */
+        public Configuration withEvaluationInterval(final Duration evaluationInterval) {
+            return new Configuration(minPoolSize, maxPoolSize, evaluationInterval, waitThreshold, shrinkAfterWindows, maxTrackedMethods);
+        }
+
+        /**
+         * @param waitThreshold the pool is saturated when the 99th percentile wait time for a connection reaches it
+         */
+        public Configuration withWaitThreshold(final Duration waitThreshold) {
+            return new Configuration(minPoolSize, maxPoolSize, evaluationInterval, waitThreshold, shrinkAfterWindows, maxTrackedMethods);
+        }
+
+        /**
+         * @param shrinkAfterWindows number of consecutive windows using at most half of the pool before shrinking it
+         */
+        public Configuration withShrinkAfterWindows(final int shrinkAfterWindows) {
+            return new Configuration(minPoolSize, maxPoolSize, evaluationInterval, waitThreshold, shrinkAfterWindows, maxTrackedMethods);
+        }
+
+        /**
+         * @param maxTrackedMethods maximum number of sql object methods tracked
+         */
+        public Configuration withMaxTrackedMethods(final int maxTrackedMethods) {
+            return new Configuration(minPoolSize, maxPoolSize, evaluationInterval, waitThreshold, shrinkAfterWindows, maxTrackedMethods);
+        }
+    }
+}
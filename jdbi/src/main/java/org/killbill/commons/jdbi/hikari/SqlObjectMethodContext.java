@@ -0,0 +1,80 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.hikari;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Keeps track of the sql object method being invoked by the current thread, so that the time a pooled connection
+ * is held can be attributed to it (see {@link HikariPoolSupervisor}).
+ * <p>
+ * This is called for every sql object invocation, hence it doesn't depend on HikariCP and does nothing unless a
+ * supervisor is running.
+ */
+public final class SqlObjectMethodContext {
+
+    private static final Object NOT_TRACKED = new Object();
+    private static final Object NO_PREVIOUS_METHOD = new Object();
+
+    private static final ThreadLocal<Method> currentMethod = new ThreadLocal<>();
+    private static final AtomicInteger supervisors = new AtomicInteger();
+
+    private SqlObjectMethodContext() {}
+
+    /**
+     * @param method the sql object method about to be invoked
+     * @return a token to pass to {@link #exit(Object)} once the invocation is over
+     */
+    public static Object enter(final Method method) {
+        if (supervisors.get() == 0) {
+            return NOT_TRACKED;
+        }
+
+        final Method previous = currentMethod.get();
+        currentMethod.set(method);
+        return previous == null ? NO_PREVIOUS_METHOD : previous;
+    }
+
+    public static void exit(final Object token) {
+        if (token == NOT_TRACKED) {
+            return;
+        }
+
+        if (token == NO_PREVIOUS_METHOD) {
+            currentMethod.remove();
+        } else {
+            // Nested invocation (e.g. from a transactional method)
+            currentMethod.set((Method) token);
+        }
+    }
+
+    @Nullable
+    static Method current() {
+        return currentMethod.get();
+    }
+
+    static void register() {
+        supervisors.incrementAndGet();
+    }
+
+    static void unregister() {
+        supervisors.decrementAndGet();
+    }
+}
@@ -0,0 +1,309 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.mapper;
+
+import java.beans.BeanInfo;
+import java.beans.IntrospectionException;
+import java.beans.Introspector;
+import java.beans.PropertyDescriptor;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodHandles.Lookup;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.sql.Blob;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import java.util.function.Supplier;
+
+import org.killbill.commons.utils.Strings;
+import org.skife.jdbi.v2.ColumnIndexResolver;
+import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.tweak.ResultSetMapper;
+
+/**
+ * Same mapping rules as {@link LowerToCamelBeanMapper} (created_date is mapped to createdDate, through the setter if any,
+ * or the field otherwise), without reflection on the hot path:
+ * <ul>
+ *     <li>the bean constructor and the property setters are bound once to generated accessors (via {@link LambdaMetafactory}),
+ *     and the setter-less fields to field {@link MethodHandle}s</li>
+ *     <li>a mapping plan (column index to property accessor) is built once per column layout and cached. The plan is
+ *     attached to the {@link ColumnIndexResolver} of the result set, so the metadata is only read for the first row of each
+ *     result set: a new layout (e.g. a query selecting other columns) simply yields a new plan</li>
+ * </ul>
+ * Unlike {@link LowerToCamelBeanMapper}, a NULL column mapped to a primitive property leaves the JDBC default value (0, false)
+ * instead of failing.
+ */
+public final class CompiledLowerToCamelBeanMapper<T> implements ResultSetMapper<T> {
+
+    // Distinct layouts seen for a given bean are expected to be a handful (one per query shape)
+    private static final int MAX_CACHED_PLANS = 64;
+
+    private final Class<T> type;
+    private final Supplier<T> constructor;
+    private final Map<String, PropertyAccessor> accessors = new HashMap<>();
+    private final Map<ColumnLayout, MappingPlan> plans = new ConcurrentHashMap<>();
+
+    public CompiledLowerToCamelBeanMapper(final Class<T> type) {
+        this.type = type;
+
+        final Lookup lookup;
+        try {
+            lookup = MethodHandles.privateLookupIn(type, MethodHandles.lookup());
+        } catch (final IllegalAccessException e) {
+            throw new IllegalArgumentException(String.format("Unable to access bean %s", type.getName()), e);
+        }
+
+        this.constructor = generateConstructor(lookup, type);
+        try {
+            final BeanInfo info = Introspector.getBeanInfo(type);
+            for (final PropertyDescriptor descriptor : info.getPropertyDescriptors()) {
+                final String key = Strings.toSnakeCase(descriptor.getName()).toLowerCase();
+                final BiConsumer<Object, Object> setter = generateSetter(lookup, type, key, descriptor);
+                if (setter != null) {
+                    accessors.put(key, new PropertyAccessor(key,
+                                                            LowerToCamelBeanMapper.getPropertyMapper(descriptor),
+                                                            setter,
+                                                            descriptor.getPropertyType().isPrimitive()));
+                }
+            }
+        } catch (final IntrospectionException e) {
+            throw new IllegalArgumentException(e);
+        }
+    }
+
+    @Override
+    public T map(final int row, final ResultSet rs, final StatementContext ctx) throws SQLException {
+        final MappingPlan plan = ColumnIndexResolver.forResultSet(rs, ctx).computeIfAbsent(this, this::getMappingPlan);
+        final T bean = constructor.get();
+
+        for (int i = 0; i < plan.columns.length; i++) {
+            final PropertyAccessor accessor = plan.accessors[i];
+
+            Object value = accessor.propertyMapper.apply(rs, plan.columns[i]);
+            // For h2, transform a JdbcBlob into a byte[]
+            if (value instanceof Blob) {
+                final Blob blob = (Blob) value;
+                value = blob.getBytes(1, (int) blob.length());
+            }
+            if (rs.wasNull()) {
+                if (accessor.primitive) {
+                    continue;
+                }
+                value = null;
+            }
+
+            try {
+                accessor.setter.accept(bean, value);
+            } catch (final ClassCastException | IllegalArgumentException e) {
+                throw new IllegalArgumentException(String.format("Unable to set field for property: name=%s, value=%s", accessor.name, value), e);
+            }
+        }
+
+        return bean;
+    }
+
+    private MappingPlan getMappingPlan(final ColumnIndexResolver columns) {
+        final String[] labels = new String[columns.getColumnCount()];
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = columns.getLabel(i + 1);
+        }
+
+        final ColumnLayout layout = new ColumnLayout(labels);
+        MappingPlan plan = plans.get(layout);
+        if (plan == null) {
+            if (plans.size() >= MAX_CACHED_PLANS) {
+                plans.clear();
+            }
+            plan = new MappingPlan(labels, accessors);
+            plans.put(layout, plan);
+        }
+        return plan;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> Supplier<T> generateConstructor(final Lookup lookup, final Class<T> type) {
+        final MethodHandle constructorHandle;
+        try {
+            constructorHandle = lookup.findConstructor(type, MethodType.methodType(void.class));
+        } catch (final NoSuchMethodException | IllegalAccessException e) {
+            // Fail when mapping, like LowerToCamelBeanMapper
+            return () -> {
+                throw new IllegalArgumentException(String.format("A bean, %s, was mapped which was not instantiable", type.getName()), e);
+            };
+        }
+
+        try {
+            return (Supplier<T>) LambdaMetafactory.metafactory(lookup,
+                                                               "get",
+                                                               MethodType.methodType(Supplier.class),
+                                                               MethodType.methodType(Object.class),
+                                                               constructorHandle,
+                                                               MethodType.methodType(type))
+                                                  .getTarget()
+                                                  .invokeExact();
+        } catch (final Throwable e) {
+            final MethodHandle genericConstructorHandle = constructorHandle.asType(MethodType.methodType(Object.class));
+            return () -> {
+                try {
+                    return (T) genericConstructorHandle.invokeExact();
+                } catch (final Throwable t) {
+                    throw new IllegalArgumentException(String.format("A bean, %s, was mapped which was not instantiable", type.getName()), t);
+                }
+            };
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static BiConsumer<Object, Object> generateSetter(final Lookup lookup, final Class<?> type, final String key, final PropertyDescriptor descriptor) {
+        final Method writeMethod = descriptor.getWriteMethod();
+        if (writeMethod != null) {
+            try {
+                final MethodHandle setterHandle = lookup.unreflect(writeMethod);
+                return (BiConsumer<Object, Object>) LambdaMetafactory.metafactory(lookup,
+                                                                                  "accept",
+                                                                                  MethodType.methodType(BiConsumer.class),
+                                                                                  MethodType.methodType(void.class, Object.class, Object.class),
+                                                                                  setterHandle,
+                                                                                  MethodType.methodType(void.class, type, MethodType.methodType(descriptor.getPropertyType()).wrap().returnType()))
+                                                                     .getTarget()
+                                                                     .invokeExact();
+            } catch (final Throwable e) {
+                throw new IllegalArgumentException(String.format("Unable to access setter for property, %s", key), e);
+            }
+        }
+
+        final Field field = getField(type, Strings.toCamelCase(key, false, '_'));
+        if (field == null) {
+            // Read-only property (e.g. getClass()): ignored, unless a column with that name is selected (see LowerToCamelBeanMapper)
+            return (bean, value) -> {
+                throw new IllegalArgumentException(String.format("Unable to find field for property, %s", key));
+            };
+        }
+
+        try {
+            final MethodHandle fieldSetterHandle = MethodHandles.privateLookupIn(field.getDeclaringClass(), lookup)
+                                                                .unreflectSetter(field)
+                                                                .asType(MethodType.methodType(void.class, Object.class, Object.class));
+            return (bean, value) -> {
+                try {
+                    fieldSetterHandle.invokeExact(bean, value);
+                } catch (final RuntimeException e) {
+                    throw e;
+                } catch (final Throwable t) {
+                    throw new IllegalArgumentException(t);
+                }
+            };
+        } catch (final IllegalAccessException e) {
+            // Final fields cannot be set through a method handle
+            field.setAccessible(true);
+            return (bean, value) -> {
+                try {
+                    field.set(bean, value);
+                } catch (final IllegalAccessException iae) {
+                    throw new IllegalArgumentException(String.format("Unable to access setter for property, %s", key), iae);
+                }
+            };
+        }
+    }
+
+    private static Field getField(final Class<?> clazz, final String fieldName) {
+        for (Class<?> current = clazz; current != null; current = current.getSuperclass()) {
+            try {
+                return current.getDeclaredField(fieldName);
+            } catch (final NoSuchFieldException e) {
+                // Go up in the hierarchy
+            }
+        }
+        return null;
+    }
+
+    private static final class PropertyAccessor {
+
+        private final String name;
+        private final LowerToCamelBeanMapper.PropertyMapper<ResultSet, ?> propertyMapper;
+        private final BiConsumer<Object, Object> setter;
+        private final boolean primitive;
+
+        private PropertyAccessor(final String name,
+                                 final LowerToCamelBeanMapper.PropertyMapper<ResultSet, ?> propertyMapper,
+                                 final BiConsumer<Object, Object> setter,
+                                 final boolean primitive) {
+            this.name = name;
+            this.propertyMapper = propertyMapper;
+            this.setter = setter;
+            this.primitive = primitive;
+        }
+    }
+
+    private static final class MappingPlan {
+
+        private final int[] columns;
+        private final PropertyAccessor[] accessors;
+
+        private MappingPlan(final String[] labels, final Map<String, PropertyAccessor> accessorsByName) {
+            final List<Integer> mappedColumns = new ArrayList<>(labels.length);
+            final List<PropertyAccessor> mappedAccessors = new ArrayList<>(labels.length);
+            for (int i = 0; i < labels.length; i++) {
+                final PropertyAccessor accessor = accessorsByName.get(labels[i]);
+                if (accessor != null) {
+                    mappedColumns.add(i + 1);
+                    mappedAccessors.add(accessor);
+                }
+            }
+
+            this.columns = mappedColumns.stream().mapToInt(Integer::intValue).toArray();
+            this.accessors = mappedAccessors.toArray(new PropertyAccessor[0]);
+        }
+    }
+
+    private static final class ColumnLayout {
+
+        private final String[] labels;
+        private final int hashCode;
+
+        private ColumnLayout(final String[] labels) {
+            this.labels = labels;
+            this.hashCode = Arrays.hashCode(labels);
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            return Arrays.equals(labels, ((ColumnLayout) o).labels);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+}
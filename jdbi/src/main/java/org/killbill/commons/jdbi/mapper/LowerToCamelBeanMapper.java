@@ -29,7 +29,6 @@ import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.sql.Blob;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Timestamp;
@@ -41,6 +40,7 @@ import org.joda.time.DateTime;
 import org.joda.time.DateTimeZone;
 import org.joda.time.LocalDate;
 import org.killbill.commons.utils.Strings;
+import org.skife.jdbi.v2.ColumnIndexResolver;
 import org.skife.jdbi.v2.StatementContext;
 import org.skife.jdbi.v2.tweak.ResultSetMapper;
 
@@ -68,7 +68,7 @@ public class LowerToCamelBeanMapper<T> implements ResultSetMapper<T> {
         }
     }
 
-    private static PropertyMapper<ResultSet, ?> getPropertyMapper(final PropertyDescriptor descriptor) {
+    static PropertyMapper<ResultSet, ?> getPropertyMapper(final PropertyDescriptor descriptor) {
         final PropertyMapper<ResultSet, ?> propertyMapper;
         final Class<?> propertyType = descriptor.getPropertyType();
 
@@ -173,10 +173,10 @@ public class LowerToCamelBeanMapper<T> implements ResultSetMapper<T> {
         }
 
         final Class beanClass = bean.getClass();
-        final ResultSetMetaData metadata = rs.getMetaData();
+        final ColumnIndexResolver columns = ColumnIndexResolver.forResultSet(rs, ctx);
 
-        for (int i = 1; i <= metadata.getColumnCount(); ++i) {
-            final String name = metadata.getColumnLabel(i).toLowerCase();
+        for (int i = 1; i <= columns.getColumnCount(); ++i) {
+            final String name = columns.getLabel(i);
 
             final PropertyMapper<ResultSet, ?> propertyMapper = propertiesMappers.get(name);
             if (propertyMapper != null) {
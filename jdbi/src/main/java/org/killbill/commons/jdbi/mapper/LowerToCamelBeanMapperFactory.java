@@ -27,6 +27,9 @@ public class LowerToCamelBeanMapperFactory implements ResultSetMapperFactory {
 
     private final Class<?> modelClazz;
 
+    // The mapper is generated once: the MappingRegistry cache can be bypassed (bypassMappingRegistryCache attribute)
+    private volatile ResultSetMapper mapper;
+
     public LowerToCamelBeanMapperFactory(final Class<?> modelClazz) {
         this.modelClazz = modelClazz;
     }
@@ -39,6 +42,13 @@ public class LowerToCamelBeanMapperFactory implements ResultSetMapperFactory {
     @SuppressWarnings("unchecked")
     @Override
     public ResultSetMapper mapperFor(final Class type, final StatementContext ctx) {
-        return new LowerToCamelBeanMapper(type);
+        if (mapper == null) {
+            synchronized (this) {
+                if (mapper == null) {
+                    mapper = new CompiledLowerToCamelBeanMapper(type);
+                }
+            }
+        }
+        return mapper;
     }
 }
@@ -18,31 +18,129 @@
 package org.killbill.commons.jdbi.metrics;
 
 import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 
+import org.killbill.commons.metrics.api.Histogram;
 import org.killbill.commons.metrics.api.MetricRegistry;
 import org.killbill.commons.metrics.api.Timer;
+import org.killbill.commons.utils.annotation.VisibleForTesting;
 import org.skife.jdbi.v2.StatementContext;
 import org.skife.jdbi.v2.TimingCollector;
 
+/**
+ * Records statement timings in one timer per sql-object method (or per raw statement).
+ * <p>
+ * The metrics of a statement are resolved the first time it is seen and cached per sql-object type and method
+ * (methods inherited from a shared DAO interface are reported under each concrete sql-object type), so the
+ * steady-state collect path is two map lookups followed by the timer update, without building the metric name.
+ */
 public class KillBillTimingCollector implements TimingCollector {
 
+    // Statements seen outside of sql-objects are expected to be a bounded set, but guard against ad-hoc SQL
+    private static final int MAX_CACHED_RAW_STATEMENTS = 1000;
+
     private final MetricRegistry registry;
+    private final int sampleRate;
+    private final boolean recordRowCounts;
+    // Attached to the sql-object type, so that it can still be unloaded (e.g. plugins)
+    private final ClassValue<Map<Method, StatementMetrics>> metricsBySqlObjectMethod = new ClassValue<Map<Method, StatementMetrics>>() {
+        @Override
+        protected Map<Method, StatementMetrics> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    // Statements of a sql-object without the method (named after the sql-object type and the raw SQL)
+    private final ClassValue<Map<String, StatementMetrics>> metricsBySqlObjectRawSql = new ClassValue<Map<String, StatementMetrics>>() {
+        @Override
+        protected Map<String, StatementMetrics> computeValue(final Class<?> type) {
+            return new ConcurrentHashMap<>();
+        }
+    };
+    private final Map<String, StatementMetrics> metricsByRawSql = new ConcurrentHashMap<>();
 
     public KillBillTimingCollector(final MetricRegistry registry) {
+        this(registry, 1, false);
+    }
+
+    /**
+     * @param registry        the registry to create the metrics in
+     * @param sampleRate      record one statement out of sampleRate on average (1, or less, records all statements)
+     * @param recordRowCounts whether to also record the number of rows updated by each statement, in a
+     *                        <code>&lt;statement&gt;.rows</code> histogram
+     */
+    public KillBillTimingCollector(final MetricRegistry registry, final int sampleRate, final boolean recordRowCounts) {
         this.registry = registry;
+        this.sampleRate = Math.max(1, sampleRate);
+        this.recordRowCounts = recordRowCounts;
     }
 
     public void collect(final long elapsedTime, final StatementContext ctx) {
-        final Timer timer = this.getTimer(ctx);
-        timer.update(elapsedTime, TimeUnit.NANOSECONDS);
+        if (sampleRate > 1 && ThreadLocalRandom.current().nextInt(sampleRate) != 0) {
+            return;
+        }
+
+        final StatementMetrics metrics = getMetrics(ctx);
+        metrics.timer.update(elapsedTime, TimeUnit.NANOSECONDS);
+        if (metrics.rows != null) {
+            recordRowCount(metrics.rows, ctx);
+        }
     }
 
-    private Timer getTimer(final StatementContext ctx) {
-        return this.registry.timer(getStatementName(ctx));
+    private static void recordRowCount(final Histogram rows, final StatementContext ctx) {
+        final PreparedStatement statement = ctx.getStatement();
+        if (statement == null) {
+            return;
+        }
+        try {
+            final int updateCount = statement.getUpdateCount();
+            // -1 for queries, whose rows are only known once consumed
+            if (updateCount >= 0) {
+                rows.update(updateCount);
+            }
+        } catch (final SQLException ignored) {
+            // Statement already closed
+        }
     }
 
-    private String getStatementName(final StatementContext ctx) {
+    private StatementMetrics getMetrics(final StatementContext ctx) {
+        final Class<?> sqlObjectType = ctx.getSqlObjectType();
+        final Method method = ctx.getSqlObjectMethod();
+        if (sqlObjectType != null && method != null && ctx.getRawSql() != null && !ctx.getRawSql().isEmpty()) {
+            final Map<Method, StatementMetrics> metricsByMethod = metricsBySqlObjectMethod.get(sqlObjectType);
+            final StatementMetrics metrics = metricsByMethod.get(method);
+            if (metrics != null) {
+                return metrics;
+            }
+            return metricsByMethod.computeIfAbsent(method, m -> newStatementMetrics(getStatementName(ctx)));
+        }
+
+        final String rawSql = ctx.getRawSql();
+        if (rawSql == null) {
+            return newStatementMetrics(getStatementName(ctx));
+        }
+        final Map<String, StatementMetrics> metricsBySql = sqlObjectType == null ? metricsByRawSql : metricsBySqlObjectRawSql.get(sqlObjectType);
+        final StatementMetrics metrics = metricsBySql.get(rawSql);
+        if (metrics != null) {
+            return metrics;
+        }
+        final StatementMetrics newMetrics = newStatementMetrics(getStatementName(ctx));
+        if (metricsBySql.size() < MAX_CACHED_RAW_STATEMENTS) {
+            metricsBySql.put(rawSql, newMetrics);
+        }
+        return newMetrics;
+    }
+
+    private StatementMetrics newStatementMetrics(final String name) {
+        return new StatementMetrics(registry.timer(name), recordRowCounts ? registry.histogram(name + ".rows") : null);
+    }
+
+    @VisibleForTesting
+    static String getStatementName(final StatementContext ctx) {
         final String rawSql = ctx.getRawSql();
         if (rawSql == null || rawSql.isEmpty()) {
             return "sql.empty";
@@ -67,4 +165,15 @@ public class KillBillTimingCollector implements TimingCollector {
         final String name = rawSql.substring(colon + 1);
         return String.format("%s.%s", group, name);
     }
+
+    private static final class StatementMetrics {
+
+        private final Timer timer;
+        private final Histogram rows;
+
+        private StatementMetrics(final Timer timer, final Histogram rows) {
+            this.timer = timer;
+            this.rows = rows;
+        }
+    }
 }
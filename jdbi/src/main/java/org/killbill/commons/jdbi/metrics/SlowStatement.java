@@ -0,0 +1,92 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.metrics;
+
+/**
+ * A sampled slow execution.
+ */
+public class SlowStatement {
+
+    private final String fingerprint;
+    private final String sql;
+    private final String sqlObjectMethod;
+    private final String bindings;
+    private final double timeMillis;
+    private final long timestampMillis;
+
+    public SlowStatement(final String fingerprint,
+                         final String sql,
+                         final String sqlObjectMethod,
+                         final String bindings,
+                         final double timeMillis,
+                         final long timestampMillis) {
+        this.fingerprint = fingerprint;
+        this.sql = sql;
+        this.sqlObjectMethod = sqlObjectMethod;
+        this.bindings = bindings;
+        this.timeMillis = timeMillis;
+        this.timestampMillis = timestampMillis;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * @return the rewritten SQL, as sent to the database
+     */
+    public String getSql() {
+        return sql;
+    }
+
+    /**
+     * @return the sql object method which ran the statement, if any
+     */
+    public String getSqlObjectMethod() {
+        return sqlObjectMethod;
+    }
+
+    /**
+     * @return the bound values, as rendered by the configured redactor
+     */
+    public String getBindings() {
+        return bindings;
+    }
+
+    public double getTimeMillis() {
+        return timeMillis;
+    }
+
+    /**
+     * @return when the statement completed, in epoch millis
+     */
+    public long getTimestampMillis() {
+        return timestampMillis;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("SlowStatement{");
+        sb.append("fingerprint='").append(fingerprint).append('\'');
+        sb.append(", sqlObjectMethod='").append(sqlObjectMethod).append('\'');
+        sb.append(", bindings='").append(bindings).append('\'');
+        sb.append(", timeMillis=").append(timeMillis);
+        sb.append(", timestampMillis=").append(timestampMillis);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.metrics;
+
+/**
+ * Statistics of the executions of a statement fingerprint (durations in milliseconds).
+ */
+public class StatementStatistics {
+
+    private final String fingerprint;
+    private final long count;
+    private final double totalTimeMillis;
+    private final double meanTimeMillis;
+    private final double p99TimeMillis;
+    private final double maxTimeMillis;
+    private final long rows;
+
+    public StatementStatistics(final String fingerprint,
+                               final long count,
+                               final double totalTimeMillis,
+                               final double meanTimeMillis,
+                               final double p99TimeMillis,
+                               final double maxTimeMillis,
+                               final long rows) {
+        this.fingerprint = fingerprint;
+        this.count = count;
+        this.totalTimeMillis = totalTimeMillis;
+        this.meanTimeMillis = meanTimeMillis;
+        this.p99TimeMillis = p99TimeMillis;
+        this.maxTimeMillis = maxTimeMillis;
+        this.rows = rows;
+    }
+
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public double getTotalTimeMillis() {
+        return totalTimeMillis;
+    }
+
+    public double getMeanTimeMillis() {
+        return meanTimeMillis;
+    }
+
+    /**
+     * @return approximate (within ~20%) 99th percentile
+     */
+    public double getP99TimeMillis() {
+        return p99TimeMillis;
+    }
+
+    public double getMaxTimeMillis() {
+        return maxTimeMillis;
+    }
+
+    /**
+     * @return the number of rows updated (rows returned by queries aren't known when the statement completes)
+     */
+    public long getRows() {
+        return rows;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("StatementStatistics{");
+        sb.append("fingerprint='").append(fingerprint).append('\'');
+        sb.append(", count=").append(count);
+        sb.append(", totalTimeMillis=").append(totalTimeMillis);
+        sb.append(", meanTimeMillis=").append(meanTimeMillis);
+        sb.append(", p99TimeMillis=").append(p99TimeMillis);
+        sb.append(", maxTimeMillis=").append(maxTimeMillis);
+        sb.append(", rows=").append(rows);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,415 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.metrics;
+
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.regex.Pattern;
+
+import org.killbill.commons.utils.annotation.VisibleForTesting;
+import org.skife.jdbi.v2.Binding;
+import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.TimingCollector;
+import org.skife.jdbi.v2.tweak.Argument;
+
+/**
+ * Aggregates statement executions per fingerprint (the rewritten SQL, with its literals replaced by <code>?</code>
+ * and its lists of placeholders collapsed), similar to <code>pg_stat_statements</code>: count, total, mean,
+ * approximate p99 and max latency, and updated rows.
+ * <p>
+ * The table is bounded: once full, the executions of new fingerprints are only counted as untracked.
+ * Executions slower than the configured threshold are sampled, with their (redacted) bound values, in a ring buffer.
+ * <p>
+ * To expose it over JMX, register it with the platform MBean server, e.g. under {@link #OBJECT_NAME}.
+ * To keep recording per-method timers as well, pass the {@link KillBillTimingCollector} as delegate.
+ */
+public class StatementStatisticsCollector implements TimingCollector, StatementStatisticsMXBean {
+
+    public static final String OBJECT_NAME = "org.killbill.commons.jdbi:type=StatementStatistics";
+
+    /**
+     * Renders a bound value in the slow statement samples.
+     */
+    public interface BindValueRedactor {
+
+        String redact(String parameter, Argument argument);
+    }
+
+    // Only keep the kind of the argument (e.g. StringArgument)
+    public static final BindValueRedactor REDACT_ALL = (parameter, argument) -> argument == null ? "null" : argument.getClass().getSimpleName();
+
+    public static final BindValueRedactor REDACT_NONE = (parameter, argument) -> String.valueOf(argument);
+
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\(\\s*\\?(\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern PLACEHOLDER_LISTS = Pattern.compile("\\(\\.\\.\\.\\)(\\s*,\\s*\\(\\.\\.\\.\\))+");
+
+    // Statements of the same fingerprint have the same rewritten SQL most of the time
+    private static final int MAX_CACHED_FINGERPRINTS = 5000;
+
+    private final TimingCollector delegate;
+    private final Configuration configuration;
+    private final Map<String, FingerprintStatistics> statistics = new ConcurrentHashMap<>();
+    private final Map<String, String> fingerprints = new ConcurrentHashMap<>();
+    private final LongAdder untrackedExecutions = new LongAdder();
+    private final AtomicReferenceArray<SlowStatement> slowStatements;
+    private final AtomicLong slowStatementsIndex = new AtomicLong();
+
+    public StatementStatisticsCollector() {
+        this(TimingCollector.NOP_TIMING_COLLECTOR, new Configuration());
+    }
+
+    public StatementStatisticsCollector(final TimingCollector delegate, final Configuration configuration) {
+        this.delegate = delegate;
+        this.configuration = configuration;
+        this.slowStatements = new AtomicReferenceArray<>(Math.max(1, configuration.slowStatementsBufferSize));
+    }
+
+    @Override
+    public void collect(final long elapsedTime, final StatementContext ctx) {
+        delegate.collect(elapsedTime, ctx);
+
+        final String sql = ctx.getRewrittenSql() != null ? ctx.getRewrittenSql() : ctx.getRawSql();
+        if (sql == null) {
+            return;
+        }
+
+        final String fingerprint = getFingerprint(sql);
+        final FingerprintStatistics fingerprintStatistics = getStatistics(fingerprint);
+        if (fingerprintStatistics == null) {
+            untrackedExecutions.increment();
+        } else {
+            fingerprintStatistics.record(elapsedTime, getUpdateCount(ctx));
+        }
+
+        if (elapsedTime >= configuration.slowThreshold.toNanos() &&
+            (configuration.slowSampleRate <= 1 || ThreadLocalRandom.current().nextInt(configuration.slowSampleRate) == 0)) {
+            recordSlowStatement(fingerprint, sql, elapsedTime, ctx);
+        }
+    }
+
+    private String getFingerprint(final String sql) {
+        final String cached = fingerprints.get(sql);
+        if (cached != null) {
+            return cached;
+        }
+        final String fingerprint = fingerprint(sql);
+        if (fingerprints.size() < MAX_CACHED_FINGERPRINTS) {
+            fingerprints.put(sql, fingerprint);
+        }
+        return fingerprint;
+    }
+
+    private FingerprintStatistics getStatistics(final String fingerprint) {
+        final FingerprintStatistics existing = statistics.get(fingerprint);
+        if (existing != null || statistics.size() >= configuration.maxFingerprints) {
+            return existing;
+        }
+        return statistics.computeIfAbsent(fingerprint, f -> new FingerprintStatistics());
+    }
+
+    private static long getUpdateCount(final StatementContext ctx) {
+        final PreparedStatement statement = ctx.getStatement();
+        if (statement == null) {
+            return -1;
+        }
+        try {
+            return statement.getUpdateCount();
+        } catch (final SQLException ignored) {
+            // Statement already closed
+            return -1;
+        }
+    }
+
+    private void recordSlowStatement(final String fingerprint, final String sql, final long elapsedTime, final StatementContext ctx) {
+        final Method method = ctx.getSqlObjectMethod();
+        final String sqlObjectMethod = method == null ? null : ctx.getSqlObjectType().getName() + "." + method.getName();
+        final SlowStatement slowStatement = new SlowStatement(fingerprint,
+                                                              sql,
+                                                              sqlObjectMethod,
+                                                              renderBindings(ctx.getBinding()),
+                                                              elapsedTime / 1e6,
+                                                              System.currentTimeMillis());
+        final long index = slowStatementsIndex.getAndIncrement();
+        slowStatements.set((int) (index % slowStatements.length()), slowStatement);
+    }
+
+    private String renderBindings(final Binding binding) {
+        if (binding == null) {
+            return "";
+        }
+        final StringBuilder sb = new StringBuilder();
+        for (final Entry<Integer, Argument> entry : binding.getPositionalArguments().entrySet()) {
+            final String parameter = String.valueOf(entry.getKey());
+            appendBinding(sb, parameter, entry.getValue());
+        }
+        for (final Entry<String, Argument> entry : binding.getNamedArguments().entrySet()) {
+            appendBinding(sb, entry.getKey(), entry.getValue());
+        }
+        return sb.toString();
+    }
+
+    private void appendBinding(final StringBuilder sb, final String parameter, final Argument argument) {
+        if (sb.length() > 0) {
+            sb.append(", ");
+        }
+        sb.append(parameter).append('=').append(configuration.redactor.redact(parameter, argument));
+    }
+
+    @Override
+    public List<StatementStatistics> getStatementStatistics() {
+        final List<StatementStatistics> result = new ArrayList<>(statistics.size());
+        for (final Entry<String, FingerprintStatistics> entry : statistics.entrySet()) {
+            result.add(entry.getValue().snapshot(entry.getKey()));
+        }
+        result.sort(Comparator.comparingDouble(StatementStatistics::getTotalTimeMillis).reversed());
+        return result;
+    }
+
+    @Override
+    public List<SlowStatement> getSlowStatements() {
+        final List<SlowStatement> result = new ArrayList<>();
+        final long last = slowStatementsIndex.get();
+        for (long index = last - 1; index >= 0 && index >= last - slowStatements.length(); index--) {
+            final SlowStatement slowStatement = slowStatements.get((int) (index % slowStatements.length()));
+            if (slowStatement != null) {
+                result.add(slowStatement);
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public long getUntrackedExecutions() {
+        return untrackedExecutions.sum();
+    }
+
+    @Override
+    public void reset() {
+        statistics.clear();
+        untrackedExecutions.reset();
+        for (int i = 0; i < slowStatements.length(); i++) {
+            slowStatements.set(i, null);
+        }
+    }
+
+    /**
+     * Normalize the SQL: comments removed, whitespaces collapsed, string and numeric literals replaced by <code>?</code>,
+     * lists of placeholders (e.g. <code>in (?, ?)</code>, multi-row values) collapsed.
+     */
+    @VisibleForTesting
+    static String fingerprint(final String sql) {
+        final StringBuilder sb = new StringBuilder(sql.length());
+        final int length = sql.length();
+        int i = 0;
+        while (i < length) {
+            final char c = sql.charAt(i);
+            if (c == '\'') {
+                // String literal, '' being an escaped quote
+                i++;
+                while (i < length) {
+                    if (sql.charAt(i) == '\'') {
+                        if (i + 1 < length && sql.charAt(i + 1) == '\'') {
+                            i += 2;
+                            continue;
+                        }
+                        break;
+                    }
+                    i++;
+                }
+                i++;
+                sb.append('?');
+            } else if (c == '"' || c == '`') {
+                // Quoted identifier
+                final int end = sql.indexOf(c, i + 1);
+                final int next = end == -1 ? length : end + 1;
+                sb.append(sql, i, next);
+                i = next;
+            } else if (c == '-' && i + 1 < length && sql.charAt(i + 1) == '-') {
+                final int end = sql.indexOf('\n', i);
+                i = end == -1 ? length : end;
+                sb.append(' ');
+            } else if (c == '/' && i + 1 < length && sql.charAt(i + 1) == '*') {
+                final int end = sql.indexOf("*/", i + 2);
+                i = end == -1 ? length : end + 2;
+                sb.append(' ');
+            } else if (Character.isDigit(c) && (sb.length() == 0 || !isIdentifierPart(sb.charAt(sb.length() - 1)))) {
+                while (i < length && (Character.isLetterOrDigit(sql.charAt(i)) || sql.charAt(i) == '.')) {
+                    i++;
+                }
+                sb.append('?');
+            } else {
+                sb.append(c);
+                i++;
+            }
+        }
+
+        String fingerprint = WHITESPACES.matcher(sb).replaceAll(" ").trim();
+        fingerprint = PLACEHOLDER_LIST.matcher(fingerprint).replaceAll("(...)");
+        return PLACEHOLDER_LISTS.matcher(fingerprint).replaceAll("(...), ...");
+    }
+
+    private static boolean isIdentifierPart(final char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '.';
+    }
+
+    private static final class FingerprintStatistics {
+
+        // Latency histogram: 4 buckets per power of 2 nanoseconds
+        private static final int SUB_BUCKETS_BITS = 2;
+        private static final int SUB_BUCKETS = 1 << SUB_BUCKETS_BITS;
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        private final LongAdder rows = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+        private final AtomicLongArray buckets = new AtomicLongArray(64 * SUB_BUCKETS);
+
+        private void record(final long elapsedNanos, final long updateCount) {
+            count.increment();
+            totalNanos.add(elapsedNanos);
+            if (updateCount > 0) {
+                rows.add(updateCount);
+            }
+            if (elapsedNanos > maxNanos.get()) {
+                maxNanos.accumulateAndGet(elapsedNanos, Math::max);
+            }
+            buckets.incrementAndGet(bucket(elapsedNanos));
+        }
+
+        private static int bucket(final long nanos) {
+            if (nanos < SUB_BUCKETS) {
+                return (int) Math.max(0, nanos);
+            }
+            final int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+            final int subBucket = (int) (nanos >>> (exponent - SUB_BUCKETS_BITS)) & (SUB_BUCKETS - 1);
+            return exponent * SUB_BUCKETS + subBucket;
+        }
+
+        // Upper bound of the bucket
+        private static long bucketValue(final int bucket) {
+            if (bucket < SUB_BUCKETS) {
+                return bucket;
+            }
+            final int exponent = bucket / SUB_BUCKETS;
+            final int subBucket = bucket % SUB_BUCKETS;
+            return ((long) (SUB_BUCKETS + subBucket + 1) << (exponent - SUB_BUCKETS_BITS)) - 1;
+        }
+
+        private StatementStatistics snapshot(final String fingerprint) {
+            final long executions = count.sum();
+            final long total = totalNanos.sum();
+            final long max = maxNanos.get();
+            return new StatementStatistics(fingerprint,
+                                           executions,
+                                           total / 1e6,
+                                           executions == 0 ? 0 : total / 1e6 / executions,
+                                           Math.min(max, percentile(0.99)) / 1e6,
+                                           max / 1e6,
+                                           rows.sum());
+        }
+
+        private long percentile(final double quantile) {
+            long total = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                total += buckets.get(i);
+            }
+            final long rank = (long) Math.ceil(quantile * total);
+            long seen = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                seen += buckets.get(i);
+                if (seen >= rank && seen > 0) {
+                    return bucketValue(i);
+                }
+            }
+            return 0;
+        }
+    }
+
+    public static class Configuration {
+
+        private final int maxFingerprints;
+        private final Duration slowThreshold;
+        private final int slowSampleRate;
+        private final int slowStatementsBufferSize;
+        private final BindValueRedactor redactor;
+
+        public Configuration() {
+            this(1000, Duration.ofSeconds(1), 1, 100, REDACT_ALL);
+        }
+
+        private Configuration(final int maxFingerprints,
+                              final Duration slowThreshold,
+                              final int slowSampleRate,
+                              final int slowStatementsBufferSize,
+                              final BindValueRedactor redactor) {
+            this.maxFingerprints = maxFingerprints;
+            this.slowThreshold = slowThreshold;
+            this.slowSampleRate = slowSampleRate;
+            this.slowStatementsBufferSize = slowStatementsBufferSize;
+            this.redactor = redactor;
+        }
+
+        /**
+         * @param maxFingerprints maximum number of fingerprints tracked
+         */
+        public Configuration withMaxFingerprints(final int maxFingerprints) {
+            return new Configuration(maxFingerprints, slowThreshold, slowSampleRate, slowStatementsBufferSize, redactor);
+        }
+
+        /**
+         * @param slowThreshold executions taking at least this long are sampled
+         */
+        public Configuration withSlowThreshold(final Duration slowThreshold) {
+            return new Configuration(maxFingerprints, slowThreshold, slowSampleRate, slowStatementsBufferSize, redactor);
+        }
+
+        /**
+         * @param slowSampleRate sample one slow execution out of slowSampleRate on average (1 samples all of them)
+         */
+        public Configuration withSlowSampleRate(final int slowSampleRate) {
+            return new Configuration(maxFingerprints, slowThreshold, slowSampleRate, slowStatementsBufferSize, redactor);
+        }
+
+        /**
+         * @param slowStatementsBufferSize number of slow executions kept
+         */
+        public Configuration withSlowStatementsBufferSize(final int slowStatementsBufferSize) {
+            return new Configuration(maxFingerprints, slowThreshold, slowSampleRate, slowStatementsBufferSize, redactor);
+        }
+
+        /**
+         * @param redactor how bound values are rendered (only the type of the arguments by default)
+         */
+        public Configuration withRedactor(final BindValueRedactor redactor) {
+            return new Configuration(maxFingerprints, slowThreshold, slowSampleRate, slowStatementsBufferSize, redactor);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.metrics;
+
+import java.util.List;
+
+/**
+ * JMX view of a {@link StatementStatisticsCollector}.
+ */
+public interface StatementStatisticsMXBean {
+
+    /**
+     * @return the statistics of each statement fingerprint, by decreasing total time
+     */
+    List<StatementStatistics> getStatementStatistics();
+
+    /**
+     * @return the sampled slow executions, most recent first
+     */
+    List<SlowStatement> getSlowStatements();
+
+    /**
+     * @return the number of executions whose fingerprint could not be tracked, the table being full
+     */
+    long getUntrackedExecutions();
+
+    void reset();
+}
@@ -0,0 +1,320 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.paging;
+
+import java.io.Closeable;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadFactory;
+
+import org.skife.jdbi.v2.ColumnIndexResolver;
+import org.skife.jdbi.v2.IDBI;
+import org.skife.jdbi.v2.Query;
+import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.tweak.ResultSetMapper;
+import org.skife.jdbi.v2.tweak.StatementLocator;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Scans a large table page by page using keyset pagination: each page is fetched with
+ * {@code WHERE key > :last ORDER BY key LIMIT :n}, where last is the key of the last row of the previous page. Unlike
+ * {@code LIMIT/OFFSET} paging, the database never reads the rows of the previous pages again, so every page costs the same.
+ * <p>
+ * The query is a template, located through the given {@link StatementLocator} (e.g. a {@code ST4StatementLocator}). It
+ * must reference the {@code keyset} attribute where the key predicate goes, for instance:
+ * <pre>
+ * getHistoryPage() ::= &lt;&lt;
+ * select &lt;allTableFields()&gt; from bus_events_history where &lt;keyset&gt; and search_key1 = :searchKey1
+ * &gt;&gt;
+ * </pre>
+ * The ordering and limit are appended to the rendered statement. The key column must be monotonic, unique and selected by the
+ * template. Rows are mapped with any {@link ResultSetMapper}: the key is read from the result set, next to the mapper.
+ * <p>
+ * While a page is being processed, the next one is fetched in the background (on its own connection), unless disabled.
+ */
+public class KeysetPaginator<T> {
+
+    public static final String KEYSET_ATTRIBUTE = "keyset";
+
+    private static final String LAST_KEY_PARAMETER = "keysetLast";
+    private static final String LIMIT_PARAMETER = "keysetLimit";
+
+    private static final ThreadFactory prefetchThreadFactory = Thread.ofVirtual().name("jdbi-keyset-prefetch-", 0).factory();
+    private static final Executor prefetchExecutor = runnable -> prefetchThreadFactory.newThread(runnable).start();
+
+    private final IDBI dbi;
+    private final String templateName;
+    private final String keyColumn;
+    private final String keyLabel;
+    private final ResultSetMapper<T> mapper;
+    private final Configuration configuration;
+    private final PageStatementLocator firstPageLocator;
+    private final PageStatementLocator nextPageLocator;
+
+    public KeysetPaginator(final IDBI dbi,
+                           final StatementLocator locator,
+                           final String templateName,
+                           final String keyColumn,
+                           final ResultSetMapper<T> mapper) {
+        this(dbi, locator, templateName, keyColumn, mapper, new Configuration());
+    }
+
+    /**
+     * @param dbi          dbi to fetch the pages from
+     * @param locator      locator of the template
+     * @param templateName name of the template
+     * @param keyColumn    key column, as used in the predicate (e.g. {@code t.record_id})
+     * @param mapper       mapper of the rows
+     * @param configuration paging configuration
+     */
+    public KeysetPaginator(final IDBI dbi,
+                           final StatementLocator locator,
+                           final String templateName,
+                           final String keyColumn,
+                           final ResultSetMapper<T> mapper,
+                           final Configuration configuration) {
+        this.dbi = dbi;
+        this.templateName = templateName;
+        this.keyColumn = keyColumn;
+        // Label of the key in the result set
+        this.keyLabel = keyColumn.substring(keyColumn.lastIndexOf('.') + 1);
+        this.mapper = mapper;
+        this.configuration = configuration;
+        this.firstPageLocator = new PageStatementLocator(locator, "1 = 1");
+        this.nextPageLocator = new PageStatementLocator(locator, keyColumn + " > :" + LAST_KEY_PARAMETER);
+    }
+
+    /**
+     * Scan the whole table
+     *
+     * @param parameters parameters bound to each page query (in addition to the keyset ones)
+     * @return the pages, to be closed if not fully iterated
+     */
+    public Pages pages(final Map<String, ?> parameters) {
+        return pages(null, parameters);
+    }
+
+    /**
+     * Resume a scan
+     *
+     * @param startAfter only rows with a greater key are returned (null to scan the whole table)
+     * @param parameters parameters bound to each page query (in addition to the keyset ones)
+     * @return the pages, to be closed if not fully iterated
+     */
+    public Pages pages(@Nullable final Object startAfter, final Map<String, ?> parameters) {
+        return new Pages(startAfter, parameters);
+    }
+
+    private Page<T> fetchPage(@Nullable final Object lastKey, final Map<String, ?> parameters) {
+        return dbi.withHandle(handle -> {
+            final PageMapper<T> pageMapper = new PageMapper<>(mapper, keyLabel);
+            final Query<T> query = handle.createQuery(templateName)
+                                         .bindFromMap(parameters)
+                                         .bind(LIMIT_PARAMETER, configuration.pageSize)
+                                         .map(pageMapper);
+            if (lastKey == null) {
+                query.setStatementLocator(firstPageLocator);
+            } else {
+                query.setStatementLocator(nextPageLocator);
+                query.bind(LAST_KEY_PARAMETER, lastKey);
+            }
+            query.define(KEYSET_ATTRIBUTE, lastKey == null ? firstPageLocator.predicate : nextPageLocator.predicate);
+
+            final List<T> rows = query.list();
+            return new Page<>(rows, pageMapper.lastKey);
+        });
+    }
+
+    /**
+     * Iterator over the pages of a scan. Pages are never empty: iteration stops after a partial page.
+     */
+    public final class Pages implements Iterator<List<T>>, Closeable {
+
+        private final Map<String, ?> parameters;
+
+        private Object lastKey;
+        private boolean done;
+        private CompletableFuture<Page<T>> next;
+
+        private Pages(@Nullable final Object startAfter, final Map<String, ?> parameters) {
+            this.lastKey = startAfter;
+            this.parameters = parameters == null ? Collections.emptyMap() : parameters;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (done) {
+                return false;
+            }
+            if (next == null) {
+                next = CompletableFuture.completedFuture(fetchPage(lastKey, parameters));
+            }
+            if (awaitNext().rows.isEmpty()) {
+                close();
+                return false;
+            }
+            return true;
+        }
+
+        @Override
+        public List<T> next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final Page<T> page = awaitNext();
+            next = null;
+            lastKey = page.lastKey;
+            if (page.rows.size() < configuration.pageSize) {
+                done = true;
+            } else if (configuration.prefetch) {
+                final Object key = lastKey;
+                next = CompletableFuture.supplyAsync(() -> fetchPage(key, parameters), prefetchExecutor);
+            }
+            return page.rows;
+        }
+
+        /**
+         * @return key of the last row returned, to resume the scan later (see {@link #pages(Object, Map)})
+         */
+        @Nullable
+        public Object getLastKey() {
+            return lastKey;
+        }
+
+        @Override
+        public void close() {
+            done = true;
+            if (next != null) {
+                next.cancel(false);
+                next = null;
+            }
+        }
+
+        private Page<T> awaitNext() {
+            try {
+                return next.join();
+            } catch (final CompletionException e) {
+                // Failure of the prefetch: report it as if the page had been fetched synchronously
+                next = null;
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            } catch (final CancellationException e) {
+                throw new IllegalStateException("The scan is closed", e);
+            }
+        }
+    }
+
+    private static final class Page<T> {
+
+        private final List<T> rows;
+        private final Object lastKey;
+
+        private Page(final List<T> rows, @Nullable final Object lastKey) {
+            this.rows = rows;
+            this.lastKey = lastKey;
+        }
+    }
+
+    private static final class PageMapper<T> implements ResultSetMapper<T> {
+
+        private final ResultSetMapper<T> delegate;
+        private final String keyLabel;
+
+        private Object lastKey;
+
+        private PageMapper(final ResultSetMapper<T> delegate, final String keyLabel) {
+            this.delegate = delegate;
+            this.keyLabel = keyLabel;
+        }
+
+        @Override
+        public T map(final int index, final ResultSet r, final StatementContext ctx) throws SQLException {
+            final int keyIndex = ColumnIndexResolver.forResultSet(r, ctx).indexOf(keyLabel);
+            if (keyIndex < 0) {
+                throw new IllegalArgumentException(String.format("The keyset pagination key %s must be selected", keyLabel));
+            }
+            lastKey = r.getObject(keyIndex);
+            return delegate.map(index, r, ctx);
+        }
+    }
+
+    // Appends the keyset ordering and limit to the located template
+    private final class PageStatementLocator implements StatementLocator {
+
+        private final StatementLocator delegate;
+        private final String predicate;
+
+        private PageStatementLocator(final StatementLocator delegate, final String predicate) {
+            this.delegate = delegate;
+            this.predicate = predicate;
+        }
+
+        @Override
+        public String locate(final String name, final StatementContext ctx) throws Exception {
+            String sql = delegate.locate(name, ctx).trim();
+            if (!sql.contains(predicate)) {
+                throw new IllegalArgumentException(String.format("Template %s must reference the <%s> attribute", name, KEYSET_ATTRIBUTE));
+            }
+            if (sql.endsWith(";")) {
+                sql = sql.substring(0, sql.length() - 1);
+            }
+            return sql + " order by " + keyColumn + " limit :" + LIMIT_PARAMETER;
+        }
+    }
+
+    public static class Configuration {
+
+        private final int pageSize;
+        private final boolean prefetch;
+
+        public Configuration() {
+            this(1000, true);
+        }
+
+        private Configuration(final int pageSize, final boolean prefetch) {
+            this.pageSize = Math.max(1, pageSize);
+            this.prefetch = prefetch;
+        }
+
+        /**
+         * @param pageSize maximum number of rows per page
+         */
+        public Configuration withPageSize(final int pageSize) {
+            return new Configuration(pageSize, prefetch);
+        }
+
+        /**
+         * @param prefetch whether to fetch the next page in the background while the current one is processed
+         */
+        public Configuration withPrefetch(final boolean prefetch) {
+            return new Configuration(pageSize, prefetch);
+        }
+    }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.statement;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.killbill.commons.jdbi.statement.ConnectionStatementCache.CachedStatement;
+import org.killbill.commons.jdbi.statement.ConnectionStatementCache.StatementKey;
+import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.tweak.StatementBuilder;
+
+// One per handle (see ConnectionCachingStatementBuilderFactory): statements are prepared on the physical connection,
+// below the pool proxy, so that they outlive the handle
+final class ConnectionCachingStatementBuilder implements StatementBuilder {
+
+    private final PhysicalConnection connection;
+    private final ConnectionStatementCache cache;
+    private final LongAdder hits;
+    private final LongAdder misses;
+    private final Map<Statement, CachedStatement> checkedOutStatements = new IdentityHashMap<>();
+
+    ConnectionCachingStatementBuilder(final PhysicalConnection connection,
+                                      final ConnectionStatementCache cache,
+                                      final LongAdder hits,
+                                      final LongAdder misses) {
+        this.connection = connection;
+        this.cache = cache;
+        this.hits = hits;
+        this.misses = misses;
+    }
+
+    @Override
+    public PreparedStatement create(final Connection conn, final String sql, final String[] columnNames, final StatementContext ctx) throws SQLException {
+        final StatementKey key = new StatementKey(sql, ctx.isReturningGeneratedKeys(), columnNames);
+
+        CachedStatement cachedStatement = cache.checkout(key);
+        if (cachedStatement != null) {
+            hits.increment();
+        } else {
+            misses.increment();
+            cachedStatement = new CachedStatement(key, prepare(key));
+        }
+
+        checkedOutStatements.put(cachedStatement.getStatement(), cachedStatement);
+        return cachedStatement.getStatement();
+    }
+
+    @Override
+    public void close(final Connection conn, final String sql, final Statement stmt) throws SQLException {
+        final CachedStatement cachedStatement = checkedOutStatements.remove(stmt);
+        if (cachedStatement == null) {
+            if (stmt != null) {
+                stmt.close();
+            }
+        } else if (cachedStatement.reset()) {
+            cache.checkin(cachedStatement);
+        } else {
+            cachedStatement.close();
+        }
+    }
+
+    @Override
+    public void close(final Connection conn) {
+        // Statements still in use (e.g. results not fully iterated) aren't reused; idle ones stay with the physical connection
+        for (final CachedStatement cachedStatement : checkedOutStatements.values()) {
+            cachedStatement.close();
+        }
+        checkedOutStatements.clear();
+    }
+
+    @Override
+    public CallableStatement createCall(final Connection conn, final String sql, final StatementContext ctx) throws SQLException {
+        return conn.prepareCall(sql);
+    }
+
+    private PreparedStatement prepare(final StatementKey key) throws SQLException {
+        if (key.isReturningGeneratedKeys()) {
+            final String[] columnNames = key.getColumnNames();
+            if (columnNames != null) {
+                return connection.prepareStatement(key.getSql(), columnNames);
+            } else {
+                return connection.prepareStatement(key.getSql(), Statement.RETURN_GENERATED_KEYS);
+            }
+        } else {
+            return connection.prepareStatement(key.getSql());
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.statement;
+
+import java.sql.Connection;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.utils.annotation.VisibleForTesting;
+import org.skife.jdbi.v2.DefaultStatementBuilder;
+import org.skife.jdbi.v2.tweak.StatementBuilder;
+import org.skife.jdbi.v2.tweak.StatementBuilderFactory;
+
+import jakarta.annotation.Nullable;
+
+/**
+ * Caches prepared statements on the physical pooled connections, with a bounded LRU, so that they survive across
+ * the short-lived handles (e.g. on-demand sql objects) using the same physical connection.
+ * <p>
+ * The pool has to open its connections through a {@link StatementCachingDataSource} (see {@code DataSourceProvider}): each
+ * physical connection then gets a bounded LRU of idle statements, keyed by SQL and generated keys mode, closed when the
+ * pool closes the connection. Statements are checked out while in use (a statement executed again while its results are
+ * iterated gets its own instance), reset (parameters, batch, fetch size, max rows, timeout) when handed back and closed
+ * when evicted. Handles on other connections don't cache statements.
+ * <p>
+ * Statements are prepared on the physical connection, unwrapped from the pool proxy: the pool doesn't see them, so it
+ * neither closes them when the connection is returned nor inspects their errors to evict broken connections (these are
+ * still caught by the validation on checkout), and doesn't know about the work done through them when the connection
+ * is returned: handles have to end their transactions before being closed, as the jdbi transaction handlers do.
+ * <p>
+ * Most useful for drivers without client-side statement caching (e.g. MariaDB, PostgreSQL).
+ */
+public class ConnectionCachingStatementBuilderFactory implements StatementBuilderFactory {
+
+    public static final int DEFAULT_MAX_STATEMENTS_PER_CONNECTION = 250;
+
+    private final int maxStatementsPerConnection;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder untrackedConnections = new LongAdder();
+    private final AtomicInteger nbCachedConnections = new AtomicInteger();
+
+    /**
+     * @param name           name of the factory in the metrics (e.g. the pool name)
+     * @param metricRegistry registry for the hits, misses, evictions and cached connections gauges, may be null
+     */
+    public ConnectionCachingStatementBuilderFactory(final String name, @Nullable final MetricRegistry metricRegistry) {
+        this(name, DEFAULT_MAX_STATEMENTS_PER_CONNECTION, metricRegistry);
+    }
+
+    public ConnectionCachingStatementBuilderFactory(final String name, final int maxStatementsPerConnection, @Nullable final MetricRegistry metricRegistry) {
+        this.maxStatementsPerConnection = maxStatementsPerConnection;
+        if (metricRegistry == null) {
+            return;
+        }
+
+        final String metricPrefix = "jdbi.statementCache." + name;
+        metricRegistry.gauge(metricPrefix + ".hits", hits::sum);
+        metricRegistry.gauge(metricPrefix + ".misses", misses::sum);
+        metricRegistry.gauge(metricPrefix + ".evictions", evictions::sum);
+        metricRegistry.gauge(metricPrefix + ".untrackedConnections", untrackedConnections::sum);
+        metricRegistry.gauge(metricPrefix + ".connections", nbCachedConnections::get);
+    }
+
+    @Override
+    public StatementBuilder createStatementBuilder(final Connection conn) {
+        final PhysicalConnection physicalConnection = PhysicalConnection.of(conn);
+        final ConnectionStatementCache cache = physicalConnection == null ?
+                                               null :
+                                               physicalConnection.getStatementCache(() -> new ConnectionStatementCache(maxStatementsPerConnection, evictions, nbCachedConnections));
+        if (cache == null) {
+            // Not opened through a StatementCachingDataSource (or already closed)
+            untrackedConnections.increment();
+            return new DefaultStatementBuilder();
+        }
+
+        return new ConnectionCachingStatementBuilder(physicalConnection, cache, hits, misses);
+    }
+
+    @VisibleForTesting
+    long getHits() {
+        return hits.sum();
+    }
+
+    @VisibleForTesting
+    long getMisses() {
+        return misses.sum();
+    }
+
+    @VisibleForTesting
+    long getEvictions() {
+        return evictions.sum();
+    }
+
+    @VisibleForTesting
+    long getUntrackedConnections() {
+        return untrackedConnections.sum();
+    }
+
+    @VisibleForTesting
+    int getNbCachedConnections() {
+        return nbCachedConnections.get();
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.statement;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+// Idle statements of a physical connection, least recently used first.
+// Synchronized since the connection is used by one handle at a time, but closed by the pool threads.
+final class ConnectionStatementCache {
+
+    private final LinkedHashMap<StatementKey, CachedStatement> idleStatements = new LinkedHashMap<>(16, 0.75f, true);
+    private final int maxStatements;
+    private final LongAdder evictions;
+    private final AtomicInteger nbCaches;
+
+    private boolean closed = false;
+
+    ConnectionStatementCache(final int maxStatements, final LongAdder evictions, final AtomicInteger nbCaches) {
+        this.maxStatements = maxStatements;
+        this.evictions = evictions;
+        this.nbCaches = nbCaches;
+        nbCaches.incrementAndGet();
+    }
+
+    synchronized CachedStatement checkout(final StatementKey key) {
+        final CachedStatement cachedStatement = idleStatements.remove(key);
+        if (cachedStatement != null && cachedStatement.isClosed()) {
+            // Connection closed underneath
+            return null;
+        }
+        return cachedStatement;
+    }
+
+    synchronized void checkin(final CachedStatement cachedStatement) {
+        if (closed || maxStatements <= 0 || idleStatements.containsKey(cachedStatement.key)) {
+            cachedStatement.close();
+            return;
+        }
+
+        idleStatements.put(cachedStatement.key, cachedStatement);
+        final Iterator<CachedStatement> iterator = idleStatements.values().iterator();
+        while (idleStatements.size() > maxStatements && iterator.hasNext()) {
+            final CachedStatement eldest = iterator.next();
+            iterator.remove();
+            eldest.close();
+            evictions.increment();
+        }
+    }
+
+    // Called when the physical connection is closed
+    synchronized void close() {
+        for (final CachedStatement cachedStatement : idleStatements.values()) {
+            cachedStatement.close();
+        }
+        discard();
+    }
+
+    // Called when the physical connection is aborted: its statements go away with it
+    synchronized void discard() {
+        idleStatements.clear();
+        if (!closed) {
+            closed = true;
+            nbCaches.decrementAndGet();
+        }
+    }
+
+    synchronized int size() {
+        return idleStatements.size();
+    }
+
+    static final class StatementKey {
+
+        private final String sql;
+        private final boolean returningGeneratedKeys;
+        private final String[] columnNames;
+        private final int hashCode;
+
+        StatementKey(final String sql, final boolean returningGeneratedKeys, final String[] columnNames) {
+            this.sql = sql;
+            this.returningGeneratedKeys = returningGeneratedKeys;
+            this.columnNames = returningGeneratedKeys && columnNames != null && columnNames.length > 0 ? columnNames.clone() : null;
+            this.hashCode = 31 * (31 * sql.hashCode() + Boolean.hashCode(returningGeneratedKeys)) + Arrays.hashCode(this.columnNames);
+        }
+
+        String getSql() {
+            return sql;
+        }
+
+        boolean isReturningGeneratedKeys() {
+            return returningGeneratedKeys;
+        }
+
+        String[] getColumnNames() {
+            return columnNames == null ? null : columnNames.clone();
+        }
+
+        @Override
+        public boolean equals(final Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            final StatementKey that = (StatementKey) o;
+            return returningGeneratedKeys == that.returningGeneratedKeys &&
+                   sql.equals(that.sql) &&
+                   Arrays.equals(columnNames, that.columnNames);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    static final class CachedStatement {
+
+        private final StatementKey key;
+        private final PreparedStatement statement;
+        // Settings statement customizers may change (e.g. SmartFetchSize), restored on checkin
+        private final int fetchSize;
+        private final int fetchDirection;
+        private final int maxRows;
+        private final int maxFieldSize;
+        private final int queryTimeout;
+
+        CachedStatement(final StatementKey key, final PreparedStatement statement) throws SQLException {
+            this.key = key;
+            this.statement = statement;
+            this.fetchSize = statement.getFetchSize();
+            this.fetchDirection = statement.getFetchDirection();
+            this.maxRows = statement.getMaxRows();
+            this.maxFieldSize = statement.getMaxFieldSize();
+            this.queryTimeout = statement.getQueryTimeout();
+        }
+
+        PreparedStatement getStatement() {
+            return statement;
+        }
+
+        // Returns false if the statement cannot be reused
+        boolean reset() {
+            try {
+                statement.clearParameters();
+                statement.clearBatch();
+                statement.clearWarnings();
+                if (statement.getFetchSize() != fetchSize) {
+                    statement.setFetchSize(fetchSize);
+                }
+                if (statement.getFetchDirection() != fetchDirection) {
+                    statement.setFetchDirection(fetchDirection);
+                }
+                if (statement.getMaxRows() != maxRows) {
+                    statement.setMaxRows(maxRows);
+                }
+                if (statement.getMaxFieldSize() != maxFieldSize) {
+                    statement.setMaxFieldSize(maxFieldSize);
+                }
+                if (statement.getQueryTimeout() != queryTimeout) {
+                    statement.setQueryTimeout(queryTimeout);
+                }
+                return true;
+            } catch (final SQLException e) {
+                return false;
+            }
+        }
+
+        boolean isClosed() {
+            try {
+                return statement.isClosed();
+            } catch (final SQLException e) {
+                return true;
+            }
+        }
+
+        void close() {
+            try {
+                statement.close();
+            } catch (final SQLException ignored) {
+                // nothing we can do!
+            }
+        }
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.statement;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+import org.killbill.commons.jdbi.DelegatingConnection;
+
+// Physical connection opened by the StatementCachingDataSource, below the pool proxies: its statements cache lives
+// as long as the connection. Used by one handle at a time, but closed by the pool threads.
+final class PhysicalConnection extends DelegatingConnection {
+
+    private ConnectionStatementCache statementCache;
+    private boolean closed = false;
+
+    PhysicalConnection(final Connection delegate) {
+        super(delegate);
+    }
+
+    // Null if the connection doesn't come from a StatementCachingDataSource
+    static PhysicalConnection of(final Connection connection) {
+        try {
+            return connection.isWrapperFor(PhysicalConnection.class) ? connection.unwrap(PhysicalConnection.class) : null;
+        } catch (final SQLException e) {
+            return null;
+        }
+    }
+
+    // Null once the connection is closed
+    synchronized ConnectionStatementCache getStatementCache(final Supplier<ConnectionStatementCache> cacheSupplier) {
+        if (statementCache == null && !closed) {
+            statementCache = cacheSupplier.get();
+        }
+        return statementCache;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        final ConnectionStatementCache cache = dropStatementCache();
+        if (cache != null) {
+            cache.close();
+        }
+        super.close();
+    }
+
+    @Override
+    public void abort(final Executor executor) throws SQLException {
+        final ConnectionStatementCache cache = dropStatementCache();
+        if (cache != null) {
+            // Statements go away with the connection, don't wait on them
+            cache.discard();
+        }
+        super.abort(executor);
+    }
+
+    private synchronized ConnectionStatementCache dropStatementCache() {
+        closed = true;
+        final ConnectionStatementCache cache = statementCache;
+        statementCache = null;
+        return cache;
+    }
+}
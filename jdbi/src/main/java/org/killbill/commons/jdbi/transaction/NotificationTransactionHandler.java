@@ -36,6 +36,10 @@ public class NotificationTransactionHandler extends DelegatingTransactionHandler
 
     private static final Logger logger = LoggerFactory.getLogger(NotificationTransactionHandler.class);
 
+    // Events are immutable: no need for a new one per transaction
+    private static final DatabaseTransactionEvent COMMIT_EVENT = new DatabaseTransactionEvent(DatabaseTransactionEventType.COMMIT);
+    private static final DatabaseTransactionEvent ROLLBACK_EVENT = new DatabaseTransactionEvent(DatabaseTransactionEventType.ROLLBACK);
+
     private final DatabaseTransactionNotificationApi transactionNotificationApi;
 
     public NotificationTransactionHandler(final DatabaseTransactionNotificationApi transactionNotificationApi) {
@@ -45,12 +49,12 @@ public class NotificationTransactionHandler extends DelegatingTransactionHandler
 
     public void commit(final Handle handle) {
         getDelegate().commit(handle);
-        dispatchEvent(new DatabaseTransactionEvent(DatabaseTransactionEventType.COMMIT));
+        dispatchEvent(COMMIT_EVENT);
     }
 
     public void rollback(final Handle handle) {
         getDelegate().rollback(handle);
-        dispatchEvent(new DatabaseTransactionEvent(DatabaseTransactionEventType.ROLLBACK));
+        dispatchEvent(ROLLBACK_EVENT);
     }
 
     private void dispatchEvent(final DatabaseTransactionEvent event) {
@@ -19,11 +19,18 @@
 
 package org.killbill.commons.jdbi.transaction;
 
+import java.lang.reflect.Method;
 import java.sql.SQLException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
 
+import org.killbill.commons.metrics.api.MetricRegistry;
 import org.skife.jdbi.v2.Handle;
 import org.skife.jdbi.v2.TransactionCallback;
 import org.skife.jdbi.v2.TransactionIsolationLevel;
+import org.skife.jdbi.v2.sqlobject.SqlObjectTransactionCallback;
 import org.skife.jdbi.v2.tweak.TransactionHandler;
 import org.skife.jdbi.v2.tweak.transactions.DelegatingTransactionHandler;
 import org.slf4j.Logger;
@@ -34,6 +41,12 @@ import org.slf4j.LoggerFactory;
  * serialization failures or innodb wait lock timeout, which can generally be resolved by automatically
  * retrying the transaction.  Any TransactionCallback used under this runner
  * should be aware that it may be invoked multiple times.
+ * <p>
+ * Retries are spaced by an exponential backoff with jitter, so that transactions involved in the same deadlock
+ * don't collide again right away, and are bounded both in number and in total time (see {@link Configuration}).
+ * When a metric registry is configured, the retries and give-ups are counted per sql object method
+ * (<code>jdbi.transaction.retries.&lt;type&gt;.&lt;method&gt;</code> and <code>jdbi.transaction.giveUps.&lt;type&gt;.&lt;method&gt;</code>,
+ * <code>handle</code> for transactions not opened by a {@link org.skife.jdbi.v2.sqlobject.Transaction} method).
  */
 public class RestartTransactionRunner extends DelegatingTransactionHandler implements TransactionHandler {
 
@@ -42,6 +55,10 @@ public class RestartTransactionRunner extends DelegatingTransactionHandler imple
     private static final String SQLSTATE_TXN_SERIALIZATION_FAILED = "40001";
     private static final String SQLSTATE_INNODB_WAIT_LOCK_TIMEOUT_EXCEEDED = "41000";
 
+    private static final String METRIC_PREFIX_RETRIES = "jdbi.transaction.retries.";
+    private static final String METRIC_PREFIX_GIVE_UPS = "jdbi.transaction.giveUps.";
+    private static final String HANDLE_TRANSACTION = "handle";
+
     private final Configuration configuration;
 
     public RestartTransactionRunner(final TransactionHandler delegate) {
@@ -55,21 +72,44 @@ public class RestartTransactionRunner extends DelegatingTransactionHandler imple
 
     @Override
     public <ReturnType> ReturnType inTransaction(final Handle handle, final TransactionCallback<ReturnType> callback) {
-        int retriesRemaining = configuration.maxRetries;
+        final long start = System.nanoTime();
+        int attempts = 0;
 
         while (true) {
             try {
                 return getDelegate().inTransaction(handle, callback);
             } catch (final RuntimeException e) {
-                if (!isSqlState(configuration.serializationFailureSqlStates, e) || --retriesRemaining <= 0) {
+                attempts++;
+
+                final int maxAttempts = getMaxRetries(e);
+                if (maxAttempts <= 0) {
+                    // Not a transient failure
+                    throw e;
+                }
+
+                final long backoffMillis = computeBackoffMillis(attempts);
+                final long elapsedMillis = (System.nanoTime() - start) / 1000000L;
+                if (attempts >= maxAttempts || elapsedMillis + backoffMillis > configuration.maxTotalTime.toMillis()) {
+                    markGiveUp(callback);
                     throw e;
                 }
 
                 if (e.getCause() instanceof SQLException) {
                     final String sqlState = ((SQLException) e.getCause()).getSQLState();
-                    log.warn("Restarting transaction due to SQLState {}, retries remaining {}", sqlState, retriesRemaining);
+                    log.warn("Restarting transaction due to SQLState {} in {} ms, retries remaining {}", sqlState, backoffMillis, maxAttempts - attempts);
                 } else {
-                    log.warn("Restarting transaction due to {}, retries remaining {}", e.toString(), retriesRemaining);
+                    log.warn("Restarting transaction due to {} in {} ms, retries remaining {}", e.toString(), backoffMillis, maxAttempts - attempts);
+                }
+                markRetry(callback);
+
+                if (backoffMillis > 0) {
+                    try {
+                        sleep(backoffMillis);
+                    } catch (final InterruptedException ie) {
+                        Thread.currentThread().interrupt();
+                        markGiveUp(callback);
+                        throw e;
+                    }
                 }
             }
         }
@@ -110,26 +150,152 @@ public class RestartTransactionRunner extends DelegatingTransactionHandler imple
         return false;
     }
 
+    protected void sleep(final long millis) throws InterruptedException {
+        Thread.sleep(millis);
+    }
+
+    // Maximum number of attempts for that failure (0 if it shouldn't be retried)
+    private int getMaxRetries(final Throwable failure) {
+        if (!configuration.exceptionRules.isEmpty()) {
+            Throwable throwable = failure;
+            do {
+                for (final Map.Entry<Class<? extends Throwable>, Integer> rule : configuration.exceptionRules.entrySet()) {
+                    if (rule.getKey().isInstance(throwable)) {
+                        return rule.getValue();
+                    }
+                }
+            } while ((throwable = throwable.getCause()) != null);
+        }
+
+        return isSqlState(configuration.serializationFailureSqlStates, failure) ? configuration.maxRetries : 0;
+    }
+
+    private long computeBackoffMillis(final int attempts) {
+        final double exponentialMillis = configuration.initialBackoff.toMillis() * Math.pow(configuration.backoffMultiplier, attempts - 1);
+        final long backoffMillis = (long) Math.min(exponentialMillis, configuration.maxBackoff.toMillis());
+        if (backoffMillis <= 0 || configuration.jitter <= 0) {
+            return Math.max(0, backoffMillis);
+        }
+        // Randomly shorten the backoff by up to jitter * backoff
+        return backoffMillis - (long) (backoffMillis * configuration.jitter * ThreadLocalRandom.current().nextDouble());
+    }
+
+    private void markRetry(final TransactionCallback<?> callback) {
+        if (configuration.metricRegistry != null) {
+            configuration.metricRegistry.counter(METRIC_PREFIX_RETRIES + getTransactionName(callback)).inc(1);
+        }
+    }
+
+    private void markGiveUp(final TransactionCallback<?> callback) {
+        if (configuration.metricRegistry != null) {
+            configuration.metricRegistry.counter(METRIC_PREFIX_GIVE_UPS + getTransactionName(callback)).inc(1);
+        }
+    }
+
+    private static String getTransactionName(final TransactionCallback<?> callback) {
+        if (callback instanceof SqlObjectTransactionCallback) {
+            final Method method = ((SqlObjectTransactionCallback<?>) callback).getSqlObjectMethod();
+            return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+        return HANDLE_TRANSACTION;
+    }
+
     public static class Configuration {
 
         private final int maxRetries;
         private final String[] serializationFailureSqlStates;
+        private final Duration initialBackoff;
+        private final Duration maxBackoff;
+        private final double backoffMultiplier;
+        private final double jitter;
+        private final Duration maxTotalTime;
+        private final Map<Class<? extends Throwable>, Integer> exceptionRules;
+        private final MetricRegistry metricRegistry;
 
         public Configuration() {
-            this(5, new String[]{SQLSTATE_TXN_SERIALIZATION_FAILED, SQLSTATE_INNODB_WAIT_LOCK_TIMEOUT_EXCEEDED});
+            this(5,
+                 new String[]{SQLSTATE_TXN_SERIALIZATION_FAILED, SQLSTATE_INNODB_WAIT_LOCK_TIMEOUT_EXCEEDED},
+                 Duration.ofMillis(10),
+                 Duration.ofSeconds(1),
+                 2,
+                 0.5,
+                 Duration.ofSeconds(30),
+                 new LinkedHashMap<>(),
+                 null);
         }
 
-        private Configuration(final int maxRetries, final String[] serializationFailureSqlStates) {
+        private Configuration(final int maxRetries,
+                              final String[] serializationFailureSqlStates,
+                              final Duration initialBackoff,
+                              final Duration maxBackoff,
+                              final double backoffMultiplier,
+                              final double jitter,
+                              final Duration maxTotalTime,
+                              final Map<Class<? extends Throwable>, Integer> exceptionRules,
+                              final MetricRegistry metricRegistry) {
             this.maxRetries = maxRetries;
             this.serializationFailureSqlStates = serializationFailureSqlStates;
+            this.initialBackoff = initialBackoff;
+            this.maxBackoff = maxBackoff;
+            this.backoffMultiplier = backoffMultiplier;
+            this.jitter = jitter;
+            this.maxTotalTime = maxTotalTime;
+            this.exceptionRules = exceptionRules;
+            this.metricRegistry = metricRegistry;
         }
 
+        /**
+         * @param maxRetries maximum number of attempts of a transaction
+         */
         public Configuration withMaxRetries(final int maxRetries) {
-            return new Configuration(maxRetries, serializationFailureSqlStates);
+            return new Configuration(maxRetries, serializationFailureSqlStates, initialBackoff, maxBackoff, backoffMultiplier, jitter, maxTotalTime, exceptionRules, metricRegistry);
         }
 
         public Configuration withSerializationFailureSqlState(final String[] serializationFailureSqlState) {
-            return new Configuration(maxRetries, serializationFailureSqlState);
+            return new Configuration(maxRetries, serializationFailureSqlState, initialBackoff, maxBackoff, backoffMultiplier, jitter, maxTotalTime, exceptionRules, metricRegistry);
+        }
+
+        /**
+         * @param initialBackoff    pause before the first retry (zero to retry immediately)
+         * @param maxBackoff        upper bound of the pause between two attempts
+         * @param backoffMultiplier growth factor of the pause after each retry
+         */
+        public Configuration withBackoff(final Duration initialBackoff, final Duration maxBackoff, final double backoffMultiplier) {
+            return new Configuration(maxRetries, serializationFailureSqlStates, initialBackoff, maxBackoff, backoffMultiplier, jitter, maxTotalTime, exceptionRules, metricRegistry);
+        }
+
+        /**
+         * @param jitter share of each pause, in [0, 1], which is randomly cut (0 disables the jitter)
+         */
+        public Configuration withJitter(final double jitter) {
+            return new Configuration(maxRetries, serializationFailureSqlStates, initialBackoff, maxBackoff, backoffMultiplier, Math.max(0, Math.min(1, jitter)), maxTotalTime, exceptionRules, metricRegistry);
+        }
+
+        /**
+         * @param maxTotalTime give up when the next retry would start after that time (measured from the first attempt)
+         */
+        public Configuration withMaxTotalTime(final Duration maxTotalTime) {
+            return new Configuration(maxRetries, serializationFailureSqlStates, initialBackoff, maxBackoff, backoffMultiplier, jitter, maxTotalTime, exceptionRules, metricRegistry);
+        }
+
+        /**
+         * Retry transactions failing with that exception (or caused by it), regardless of its SQLState. Rules are
+         * evaluated in order, before the SQLState check.
+         *
+         * @param exceptionClass the exception class (subclasses match as well)
+         * @param maxRetries     maximum number of attempts of a transaction failing with that exception (0 to never retry it)
+         */
+        public Configuration withExceptionRule(final Class<? extends Throwable> exceptionClass, final int maxRetries) {
+            final Map<Class<? extends Throwable>, Integer> rules = new LinkedHashMap<>(exceptionRules);
+            rules.put(exceptionClass, maxRetries);
+            return new Configuration(this.maxRetries, serializationFailureSqlStates, initialBackoff, maxBackoff, backoffMultiplier, jitter, maxTotalTime, rules, metricRegistry);
+        }
+
+        /**
+         * @param metricRegistry registry to count the retries and give-ups in
+         */
+        public Configuration withMetricRegistry(final MetricRegistry metricRegistry) {
+            return new Configuration(maxRetries, serializationFailureSqlStates, initialBackoff, maxBackoff, backoffMultiplier, jitter, maxTotalTime, exceptionRules, metricRegistry);
         }
     }
 }
@@ -31,9 +31,12 @@ import org.skife.jdbi.v2.tweak.StatementCustomizer;
 import org.skife.jdbi.v2.tweak.StatementLocator;
 import org.skife.jdbi.v2.tweak.StatementRewriter;
 import org.skife.jdbi.v2.tweak.TransactionHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import java.sql.Connection;
 import java.sql.SQLException;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -41,7 +44,9 @@ import java.util.Map;
 
 class BasicHandle implements Handle
 {
+    private static final Logger LOG = LoggerFactory.getLogger(BasicHandle.class);
     private static final DefaultMapper DEFAULT_MAPPER = new DefaultMapper();
+    private static final TransactionListener[] NO_TRANSACTION_LISTENERS = new TransactionListener[0];
 
     private StatementRewriter statementRewriter;
     private StatementLocator  statementLocator;
@@ -51,6 +56,10 @@ class BasicHandle implements Handle
 
     private boolean closed = false;
 
+    // Per transaction: most transactions have no listener, and a couple at most
+    private Object                transactionState;
+    private TransactionListener[] transactionListeners = NO_TRANSACTION_LISTENERS;
+
     private final Map<String, Object>      globalStatementAttributes;
     private final MappingRegistry          mappingRegistry;
     private final ContainerFactoryRegistry containerFactoryRegistry;
@@ -164,6 +173,7 @@ class BasicHandle implements Handle
         final long start = System.nanoTime();
         transactions.commit(this);
         log.logCommitTransaction((System.nanoTime() - start) / 1000000L, this);
+        notifyTransactionListeners(true);
         return this;
     }
 
@@ -174,7 +184,13 @@ class BasicHandle implements Handle
     public Handle rollback()
     {
         final long start = System.nanoTime();
-        transactions.rollback(this);
+        try {
+            transactions.rollback(this);
+        }
+        finally {
+            // The transaction is over, even if the rollback failed
+            notifyTransactionListeners(false);
+        }
         log.logRollbackTransaction((System.nanoTime() - start) / 1000000L, this);
         return this;
     }
@@ -251,6 +267,49 @@ class BasicHandle implements Handle
         return transactions.isInTransaction(this);
     }
 
+    @Override
+    public void addTransactionListener(TransactionListener listener)
+    {
+        final int count = transactionListeners.length;
+        transactionListeners = Arrays.copyOf(transactionListeners, count + 1);
+        transactionListeners[count] = listener;
+    }
+
+    @Override
+    public Object getTransactionState()
+    {
+        return transactionState;
+    }
+
+    @Override
+    public void setTransactionState(Object state)
+    {
+        this.transactionState = state;
+    }
+
+    private void notifyTransactionListeners(boolean committed)
+    {
+        if (transactionListeners.length == 0) {
+            return;
+        }
+
+        final TransactionListener[] listeners = transactionListeners;
+        transactionListeners = NO_TRANSACTION_LISTENERS;
+        for (TransactionListener listener : listeners) {
+            try {
+                if (committed) {
+                    listener.afterCommit(this);
+                }
+                else {
+                    listener.afterRollback(this);
+                }
+            }
+            catch (RuntimeException e) {
+                LOG.warn("Transaction listener {} failed", listener, e);
+            }
+        }
+    }
+
     @Override
     public Update createStatement(String sql)
     {
@@ -30,7 +30,6 @@ import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.math.BigDecimal;
 import java.sql.ResultSet;
-import java.sql.ResultSetMetaData;
 import java.sql.SQLException;
 import java.sql.Time;
 import java.sql.Timestamp;
@@ -70,10 +69,10 @@ public class BeanMapper<T> implements ResultSetMapper<T> {
             throw new IllegalArgumentException(String.format("A bean, %s, was mapped which was not instantiable", type.getName()), e);
         }
 
-        final ResultSetMetaData metadata = rs.getMetaData();
+        final ColumnIndexResolver columns = ColumnIndexResolver.forResultSet(rs, ctx);
 
-        for (int i = 1; i <= metadata.getColumnCount(); ++i) {
-            final String name = metadata.getColumnLabel(i).toLowerCase();
+        for (int i = 1; i <= columns.getColumnCount(); ++i) {
+            final String name = columns.getLabel(i);
             final PropertyDescriptor descriptor = properties.get(name);
 
             if (descriptor != null) {
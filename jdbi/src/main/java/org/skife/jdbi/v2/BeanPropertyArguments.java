@@ -19,14 +19,11 @@
  */
 package org.skife.jdbi.v2;
 
+import org.killbill.commons.jdbi.binder.BeanProperties;
 import org.skife.jdbi.v2.exceptions.UnableToCreateStatementException;
 import org.skife.jdbi.v2.tweak.Argument;
 import org.skife.jdbi.v2.tweak.NamedArgumentFinder;
 
-import java.beans.BeanInfo;
-import java.beans.IntrospectionException;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
 import java.lang.reflect.InvocationTargetException;
 
 /**
@@ -37,7 +34,7 @@ class BeanPropertyArguments implements NamedArgumentFinder
     private final Object bean;
     private final StatementContext ctx;
     private final Foreman foreman;
-    private BeanInfo info;
+    private final BeanProperties properties;
 
     BeanPropertyArguments(Object bean, StatementContext ctx, Foreman foreman)
     {
@@ -46,12 +43,12 @@ class BeanPropertyArguments implements NamedArgumentFinder
         this.foreman = foreman;
         try
         {
-            this.info = Introspector.getBeanInfo(bean.getClass());
+            this.properties = BeanProperties.forClass(bean.getClass());
         }
-        catch (IntrospectionException e)
+        catch (IllegalArgumentException e)
         {
             throw new UnableToCreateStatementException("Failed to introspect object which is supposed ot be used to" +
-                                                       " set named args for a statement via JavaBean properties", e, ctx);
+                                                       " set named args for a statement via JavaBean properties", e.getCause(), ctx);
         }
 
     }
@@ -59,31 +56,21 @@ class BeanPropertyArguments implements NamedArgumentFinder
     @Override
     public Argument find(String name)
     {
-        for (PropertyDescriptor descriptor : info.getPropertyDescriptors())
+        final BeanProperties.Property property = properties.getProperty(name);
+        if (property == null)
         {
-            if (descriptor.getName().equals(name))
-            {
-                try
-                {
-                    return foreman.waffle(descriptor.getReadMethod().getReturnType(),
-                                   descriptor.getReadMethod().invoke(bean),
-                                   ctx);
-                }
-                catch (IllegalAccessException e)
-                {
-                    throw new UnableToCreateStatementException(String.format("Access excpetion invoking getter for " +
-                                                                             "bean property [%s] on [%s]",
-                                                                             name, bean), e, ctx);
-                }
-                catch (InvocationTargetException e)
-                {
-                    throw new UnableToCreateStatementException(String.format("Invocation target exception invoking " +
-                                                                             "getter for bean property [%s] on [%s]",
-                                                                             name, bean), e, ctx);
-                }
-            }
+            return null;
+        }
+        try
+        {
+            return foreman.waffle(property.getType(), property.get(bean), ctx);
+        }
+        catch (InvocationTargetException e)
+        {
+            throw new UnableToCreateStatementException(String.format("Invocation target exception invoking " +
+                                                                     "getter for bean property [%s] on [%s]",
+                                                                     name, bean), e, ctx);
         }
-        return null;
     }
 
     @Override
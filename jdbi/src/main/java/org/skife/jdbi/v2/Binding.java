@@ -23,6 +23,7 @@ import org.skife.jdbi.v2.tweak.Argument;
 import org.skife.jdbi.v2.tweak.NamedArgumentFinder;
 
 import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -48,8 +49,9 @@ public class Binding
      * @return the bound Argument
      */
     public Argument forName(String name) {
-        if (named.containsKey(name)) {
-            return named.get(name);
+        final Argument argument = named.get(name);
+        if (argument != null || named.containsKey(name)) {
+            return argument;
         }
         else {
             for (NamedArgumentFinder arguments : namedArgumentFinder) {
@@ -73,6 +75,20 @@ public class Binding
         return positionals.get(position);
     }
 
+    /**
+     * @return the arguments bound by position (starting at 0)
+     */
+    public Map<Integer, Argument> getPositionalArguments() {
+        return Collections.unmodifiableMap(positionals);
+    }
+
+    /**
+     * @return the arguments bound by name (arguments found through a {@link NamedArgumentFinder}, e.g. bound beans, are not included)
+     */
+    public Map<String, Argument> getNamedArguments() {
+        return Collections.unmodifiableMap(named);
+    }
+
     void addNamed(String name, Argument argument) {
         this.named.put(name, argument);
     }
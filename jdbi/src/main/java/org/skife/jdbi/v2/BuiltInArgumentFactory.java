@@ -31,6 +31,7 @@ import java.sql.Time;
 import java.sql.Timestamp;
 import java.util.IdentityHashMap;
 import java.util.Map;
+import java.util.function.Function;
 
 public final class BuiltInArgumentFactory implements ArgumentFactory
 {
@@ -67,6 +68,53 @@ public final class BuiltInArgumentFactory implements ArgumentFactory
         b.put(URL.class, new P(URLArgument.class));
     }
 
+    // Primitives, their boxed types and strings: bound without reflection nor factory lookup, see Foreman
+    private static final Map<Class, Function<Object, Argument>> direct = new IdentityHashMap<Class, Function<Object, Argument>>();
+
+    static {
+        direct(boolean.class, Boolean.class, v -> new BooleanArgument((Boolean) v));
+        direct(byte.class, Byte.class, v -> new ByteArgument((Byte) v));
+        direct(char.class, Character.class, v -> new CharacterArgument((Character) v));
+        direct(short.class, Short.class, v -> new ShortArgument((Short) v));
+        direct(int.class, Integer.class, v -> new IntegerArgument((Integer) v));
+        direct(long.class, Long.class, v -> new LongArgument((Long) v));
+        direct(float.class, Float.class, v -> new FloatArgument((Float) v));
+        direct(double.class, Double.class, v -> new DoubleArgument((Double) v));
+        direct.put(String.class, v -> new StringArgument((String) v));
+    }
+
+    private static void direct(Class primitive, Class boxed, Function<Object, Argument> builder)
+    {
+        direct.put(primitive, builder);
+        direct.put(boxed, builder);
+    }
+
+    /**
+     * @return whether values bound by {@link #buildDirect(Class, Object)} may be instances of the given type
+     */
+    static boolean isDirectlyBound(Class type)
+    {
+        for (Class directType : direct.keySet()) {
+            if (type.isAssignableFrom(directType)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Builds the same argument as {@link #build(Class, Object, StatementContext)} for primitives, their boxed types
+     * and strings, or returns null for any other binding.
+     */
+    static Argument buildDirect(Class expectedType, Object value)
+    {
+        Function<Object, Argument> builder = direct.get(expectedType);
+        if (builder == null && expectedType == Object.class && value != null) {
+            builder = direct.get(value.getClass());
+        }
+        return builder == null ? null : builder.apply(value);
+    }
+
     public static boolean canAccept(Class expectedType)
     {
         return b.containsKey(expectedType) || expectedType.isEnum();
@@ -31,10 +31,9 @@ import org.skife.jdbi.v2.tweak.StatementRewriter;
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
 import java.util.ArrayList;
-import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static org.skife.jdbi.rewriter.colon.ColonStatementLexer.DOUBLE_QUOTED_TEXT;
 import static org.skife.jdbi.rewriter.colon.ColonStatementLexer.ESCAPED_TEXT;
@@ -50,7 +49,10 @@ import static org.skife.jdbi.rewriter.colon.ColonStatementLexer.QUOTED_TEXT;
  */
 public class ColonPrefixNamedParamStatementRewriter implements StatementRewriter
 {
-    private final Map<String, ParsedStatement> cache = Collections.synchronizedMap(new WeakHashMap<String, ParsedStatement>());
+    // Bound the cache in case of SQL statements with inlined values
+    private static final int MAX_CACHED_STATEMENTS = 10000;
+
+    private final Map<String, BindingPlan> cache = new ConcurrentHashMap<String, BindingPlan>();
 
     /**
      * Munge up the SQL as desired. Responsible for figuring out ow to bind any
@@ -65,17 +67,19 @@ public class ColonPrefixNamedParamStatementRewriter implements StatementRewriter
     @Override
     public RewrittenStatement rewrite(String sql, Binding params, StatementContext ctx)
     {
-        ParsedStatement stmt = cache.get(sql);
-        if (stmt == null) {
+        BindingPlan plan = cache.get(sql);
+        if (plan == null) {
             try {
-                stmt = parseString(sql);
-                cache.put(sql, stmt);
+                plan = new BindingPlan(parseString(sql));
             }
             catch (IllegalArgumentException e) {
                 throw new UnableToCreateStatementException("Exception parsing for named parameter replacement", e, ctx);
             }
+            if (cache.size() < MAX_CACHED_STATEMENTS) {
+                cache.put(sql, plan);
+            }
         }
-        return new MyRewrittenStatement(stmt, ctx);
+        return new MyRewrittenStatement(plan, ctx);
     }
 
     protected ParsedStatement parseString(final String sql) throws IllegalArgumentException
@@ -117,19 +121,19 @@ public class ColonPrefixNamedParamStatementRewriter implements StatementRewriter
 
     private static class MyRewrittenStatement implements RewrittenStatement
     {
-        private final ParsedStatement stmt;
+        private final BindingPlan plan;
         private final StatementContext context;
 
-        MyRewrittenStatement(ParsedStatement stmt, StatementContext ctx)
+        MyRewrittenStatement(BindingPlan plan, StatementContext ctx)
         {
             this.context = ctx;
-            this.stmt = stmt;
+            this.plan = plan;
         }
 
         @Override
         public void bind(Binding params, PreparedStatement statement) throws SQLException
         {
-            if (stmt.positionalOnly) {
+            if (plan.namedParams == null) {
                 // no named params, is easy
                 boolean finished = false;
                 for (int i = 0; !finished; ++i) {
@@ -150,12 +154,9 @@ public class ColonPrefixNamedParamStatementRewriter implements StatementRewriter
                 }
             }
             else {
-                //List<String> named_params = stmt.params;
-                int i = 0;
-                for (String named_param : stmt.params) {
-                    if ("*".equals(named_param)) {
-                        continue;
-                    }
+                final String[] namedParams = plan.namedParams;
+                for (int i = 0; i < namedParams.length; i++) {
+                    final String named_param = namedParams[i];
                     Argument a = params.forName(named_param);
                     if (a == null) {
                         a = params.forPosition(i);
@@ -176,7 +177,6 @@ public class ColonPrefixNamedParamStatementRewriter implements StatementRewriter
                         throw new UnableToCreateStatementException(String.format("Exception while binding '%s'",
                                                                                  named_param), e, context);
                     }
-                    i++;
                 }
             }
         }
@@ -184,7 +184,35 @@ public class ColonPrefixNamedParamStatementRewriter implements StatementRewriter
         @Override
         public String getSql()
         {
-            return stmt.getParsedSql();
+            return plan.sql;
+        }
+    }
+
+    /**
+     * Immutable, shared by all the executions of a statement: the rewritten SQL, and the name to look up
+     * for each JDBC parameter (null for positional-only statements, bound by position without any name lookup)
+     */
+    private static final class BindingPlan
+    {
+        private final String sql;
+        private final String[] namedParams;
+
+        BindingPlan(ParsedStatement stmt)
+        {
+            this.sql = stmt.getParsedSql();
+            if (stmt.positionalOnly) {
+                this.namedParams = null;
+            }
+            else {
+                // Positional params mixed with named ones are skipped (see ParsedStatement#addPositionalParamAt)
+                final List<String> names = new ArrayList<String>(stmt.params.size());
+                for (String param : stmt.params) {
+                    if (!"*".equals(param)) {
+                        names.add(param);
+                    }
+                }
+                this.namedParams = names.toArray(new String[0]);
+            }
         }
     }
 
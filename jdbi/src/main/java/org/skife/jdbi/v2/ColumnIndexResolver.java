@@ -0,0 +1,148 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2;
+
+import java.lang.ref.WeakReference;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Resolves the column labels of a result set to their (1 based) indexes. The result set metadata is read once, when
+ * the resolver is created: mappers look up the index of a column once per statement and read every row by index,
+ * instead of having the driver match the label, case insensitively with MySQL Connector/J and MariaDB, for each column
+ * of each row.
+ * <p>
+ * The resolver of the result set being mapped is shared through the statement context (or, for other contexts,
+ * kept for the last result set mapped by the thread), see {@link #forResultSet(ResultSet, StatementContext)}. Mappers can also attach to it what they derive from the column
+ * layout (e.g. a column to property plan), so that it is computed once per result set as well.
+ * <p>
+ * Like the result set itself, a resolver is not thread safe.
+ */
+public final class ColumnIndexResolver
+{
+    // Resolver of the last result set mapped by the thread without a ConcreteStatementContext
+    private static final ThreadLocal<ColumnIndexResolver> lastResolver = new ThreadLocal<ColumnIndexResolver>();
+
+    // Weak, so that the resolver kept by the thread doesn't retain the result set
+    private final WeakReference<ResultSet> resultSet;
+    private final String[] labels;
+    private final Map<String, Integer> indexes;
+    private final Map<Object, Object> attachments = new IdentityHashMap<>(4);
+
+    ColumnIndexResolver(final ResultSet resultSet) throws SQLException
+    {
+        this.resultSet = new WeakReference<ResultSet>(resultSet);
+
+        final ResultSetMetaData metadata = resultSet.getMetaData();
+        this.labels = new String[metadata.getColumnCount()];
+        this.indexes = new HashMap<>(labels.length * 2);
+        for (int i = 0; i < labels.length; i++) {
+            labels[i] = metadata.getColumnLabel(i + 1).toLowerCase();
+            // Like ResultSet#findColumn, the first column wins when several have the same label
+            indexes.putIfAbsent(labels[i], i + 1);
+        }
+    }
+
+    /**
+     * Obtain the resolver of a result set. When mapping the rows of a statement, the resolver is created for the first
+     * row and then reused for the following ones.
+     *
+     * @param resultSet the result set being mapped
+     * @param ctx       the statement context passed to the mapper, may be null
+     *
+     * @return the column index resolver of the result set
+     *
+     * @throws SQLException if the result set metadata cannot be read
+     */
+    public static ColumnIndexResolver forResultSet(final ResultSet resultSet, final StatementContext ctx) throws SQLException
+    {
+        if (ctx instanceof ConcreteStatementContext) {
+            return ((ConcreteStatementContext) ctx).getColumnIndexResolver(resultSet);
+        }
+
+        ColumnIndexResolver resolver = lastResolver.get();
+        if (resolver == null || !resolver.isFor(resultSet)) {
+            resolver = new ColumnIndexResolver(resultSet);
+            lastResolver.set(resolver);
+        }
+        return resolver;
+    }
+
+    boolean isFor(final ResultSet resultSet)
+    {
+        return this.resultSet.get() == resultSet;
+    }
+
+    /**
+     * @return the number of columns of the result set
+     */
+    public int getColumnCount()
+    {
+        return labels.length;
+    }
+
+    /**
+     * @param index 1 based column index
+     *
+     * @return the label of the column, lower cased
+     */
+    public String getLabel(final int index)
+    {
+        return labels[index - 1];
+    }
+
+    /**
+     * Resolve a column label, case insensitively
+     *
+     * @param label the name or alias of the column
+     *
+     * @return the 1 based index of the column, or -1 if the result set has no such column
+     */
+    public int indexOf(final String label)
+    {
+        Integer index = indexes.get(label);
+        if (index == null) {
+            index = indexes.get(label.toLowerCase());
+        }
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Obtain a value derived from the column layout, computing it the first time it is requested for this result set.
+     *
+     * @param key     identifies the value, compared by identity (typically the mapper itself)
+     * @param factory computes the value from this resolver
+     * @param <T>     type of the value
+     *
+     * @return the attached value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T computeIfAbsent(final Object key, final Function<ColumnIndexResolver, T> factory)
+    {
+        Object value = attachments.get(key);
+        if (value == null) {
+            value = factory.apply(this);
+            attachments.put(key, value);
+        }
+        return (T) value;
+    }
+}
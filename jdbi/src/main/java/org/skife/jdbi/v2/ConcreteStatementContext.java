@@ -22,6 +22,8 @@ package org.skife.jdbi.v2;
 import java.lang.reflect.Method;
 import java.sql.Connection;
 import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.LinkedHashSet;
@@ -40,6 +42,7 @@ public final class ConcreteStatementContext implements StatementContext {
     private Class<?> sqlObjectType;
     private Method sqlObjectMethod;
     private boolean returningGeneratedKeys;
+    private ColumnIndexResolver columnIndexResolver;
 
     ConcreteStatementContext(final Map<String, Object> globalAttributes) {
         attributes.putAll(globalAttributes);
@@ -203,4 +206,14 @@ public final class ConcreteStatementContext implements StatementContext {
     public Collection<Cleanable> getCleanables() {
         return cleanables;
     }
+
+    /**
+     * The resolver is kept for the result set being mapped only: a statement iterates its result sets one after the other
+     */
+    ColumnIndexResolver getColumnIndexResolver(final ResultSet rs) throws SQLException {
+        if (columnIndexResolver == null || !columnIndexResolver.isFor(rs)) {
+            columnIndexResolver = new ColumnIndexResolver(rs);
+        }
+        return columnIndexResolver;
+    }
 }
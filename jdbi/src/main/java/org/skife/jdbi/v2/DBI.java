@@ -19,6 +19,7 @@
  */
 package org.skife.jdbi.v2;
 
+import org.killbill.commons.jdbi.async.AsyncSqlObjectExecutor;
 import org.killbill.commons.profiling.Profiling;
 import org.killbill.commons.profiling.Profiling.WithProfilingCallback;
 import org.killbill.commons.profiling.ProfilingFeature.ProfilingFeatureType;
@@ -67,6 +68,7 @@ public class DBI implements IDBI
     private AtomicReference<StatementBuilderFactory> statementBuilderFactory = new AtomicReference<StatementBuilderFactory>(new DefaultStatementBuilderFactory());
     private AtomicReference<SQLLog> log = new AtomicReference<SQLLog>(new NoOpLog());
     private AtomicReference<TimingCollector> timingCollector = new AtomicReference<TimingCollector>(TimingCollector.NOP_TIMING_COLLECTOR);
+    private AtomicReference<AsyncSqlObjectExecutor> asyncSqlObjectExecutor = new AtomicReference<AsyncSqlObjectExecutor>(new AsyncSqlObjectExecutor());
 
 
     private final Profiling<Connection, SQLException> prof;
@@ -80,6 +82,8 @@ public class DBI implements IDBI
     {
         this(new DataSourceConnectionFactory(dataSource));
         assert dataSource != null;
+        // Don't open more handles than the pool has connections
+        this.asyncSqlObjectExecutor.set(new AsyncSqlObjectExecutor(dataSource));
     }
 
     /**
@@ -513,6 +517,20 @@ public class DBI implements IDBI
         return this.timingCollector.get();
     }
 
+    /**
+     * Specify the executor running the sql object methods returning a {@link java.util.concurrent.CompletableFuture},
+     * for the on-demand sql objects created from this instance.
+     */
+    public void setAsyncSqlObjectExecutor(AsyncSqlObjectExecutor executor)
+    {
+        this.asyncSqlObjectExecutor.set(executor);
+    }
+
+    public AsyncSqlObjectExecutor getAsyncSqlObjectExecutor()
+    {
+        return this.asyncSqlObjectExecutor.get();
+    }
+
     public void registerArgumentFactory(ArgumentFactory<?> argumentFactory)
     {
         foreman.register(argumentFactory);
@@ -21,6 +21,7 @@ package org.skife.jdbi.v2;
 
 import org.skife.jdbi.v2.tweak.Argument;
 import org.skife.jdbi.v2.tweak.ArgumentFactory;
+import org.skife.jdbi.v2.tweak.TypedArgumentFactory;
 
 import java.util.List;
 import java.util.Map;
@@ -29,46 +30,86 @@ import java.util.concurrent.CopyOnWriteArrayList;
 
 class Foreman
 {
-    private final Map<Class<?>, ArgumentFactory> cache = new ConcurrentHashMap<Class<?>, ArgumentFactory>();
+    // Stands for the class of null values in the dispatch table
+    private static final Class<?> NULL_VALUE = Void.class;
+
+    // Declared type -> value class -> factory to use
+    private final Map<Class<?>, Map<Class<?>, Dispatch>> dispatch = new ConcurrentHashMap<Class<?>, Map<Class<?>, Dispatch>>();
     private final List<ArgumentFactory> factories = new CopyOnWriteArrayList<ArgumentFactory>();
 
+    // Whether a registered factory may bind primitives, their boxed types or strings instead of the built-ins
+    private volatile boolean directBindingOverridden = false;
+
     public Foreman()
     {
-        factories.add(BUILT_INS);
+        register(BUILT_INS);
     }
 
     public Foreman(List<ArgumentFactory> factories)
     {
-        this.factories.addAll(factories);
+        for (ArgumentFactory factory : factories) {
+            register(factory);
+        }
     }
 
     Argument waffle(Class expectedType, Object it, StatementContext ctx)
     {
-        if (cache.containsKey(expectedType)) {
-            return cache.get(expectedType).build(expectedType, it, ctx);
+        if (!directBindingOverridden) {
+            final Argument argument = BuiltInArgumentFactory.buildDirect(expectedType, it);
+            if (argument != null) {
+                return argument;
+            }
         }
 
-        ArgumentFactory candidate = null;
+        final Class<?> valueType = it == null ? NULL_VALUE : it.getClass();
+        Map<Class<?>, Dispatch> byValueType = dispatch.get(expectedType);
+        Dispatch target = byValueType == null ? null : byValueType.get(valueType);
+        if (target == null) {
+            // Note! The table assumes ArgumentFactory#accepts implementations only care about the class of the Object it
+            target = resolve(expectedType, it, ctx);
+            if (target == null) {
+                throw new IllegalStateException("Unbindable argument passed: " + String.valueOf(it));
+            }
+            if (byValueType == null) {
+                byValueType = dispatch.computeIfAbsent(expectedType, k -> new ConcurrentHashMap<Class<?>, Dispatch>());
+            }
+            byValueType.put(valueType, target);
+        }
+        return target.factory.build(target.expectedType, it, ctx);
+    }
+
+    private Dispatch resolve(Class<?> expectedType, Object it, StatementContext ctx)
+    {
+        Dispatch candidate = null;
 
         for (int i = factories.size() - 1; i >= 0; i--) {
             ArgumentFactory factory = factories.get(i);
-            if (factory.accepts(expectedType, it, ctx)) {
-                // Note! Cache assumes all ArgumentFactory#accepts implementations don't care about the Object it itself
-                cache.put(expectedType, factory);
-                return factory.build(expectedType, it, ctx);
+            if (accepts(factory, expectedType, it, ctx)) {
+                return new Dispatch(factory, expectedType);
             }
             // Fall back to any factory accepting Object if necessary but
             // prefer any more specific factory first.
-            if (candidate == null && factory.accepts(Object.class, it, ctx)) {
-                candidate = factory;
+            if (candidate == null && accepts(factory, Object.class, it, ctx)) {
+                candidate = new Dispatch(factory, Object.class);
             }
         }
-        if (candidate != null) {
-            cache.put(Object.class, candidate);
-            return candidate.build(Object.class, it, ctx);
-        }
+        return candidate;
+    }
 
-        throw new IllegalStateException("Unbindable argument passed: " + String.valueOf(it));
+    private static boolean accepts(ArgumentFactory factory, Class<?> expectedType, Object it, StatementContext ctx)
+    {
+        if (factory instanceof TypedArgumentFactory) {
+            if (it == null) {
+                return false;
+            }
+            for (Class<?> supportedType : ((TypedArgumentFactory<?>) factory).getSupportedTypes()) {
+                if (supportedType.isInstance(it)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+        return factory.accepts(expectedType, it, ctx);
     }
 
     private static final ArgumentFactory BUILT_INS = new BuiltInArgumentFactory();
@@ -77,6 +118,52 @@ class Foreman
     {
         // [OPTIMIZATION] Only allowed at a global level (DBI)
         factories.add(argumentFactory);
+
+        if (argumentFactory instanceof TypedArgumentFactory) {
+            for (Class<?> supportedType : ((TypedArgumentFactory<?>) argumentFactory).getSupportedTypes()) {
+                if (BuiltInArgumentFactory.isDirectlyBound(supportedType)) {
+                    directBindingOverridden = true;
+                }
+            }
+        }
+        else if (argumentFactory != BUILT_INS) {
+            directBindingOverridden = true;
+        }
+
+        // Factories are registered upfront: rebuild the table, pre-populated for the declared types when
+        // all factories can be consulted without a value at hand
+        dispatch.clear();
+        for (ArgumentFactory factory : factories) {
+            if (!(factory instanceof TypedArgumentFactory) && factory != BUILT_INS) {
+                return;
+            }
+        }
+        for (ArgumentFactory factory : factories) {
+            if (factory instanceof TypedArgumentFactory) {
+                for (Class<?> supportedType : ((TypedArgumentFactory<?>) factory).getSupportedTypes()) {
+                    precompute(supportedType);
+                }
+            }
+        }
+    }
+
+    private void precompute(Class<?> valueType)
+    {
+        // Same outcome as resolve: the most recently registered factory supporting the type wins
+        for (int i = factories.size() - 1; i >= 0; i--) {
+            ArgumentFactory factory = factories.get(i);
+            if (factory instanceof TypedArgumentFactory) {
+                for (Class<?> supportedType : ((TypedArgumentFactory<?>) factory).getSupportedTypes()) {
+                    if (supportedType.isAssignableFrom(valueType)) {
+                        for (Class<?> expectedType : new Class<?>[]{valueType, Object.class}) {
+                            dispatch.computeIfAbsent(expectedType, k -> new ConcurrentHashMap<Class<?>, Dispatch>())
+                                    .put(valueType, new Dispatch(factory, expectedType));
+                        }
+                        return;
+                    }
+                }
+            }
+        }
     }
 
     public Foreman createChild()
@@ -86,5 +173,15 @@ class Foreman
         return this;
     }
 
+    private static final class Dispatch
+    {
+        private final ArgumentFactory factory;
+        private final Class<?> expectedType;
 
+        private Dispatch(ArgumentFactory factory, Class<?> expectedType)
+        {
+            this.factory = factory;
+            this.expectedType = expectedType;
+        }
+    }
 }
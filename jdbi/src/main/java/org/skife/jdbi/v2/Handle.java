@@ -88,6 +88,41 @@ public interface Handle extends Closeable
      */
     boolean isInTransaction();
 
+    /**
+     * Register a listener to be notified when the current transaction is committed or rolled back. The listener is
+     * notified once, and then discarded.
+     * <p>
+     * Not supported by default: implementations have to notify the listeners when completing transactions.
+     * @param listener the listener
+     */
+    default void addTransactionListener(TransactionListener listener)
+    {
+        throw new UnsupportedOperationException(getClass().getName() + " doesn't support transaction listeners");
+    }
+
+    /**
+     * Obtain the state attached to the current transaction by the {@link org.skife.jdbi.v2.tweak.TransactionHandler}
+     * <p>
+     * By default, the state is looked up by handle.
+     * @return the state, or null if none was attached
+     */
+    default Object getTransactionState()
+    {
+        return HandleTransactionStates.get(this);
+    }
+
+    /**
+     * Attach state to the current transaction, so that the {@link org.skife.jdbi.v2.tweak.TransactionHandler} doesn't
+     * have to look it up by handle
+     * <p>
+     * By default, the state is kept by handle (weakly referenced), for implementations without a field to store it.
+     * @param state the state, or null to discard it
+     */
+    default void setTransactionState(Object state)
+    {
+        HandleTransactionStates.set(this, state);
+    }
+
     /**
      * Return a default Query instance which can be executed later, as long as this handle remains open.
      * @param sql the select sql
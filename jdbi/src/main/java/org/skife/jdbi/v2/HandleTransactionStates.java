@@ -0,0 +1,49 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Transaction state of the {@link Handle} implementations which don't keep it themselves (see the default methods of
+ * {@link Handle}), released with the handle.
+ */
+final class HandleTransactionStates
+{
+    private static final Map<Handle, Object> states = Collections.synchronizedMap(new WeakHashMap<Handle, Object>());
+
+    private HandleTransactionStates()
+    {
+    }
+
+    static Object get(final Handle handle)
+    {
+        return states.get(handle);
+    }
+
+    static void set(final Handle handle, final Object state)
+    {
+        if (state == null) {
+            states.remove(handle);
+        }
+        else {
+            states.put(handle, state);
+        }
+    }
+}
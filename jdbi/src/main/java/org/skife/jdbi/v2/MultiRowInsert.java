@@ -0,0 +1,218 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.PreparedStatement;
+import java.util.Locale;
+
+/**
+ * A rewritten (JDBC) <code>INSERT ... VALUES (?, ..., ?)</code> statement whose single row of
+ * values can be repeated, so that a batch of homogeneous inserts is sent as a few multi-row
+ * <code>VALUES (...), (...)</code> statements instead of one statement per row. The syntax is
+ * shared by H2, MySQL and PostgreSQL.
+ */
+final class MultiRowInsert
+{
+    // Lowest bind parameter limit across the supported engines (PostgreSQL wire protocol)
+    static final int MAX_BIND_PARAMETERS = 32767;
+
+    private final String prefix;
+    private final String tuple;
+    private final String suffix;
+    private final int parametersPerRow;
+
+    private MultiRowInsert(final String prefix, final String tuple, final String suffix, final int parametersPerRow)
+    {
+        this.prefix = prefix;
+        this.tuple = tuple;
+        this.suffix = suffix;
+        this.parametersPerRow = parametersPerRow;
+    }
+
+    /**
+     * @param sql the rewritten statement
+     * @return the multi-row form of that statement, or null if it isn't an insert of a single row of values
+     *         holding all the bind parameters of the statement
+     */
+    static MultiRowInsert parse(final String sql)
+    {
+        final String lower = sql.toLowerCase(Locale.ROOT);
+        int i = skipWhitespace(lower, 0);
+        if (!lower.startsWith("insert", i) || !isWordEnd(lower, i + "insert".length())) {
+            return null;
+        }
+
+        int values = -1;
+        int totalParameters = 0;
+        for (i = i + "insert".length(); i < lower.length(); i++) {
+            final char c = lower.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(lower, i);
+                if (i < 0) {
+                    return null;
+                }
+            }
+            else if (c == '?') {
+                totalParameters++;
+            }
+            else if (values < 0 && c == 'v' && lower.startsWith("values", i) && isWordEnd(lower, i + "values".length()) && !Character.isJavaIdentifierPart(lower.charAt(i - 1))) {
+                values = i;
+                i += "values".length() - 1;
+            }
+        }
+        if (values < 0 || totalParameters == 0) {
+            return null;
+        }
+
+        final int open = skipWhitespace(lower, values + "values".length());
+        if (open >= lower.length() || lower.charAt(open) != '(') {
+            return null;
+        }
+        int depth = 0;
+        int close = -1;
+        int tupleParameters = 0;
+        for (i = open; i < lower.length() && close < 0; i++) {
+            final char c = lower.charAt(i);
+            if (c == '\'' || c == '"' || c == '`') {
+                i = skipQuoted(lower, i);
+                if (i < 0) {
+                    return null;
+                }
+            }
+            else if (c == '?') {
+                tupleParameters++;
+            }
+            else if (c == '(') {
+                depth++;
+            }
+            else if (c == ')' && --depth == 0) {
+                close = i;
+            }
+        }
+        if (close < 0 || tupleParameters != totalParameters) {
+            return null;
+        }
+
+        final int next = skipWhitespace(lower, close + 1);
+        if (next < lower.length() && lower.charAt(next) == ',') {
+            // Already a multi-row statement
+            return null;
+        }
+
+        return new MultiRowInsert(sql.substring(0, open), sql.substring(open, close + 1), sql.substring(close + 1), tupleParameters);
+    }
+
+    int getParametersPerRow()
+    {
+        return parametersPerRow;
+    }
+
+    int getMaxRowsPerStatement()
+    {
+        return Math.max(1, MAX_BIND_PARAMETERS / parametersPerRow);
+    }
+
+    String getSql(final int rows)
+    {
+        final StringBuilder sql = new StringBuilder(prefix.length() + rows * (tuple.length() + 2) + suffix.length());
+        sql.append(prefix).append(tuple);
+        for (int i = 1; i < rows; i++) {
+            sql.append(", ").append(tuple);
+        }
+        return sql.append(suffix).toString();
+    }
+
+    private static int skipWhitespace(final String sql, final int from)
+    {
+        int i = from;
+        while (i < sql.length() && Character.isWhitespace(sql.charAt(i))) {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWordEnd(final String sql, final int index)
+    {
+        return index >= sql.length() || !Character.isJavaIdentifierPart(sql.charAt(index));
+    }
+
+    // Returns the index of the closing quote, or -1 if there is none
+    private static int skipQuoted(final String sql, final int open)
+    {
+        final char quote = sql.charAt(open);
+        for (int i = open + 1; i < sql.length(); i++) {
+            if (sql.charAt(i) == quote) {
+                if (i + 1 < sql.length() && sql.charAt(i + 1) == quote) {
+                    i++;
+                }
+                else {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Shifts the parameter index of the setters of a statement, so that the arguments of
+     * a batch part, which bind from index 1, land on the row of the multi-row statement
+     * they belong to.
+     */
+    static final class ShiftedParameters implements InvocationHandler
+    {
+        private final PreparedStatement delegate;
+        private final PreparedStatement proxy;
+        private int offset;
+
+        ShiftedParameters(final PreparedStatement delegate)
+        {
+            this.delegate = delegate;
+            this.proxy = (PreparedStatement) Proxy.newProxyInstance(MultiRowInsert.class.getClassLoader(),
+                                                                   new Class<?>[]{PreparedStatement.class},
+                                                                   this);
+        }
+
+        PreparedStatement forRow(final int row, final int parametersPerRow)
+        {
+            this.offset = row * parametersPerRow;
+            return proxy;
+        }
+
+        @Override
+        public Object invoke(final Object ignored, final Method method, final Object[] args) throws Throwable
+        {
+            if (offset != 0 &&
+                args != null &&
+                args.length >= 2 &&
+                method.getDeclaringClass() == PreparedStatement.class &&
+                method.getName().startsWith("set") &&
+                method.getParameterTypes()[0] == int.class) {
+                args[0] = (Integer) args[0] + offset;
+            }
+            try {
+                return method.invoke(delegate, args);
+            }
+            catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
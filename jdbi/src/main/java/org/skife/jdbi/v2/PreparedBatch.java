@@ -49,6 +49,7 @@ public class PreparedBatch extends SQLStatement<PreparedBatch>
 {
     private final List<PreparedBatchPart> parts = new ArrayList<PreparedBatchPart>();
     private Binding currentBinding;
+    private int multiRowValues = 0;
 
     PreparedBatch(StatementLocator locator,
                   StatementRewriter rewriter,
@@ -96,6 +97,27 @@ public class PreparedBatch extends SQLStatement<PreparedBatch>
         return this;
     }
 
+    /**
+     * Send homogeneous <code>INSERT ... VALUES (...)</code> batches as multi-row
+     * <code>VALUES (...), (...)</code> statements of at most the given number of rows (further
+     * capped by the number of bind parameters the databases accept). Statements which aren't
+     * single row inserts, and batches returning generated keys, are executed as regular batches.
+     * <p>
+     * Update counts are reported per part: 1 when the statement inserted all its rows,
+     * {@link Statement#SUCCESS_NO_INFO} otherwise.
+     *
+     * @param maxRowsPerStatement the maximum number of rows per statement, 0 or 1 to disable the rewriting
+     * @return self
+     */
+    public PreparedBatch setMultiRowValues(final int maxRowsPerStatement)
+    {
+        if (maxRowsPerStatement < 0) {
+            throw new IllegalArgumentException("Maximum number of rows per statement must be >= 0");
+        }
+        this.multiRowValues = maxRowsPerStatement;
+        return this;
+    }
+
     /**
      * Execute the batch
      *
@@ -140,25 +162,16 @@ public class PreparedBatch extends SQLStatement<PreparedBatch>
                                                                      getSql()), e, getContext());
         }
         final RewrittenStatement rewritten = getRewriter().rewrite(my_sql, current.getParams(), getContext());
-        PreparedStatement stmt = null;
         try {
-            try {
-                Connection connection = getHandle().getConnection();
-                if (generateKeys) {
-                    if (columnNames != null && columnNames.length > 0) {
-                        stmt = connection.prepareStatement(rewritten.getSql(), columnNames);
-                    } else  {
-                        stmt = connection.prepareStatement(rewritten.getSql(), Statement.RETURN_GENERATED_KEYS);
-                    }
-                } else {
-                    stmt = connection.prepareStatement(rewritten.getSql(), Statement.NO_GENERATED_KEYS);
+            if (!generateKeys && multiRowValues > 1 && parts.size() > 1) {
+                final MultiRowInsert multiRowInsert = MultiRowInsert.parse(rewritten.getSql());
+                if (multiRowInsert != null) {
+                    return executeMultiRowInsert(rewritten, multiRowInsert);
                 }
-                addCleanable(Cleanables.forStatement(stmt));
-            }
-            catch (SQLException e) {
-                throw new UnableToCreateStatementException(e, getContext());
             }
 
+            getConcreteContext().setReturningGeneratedKeys(generateKeys);
+            final PreparedStatement stmt = createStatement(rewritten.getSql(), columnNames);
 
             try {
                 for (PreparedBatchPart part : parts) {
@@ -199,6 +212,88 @@ public class PreparedBatch extends SQLStatement<PreparedBatch>
         }
     }
 
+    private PreparedStatement createStatement(final String sql, final String[] columnNames)
+    {
+        final Connection connection = getHandle().getConnection();
+        final PreparedStatement stmt;
+        try {
+            stmt = getStatementBuilder().create(connection, sql, columnNames, getContext());
+        }
+        catch (SQLException e) {
+            throw new UnableToCreateStatementException(e, getContext());
+        }
+        // The statement builder might (or might not) clean up the statement when called, see SQLStatement#internalExecute
+        addCleanable(new Cleanables.StatementBuilderCleanable(getStatementBuilder(), connection, sql, stmt));
+        return stmt;
+    }
+
+    private int[] executeMultiRowInsert(final RewrittenStatement rewritten, final MultiRowInsert multiRowInsert)
+    {
+        getConcreteContext().setReturningGeneratedKeys(false);
+
+        final int rowsPerStatement = Math.min(multiRowValues, multiRowInsert.getMaxRowsPerStatement());
+        final int[] rs = new int[parts.size()];
+        int executed = 0;
+        if (parts.size() >= rowsPerStatement) {
+            executed = executeMultiRowInsert(rewritten, multiRowInsert, 0, rowsPerStatement, parts.size() / rowsPerStatement, rs);
+        }
+        if (executed < parts.size()) {
+            executeMultiRowInsert(rewritten, multiRowInsert, executed, parts.size() - executed, 1, rs);
+        }
+        return rs;
+    }
+
+    // Executes, as a batch, statements of a given number of rows starting at part 'from'
+    private int executeMultiRowInsert(final RewrittenStatement rewritten,
+                                      final MultiRowInsert multiRowInsert,
+                                      final int from,
+                                      final int rows,
+                                      final int statements,
+                                      final int[] rs)
+    {
+        final String sql = multiRowInsert.getSql(rows);
+        final PreparedStatement stmt = createStatement(sql, null);
+        final MultiRowInsert.ShiftedParameters shiftedParameters = new MultiRowInsert.ShiftedParameters(stmt);
+
+        try {
+            int index = from;
+            for (int i = 0; i < statements; i++) {
+                for (int row = 0; row < rows; row++) {
+                    rewritten.bind(parts.get(index++).getParams(), shiftedParameters.forRow(row, multiRowInsert.getParametersPerRow()));
+                }
+                stmt.addBatch();
+            }
+        }
+        catch (SQLException e) {
+            throw new UnableToExecuteStatementException("Exception while binding parameters", e, getContext());
+        }
+
+        beforeExecution(stmt);
+
+        final int[] counts;
+        try {
+            final long start = System.nanoTime();
+            counts = stmt.executeBatch();
+            final long elapsedTime = System.nanoTime() - start;
+            getLog().logPreparedBatch(elapsedTime / 1000000L, sql, statements);
+            getTimingCollector().collect(elapsedTime, getContext());
+        }
+        catch (SQLException e) {
+            throw new UnableToExecuteStatementException(e, getContext());
+        }
+
+        afterExecution(stmt);
+
+        // Spread the count of each statement over its rows
+        for (int i = 0; i < statements; i++) {
+            final int count = i < counts.length && counts[i] == rows ? 1 : Statement.SUCCESS_NO_INFO;
+            for (int row = 0; row < rows; row++) {
+                rs[from + i * rows + row] = count;
+            }
+        }
+        return from + statements * rows;
+    }
+
     /**
      * Add a statement (part) to this batch. You'll need to bindBinaryStream any arguments to the
      * part.
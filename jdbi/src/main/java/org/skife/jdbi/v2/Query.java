@@ -32,7 +32,12 @@ import java.sql.Statement;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Statement providing convenience result handling for SQL queries.
@@ -254,6 +259,50 @@ public class Query<ResultType> extends SQLStatement<Query<ResultType>> implement
         }, null);
     }
 
+    /**
+     * Obtain a forward-only stream of the results. Note that you must close the stream
+     * (e.g. with try-with-resources) to close the underlying resources, unless it is fully consumed.
+     */
+    public Stream<ResultType> stream()
+    {
+        final ResultIterator<ResultType> iterator = iterator();
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                            .onClose(iterator::close);
+    }
+
+    /**
+     * Traverse the results in chunks, without loading them all in memory (combine with
+     * {@link #setFetchSize(int)} to bound what the driver buffers as well). The underlying
+     * resources are closed when this method returns.
+     *
+     * @param batchSize maximum number of results per chunk
+     * @param consumer  invoked with each chunk, in order
+     */
+    public void forEachBatch(final int batchSize, final Consumer<List<ResultType>> consumer)
+    {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("Batch size must be > 0");
+        }
+
+        final ResultIterator<ResultType> iterator = iterator();
+        try {
+            List<ResultType> batch = new ArrayList<ResultType>(Math.min(batchSize, 1024));
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == batchSize) {
+                    consumer.accept(batch);
+                    batch = new ArrayList<ResultType>(Math.min(batchSize, 1024));
+                }
+            }
+            if (!batch.isEmpty()) {
+                consumer.accept(batch);
+            }
+        }
+        finally {
+            iterator.close();
+        }
+    }
+
     /**
      * Executes the select.
      * <p/>
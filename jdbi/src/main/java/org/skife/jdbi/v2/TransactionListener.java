@@ -0,0 +1,43 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2;
+
+/**
+ * Notified when the transaction in which it was registered, see {@link Handle#addTransactionListener(TransactionListener)},
+ * completes. Listeners are invoked on the thread completing the transaction, after the connection has been committed
+ * or rolled back.
+ */
+public interface TransactionListener
+{
+    /**
+     * Called once the transaction has been committed
+     *
+     * @param handle the handle the transaction was committed on
+     */
+    default void afterCommit(Handle handle)
+    {
+    }
+
+    /**
+     * Called once the transaction has been rolled back
+     *
+     * @param handle the handle the transaction was rolled back on
+     */
+    default void afterRollback(Handle handle)
+    {
+    }
+}
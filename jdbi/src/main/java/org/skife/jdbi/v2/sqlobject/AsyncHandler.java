@@ -0,0 +1,141 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2.sqlobject;
+
+import java.util.Iterator;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+import org.killbill.commons.jdbi.async.AsyncSqlObjectExecutor;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.IDBI;
+import org.skife.jdbi.v2.exceptions.DBIException;
+
+import com.fasterxml.classmate.ResolvedType;
+import com.fasterxml.classmate.TypeResolver;
+import com.fasterxml.classmate.members.ResolvedMethod;
+
+/**
+ * Runs the statement of a sql object method returning a {@link CompletableFuture} (or {@link CompletionStage})
+ * on the {@link AsyncSqlObjectExecutor} of the DBI, with a handle of its own opened on the executor thread.
+ * <p>
+ * Sql objects attached to a handle, and on-demand sql objects already holding a handle on the calling thread
+ * (e.g. in a {@link Transaction} method), run the statement right away on that handle instead.
+ */
+class AsyncHandler
+{
+    private static final TypeResolver typeResolver = new TypeResolver();
+    private static final AsyncSqlObjectExecutor defaultExecutor = new AsyncSqlObjectExecutor();
+
+    private final boolean returnsVoid;
+
+    AsyncHandler(ResolvedMethod resultMethod)
+    {
+        final Class<?> resultType = resultMethod.getReturnType().getErasedType();
+        this.returnsVoid = resultType == Void.class || resultType == Void.TYPE;
+    }
+
+    static boolean isAsync(ResolvedMethod method)
+    {
+        final Class<?> returnType = method.getReturnType() == null ? null : method.getReturnType().getErasedType();
+        return returnType == CompletableFuture.class || returnType == CompletionStage.class;
+    }
+
+    /**
+     * @return the method, as if it was returning the result of the future
+     */
+    static ResolvedMethod resultMethod(ResolvedMethod method)
+    {
+        ResolvedType resultType = method.getReturnType().getTypeBindings().getBoundType(0);
+        if (resultType == null) {
+            resultType = typeResolver.resolve(Object.class);
+        }
+        final Class<?> erasedResultType = resultType.getErasedType();
+        if (Stream.class.isAssignableFrom(erasedResultType) || Iterator.class.isAssignableFrom(erasedResultType)) {
+            // The handle is closed once the future completes
+            throw new DBIException(method.getDeclaringType() + "." + method +
+                                   " cannot return a lazy result asynchronously: " + method.getReturnType()) {};
+        }
+
+        final ResolvedType[] argumentTypes = new ResolvedType[method.getArgumentCount()];
+        for (int i = 0; i < argumentTypes.length; i++) {
+            argumentTypes[i] = method.getArgumentType(i);
+        }
+        return new ResolvedMethod(method.getDeclaringType(), method.getAnnotations(), method.getRawMember(), resultType, argumentTypes);
+    }
+
+    /**
+     * @param h      the handle ding of the sql object
+     * @param opener opens the handle of the call on the executor thread
+     * @param call   runs the delegate with the given handle ding, retaining (and releasing) it like synchronous calls
+     */
+    CompletableFuture<Object> invoke(HandleDing h, Function<IDBI, Handle> opener, Function<HandleDing, Object> call)
+    {
+        if (h instanceof OnDemandHandleDing && !((OnDemandHandleDing) h).isRetained()) {
+            // Nothing retained on the calling thread: the call opens a handle of its own on the executor thread
+            final IDBI dbi = ((OnDemandHandleDing) h).getDbi();
+            final AsyncSqlObjectExecutor executor = dbi instanceof DBI ? ((DBI) dbi).getAsyncSqlObjectExecutor() : defaultExecutor;
+            return executor.withHandle(() -> opener.apply(dbi), handle -> result(call.apply(new ExecutorHandleDing(handle))));
+        }
+
+        try {
+            return CompletableFuture.completedFuture(result(call.apply(h)));
+        }
+        catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private Object result(Object result)
+    {
+        // e.g. the update count of a CompletableFuture<Void> @SqlUpdate
+        return returnsVoid ? null : result;
+    }
+
+    /**
+     * The handle opened by the executor, closed as soon as the call releases it (closing it again afterwards does nothing)
+     */
+    private static class ExecutorHandleDing implements HandleDing
+    {
+        private final Handle handle;
+
+        ExecutorHandleDing(Handle handle)
+        {
+            this.handle = handle;
+        }
+
+        @Override
+        public Handle getHandle()
+        {
+            return handle;
+        }
+
+        @Override
+        public void release(String name)
+        {
+            handle.close();
+        }
+
+        @Override
+        public void retain(String name)
+        {
+        }
+    }
+}
@@ -49,6 +49,7 @@ class BatchHandler extends CustomizingStatementHandler
 {
     private final String  sql;
     private final boolean transactional;
+    private final int multiRowValues;
     private final ChunkSizeFunction batchChunkSize;
     private final Returner returner;
 
@@ -59,10 +60,14 @@ class BatchHandler extends CustomizingStatementHandler
         SqlBatch anno = raw_method.getAnnotation(SqlBatch.class);
         this.sql = SqlObject.getSql(anno, raw_method);
         this.transactional = anno.transactional();
+        this.multiRowValues = anno.multiRowValues();
+        if (multiRowValues < 0) {
+            throw new IllegalArgumentException("Multi-row values size must be >= 0");
+        }
         this.batchChunkSize = determineBatchChunkSize(sqlObjectType, raw_method);
         final GetGeneratedKeys getGeneratedKeys = raw_method.getAnnotation(GetGeneratedKeys.class);
         if (getGeneratedKeys == null) {
-            if (!returnTypeIsValid(method.getRawMember().getReturnType())) {
+            if (!returnTypeIsValid(method.getReturnType() == null ? Void.TYPE : method.getReturnType().getErasedType())) {
                 throw new DBIException(invalidReturnTypeMessage(method)) {};
             }
             returner = new Returner() {
@@ -192,7 +197,7 @@ class BatchHandler extends CustomizingStatementHandler
         int processed = 0;
         List<Object> results = new LinkedList<Object>();
 
-        PreparedBatch batch = handle.prepareBatch(sql);
+        PreparedBatch batch = handle.prepareBatch(sql).setMultiRowValues(multiRowValues);
         applyCustomizers(batch, args);
         Object[] _args;
         int chunk_size = batchChunkSize.call(args);
@@ -205,7 +210,7 @@ class BatchHandler extends CustomizingStatementHandler
                 // execute this chunk
                 processed = 0;
                 executeBatch(results, h, handle, batch);
-                batch = handle.prepareBatch(sql);
+                batch = handle.prepareBatch(sql).setMultiRowValues(multiRowValues);
                 applyCustomizers(batch, args);
             }
         }
@@ -301,7 +306,7 @@ class BatchHandler extends CustomizingStatementHandler
     }
 
     private static boolean returnTypeIsValid(Class<?> type) {
-        if (type.equals(Void.TYPE) || type.isArray() && type.getComponentType().equals(Integer.TYPE)) {
+        if (type.equals(Void.TYPE) || type.equals(Void.class) || type.isArray() && type.getComponentType().equals(Integer.TYPE)) {
             return true;
         }
 
@@ -19,13 +19,10 @@
  */
 package org.skife.jdbi.v2.sqlobject;
 
+import org.killbill.commons.jdbi.binder.BeanProperties;
 import org.skife.jdbi.v2.SQLStatement;
 
-import java.beans.BeanInfo;
-import java.beans.Introspector;
-import java.beans.PropertyDescriptor;
 import java.lang.annotation.Annotation;
-import java.lang.reflect.Method;
 
 class BindBeanFactory implements BinderFactory
 {
@@ -46,13 +43,8 @@ class BindBeanFactory implements BinderFactory
                 }
 
                 try {
-                    BeanInfo infos = Introspector.getBeanInfo(arg.getClass());
-                    PropertyDescriptor[] props = infos.getPropertyDescriptors();
-                    for (PropertyDescriptor prop : props) {
-                        Method readMethod = prop.getReadMethod();
-                        if (readMethod != null) {
-                            q.dynamicBind(readMethod.getReturnType(), prefix + prop.getName(), readMethod.invoke(arg));
-                        }
+                    for (BeanProperties.Property prop : BeanProperties.forClass(arg.getClass()).getProperties()) {
+                        q.dynamicBind(prop.getType(), prefix + prop.getName(), prop.get(arg));
                     }
                 }
                 catch (Exception e) {
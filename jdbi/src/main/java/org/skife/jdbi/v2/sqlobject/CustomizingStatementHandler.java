@@ -121,6 +121,16 @@ abstract class CustomizingStatementHandler implements Handler
         }
     }
 
+    Class<?> getSqlObjectType()
+    {
+        return sqlObjectType;
+    }
+
+    Method getMethod()
+    {
+        return method;
+    }
+
     protected final void populateSqlObjectData(ConcreteStatementContext q)
     {
         q.setSqlObjectMethod(method);
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2.sqlobject;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generate the implementation of this sql object at compile time (see {@link SqlObjectProcessor}), instead of
+ * generating its bytecode at runtime the first time it is used.
+ * <p>
+ * The generated class is picked up automatically when present. Generated sql objects can also be warmed up when
+ * the application starts, see {@link SqlObjectBuilder#warmUp(ClassLoader)}.
+ * <p>
+ * The processor isn't registered as a service: enable it explicitly in the modules declaring such sql objects,
+ * e.g. <code>-processor org.skife.jdbi.v2.sqlobject.SqlObjectProcessor</code> (<code>annotationProcessors</code>
+ * in the maven-compiler-plugin configuration).
+ */
+@Documented
+@Retention(RetentionPolicy.CLASS)
+@Target(ElementType.TYPE)
+public @interface GenerateSqlObject
+{
+}
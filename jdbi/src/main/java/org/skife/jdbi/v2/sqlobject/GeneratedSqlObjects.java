@@ -0,0 +1,123 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2.sqlobject;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Support for the sql object implementations generated by {@link SqlObjectProcessor}. It is an internal api and NOT
+ * to be used by users!
+ */
+public final class GeneratedSqlObjects
+{
+    /**
+     * Suffix of the generated implementation of a sql object, e.g. <code>com.acme.FooDao$$SqlObject</code>
+     */
+    public static final String CLASS_SUFFIX = "$$SqlObject";
+
+    /**
+     * Resource listing (one per line) the sql objects generated in a compilation unit
+     */
+    public static final String INDEX_RESOURCE = "META-INF/jdbi/sql-objects";
+
+    /**
+     * How a method is handled, as determined at compile time from its annotations
+     */
+    public enum MethodKind
+    {
+        QUERY, UPDATE, BATCH, CALL, CREATE_SQL_OBJECT, CLOSE, TRANSACTION,
+        /**
+         * Mixin (e.g. {@link org.skife.jdbi.v2.sqlobject.mixins.Transactional}) or pass-through method
+         */
+        OTHER
+    }
+
+    public interface HandlerTable
+    {
+        void add(Method method, MethodKind kind);
+    }
+
+    public interface Factory<T>
+    {
+        T create(SqlObjectInterceptor interceptor);
+
+        /**
+         * Describe each intercepted method, so that the handlers are built without resolving the members of the sql object
+         */
+        void describe(HandlerTable table);
+    }
+
+    private GeneratedSqlObjects()
+    {
+    }
+
+    /**
+     * Look the intercepted methods up, with a single reflective lookup per declaring type
+     */
+    public static Method[] methods(Class<?>[] declaringTypes, String[] names, Class<?>[][] parameterTypes)
+    {
+        final Map<Class<?>, Method[]> declaredMethods = new HashMap<Class<?>, Method[]>();
+        final Method[] methods = new Method[names.length];
+        for (int i = 0; i < methods.length; i++) {
+            final Method[] candidates = declaredMethods.computeIfAbsent(declaringTypes[i], Class::getDeclaredMethods);
+            for (Method candidate : candidates) {
+                if (!candidate.isBridge() && candidate.getName().equals(names[i]) && Arrays.equals(candidate.getParameterTypes(), parameterTypes[i])) {
+                    methods[i] = candidate;
+                    break;
+                }
+            }
+            if (methods[i] == null) {
+                throw new IllegalStateException("Generated sql object out of date with " + declaringTypes[i].getName() + ": no method " + names[i]);
+            }
+        }
+        return methods;
+    }
+
+    /**
+     * Rethrow as is (like the runtime generated sql objects do)
+     */
+    @SuppressWarnings("unchecked")
+    public static <E extends Throwable> RuntimeException propagate(Throwable throwable) throws E
+    {
+        throw (E) throwable;
+    }
+
+    static Factory<?> findFactory(Class<?> sqlObjectType)
+    {
+        final String className = sqlObjectType.getName() + CLASS_SUFFIX;
+        final Class<?> factoryClass;
+        try {
+            // Initialized right away, so that stale methods are detected here
+            Class.forName(className, true, sqlObjectType.getClassLoader());
+            factoryClass = Class.forName(className + "$Factory", true, sqlObjectType.getClassLoader());
+        }
+        catch (ClassNotFoundException | LinkageError e) {
+            // Not generated, or not for this version of the sql object
+            return null;
+        }
+
+        try {
+            return (Factory<?>) factoryClass.getConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | ClassCastException e) {
+            throw new IllegalStateException("Unable to instantiate " + factoryClass.getName(), e);
+        }
+    }
+}
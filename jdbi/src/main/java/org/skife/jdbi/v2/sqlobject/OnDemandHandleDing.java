@@ -44,6 +44,19 @@ class OnDemandHandleDing implements HandleDing
         return threadDing.get().getHandle();
     }
 
+    IDBI getDbi()
+    {
+        return dbi;
+    }
+
+    /**
+     * @return true if the current thread holds a handle (e.g. in a transaction)
+     */
+    boolean isRetained()
+    {
+        return threadDing.get() != null;
+    }
+
     @Override
     public void retain(String name)
     {
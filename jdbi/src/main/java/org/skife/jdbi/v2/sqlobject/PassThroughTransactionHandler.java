@@ -24,16 +24,17 @@ import java.util.Objects;
 import java.util.concurrent.Callable;
 
 import org.skife.jdbi.v2.Handle;
-import org.skife.jdbi.v2.TransactionCallback;
 import org.skife.jdbi.v2.TransactionIsolationLevel;
 import org.skife.jdbi.v2.TransactionStatus;
 
 class PassThroughTransactionHandler implements Handler
 {
+    private final Method method;
     private final TransactionIsolationLevel isolation;
 
     PassThroughTransactionHandler(Method m, Transaction tx)
     {
+        this.method = m;
         this.isolation = tx.value();
     }
 
@@ -49,45 +50,10 @@ class PassThroughTransactionHandler implements Handler
             }
 
             if (isolation == TransactionIsolationLevel.INVALID_LEVEL) {
-                return h.inTransaction(new TransactionCallback<Object>()
-                {
-                    @Override
-                    public Object inTransaction(Handle conn, TransactionStatus status) throws Exception
-                    {
-                        try {
-                            return methodProxy.call();
-                        }
-                        catch (Throwable throwable) {
-                            if (throwable instanceof Exception) {
-                                throw (Exception) throwable;
-                            }
-                            else {
-                                throw new RuntimeException(throwable);
-                            }
-                        }
-                    }
-                });
+                return h.inTransaction(new MethodTransactionCallback(method, methodProxy));
             }
             else {
-                return h.inTransaction(isolation, new TransactionCallback<Object>()
-                {
-                    @Override
-                    public Object inTransaction(Handle conn, TransactionStatus status) throws Exception
-                    {
-                        try {
-                            return methodProxy.call();
-                        }
-                        catch (Throwable throwable) {
-                            if (throwable instanceof Exception) {
-                                throw (Exception) throwable;
-                            }
-                            else {
-                                throw new RuntimeException(throwable);
-                            }
-                        }
-                    }
-                });
-
+                return h.inTransaction(isolation, new MethodTransactionCallback(method, methodProxy));
             }
         }
 
@@ -95,4 +61,38 @@ class PassThroughTransactionHandler implements Handler
             ding.release("pass-through-transaction");
         }
     }
+
+    private static class MethodTransactionCallback implements SqlObjectTransactionCallback<Object>
+    {
+        private final Method method;
+        private final Callable<?> methodProxy;
+
+        MethodTransactionCallback(Method method, Callable<?> methodProxy)
+        {
+            this.method = method;
+            this.methodProxy = methodProxy;
+        }
+
+        @Override
+        public Method getSqlObjectMethod()
+        {
+            return method;
+        }
+
+        @Override
+        public Object inTransaction(Handle conn, TransactionStatus status) throws Exception
+        {
+            try {
+                return methodProxy.call();
+            }
+            catch (Throwable throwable) {
+                if (throwable instanceof Exception) {
+                    throw (Exception) throwable;
+                }
+                else {
+                    throw new RuntimeException(throwable);
+                }
+            }
+        }
+    }
 }
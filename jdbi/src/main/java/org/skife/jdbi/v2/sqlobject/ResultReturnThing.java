@@ -23,16 +23,23 @@ import com.fasterxml.classmate.ResolvedType;
 import com.fasterxml.classmate.TypeBindings;
 import com.fasterxml.classmate.members.ResolvedMethod;
 
+import org.killbill.commons.jdbi.statement.SmartFetchSize;
 import org.skife.jdbi.v2.Query;
 import org.skife.jdbi.v2.ResultBearing;
 import org.skife.jdbi.v2.ResultIterator;
 import org.skife.jdbi.v2.exceptions.UnableToCreateStatementException;
+import org.skife.jdbi.v2.sqlobject.customizers.FetchSize;
 import org.skife.jdbi.v2.sqlobject.customizers.Mapper;
 import org.skife.jdbi.v2.sqlobject.customizers.SingleValueResult;
 import org.skife.jdbi.v2.tweak.ResultSetMapper;
 
+import java.lang.reflect.Method;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 abstract class ResultReturnThing
 {
@@ -70,6 +77,9 @@ abstract class ResultReturnThing
         else if (return_type.isInstanceOf(Iterator.class)) {
             return new IteratorResultReturnThing(method);
         }
+        else if (return_type.isInstanceOf(Stream.class)) {
+            return new StreamReturningThing(method);
+        }
         else {
             return new SingleValueResultReturnThing(method);
         }
@@ -265,4 +275,102 @@ abstract class ResultReturnThing
             return resolvedType.getErasedType();
         }
     }
+
+    /**
+     * Streams the results: the handle is retained until the stream is closed (or fully consumed). Unless the
+     * method (or the sql object) specifies a fetch size, results are streamed from the database as with
+     * {@code @SmartFetchSize(shouldStream = true)}. Note that on MySQL, no other statement can be executed
+     * on the handle while the stream is open.
+     */
+    static class StreamReturningThing extends ResultReturnThing
+    {
+        private final ResolvedType resolvedType;
+        private final boolean hasFetchSize;
+
+        public StreamReturningThing(ResolvedMethod method)
+        {
+            // extract T from Stream<T>
+            ResolvedType query_type = method.getReturnType();
+            List<ResolvedType> query_return_types = query_type.typeParametersFor(Stream.class);
+            this.resolvedType = query_return_types.get(0);
+
+            final Method raw_method = method.getRawMember();
+            this.hasFetchSize = hasFetchSize(raw_method.getAnnotation(SmartFetchSize.class), raw_method.getAnnotation(FetchSize.class)) ||
+                                hasFetchSize(raw_method.getDeclaringClass().getAnnotation(SmartFetchSize.class), raw_method.getDeclaringClass().getAnnotation(FetchSize.class));
+        }
+
+        private static boolean hasFetchSize(SmartFetchSize smartFetchSize, FetchSize fetchSize)
+        {
+            return smartFetchSize != null || fetchSize != null;
+        }
+
+        @Override
+        protected Object result(ResultBearing q, final HandleDing baton)
+        {
+            if (!hasFetchSize && q instanceof Query) {
+                ((Query<?>) q).addStatementCustomizer(new SmartFetchSize.SmartFetchSizeCustomizer(0, true));
+            }
+
+            final ResultIterator itty = q.iterator();
+            if (!itty.hasNext()) {
+                itty.close();
+                return Stream.empty();
+            }
+
+            baton.retain("stream");
+            final Runnable close = new Runnable()
+            {
+                private boolean closed = false;
+
+                @Override
+                public void run()
+                {
+                    if (!closed) {
+                        closed = true;
+                        try {
+                            itty.close();
+                        }
+                        finally {
+                            baton.release("stream");
+                        }
+                    }
+                }
+            };
+
+            final Iterator<Object> iterator = new Iterator<Object>()
+            {
+                @Override
+                public boolean hasNext()
+                {
+                    final boolean hasNext = itty.hasNext();
+                    if (!hasNext) {
+                        // Release the handle as soon as possible
+                        close.run();
+                    }
+                    return hasNext;
+                }
+
+                @Override
+                public Object next()
+                {
+                    try {
+                        return itty.next();
+                    }
+                    catch (RuntimeException e) {
+                        close.run();
+                        throw e;
+                    }
+                }
+            };
+
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                                .onClose(close);
+        }
+
+        @Override
+        protected Class<?> mapTo(ResolvedMethod method)
+        {
+            return resolvedType.getErasedType();
+        }
+    }
 }
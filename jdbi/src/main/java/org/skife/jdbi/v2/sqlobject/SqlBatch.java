@@ -52,4 +52,14 @@ public @interface SqlBatch
      * true (and it will be strange if you want otherwise).
      */
     boolean transactional() default true;
+
+    /**
+     * Maximum number of rows per statement when sending a homogeneous <code>INSERT ... VALUES (...)</code>
+     * batch as multi-row <code>VALUES (...), (...)</code> statements. Default is 0, which keeps one
+     * statement per row. Each chunk (see {@link org.skife.jdbi.v2.sqlobject.customizers.BatchChunkSize})
+     * is rewritten on its own.
+     *
+     * @see org.skife.jdbi.v2.PreparedBatch#setMultiRowValues(int)
+     */
+    int multiRowValues() default 0;
 }
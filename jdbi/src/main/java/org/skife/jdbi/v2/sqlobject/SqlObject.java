@@ -19,8 +19,10 @@
  */
 package org.skife.jdbi.v2.sqlobject;
 
+import java.lang.annotation.Annotation;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Type;
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Objects;
@@ -28,10 +30,18 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
+import org.killbill.commons.jdbi.hikari.SqlObjectMethodContext;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.IDBI;
+import org.skife.jdbi.v2.sqlobject.GeneratedSqlObjects.MethodKind;
+
+import com.fasterxml.classmate.Annotations;
 import com.fasterxml.classmate.MemberResolver;
 import com.fasterxml.classmate.ResolvedType;
 import com.fasterxml.classmate.ResolvedTypeWithMembers;
+import com.fasterxml.classmate.TypeBindings;
 import com.fasterxml.classmate.TypeResolver;
 import com.fasterxml.classmate.members.ResolvedMethod;
 import net.bytebuddy.ByteBuddy;
@@ -48,7 +58,18 @@ class SqlObject
     private static final TypeResolver typeResolver  = new TypeResolver();
     private static final Map<Method, Handler> mixinHandlers = new HashMap<>();
     private static final ConcurrentMap<Class<?>, Map<Method, Handler>> handlersCache = new ConcurrentHashMap<>();
+    // The methods returning a future, on top of the handler of their statement
+    private static final ConcurrentMap<Class<?>, Map<Method, AsyncHandler>> asyncHandlersCache = new ConcurrentHashMap<>();
     private static final TypeCache<Class<?>> typeCache = new WithInlineExpunction<>(TypeCache.Sort.SOFT);
+    // Implementations generated at compile time (see GenerateSqlObject), null if none
+    private static final ClassValue<GeneratedSqlObjects.Factory<?>> generatedFactories = new ClassValue<GeneratedSqlObjects.Factory<?>>()
+    {
+        @Override
+        protected GeneratedSqlObjects.Factory<?> computeValue(Class<?> type)
+        {
+            return GeneratedSqlObjects.findFactory(type);
+        }
+    };
 
     static {
         mixinHandlers.putAll(TransactionalHelper.handlers());
@@ -58,6 +79,12 @@ class SqlObject
 
     static <T> T buildSqlObject(final Class<T> sqlObjectType, final HandleDing handle)
     {
+        final GeneratedSqlObjects.Factory<?> factory = generatedFactories.get(sqlObjectType);
+        if (factory != null) {
+            final SqlObject sqlObject = new SqlObject(buildHandlersFor(sqlObjectType), asyncHandlersCache.get(sqlObjectType), handle);
+            return sqlObjectType.cast(factory.create(new SqlObjectInterceptor(sqlObject)));
+        }
+
         final T sqlObjectProxy;
         final Class<?> loadedClass = typeCache.findOrInsert(sqlObjectType.getClassLoader(), sqlObjectType, () -> new ByteBuddy()
                 .subclass(sqlObjectType)
@@ -75,7 +102,7 @@ class SqlObject
             throw new AssertionError("Failed to instantiate proxy class for " + sqlObjectType.getName(), e);
         }
 
-        final SqlObject sqlObject = new SqlObject(buildHandlersFor(sqlObjectType), handle);
+        final SqlObject sqlObject = new SqlObject(buildHandlersFor(sqlObjectType), asyncHandlersCache.get(sqlObjectType), handle);
         final SqlObjectInterceptor sqlObjectInterceptor = new SqlObjectInterceptor(sqlObject);
         try {
             final Field sqlObjectField = sqlObjectProxy.getClass().getField("delegateToSqlObjectInterceptor");
@@ -88,47 +115,40 @@ class SqlObject
         return sqlObjectProxy;
     }
 
+    /**
+     * Resolve the handlers, and the generated implementation if any, of a sql object ahead of its first use
+     *
+     * @return true if the sql object has a generated implementation
+     */
+    static boolean warmUp(final Class<?> sqlObjectType)
+    {
+        buildHandlersFor(sqlObjectType);
+        return generatedFactories.get(sqlObjectType) != null;
+    }
+
     private static Map<Method, Handler> buildHandlersFor(Class<?> sqlObjectType)
     {
         if (handlersCache.containsKey(sqlObjectType)) {
             return handlersCache.get(sqlObjectType);
         }
 
-        final MemberResolver mr = new MemberResolver(typeResolver);
-        final ResolvedType sql_object_type = typeResolver.resolve(sqlObjectType);
-
-        final ResolvedTypeWithMembers d = mr.resolve(sql_object_type, null, null);
-
         final Map<Method, Handler> handlers = new HashMap<Method, Handler>();
-        for (final ResolvedMethod method : d.getMemberMethods()) {
-            final Method raw_method = method.getRawMember();
+        final Map<Method, AsyncHandler> asyncHandlers = new HashMap<Method, AsyncHandler>();
+        final GeneratedSqlObjects.Factory<?> factory = generatedFactories.get(sqlObjectType);
+        if (factory != null) {
+            // The methods and how to handle them are known at compile time: only the statements need their types resolved
+            final ResolvedType sql_object_type = typeResolver.resolve(sqlObjectType);
+            factory.describe((raw_method, kind) -> putHandler(sqlObjectType, raw_method, kind, () -> resolveMethod(sql_object_type, raw_method), handlers, asyncHandlers));
+        }
+        else {
+            final MemberResolver mr = new MemberResolver(typeResolver);
+            final ResolvedType sql_object_type = typeResolver.resolve(sqlObjectType);
 
-            if (raw_method.isAnnotationPresent(SqlQuery.class)) {
-                handlers.put(raw_method, new QueryHandler(sqlObjectType, method, ResultReturnThing.forType(method)));
-            }
-            else if (raw_method.isAnnotationPresent(SqlUpdate.class)) {
-                handlers.put(raw_method, new UpdateHandler(sqlObjectType, method));
-            }
-            else if (raw_method.isAnnotationPresent(SqlBatch.class)) {
-                handlers.put(raw_method, new BatchHandler(sqlObjectType, method));
-            }
-            else if (raw_method.isAnnotationPresent(SqlCall.class)) {
-                handlers.put(raw_method, new CallHandler(sqlObjectType, method));
-            }
-            else if(raw_method.isAnnotationPresent(CreateSqlObject.class)) {
-                handlers.put(raw_method, new CreateSqlObjectHandler(raw_method.getReturnType()));
-            }
-            else if (method.getName().equals("close") && method.getRawMember().getParameterTypes().length == 0) {
-                handlers.put(raw_method, new CloseHandler());
-            }
-            else if (raw_method.isAnnotationPresent(Transaction.class)) {
-                handlers.put(raw_method, new PassThroughTransactionHandler(raw_method, raw_method.getAnnotation(Transaction.class)));
-            }
-            else if (mixinHandlers.containsKey(raw_method)) {
-                handlers.put(raw_method, mixinHandlers.get(raw_method));
-            }
-            else {
-                handlers.put(raw_method, new PassThroughHandler(raw_method));
+            final ResolvedTypeWithMembers d = mr.resolve(sql_object_type, null, null);
+
+            for (final ResolvedMethod method : d.getMemberMethods()) {
+                final Method raw_method = method.getRawMember();
+                putHandler(sqlObjectType, raw_method, kindOf(raw_method), () -> method, handlers, asyncHandlers);
             }
         }
 
@@ -139,20 +159,154 @@ class SqlObject
         handlers.putAll(ToStringHandler.handler(sqlObjectType.getName()));
         handlers.putAll(HashCodeHandler.handler());
 
+        // Published first, as handlersCache tells whether the handlers were built
+        asyncHandlersCache.put(sqlObjectType, asyncHandlers);
         handlersCache.put(sqlObjectType, handlers);
 
         return handlers;
     }
 
+    /**
+     * Same rules as SqlObjectProcessor#kindOf, which applies to the sql objects generated at compile time
+     */
+    static MethodKind kindOf(Method raw_method)
+    {
+        if (raw_method.isAnnotationPresent(SqlQuery.class)) {
+            return MethodKind.QUERY;
+        }
+        else if (raw_method.isAnnotationPresent(SqlUpdate.class)) {
+            return MethodKind.UPDATE;
+        }
+        else if (raw_method.isAnnotationPresent(SqlBatch.class)) {
+            return MethodKind.BATCH;
+        }
+        else if (raw_method.isAnnotationPresent(SqlCall.class)) {
+            return MethodKind.CALL;
+        }
+        else if (raw_method.isAnnotationPresent(CreateSqlObject.class)) {
+            return MethodKind.CREATE_SQL_OBJECT;
+        }
+        else if (raw_method.getName().equals("close") && raw_method.getParameterTypes().length == 0) {
+            return MethodKind.CLOSE;
+        }
+        else if (raw_method.isAnnotationPresent(Transaction.class)) {
+            return MethodKind.TRANSACTION;
+        }
+        else {
+            return MethodKind.OTHER;
+        }
+    }
+
+    private static void putHandler(Class<?> sqlObjectType,
+                                   Method raw_method,
+                                   MethodKind kind,
+                                   Supplier<ResolvedMethod> resolvedMethod,
+                                   Map<Method, Handler> handlers,
+                                   Map<Method, AsyncHandler> asyncHandlers)
+    {
+        switch (kind) {
+            case QUERY:
+            case UPDATE:
+            case BATCH:
+            case CALL:
+                final ResolvedMethod method = resolvedMethod.get();
+                if (AsyncHandler.isAsync(method)) {
+                    final ResolvedMethod resultMethod = AsyncHandler.resultMethod(method);
+                    handlers.put(raw_method, buildStatementHandler(sqlObjectType, kind, resultMethod));
+                    asyncHandlers.put(raw_method, new AsyncHandler(resultMethod));
+                }
+                else {
+                    handlers.put(raw_method, buildStatementHandler(sqlObjectType, kind, method));
+                }
+                break;
+            case CREATE_SQL_OBJECT:
+                handlers.put(raw_method, new CreateSqlObjectHandler(raw_method.getReturnType()));
+                break;
+            case CLOSE:
+                handlers.put(raw_method, new CloseHandler());
+                break;
+            case TRANSACTION:
+                handlers.put(raw_method, new PassThroughTransactionHandler(raw_method, raw_method.getAnnotation(Transaction.class)));
+                break;
+            default:
+                final Handler mixinHandler = mixinHandlers.get(raw_method);
+                handlers.put(raw_method, mixinHandler != null ? mixinHandler : new PassThroughHandler(raw_method));
+        }
+    }
+
+    private static Handler buildStatementHandler(Class<?> sqlObjectType, MethodKind kind, ResolvedMethod method)
+    {
+        switch (kind) {
+            case QUERY:
+                return new QueryHandler(sqlObjectType, method, ResultReturnThing.forType(method));
+            case UPDATE:
+                return new UpdateHandler(sqlObjectType, method);
+            case BATCH:
+                return new BatchHandler(sqlObjectType, method);
+            default:
+                return new CallHandler(sqlObjectType, method);
+        }
+    }
+
+    /**
+     * Resolve a single method, like {@link MemberResolver} does for all the members of the sql object
+     */
+    private static ResolvedMethod resolveMethod(ResolvedType sqlObjectType, Method raw_method)
+    {
+        ResolvedType declaringType = findSupertype(sqlObjectType, raw_method.getDeclaringClass());
+        if (declaringType == null) {
+            declaringType = typeResolver.resolve(raw_method.getDeclaringClass());
+        }
+        final TypeBindings bindings = declaringType.getTypeBindings();
 
-    private final Map<Method, Handler> handlers;
-    private final HandleDing           ding;
+        final Annotations annotations = new Annotations();
+        for (final Annotation annotation : raw_method.getAnnotations()) {
+            annotations.add(annotation);
+        }
+        final Type returnType = raw_method.getGenericReturnType();
+        final Type[] parameterTypes = raw_method.getGenericParameterTypes();
+        final ResolvedType[] argumentTypes = new ResolvedType[parameterTypes.length];
+        for (int i = 0; i < parameterTypes.length; i++) {
+            argumentTypes[i] = typeResolver.resolve(bindings, parameterTypes[i]);
+        }
+        return new ResolvedMethod(declaringType,
+                                  annotations,
+                                  raw_method,
+                                  returnType == Void.TYPE ? null : typeResolver.resolve(bindings, returnType),
+                                  argumentTypes);
+    }
+
+    private static ResolvedType findSupertype(ResolvedType type, Class<?> erasedType)
+    {
+        if (type == null || type.getErasedType() == erasedType) {
+            return type;
+        }
+        final ResolvedType parent = findSupertype(type.getParentClass(), erasedType);
+        if (parent != null) {
+            return parent;
+        }
+        for (final ResolvedType implemented : type.getImplementedInterfaces()) {
+            final ResolvedType supertype = findSupertype(implemented, erasedType);
+            if (supertype != null) {
+                return supertype;
+            }
+        }
+        return null;
+    }
+
+    private final Map<Method, Handler>      handlers;
+    private final Map<Method, AsyncHandler> asyncHandlers;
+    private final HandleDing                ding;
 
     private static final AtomicLong RETAINER = new AtomicLong();
 
-    public SqlObject(Map<Method, Handler> handlers, HandleDing ding)
+    // Null unless connections are routed (see SqlObjectBuilder#setConnectionRouter)
+    private static volatile SqlObjectConnectionRouter connectionRouter;
+
+    public SqlObject(Map<Method, Handler> handlers, Map<Method, AsyncHandler> asyncHandlers, HandleDing ding)
     {
         this.handlers = handlers;
+        this.asyncHandlers = asyncHandlers;
         this.ding = ding;
     }
 
@@ -170,11 +324,26 @@ class SqlObject
             return methodProxy.call();
         }
 
+        final AsyncHandler asyncHandler = asyncHandlers.get(method);
+        if (asyncHandler != null) {
+            // Same handle management (replica reads, write tracking) as synchronous calls, right away or on the executor thread
+            return asyncHandler.invoke(ding,
+                                       dbi -> open(dbi, handler),
+                                       asyncDing -> invokeWithHandle(method, handler, asyncDing, proxy, args, methodProxy));
+        }
+
+        return invokeWithHandle(method, handler, ding, proxy, args, methodProxy);
+    }
+
+    private static Object invokeWithHandle(Method method, Handler handler, HandleDing ding, Object proxy, Object[] args, Callable<?> methodProxy)
+    {
         Throwable doNotMask = null;
         // [OPTIMIZATION] method.toString() is expensive
         final String retainName = String.valueOf(RETAINER.getAndIncrement());
+        // The connection is given back to the pool when the handle is released: attribute its usage to this method
+        final Object methodContext = SqlObjectMethodContext.enter(method);
         try {
-            ding.retain(retainName);
+            retain(ding, retainName, handler);
             return handler.invoke(ding, proxy, args, methodProxy);
         }
         catch (Throwable e) {
@@ -190,7 +359,57 @@ class SqlObject
                     throw e;
                 }
             }
+            finally {
+                SqlObjectMethodContext.exit(methodContext);
+            }
+        }
+    }
+
+    static void setConnectionRouter(SqlObjectConnectionRouter router)
+    {
+        connectionRouter = router;
+    }
+
+    /**
+     * Open the handle of an asynchronous call, routed like {@link #retain(HandleDing, String, Handler)} does
+     */
+    private static Handle open(IDBI dbi, Handler handler)
+    {
+        final SqlObjectConnectionRouter router = connectionRouter;
+        if (startRead(router, handler)) {
+            try {
+                return dbi.open();
+            }
+            finally {
+                router.endRead();
+            }
         }
+        return dbi.open();
+    }
+
+    private static void retain(HandleDing ding, String retainName, Handler handler)
+    {
+        final SqlObjectConnectionRouter router = connectionRouter;
+        if (startRead(router, handler)) {
+            try {
+                ding.retain(retainName);
+            }
+            finally {
+                router.endRead();
+            }
+            return;
+        }
+        ding.retain(retainName);
+        if (router != null && (handler instanceof UpdateHandler || handler instanceof BatchHandler || handler instanceof CallHandler)) {
+            router.beforeWrite(ding.getHandle().getConnection());
+        }
+    }
+
+    private static boolean startRead(SqlObjectConnectionRouter router, Handler handler)
+    {
+        return router != null &&
+               handler instanceof QueryHandler &&
+               router.startRead(((QueryHandler) handler).getSqlObjectType(), ((QueryHandler) handler).getMethod());
     }
 
     public static void close(Object sqlObject)
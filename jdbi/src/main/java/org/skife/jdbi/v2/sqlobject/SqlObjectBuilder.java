@@ -22,6 +22,14 @@ package org.skife.jdbi.v2.sqlobject;
 import org.skife.jdbi.v2.Handle;
 import org.skife.jdbi.v2.IDBI;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+
 /**
  * This duplicates the API on {@link org.skife.jdbi.v2.DBI} and {@link Handle} for creating sql objects. While it is fine to use these
  * methods to create sql objects, there is no real difference between them and the oones on DBI and Handle.
@@ -78,4 +86,46 @@ public class SqlObjectBuilder
     {
         SqlObject.close(sqlObject);
     }
+
+    /**
+     * Route the connections used by all sql objects, e.g. queries to a read replica
+     *
+     * @param router the router, or null to stop routing
+     */
+    public static void setConnectionRouter(SqlObjectConnectionRouter router)
+    {
+        SqlObject.setConnectionRouter(router);
+    }
+
+    /**
+     * Prepare the sql objects generated at compile time (see {@link GenerateSqlObject}) found in this class loader,
+     * so that the first calls don't pay for it. Typically called when the application starts.
+     *
+     * @param classLoader the class loader to look the generated sql objects up in
+     * @return the number of sql objects prepared
+     */
+    public static int warmUp(ClassLoader classLoader)
+    {
+        int warmedUp = 0;
+        try {
+            final Enumeration<URL> indexes = classLoader.getResources(GeneratedSqlObjects.INDEX_RESOURCE);
+            while (indexes.hasMoreElements()) {
+                try (BufferedReader reader = new BufferedReader(new InputStreamReader(indexes.nextElement().openStream(), StandardCharsets.UTF_8))) {
+                    String sqlObjectType;
+                    while ((sqlObjectType = reader.readLine()) != null) {
+                        if (!sqlObjectType.isBlank() && SqlObject.warmUp(Class.forName(sqlObjectType.trim(), true, classLoader))) {
+                            warmedUp++;
+                        }
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        catch (ClassNotFoundException e) {
+            throw new IllegalStateException("Stale " + GeneratedSqlObjects.INDEX_RESOURCE, e);
+        }
+        return warmedUp;
+    }
 }
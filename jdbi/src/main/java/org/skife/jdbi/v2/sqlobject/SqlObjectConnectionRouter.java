@@ -0,0 +1,45 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2.sqlobject;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+
+/**
+ * Lets the connections used by sql objects be routed, e.g. queries to a read replica
+ * (see {@link SqlObjectBuilder#setConnectionRouter(SqlObjectConnectionRouter)}).
+ */
+public interface SqlObjectConnectionRouter
+{
+    /**
+     * Called before opening the handle of a query
+     *
+     * @param sqlObjectType the sql object type
+     * @param method        the query method
+     * @return true if the connections opened by the current thread are routed for this query, until {@link #endRead()}
+     */
+    boolean startRead(Class<?> sqlObjectType, Method method);
+
+    void endRead();
+
+    /**
+     * Called before running an update, batch or call
+     *
+     * @param connection the connection of the handle running it
+     */
+    void beforeWrite(Connection connection);
+}
@@ -0,0 +1,394 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2.sqlobject;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.ExecutableType;
+import javax.lang.model.type.IntersectionType;
+import javax.lang.model.type.PrimitiveType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.lang.model.type.TypeVariable;
+import javax.lang.model.util.ElementFilter;
+import javax.tools.Diagnostic.Kind;
+import javax.tools.FileObject;
+import javax.tools.StandardLocation;
+
+/**
+ * Generates the implementation of the sql objects annotated with {@link GenerateSqlObject}.
+ * <p>
+ * Like the sql objects generated at runtime, each method delegates to the {@link SqlObjectInterceptor} (with a call to
+ * the super method for non-abstract methods). The generated classes also describe how each method is handled, so that
+ * the handlers are built from this table rather than from the members resolved at runtime: the statements themselves
+ * are still prepared by the sql object handlers.
+ */
+@SupportedAnnotationTypes("org.skife.jdbi.v2.sqlobject.GenerateSqlObject")
+public class SqlObjectProcessor extends AbstractProcessor
+{
+    private final Set<String> generated = new TreeSet<String>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion()
+    {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(Set<? extends TypeElement> annotations, RoundEnvironment roundEnv)
+    {
+        for (Element element : roundEnv.getElementsAnnotatedWith(GenerateSqlObject.class)) {
+            if (!(element instanceof TypeElement)) {
+                continue;
+            }
+            final TypeElement type = (TypeElement) element;
+            final String unsupported = checkSupported(type);
+            if (unsupported != null) {
+                processingEnv.getMessager().printMessage(Kind.WARNING, "Not generating a sql object implementation: " + unsupported, type);
+                continue;
+            }
+
+            try {
+                generate(type);
+                generated.add(processingEnv.getElementUtils().getBinaryName(type).toString());
+            }
+            catch (IOException e) {
+                processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to generate the sql object implementation: " + e, type);
+            }
+        }
+
+        if (roundEnv.processingOver() && !generated.isEmpty()) {
+            writeIndex();
+        }
+        return false;
+    }
+
+    private String checkSupported(TypeElement type)
+    {
+        if (type.getKind() != ElementKind.INTERFACE && !(type.getKind() == ElementKind.CLASS && type.getModifiers().contains(Modifier.ABSTRACT))) {
+            return "only interfaces and abstract classes are supported";
+        }
+        if (!type.getTypeParameters().isEmpty()) {
+            return "generic sql objects are not supported";
+        }
+        for (Element enclosing = type; enclosing instanceof TypeElement; enclosing = enclosing.getEnclosingElement()) {
+            if (enclosing.getModifiers().contains(Modifier.PRIVATE)) {
+                return "private types are not supported";
+            }
+        }
+        if (type.getKind() == ElementKind.CLASS) {
+            if (type.getNestingKind().isNested() && !type.getModifiers().contains(Modifier.STATIC) && !type.getEnclosingElement().getKind().isInterface()) {
+                return "inner classes are not supported";
+            }
+            boolean noArgConstructor = false;
+            for (ExecutableElement constructor : ElementFilter.constructorsIn(type.getEnclosedElements())) {
+                noArgConstructor |= constructor.getParameters().isEmpty() && !constructor.getModifiers().contains(Modifier.PRIVATE);
+            }
+            if (!noArgConstructor) {
+                return "a no-arg constructor is required";
+            }
+        }
+        return null;
+    }
+
+    private void generate(TypeElement type) throws IOException
+    {
+        final PackageElement pkg = processingEnv.getElementUtils().getPackageOf(type);
+        final String packageName = pkg.isUnnamed() ? "" : pkg.getQualifiedName().toString();
+        final String binaryName = processingEnv.getElementUtils().getBinaryName(type).toString();
+        final String className = (packageName.isEmpty() ? binaryName : binaryName.substring(packageName.length() + 1)) + GeneratedSqlObjects.CLASS_SUFFIX;
+        final String typeName = type.getQualifiedName().toString();
+        final boolean isInterface = type.getKind() == ElementKind.INTERFACE;
+        final List<ExecutableElement> methods = getInterceptedMethods(type);
+
+        final StringBuilder src = new StringBuilder();
+        if (!packageName.isEmpty()) {
+            src.append("package ").append(packageName).append(";\n\n");
+        }
+        src.append("@javax.annotation.processing.Generated(\"").append(SqlObjectProcessor.class.getName()).append("\")\n");
+        src.append("@SuppressWarnings({\"unchecked\", \"rawtypes\"})\n");
+        src.append("public final class ").append(className)
+           .append(isInterface ? " implements " : " extends ").append(typeName)
+           .append(isInterface ? ", " : " implements ").append(CloseInternalDoNotUseThisClass.class.getCanonicalName()).append("\n{\n");
+
+        // The close method is looked up last, along with the intercepted methods
+        final String methodsClass = GeneratedSqlObjects.class.getCanonicalName();
+        final StringBuilder declaringTypes = new StringBuilder();
+        final StringBuilder names = new StringBuilder();
+        final StringBuilder parameterTypes = new StringBuilder();
+        for (ExecutableElement method : methods) {
+            declaringTypes.append(processingEnv.getTypeUtils().erasure(method.getEnclosingElement().asType())).append(".class, ");
+            names.append('"').append(method.getSimpleName()).append("\", ");
+            parameterTypes.append('{');
+            for (int i = 0; i < method.getParameters().size(); i++) {
+                parameterTypes.append(i == 0 ? "" : ", ").append(processingEnv.getTypeUtils().erasure(method.getParameters().get(i).asType())).append(".class");
+            }
+            parameterTypes.append("}, ");
+        }
+        declaringTypes.append(CloseInternalDoNotUseThisClass.class.getCanonicalName()).append(".class");
+        names.append("\"___jdbi_close___\"");
+        parameterTypes.append("{}");
+        src.append("    private static final java.lang.reflect.Method[] METHODS = ").append(methodsClass).append(".methods(\n")
+           .append("            new Class<?>[]{").append(declaringTypes).append("},\n")
+           .append("            new String[]{").append(names).append("},\n")
+           .append("            new Class<?>[][]{").append(parameterTypes).append("});\n");
+        for (int i = 0; i < methods.size(); i++) {
+            src.append("    private static final java.lang.reflect.Method M").append(i).append(" = METHODS[").append(i).append("];\n");
+        }
+        src.append("    private static final java.lang.reflect.Method CLOSE = METHODS[").append(methods.size()).append("];\n\n");
+
+        src.append("    private final ").append(SqlObjectInterceptor.class.getCanonicalName()).append(" interceptor;\n\n");
+        src.append("    public ").append(className).append("(").append(SqlObjectInterceptor.class.getCanonicalName()).append(" interceptor)\n    {\n")
+           .append("        this.interceptor = interceptor;\n    }\n");
+
+        for (int i = 0; i < methods.size(); i++) {
+            generateMethod(src, type, methods.get(i), "M" + i);
+        }
+
+        src.append("\n    @Override\n    public void ___jdbi_close___()\n    {\n        try {\n")
+           .append("            interceptor.intercept(this, CLOSE, new Object[0]);\n")
+           .append("        }\n        catch (Throwable e) {\n            throw ").append(GeneratedSqlObjects.class.getCanonicalName()).append(".<RuntimeException>propagate(e);\n        }\n    }\n");
+
+        src.append("\n    public static final class Factory implements ").append(GeneratedSqlObjects.class.getCanonicalName()).append(".Factory<").append(typeName).append(">\n    {\n")
+           .append("        @Override\n        public ").append(typeName).append(" create(").append(SqlObjectInterceptor.class.getCanonicalName()).append(" interceptor)\n        {\n")
+           .append("            return new ").append(className).append("(interceptor);\n        }\n");
+        src.append("\n        @Override\n        public void describe(").append(methodsClass).append(".HandlerTable table)\n        {\n");
+        for (int i = 0; i < methods.size(); i++) {
+            src.append("            table.add(M").append(i).append(", ").append(methodsClass).append(".MethodKind.").append(kindOf(methods.get(i))).append(");\n");
+        }
+        src.append("        }\n    }\n");
+        src.append("}\n");
+
+        final String qualifiedClassName = packageName.isEmpty() ? className : packageName + "." + className;
+        try (Writer writer = processingEnv.getFiler().createSourceFile(qualifiedClassName, type).openWriter()) {
+            writer.write(src.toString());
+        }
+    }
+
+    /**
+     * Same rules as SqlObject#kindOf, which applies to the sql objects generated at runtime
+     */
+    private GeneratedSqlObjects.MethodKind kindOf(ExecutableElement method)
+    {
+        if (method.getAnnotation(SqlQuery.class) != null) {
+            return GeneratedSqlObjects.MethodKind.QUERY;
+        }
+        else if (method.getAnnotation(SqlUpdate.class) != null) {
+            return GeneratedSqlObjects.MethodKind.UPDATE;
+        }
+        else if (method.getAnnotation(SqlBatch.class) != null) {
+            return GeneratedSqlObjects.MethodKind.BATCH;
+        }
+        else if (method.getAnnotation(SqlCall.class) != null) {
+            return GeneratedSqlObjects.MethodKind.CALL;
+        }
+        else if (method.getAnnotation(CreateSqlObject.class) != null) {
+            return GeneratedSqlObjects.MethodKind.CREATE_SQL_OBJECT;
+        }
+        else if (method.getSimpleName().contentEquals("close") && method.getParameters().isEmpty()) {
+            return GeneratedSqlObjects.MethodKind.CLOSE;
+        }
+        else if (method.getAnnotation(Transaction.class) != null) {
+            return GeneratedSqlObjects.MethodKind.TRANSACTION;
+        }
+        else {
+            return GeneratedSqlObjects.MethodKind.OTHER;
+        }
+    }
+
+    /**
+     * @return the methods the runtime generated sql objects would intercept, i.e. all overridable instance methods
+     */
+    private List<ExecutableElement> getInterceptedMethods(TypeElement type)
+    {
+        final Map<String, ExecutableElement> methods = new LinkedHashMap<String, ExecutableElement>();
+        for (ExecutableElement method : ElementFilter.methodsIn(processingEnv.getElementUtils().getAllMembers(type))) {
+            final Set<Modifier> modifiers = method.getModifiers();
+            if (modifiers.contains(Modifier.STATIC) || modifiers.contains(Modifier.FINAL) || modifiers.contains(Modifier.PRIVATE)) {
+                continue;
+            }
+            if (isObjectMethod(method) && !isInterceptedObjectMethod(method)) {
+                continue;
+            }
+            methods.put(signature(method), method);
+        }
+
+        // Interfaces don't expose the methods of Object
+        final TypeElement object = processingEnv.getElementUtils().getTypeElement(Object.class.getName());
+        for (ExecutableElement method : ElementFilter.methodsIn(object.getEnclosedElements())) {
+            if (isInterceptedObjectMethod(method) && !methods.containsKey(signature(method))) {
+                methods.put(signature(method), method);
+            }
+        }
+        return new ArrayList<ExecutableElement>(methods.values());
+    }
+
+    private boolean isObjectMethod(ExecutableElement method)
+    {
+        return ((TypeElement) method.getEnclosingElement()).getQualifiedName().contentEquals(Object.class.getName());
+    }
+
+    private boolean isInterceptedObjectMethod(ExecutableElement method)
+    {
+        final String name = method.getSimpleName().toString();
+        return isObjectMethod(method) &&
+               ("equals".equals(name) || "hashCode".equals(name) || "toString".equals(name));
+    }
+
+    private String signature(ExecutableElement method)
+    {
+        final StringBuilder signature = new StringBuilder(method.getSimpleName());
+        for (VariableElement parameter : method.getParameters()) {
+            signature.append(',').append(processingEnv.getTypeUtils().erasure(parameter.asType()));
+        }
+        return signature.toString();
+    }
+
+    private void generateMethod(StringBuilder src, TypeElement type, ExecutableElement method, String methodField)
+    {
+        final ExecutableType methodType = (ExecutableType) processingEnv.getTypeUtils().asMemberOf((DeclaredType) type.asType(), method);
+        final TypeMirror returnType = methodType.getReturnType();
+        final boolean returnsVoid = returnType.getKind() == TypeKind.VOID;
+        final boolean isAbstract = method.getModifiers().contains(Modifier.ABSTRACT);
+        final List<? extends VariableElement> parameters = method.getParameters();
+
+        src.append("\n    @Override\n    ");
+        if (method.getModifiers().contains(Modifier.PUBLIC)) {
+            src.append("public ");
+        }
+        else if (method.getModifiers().contains(Modifier.PROTECTED)) {
+            src.append("protected ");
+        }
+        if (!methodType.getTypeVariables().isEmpty()) {
+            src.append('<');
+            for (int i = 0; i < methodType.getTypeVariables().size(); i++) {
+                final TypeVariable typeVariable = methodType.getTypeVariables().get(i);
+                src.append(i == 0 ? "" : ", ").append(typeVariable);
+                final TypeMirror upperBound = typeVariable.getUpperBound();
+                if (upperBound.getKind() == TypeKind.INTERSECTION) {
+                    src.append(" extends ");
+                    final List<? extends TypeMirror> bounds = ((IntersectionType) upperBound).getBounds();
+                    for (int j = 0; j < bounds.size(); j++) {
+                        src.append(j == 0 ? "" : " & ").append(bounds.get(j));
+                    }
+                }
+                else if (!upperBound.toString().equals(Object.class.getName())) {
+                    src.append(" extends ").append(upperBound);
+                }
+            }
+            src.append("> ");
+        }
+        src.append(returnType).append(' ').append(method.getSimpleName()).append('(');
+        for (int i = 0; i < parameters.size(); i++) {
+            src.append(i == 0 ? "" : ", ").append("final ").append(methodType.getParameterTypes().get(i)).append(" a").append(i);
+        }
+        src.append(")\n    {\n        try {\n            ");
+
+        final StringBuilder args = new StringBuilder();
+        for (int i = 0; i < parameters.size(); i++) {
+            args.append(i == 0 ? "" : ", ").append('a').append(i);
+        }
+
+        if (!returnsVoid) {
+            src.append("return (").append(boxed(returnType)).append(") ");
+        }
+        if (isAbstract) {
+            src.append("interceptor.intercept(this, ").append(methodField).append(", new Object[]{").append(args).append("});\n");
+        }
+        else {
+            final String superCall = (type.getKind() == ElementKind.INTERFACE && !isObjectMethod(method) ? type.getQualifiedName() + ".super." : "super.") +
+                                     method.getSimpleName() + "(" + args + ")";
+            src.append("interceptor.intercept(").append(methodField).append(", () -> ")
+               .append(returnsVoid ? "{ " + superCall + "; return null; }" : superCall)
+               .append(", this, new Object[]{").append(args).append("});\n");
+        }
+        src.append("        }\n        catch (Throwable e) {\n            throw ").append(GeneratedSqlObjects.class.getCanonicalName()).append(".<RuntimeException>propagate(e);\n        }\n    }\n");
+    }
+
+    private String boxed(TypeMirror type)
+    {
+        if (type.getKind().isPrimitive()) {
+            return processingEnv.getTypeUtils().boxedClass((PrimitiveType) type).getQualifiedName().toString();
+        }
+        return type.toString();
+    }
+
+    private void writeIndex()
+    {
+        // Incremental builds only process the modified sources: keep the sql objects generated previously
+        final Set<String> sqlObjectTypes = new TreeSet<String>(generated);
+        for (String sqlObjectType : readIndex()) {
+            final TypeElement type = processingEnv.getElementUtils().getTypeElement(sqlObjectType);
+            if (type != null && type.getAnnotation(GenerateSqlObject.class) != null) {
+                sqlObjectTypes.add(sqlObjectType);
+            }
+        }
+
+        try {
+            final FileObject index = processingEnv.getFiler().createResource(StandardLocation.CLASS_OUTPUT, "", GeneratedSqlObjects.INDEX_RESOURCE);
+            try (Writer writer = index.openWriter()) {
+                for (String sqlObjectType : sqlObjectTypes) {
+                    writer.write(sqlObjectType);
+                    writer.write('\n');
+                }
+            }
+        }
+        catch (IOException e) {
+            processingEnv.getMessager().printMessage(Kind.ERROR, "Unable to write " + GeneratedSqlObjects.INDEX_RESOURCE + ": " + e);
+        }
+    }
+
+    private List<String> readIndex()
+    {
+        final List<String> sqlObjectTypes = new ArrayList<String>();
+        try {
+            final FileObject index = processingEnv.getFiler().getResource(StandardLocation.CLASS_OUTPUT, "", GeneratedSqlObjects.INDEX_RESOURCE);
+            try (BufferedReader reader = new BufferedReader(index.openReader(true))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.trim().isEmpty()) {
+                        sqlObjectTypes.add(line.trim());
+                    }
+                }
+            }
+        }
+        catch (IOException e) {
+            // No previous index (e.g. clean build)
+        }
+        return sqlObjectTypes;
+    }
+}
@@ -0,0 +1,30 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2.sqlobject;
+
+import java.lang.reflect.Method;
+
+import org.skife.jdbi.v2.TransactionCallback;
+
+/**
+ * Callback of the transaction opened for a sql object method annotated with {@link Transaction}, which
+ * lets transaction handlers (e.g. to report retries) know which method is being run.
+ */
+public interface SqlObjectTransactionCallback<ReturnType> extends TransactionCallback<ReturnType>
+{
+    Method getSqlObjectMethod();
+}
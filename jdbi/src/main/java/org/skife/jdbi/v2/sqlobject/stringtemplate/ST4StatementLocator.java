@@ -20,12 +20,22 @@
 
 package org.skife.jdbi.v2.sqlobject.stringtemplate;
 
+import java.lang.reflect.Array;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
+import java.util.TreeSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Function;
 
 import org.killbill.commons.utils.annotation.VisibleForTesting;
@@ -37,7 +47,9 @@ import org.stringtemplate.v4.ST;
 import org.stringtemplate.v4.STErrorListener;
 import org.stringtemplate.v4.STGroup;
 import org.stringtemplate.v4.STGroupFile;
+import org.stringtemplate.v4.compiler.Bytecode;
 import org.stringtemplate.v4.compiler.CompiledST;
+import org.stringtemplate.v4.compiler.FormalArgument;
 import org.stringtemplate.v4.misc.ErrorManager;
 import org.stringtemplate.v4.misc.STMessage;
 
@@ -49,14 +61,49 @@ public class ST4StatementLocator implements StatementLocator {
 
     private static final Map<String, STGroup> CACHE = new ConcurrentHashMap<String, STGroup>();
     private static final String COMPOSITE_KEY_SEPARATOR = "___#___";
+    private static final String COLLECTION_KEY_SEPARATOR = "___#[]___";
+
+    static final int DEFAULT_LOCATED_SQL_CACHE_SIZE = Integer.parseInt(System.getProperty("org.killbill.jdbi.st4.locatedSqlCacheSize", "500"));
+    static final EvictionPolicy DEFAULT_LOCATED_SQL_CACHE_EVICTION_POLICY = EvictionPolicy.valueOf(System.getProperty("org.killbill.jdbi.st4.locatedSqlCacheEvictionPolicy", EvictionPolicy.NONE.name()));
+
+    // Bound the analysis of literals (each SQL literal is its own template)
+    private static final int MAX_TEMPLATE_ANALYSES = 10000;
+    private static final TemplateAnalysis UNCACHEABLE = new TemplateAnalysis(null, Set.of());
 
     @VisibleForTesting
     final Map<String, String> locatedSqlCache = new ConcurrentHashMap<>();
 
+    // Statistics of this locator
+    @VisibleForTesting
+    final LongAdder hits = new LongAdder();
+    @VisibleForTesting
+    final LongAdder misses = new LongAdder();
+    @VisibleForTesting
+    final LongAdder uncached = new LongAdder();
+    @VisibleForTesting
+    final LongAdder evictions = new LongAdder();
+
     private final STGroup group;
+    private final int locatedSqlCacheSize;
+    private final EvictionPolicy evictionPolicy;
+    private final Map<String, TemplateAnalysis> templateAnalyses = new ConcurrentHashMap<>();
+    // Last access (System.nanoTime()) of each cache entry, only maintained for EvictionPolicy.LRU
+    private final Map<String, AtomicLong> lastAccesses = new ConcurrentHashMap<>();
+    private final ReentrantLock evictionLock = new ReentrantLock();
 
     public ST4StatementLocator(final STGroup group) {
+        this(group, DEFAULT_LOCATED_SQL_CACHE_SIZE, DEFAULT_LOCATED_SQL_CACHE_EVICTION_POLICY);
+    }
+
+    /**
+     * @param group               the template group
+     * @param locatedSqlCacheSize max number of rendered statements cached (0 disables the cache)
+     * @param evictionPolicy      what to do when the cache is full
+     */
+    public ST4StatementLocator(final STGroup group, final int locatedSqlCacheSize, final EvictionPolicy evictionPolicy) {
         this.group = group;
+        this.locatedSqlCacheSize = locatedSqlCacheSize;
+        this.evictionPolicy = evictionPolicy;
     }
 
     /**
@@ -238,57 +285,196 @@ public class ST4StatementLocator implements StatementLocator {
 
     @Override
     public String locate(final String name, final StatementContext ctx) throws Exception {
-        final Iterator<Entry<String, Object>> entryIterator = ctx.getAttributes().entrySet().iterator();
-        if (!entryIterator.hasNext()) {
-            // Easiest: no attribute defined, always the same SQL
-            return locateFromCache(name, name, ctx);
+        final TemplateAnalysis templateAnalysis = getTemplateAnalysis(name);
+        final String cacheKey = templateAnalysis.buildCacheKey(name, ctx.getAttributes());
+        if (cacheKey == null) {
+            uncached.increment();
+            return locateAndRender(name, ctx);
         } else {
-            final Entry<String, Object> attribute1 = entryIterator.next();
-            if (!entryIterator.hasNext()) {
-                final String compositeKey = buildCompositeCacheKey(name, attribute1);
-                return locateFromCache(compositeKey, name, ctx);
-            } else {
-                final Entry<String, Object> attribute2 = entryIterator.next();
-                if (!entryIterator.hasNext()) {
-                    // 2 attributes defined -- worth optimizing as it is heavily used for queue queries
-                    final String compositeKey = buildCompositeCacheKey(name, attribute1, attribute2);
-                    return locateFromCache(compositeKey, name, ctx);
-                } else {
-                    // Too many attributes are defined, don't cache it
-                    return locateAndRender(name, ctx);
-                }
+            return locateFromCache(cacheKey, name, ctx);
+        }
+    }
+
+    private TemplateAnalysis getTemplateAnalysis(final String name) {
+        TemplateAnalysis templateAnalysis = templateAnalyses.get(name);
+        if (templateAnalysis == null) {
+            final CompiledST compiledST = group.isDefined(name) ? group.lookupTemplate(name) : new ST(name).impl;
+            templateAnalysis = analyze(compiledST);
+            if (templateAnalyses.size() < MAX_TEMPLATE_ANALYSES) {
+                templateAnalyses.put(name, templateAnalysis);
             }
         }
+        return templateAnalysis;
     }
 
-    private String buildCompositeCacheKey(final String name, final Entry<String, Object> attribute) {
-        return name + COMPOSITE_KEY_SEPARATOR + attribute.getKey() + COMPOSITE_KEY_SEPARATOR + attribute.getValue();
+    // Find all the attributes the template (and the templates it includes) may read. Dynamic scoping means that an attribute
+    // of the context can be read by any included template, so this is a superset: the cache key is always safe.
+    // Attributes which are only iterated over by templates ignoring the elements (e.g. <ids:{id | :id_<i0>}; separator=",">)
+    // only contribute their number of elements to the key: statements rendering the elements themselves (e.g. IN lists of
+    // values) aren't cached, as each set of values would get its own entry.
+    @VisibleForTesting
+    static TemplateAnalysis analyze(final CompiledST compiledST) {
+        final Set<String> referencedAttributes = new TreeSet<>();
+        final Set<String> contentAttributes = new HashSet<>();
+        if (compiledST == null || !collectReferencedAttributes(compiledST, referencedAttributes, contentAttributes, new ArrayList<>())) {
+            return UNCACHEABLE;
+        }
+        final Set<String> sizeOnlyAttributes = new HashSet<>(referencedAttributes);
+        sizeOnlyAttributes.removeAll(contentAttributes);
+        return new TemplateAnalysis(referencedAttributes.toArray(new String[0]), sizeOnlyAttributes);
     }
 
-    private String buildCompositeCacheKey(final String name, final Entry<String, Object> attribute1, final Entry<String, Object> attribute2) {
-        if (attribute1.getKey().compareTo(attribute2.getKey()) <= 0) {
-            return name + COMPOSITE_KEY_SEPARATOR + attribute1.getKey() + COMPOSITE_KEY_SEPARATOR + attribute1.getValue() + COMPOSITE_KEY_SEPARATOR + attribute2.getKey() + COMPOSITE_KEY_SEPARATOR + attribute2.getValue();
-        } else {
-            return name + COMPOSITE_KEY_SEPARATOR + attribute2.getKey() + COMPOSITE_KEY_SEPARATOR + attribute2.getValue() + COMPOSITE_KEY_SEPARATOR + attribute1.getKey() + COMPOSITE_KEY_SEPARATOR + attribute1.getValue();
+    private static boolean collectReferencedAttributes(final CompiledST compiledST,
+                                                       final Set<String> referencedAttributes,
+                                                       final Set<String> contentAttributes,
+                                                       final List<CompiledST> visited) {
+        for (final CompiledST seen : visited) {
+            if (seen == compiledST) {
+                return true;
+            }
         }
+        visited.add(compiledST);
+
+        if (compiledST.formalArguments != null) {
+            for (final FormalArgument formalArgument : compiledST.formalArguments.values()) {
+                if (formalArgument.compiledDefaultValue != null &&
+                    !collectReferencedAttributes(formalArgument.compiledDefaultValue, referencedAttributes, contentAttributes, visited)) {
+                    return false;
+                }
+            }
+        }
+
+        int ip = 0;
+        while (ip < compiledST.codeSize) {
+            final short opcode = compiledST.instrs[ip];
+            final Bytecode.Instruction instruction = Bytecode.instructions[opcode];
+            final int firstOperand = instruction.nopnds > 0 ? getShort(compiledST.instrs, ip + 1) : -1;
+            final int nextIp = ip + 1 + instruction.nopnds * Bytecode.OPND_SIZE_IN_BYTES;
+            switch (opcode) {
+                case Bytecode.INSTR_LOAD_ATTR:
+                    referencedAttributes.add(compiledST.strings[firstOperand]);
+                    if (!isMappedWithoutElements(compiledST, nextIp)) {
+                        contentAttributes.add(compiledST.strings[firstOperand]);
+                    }
+                    break;
+                case Bytecode.INSTR_LOAD_LOCAL:
+                    for (final FormalArgument formalArgument : compiledST.formalArguments.values()) {
+                        if (formalArgument.index == firstOperand) {
+                            // Unset formal arguments are looked up in the enclosing scopes
+                            referencedAttributes.add(formalArgument.name);
+                            if (!isMappedWithoutElements(compiledST, nextIp)) {
+                                contentAttributes.add(formalArgument.name);
+                            }
+                        }
+                    }
+                    break;
+                case Bytecode.INSTR_NEW:
+                case Bytecode.INSTR_NEW_BOX_ARGS:
+                    // Also covers the templates applied by map, rot_map and zip_map
+                    final CompiledST included = compiledST.nativeGroup.lookupTemplate(compiledST.strings[firstOperand]);
+                    if (included == null || !collectReferencedAttributes(included, referencedAttributes, contentAttributes, visited)) {
+                        return false;
+                    }
+                    break;
+                case Bytecode.INSTR_NEW_IND:
+                case Bytecode.INSTR_SUPER_NEW:
+                case Bytecode.INSTR_SUPER_NEW_BOX_ARGS:
+                    // Template resolved at render time
+                    return false;
+                default:
+                    break;
+            }
+            ip = nextIp;
+        }
+
+        return true;
+    }
+
+    // Whether the value loaded right before ip is iterated over (<value:template()>) by a template which never reads the element:
+    // the output then only depends on the number of elements
+    private static boolean isMappedWithoutElements(final CompiledST compiledST, final int ip) {
+        int nextIp = ip;
+        while (nextIp < compiledST.codeSize && compiledST.instrs[nextIp] == Bytecode.INSTR_NULL) {
+            nextIp += 1;
+        }
+        if (nextIp >= compiledST.codeSize || compiledST.instrs[nextIp] != Bytecode.INSTR_NEW) {
+            return false;
+        }
+        final String mappedTemplateName = compiledST.strings[getShort(compiledST.instrs, nextIp + 1)];
+        nextIp += 1 + Bytecode.instructions[Bytecode.INSTR_NEW].nopnds * Bytecode.OPND_SIZE_IN_BYTES;
+        if (nextIp >= compiledST.codeSize || compiledST.instrs[nextIp] != Bytecode.INSTR_MAP) {
+            return false;
+        }
+
+        final CompiledST mappedTemplate = compiledST.nativeGroup.lookupTemplate(mappedTemplateName);
+        if (mappedTemplate == null || mappedTemplate.formalArguments == null) {
+            return false;
+        }
+        for (final FormalArgument formalArgument : mappedTemplate.formalArguments.values()) {
+            if (formalArgument.index == 0) {
+                // The element is passed as the first argument
+                final Set<String> mappedTemplateAttributes = new HashSet<>();
+                return collectReferencedAttributes(mappedTemplate, mappedTemplateAttributes, new HashSet<>(), new ArrayList<>()) &&
+                       !mappedTemplateAttributes.contains(formalArgument.name);
+            }
+        }
+        return false;
+    }
+
+    private static int getShort(final byte[] memory, final int index) {
+        return ((memory[index] & 0xFF) << 8) | (memory[index + 1] & 0xFF);
     }
 
     private String locateFromCache(final String cacheKey, final String name, final StatementContext ctx) {
         String locatedSql = locatedSqlCache.get(cacheKey);
         if (locatedSql != null) {
+            hits.increment();
+            if (evictionPolicy == EvictionPolicy.LRU) {
+                final AtomicLong lastAccess = lastAccesses.get(cacheKey);
+                if (lastAccess != null) {
+                    lastAccess.lazySet(System.nanoTime());
+                }
+            }
             return locatedSql;
         } else {
+            misses.increment();
             locatedSql = locateAndRender(name, ctx);
             // Make sure the cache is bounded in case of lots of various attributes defined (shouldn't happen in Kill Bill though)
-            // Note that when defining collections for instance, you must define a collection value that is not tied to the
-            // values eventually bound (e.g. query.define("record_ids", ids)), instead define a collection of generic Strings (see @BindIn and TestST4StatementLocator)
-            if (locatedSqlCache.size() < 500) {
-                locatedSqlCache.put(cacheKey, locatedSql);
+            // Note that scalar attributes are cached on their values: you must not define a value that is tied to the values
+            // eventually bound, use a template which only uses the index of the elements instead (see @BindIn and TestST4StatementLocator)
+            if (locatedSqlCache.size() >= locatedSqlCacheSize && (evictionPolicy == EvictionPolicy.NONE || !evictLeastRecentlyUsed())) {
+                return locatedSql;
+            }
+            if (evictionPolicy == EvictionPolicy.LRU) {
+                lastAccesses.put(cacheKey, new AtomicLong(System.nanoTime()));
             }
+            locatedSqlCache.put(cacheKey, locatedSql);
             return locatedSql;
         }
     }
 
+    // Evict the least recently used 10% of the entries. Returns false if another thread is already evicting.
+    private boolean evictLeastRecentlyUsed() {
+        if (locatedSqlCacheSize <= 0 || !evictionLock.tryLock()) {
+            return false;
+        }
+        try {
+            final List<Entry<String, AtomicLong>> entries = new ArrayList<>(lastAccesses.entrySet());
+            entries.sort(Comparator.comparingLong(entry -> entry.getValue().get()));
+            final int nbToEvict = Math.max(1, entries.size() / 10);
+            for (int i = 0; i < nbToEvict && i < entries.size(); i++) {
+                final String cacheKey = entries.get(i).getKey();
+                lastAccesses.remove(cacheKey);
+                if (locatedSqlCache.remove(cacheKey) != null) {
+                    evictions.increment();
+                }
+            }
+            return true;
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
     private String locateAndRender(final String name, final StatementContext ctx) {
         ST st = this.group.getInstanceOf(name);
         if (st == null) {
@@ -314,6 +500,91 @@ public class ST4StatementLocator implements StatementLocator {
         YES, NO
     }
 
+    public enum EvictionPolicy {
+        // Once full, new statements are rendered but not cached
+        NONE,
+        // Once full, the least recently used statements are evicted
+        LRU
+    }
+
+    @VisibleForTesting
+    static final class TemplateAnalysis {
+
+        // Sorted attributes the template may read, null if its output cannot be cached
+        private final String[] referencedAttributes;
+        // Collection attributes whose number of elements is all that matters
+        private final Set<String> sizeOnlyAttributes;
+
+        private TemplateAnalysis(final String[] referencedAttributes, final Set<String> sizeOnlyAttributes) {
+            this.referencedAttributes = referencedAttributes;
+            this.sizeOnlyAttributes = sizeOnlyAttributes;
+        }
+
+        @VisibleForTesting
+        boolean isCacheable() {
+            return referencedAttributes != null;
+        }
+
+        @VisibleForTesting
+        String[] getReferencedAttributes() {
+            return referencedAttributes;
+        }
+
+        @VisibleForTesting
+        boolean isSizeOnly(final String attribute) {
+            return sizeOnlyAttributes.contains(attribute);
+        }
+
+        // Returns null if the statement cannot be cached
+        private String buildCacheKey(final String name, final Map<String, Object> attributes) {
+            if (referencedAttributes == null) {
+                return null;
+            }
+
+            final StringBuilder cacheKey = new StringBuilder(name);
+            for (final String attribute : referencedAttributes) {
+                final Object value = attributes.get(attribute);
+                if (value == null && !attributes.containsKey(attribute)) {
+                    continue;
+                }
+                if (value instanceof Iterable || (value != null && value.getClass().isArray())) {
+                    if (!sizeOnlyAttributes.contains(attribute)) {
+                        // Rendered from its elements
+                        return null;
+                    }
+                    // e.g. IN lists of placeholders
+                    cacheKey.append(COMPOSITE_KEY_SEPARATOR).append(attribute).append(COLLECTION_KEY_SEPARATOR).append(countNonNullElements(value));
+                    continue;
+                }
+                if (value instanceof Iterator || value instanceof Map) {
+                    // Consumed by the rendering, or rendered from its entries
+                    return null;
+                }
+                cacheKey.append(COMPOSITE_KEY_SEPARATOR).append(attribute).append(COMPOSITE_KEY_SEPARATOR).append(value);
+            }
+            return cacheKey.toString();
+        }
+
+        // Null elements are skipped by map
+        private static int countNonNullElements(final Object value) {
+            int count = 0;
+            if (value instanceof Iterable) {
+                for (final Object element : (Iterable<?>) value) {
+                    if (element != null) {
+                        count++;
+                    }
+                }
+            } else {
+                for (int i = 0; i < Array.getLength(value); i++) {
+                    if (Array.get(value, i) != null) {
+                        count++;
+                    }
+                }
+            }
+            return count;
+        }
+    }
+
     // See https://github.com/antlr/stringtemplate4/issues/61 and https://groups.google.com/forum/#!topic/stringtemplate-discussion/4WrHlleVDFg
     private static final class STGroupFileWithThreadSafeLoading extends STGroupFile {
 
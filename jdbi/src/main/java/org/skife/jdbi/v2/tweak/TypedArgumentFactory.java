@@ -0,0 +1,30 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2.tweak;
+
+import java.util.Collection;
+
+/**
+ * An {@link ArgumentFactory} which declares up front the value types it binds. It accepts any non-null value which is
+ * an instance of one of {@link #getSupportedTypes()}, whatever the declared type of the binding, and nothing else:
+ * its {@link #accepts(Class, Object, org.skife.jdbi.v2.StatementContext)} implementation must agree. Knowing this,
+ * the DBI resolves these factories once per (declared type, value class) pair without calling accepts at bind time.
+ */
+public interface TypedArgumentFactory<T> extends ArgumentFactory<T>
+{
+    Collection<Class<?>> getSupportedTypes();
+}
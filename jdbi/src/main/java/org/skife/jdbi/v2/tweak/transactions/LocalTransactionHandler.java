@@ -33,18 +33,19 @@ import java.sql.SQLException;
 import java.sql.Savepoint;
 import java.util.HashMap;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * This <code>TransactionHandler</code> uses local JDBC transactions
  * demarcated explicitly on the handle and passed through to be handled
  * directly on the JDBC Connection instance.
+ * <p>
+ * The state of the transaction (initial auto commit state, checkpoints) is attached to the handle
+ * itself. Transactions without checkpoints share immutable states, so that beginning and completing
+ * them doesn't allocate: the checkpoints are only tracked once {@link #checkpoint(Handle, String)}
+ * is called.
  */
 public class LocalTransactionHandler implements TransactionHandler
 {
-    private final ConcurrentHashMap<Handle, LocalStuff> localStuff = new ConcurrentHashMap<Handle, LocalStuff>();
-
     /**
      * Called when a transaction is started
      */
@@ -52,10 +53,15 @@ public class LocalTransactionHandler implements TransactionHandler
     public void begin(Handle handle)
     {
         try {
-            if (!localStuff.containsKey(handle)) {
-                boolean initial = handle.getConnection().getAutoCommit();
-                localStuff.putIfAbsent(handle, new LocalStuff(initial));
-                handle.getConnection().setAutoCommit(false);
+            if (getLocalStuff(handle) == null) {
+                final Connection conn = handle.getConnection();
+                if (conn.getAutoCommit()) {
+                    handle.setTransactionState(LocalStuff.INITIAL_AUTOCOMMIT);
+                    conn.setAutoCommit(false);
+                }
+                else {
+                    handle.setTransactionState(LocalStuff.INITIAL_NO_AUTOCOMMIT);
+                }
             }
         }
         catch (SQLException e) {
@@ -106,10 +112,15 @@ public class LocalTransactionHandler implements TransactionHandler
     @Override
     public void checkpoint(Handle handle, String name)
     {
+        final LocalStuff stuff = getLocalStuff(handle);
+        if (stuff == null) {
+            throw new TransactionException(String.format("Unable to create checkpoint %s outside of a transaction", name));
+        }
+
         final Connection conn = handle.getConnection();
         try {
             final Savepoint savepoint = conn.setSavepoint(name);
-            localStuff.get(handle).getCheckpoints().put(name, savepoint);
+            stuff.withCheckpoints(handle).getCheckpoints().put(name, savepoint);
         }
         catch (SQLException e) {
             throw new TransactionException(String.format("Unable to create checkpoint %s", name), e);
@@ -121,7 +132,7 @@ public class LocalTransactionHandler implements TransactionHandler
     {
         final Connection conn = handle.getConnection();
         try {
-            final Savepoint savepoint = localStuff.get(handle).getCheckpoints().remove(name);
+            final Savepoint savepoint = removeCheckpoint(handle, name);
             if (savepoint == null) {
                 throw new TransactionException(String.format("Attempt to rollback to non-existant savepoint, '%s'",
                                                              name));
@@ -144,7 +155,7 @@ public class LocalTransactionHandler implements TransactionHandler
     {
         final Connection conn = handle.getConnection();
         try {
-            final Savepoint savepoint = localStuff.get(handle).getCheckpoints().remove(name);
+            final Savepoint savepoint = removeCheckpoint(handle, name);
             if (savepoint == null) {
                 throw new TransactionException(String.format("Attempt to rollback to non-existant savepoint, '%s'",
                                                              name));
@@ -173,20 +184,12 @@ public class LocalTransactionHandler implements TransactionHandler
     @Override
     public <ReturnType> ReturnType inTransaction(Handle handle, TransactionCallback<ReturnType> callback)
     {
-        final AtomicBoolean failed = new AtomicBoolean(false);
-        TransactionStatus status = new TransactionStatus()
-        {
-            @Override
-            public void setRollbackOnly()
-            {
-                failed.set(true);
-            }
-        };
+        final LocalTransactionStatus status = new LocalTransactionStatus();
         final ReturnType returnValue;
         try {
             handle.begin();
             returnValue = callback.inTransaction(handle, status);
-            if (!failed.get()) {
+            if (!status.rollbackOnly) {
                 handle.commit();
             }
         }
@@ -200,7 +203,7 @@ public class LocalTransactionHandler implements TransactionHandler
                                                  "from within the callback. See cause " +
                                                  "for the original exception.", e);
         }
-        if (failed.get()) {
+        if (status.rollbackOnly) {
             handle.rollback();
             throw new TransactionFailedException("Transaction failed due to transaction status being set " +
                                                  "to rollback only.");
@@ -225,29 +228,73 @@ public class LocalTransactionHandler implements TransactionHandler
     }
 
     private void restoreAutoCommitState(final Handle handle) {
-        try {
-            final LocalStuff stuff = localStuff.remove(handle);
-            if (stuff != null) {
-                handle.getConnection().setAutoCommit(stuff.getInitialAutocommit());
-                stuff.getCheckpoints().clear();
+        final LocalStuff stuff = getLocalStuff(handle);
+        if (stuff == null) {
+            return;
+        }
+
+        // Discard the state first, to prevent a stale transaction if restoring the auto commit state fails
+        handle.setTransactionState(null);
+        if (stuff.getInitialAutocommit()) {
+            try {
+                handle.getConnection().setAutoCommit(true);
+            } catch (SQLException e) {
+                throw new UnableToRestoreAutoCommitStateException(e);
             }
-        } catch (SQLException e) {
-            throw new UnableToRestoreAutoCommitStateException(e);
-        } finally {
-            // prevent memory leak if rollback throws an exception
-            localStuff.remove(handle);
         }
     }
 
+    private static Savepoint removeCheckpoint(final Handle handle, final String name)
+    {
+        final LocalStuff stuff = getLocalStuff(handle);
+        if (stuff == null || stuff.getCheckpoints() == null) {
+            return null;
+        }
+        return stuff.getCheckpoints().remove(name);
+    }
+
+    private static LocalStuff getLocalStuff(final Handle handle)
+    {
+        final Object state = handle.getTransactionState();
+        return state instanceof LocalStuff ? (LocalStuff) state : null;
+    }
+
+    private static class LocalTransactionStatus implements TransactionStatus
+    {
+        private boolean rollbackOnly = false;
+
+        @Override
+        public void setRollbackOnly()
+        {
+            rollbackOnly = true;
+        }
+    }
 
     private static class LocalStuff
     {
-        private final Map<String, Savepoint> checkpoints = new HashMap<String, Savepoint>();
+        private static final LocalStuff INITIAL_AUTOCOMMIT = new LocalStuff(true, null);
+        private static final LocalStuff INITIAL_NO_AUTOCOMMIT = new LocalStuff(false, null);
+
+        private final Map<String, Savepoint> checkpoints;
         private final boolean initialAutocommit;
 
-        public LocalStuff(boolean initial)
+        private LocalStuff(boolean initial, Map<String, Savepoint> checkpoints)
         {
             this.initialAutocommit = initial;
+            this.checkpoints = checkpoints;
+        }
+
+        /**
+         * @return this state if it already tracks checkpoints, a new one (attached to the handle) otherwise
+         */
+        public LocalStuff withCheckpoints(Handle handle)
+        {
+            if (checkpoints != null) {
+                return this;
+            }
+            final LocalStuff stuff = new LocalStuff(initialAutocommit, new HashMap<String, Savepoint>());
+            handle.setTransactionState(stuff);
+            return stuff;
         }
 
         public Map<String, Savepoint> getCheckpoints()
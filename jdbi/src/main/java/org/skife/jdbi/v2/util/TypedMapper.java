@@ -19,6 +19,7 @@
  */
 package org.skife.jdbi.v2.util;
 
+import org.skife.jdbi.v2.ColumnIndexResolver;
 import org.skife.jdbi.v2.StatementContext;
 import org.skife.jdbi.v2.tweak.ResultSetMapper;
 
@@ -85,7 +86,13 @@ public abstract class TypedMapper<T> implements ResultSetMapper<T>
         @Override
         public T map(int index, ResultSet r, StatementContext ctx) throws SQLException
         {
-            return extractByName(r, name);
+            // Resolve the label once per result set, rather than letting the driver look it up for each row
+            int columnIndex = ColumnIndexResolver.forResultSet(r, ctx).indexOf(name);
+            if (columnIndex < 0) {
+                // Let the driver report the unknown column
+                return extractByName(r, name);
+            }
+            return extractByIndex(r, columnIndex);
         }
     }
 
@@ -20,10 +20,16 @@
 package org.killbill.commons.jdbi;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 
 import org.skife.jdbi.v2.sqlobject.SqlUpdate;
 import org.skife.jdbi.v2.sqlobject.customizers.Define;
 import org.skife.jdbi.v2.sqlobject.mixins.Transactional;
+import org.skife.jdbi.v2.sqlobject.stringtemplate.TestingStatementContext;
+import org.testng.Assert;
 import org.testng.annotations.BeforeMethod;
 import org.testng.annotations.Test;
 
@@ -59,6 +65,81 @@ public class TestReusableStringTemplate3StatementLocator extends JDBITestBase {
         somethingLiteralSqlDao.delete(TABLE_NAME);
     }
 
+    @Test(groups = "slow")
+    public void testRenderedSqlCache() throws IOException {
+        final ReusableStringTemplate3StatementLocator locator = new ReusableStringTemplate3StatementLocator("/org/killbill/commons/jdbi/SomethingNonLiteralSqlDao.sql.stg", true, true);
+        dbi.setStatementLocator(locator);
+
+        final SomethingNonLiteralSqlDao somethingNonLiteralSqlDao = dbi.onDemand(SomethingNonLiteralSqlDao.class);
+        somethingNonLiteralSqlDao.delete(TABLE_NAME);
+        somethingNonLiteralSqlDao.delete(TABLE_NAME);
+        Assert.assertEquals(locator.renderedSqlCache.size(), 1);
+        Assert.assertEquals(locator.getHitRate(), 0.5);
+
+        final SomethingLiteralSqlDao somethingLiteralSqlDao = dbi.onDemand(SomethingLiteralSqlDao.class);
+        somethingLiteralSqlDao.delete(TABLE_NAME);
+        somethingLiteralSqlDao.delete(TABLE_NAME);
+        Assert.assertEquals(locator.renderedSqlCache.size(), 2);
+        Assert.assertEquals(locator.getHitRate(), 0.5);
+        Assert.assertTrue(locator.renderedSqlCache.containsValue("delete from " + TABLE_NAME));
+    }
+
+    @Test(groups = "slow")
+    public void testRenderedSqlCacheDisabled() throws IOException {
+        final ReusableStringTemplate3StatementLocator locator = new ReusableStringTemplate3StatementLocator("/org/killbill/commons/jdbi/SomethingNonLiteralSqlDao.sql.stg", true, true, 0, null);
+        dbi.setStatementLocator(locator);
+
+        final SomethingLiteralSqlDao somethingLiteralSqlDao = dbi.onDemand(SomethingLiteralSqlDao.class);
+        somethingLiteralSqlDao.delete(TABLE_NAME);
+        somethingLiteralSqlDao.delete(TABLE_NAME);
+        Assert.assertEquals(locator.renderedSqlCache.size(), 0);
+        Assert.assertEquals(locator.getHitRate(), 0.0);
+    }
+
+    @Test(groups = "slow")
+    public void testRenderedSqlCacheEviction() throws Exception {
+        final ReusableStringTemplate3StatementLocator locator = new ReusableStringTemplate3StatementLocator("/org/killbill/commons/jdbi/SomethingNonLiteralSqlDao.sql.stg", true, true, 2, null);
+
+        Assert.assertEquals(locate(locator, "delete from <tableName>", "tableName", "a"), "delete from a");
+        Thread.sleep(1);
+        Assert.assertEquals(locate(locator, "delete from <tableName>", "tableName", "b"), "delete from b");
+        Thread.sleep(1);
+        // Make a the most recently used entry
+        Assert.assertEquals(locate(locator, "delete from <tableName>", "tableName", "a"), "delete from a");
+        Thread.sleep(1);
+        Assert.assertEquals(locate(locator, "delete from <tableName>", "tableName", "c"), "delete from c");
+
+        Assert.assertEquals(locator.renderedSqlCache.size(), 2);
+        Assert.assertEquals(locator.evictions.sum(), 1);
+        Assert.assertTrue(locator.renderedSqlCache.containsValue("delete from a"));
+        Assert.assertTrue(locator.renderedSqlCache.containsValue("delete from c"));
+    }
+
+    @Test(groups = "slow")
+    public void testRenderedSqlCacheWithMutableAttributes() throws Exception {
+        final ReusableStringTemplate3StatementLocator locator = new ReusableStringTemplate3StatementLocator("/org/killbill/commons/jdbi/SomethingNonLiteralSqlDao.sql.stg", true, true);
+
+        final List<String> columns = new ArrayList<>();
+        columns.add("id");
+        Assert.assertEquals(locate(locator, "select <columns; separator=\",\"> from something", "columns", columns), "select id from something");
+        columns.add("name");
+        Assert.assertEquals(locate(locator, "select <columns; separator=\",\"> from something", "columns", columns), "select id,name from something");
+        Assert.assertEquals(locator.renderedSqlCache.size(), 2);
+
+        // Values which can't be safely copied aren't cached
+        final StringBuilder tableName = new StringBuilder("something");
+        Assert.assertEquals(locate(locator, "delete from <tableName>", "tableName", tableName), "delete from something");
+        tableName.append("_else");
+        Assert.assertEquals(locate(locator, "delete from <tableName>", "tableName", tableName), "delete from something_else");
+        Assert.assertEquals(locator.renderedSqlCache.size(), 2);
+    }
+
+    private static String locate(final ReusableStringTemplate3StatementLocator locator, final String name, final String attribute, final Object value) throws Exception {
+        final Map<String, Object> attributes = new HashMap<>();
+        attributes.put(attribute, value);
+        return locator.locate(name, new TestingStatementContext(attributes));
+    }
+
     private static interface SomethingNonLiteralSqlDao extends Transactional<SomethingLiteralSqlDao> {
 
         @SqlUpdate
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi;
+
+import org.skife.jdbi.v2.sqlobject.GenerateSqlObject;
+import org.skife.jdbi.v2.sqlobject.GeneratedSqlObjects;
+import org.skife.jdbi.v2.sqlobject.SqlObjectBuilder;
+import org.skife.jdbi.v2.sqlobject.SqlQuery;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * First use of sql objects generated at compile time vs at runtime. See SqlObjectStartupBenchmark in the benchmarks
+ * module for the latencies.
+ */
+public class TestSqlObjectStartup extends JDBITestBase {
+
+    @Test(groups = "slow")
+    public void testFirstCall() {
+        final GeneratedDao generatedDao = dbi.onDemand(GeneratedDao.class);
+        Assert.assertEquals(generatedDao.one(), 1);
+        Assert.assertEquals(generatedDao.four(), "four");
+
+        final RuntimeDao runtimeDao = dbi.onDemand(RuntimeDao.class);
+        Assert.assertEquals(runtimeDao.one(), 1);
+        Assert.assertEquals(runtimeDao.four(), "four");
+
+        Assert.assertTrue(generatedDao.getClass().getName().endsWith(GeneratedSqlObjects.CLASS_SUFFIX));
+        Assert.assertFalse(runtimeDao.getClass().getName().endsWith(GeneratedSqlObjects.CLASS_SUFFIX));
+    }
+
+    // Would warm up the sql objects of testFirstCall otherwise
+    @Test(groups = "slow", dependsOnMethods = "testFirstCall")
+    public void testWarmUp() {
+        final int warmedUp = SqlObjectBuilder.warmUp(getClass().getClassLoader());
+        Assert.assertTrue(warmedUp >= 1);
+
+        final WarmedUpDao warmedUpDao = dbi.onDemand(WarmedUpDao.class);
+        Assert.assertEquals(warmedUpDao.one(), 1);
+    }
+
+    @GenerateSqlObject
+    public interface GeneratedDao {
+
+        @SqlQuery("select 1")
+        int one();
+
+        @SqlQuery("select 2")
+        int two();
+
+        @SqlQuery("select 3")
+        int three();
+
+        @SqlQuery("select 'four'")
+        String four();
+
+        @SqlQuery("select 'five'")
+        String five();
+    }
+
+    public interface RuntimeDao {
+
+        @SqlQuery("select 1")
+        int one();
+
+        @SqlQuery("select 2")
+        int two();
+
+        @SqlQuery("select 3")
+        int three();
+
+        @SqlQuery("select 'four'")
+        String four();
+
+        @SqlQuery("select 'five'")
+        String five();
+    }
+
+    @GenerateSqlObject
+    public interface WarmedUpDao {
+
+        @SqlQuery("select 1")
+        int one();
+    }
+}
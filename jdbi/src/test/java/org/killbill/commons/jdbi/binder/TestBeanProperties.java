@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.binder;
+
+import java.lang.reflect.InvocationTargetException;
+
+import org.killbill.commons.jdbi.JDBITestBase;
+import org.skife.jdbi.v2.sqlobject.Bind;
+import org.skife.jdbi.v2.sqlobject.BindBean;
+import org.skife.jdbi.v2.sqlobject.SqlQuery;
+import org.skife.jdbi.v2.sqlobject.SqlUpdate;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TestBeanProperties extends JDBITestBase {
+
+    @BeforeMethod(groups = "slow")
+    public void cleanupDb() throws Exception {
+        cleanupDb("drop table if exists something;\n" +
+                  "create table something (id int primary key, name varchar(100), amount bigint)");
+    }
+
+    @Test(groups = "slow")
+    public void testIntrospection() throws Exception {
+        final BeanProperties properties = BeanProperties.forClass(Something.class);
+        Assert.assertSame(BeanProperties.forClass(Something.class), properties);
+
+        // Readable properties only (class, amount, id, name)
+        Assert.assertEquals(properties.getProperties().size(), 4);
+        Assert.assertNull(properties.getProperty("writeOnly"));
+        Assert.assertNull(properties.getProperty("unknown"));
+
+        final Something something = new Something(1, "pierre", 12L);
+        Assert.assertEquals(properties.getProperty("id").getType(), int.class);
+        Assert.assertEquals(properties.getProperty("id").get(something), 1);
+        Assert.assertEquals(properties.getProperty("name").get(something), "pierre");
+        Assert.assertEquals(properties.getProperty("amount").get(something), 12L);
+        Assert.assertEquals(properties.getProperty("class").get(something), Something.class);
+
+        try {
+            BeanProperties.forClass(Failing.class).getProperty("value").get(new Failing());
+            Assert.fail();
+        } catch (final InvocationTargetException e) {
+            Assert.assertTrue(e.getCause() instanceof UnsupportedOperationException);
+        }
+    }
+
+    @Test(groups = "slow")
+    public void testBinding() throws Exception {
+        final SomethingSqlDao dao = dbi.onDemand(SomethingSqlDao.class);
+        dao.createWithSmartBindBean(new Something(1, "pierre", 12L));
+        dao.createWithBindBean(new Something(2, "stephane", null));
+
+        dbi.withHandle(handle -> handle.createStatement("insert into something (id, name, amount) values (:id, :name, :amount)")
+                                       .bindFromProperties(new Something(3, "kb", 3L))
+                                       .execute());
+
+        Assert.assertEquals(dao.getName(1), "pierre");
+        Assert.assertEquals(dao.getName(2), "stephane");
+        Assert.assertEquals(dao.getName(3), "kb");
+    }
+
+    private interface SomethingSqlDao {
+
+        @SqlUpdate("insert into something (id, name, amount) values (:s.id, :s.name, :s.amount)")
+        void createWithSmartBindBean(@SmartBindBean("s") final Something something);
+
+        @SqlUpdate("insert into something (id, name, amount) values (:id, :name, :amount)")
+        void createWithBindBean(@BindBean final Something something);
+
+        @SqlQuery("select name from something where id = :id")
+        String getName(@Bind("id") final int id);
+    }
+
+    public static class Something {
+
+        private final int id;
+        private final String name;
+        private final Long amount;
+
+        public Something(final int id, final String name, final Long amount) {
+            this.id = id;
+            this.name = name;
+            this.amount = amount;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public Long getAmount() {
+            return amount;
+        }
+
+        public void setWriteOnly(final String ignored) {
+        }
+    }
+
+    public static class Failing {
+
+        public String getValue() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
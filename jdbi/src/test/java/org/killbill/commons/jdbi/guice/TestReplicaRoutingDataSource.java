@@ -0,0 +1,261 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.guice;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.h2.jdbc.JdbcConnection;
+import org.h2.jdbcx.JdbcDataSource;
+import org.killbill.commons.request.Request;
+import org.killbill.commons.request.RequestData;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.sqlobject.SqlQuery;
+import org.skife.jdbi.v2.sqlobject.SqlUpdate;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TestReplicaRoutingDataSource {
+
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private JdbcDataSource primary;
+    private JdbcDataSource replica;
+    private Handle primaryKeepAlive;
+    private Handle replicaKeepAlive;
+
+    @BeforeMethod(groups = "slow")
+    public void setUp() {
+        lagMillis.set(0);
+        Request.resetPerThreadRequestData();
+
+        // Same schema, different data: the value read tells which database served the query
+        primary = createDataSource("primary");
+        primaryKeepAlive = createDatabase(primary, "primary");
+        replica = createDataSource("replica");
+        replicaKeepAlive = createDatabase(replica, "replica");
+    }
+
+    @AfterMethod(groups = "slow")
+    public void tearDown() {
+        Request.resetPerThreadRequestData();
+        primaryKeepAlive.close();
+        replicaKeepAlive.close();
+    }
+
+    @Test(groups = "slow")
+    public void testRouting() {
+        final Dao dao = createDBI(new ReplicaRoutingDataSource.Configuration()).onDemand(Dao.class);
+
+        Assert.assertEquals(dao.readFromReplica(), "replica");
+        Assert.assertEquals(dao.read(), "primary");
+        Assert.assertEquals(createDBI(new ReplicaRoutingDataSource.Configuration()).onDemand(ReplicaDao.class).read(), "replica");
+    }
+
+    @Test(groups = "slow")
+    public void testFallbackToPrimaryWhenLagging() {
+        final Dao dao = createDBI(new ReplicaRoutingDataSource.Configuration().withMaxLag(Duration.ofSeconds(1))
+                                                                               .withLagRefreshInterval(Duration.ZERO)).onDemand(Dao.class);
+        Assert.assertEquals(dao.readFromReplica(), "replica");
+
+        lagMillis.set(1001);
+        Assert.assertEquals(dao.readFromReplica(), "primary");
+
+        lagMillis.set(1000);
+        Assert.assertEquals(dao.readFromReplica(), "replica");
+    }
+
+    @Test(groups = "slow")
+    public void testFallbackToPrimaryWhenProbeFails() {
+        final DBI dbi = new DBI(new ReplicaRoutingDataSource(primary,
+                                                             replica,
+                                                             connection -> {
+                                                                 throw new SQLException("Replication is broken");
+                                                             }));
+        Assert.assertEquals(dbi.onDemand(Dao.class).readFromReplica(), "primary");
+    }
+
+    @Test(groups = "slow")
+    public void testLagIsNotProbedOnEachRead() {
+        final AtomicLong probes = new AtomicLong();
+        final DBI dbi = new DBI(new ReplicaRoutingDataSource(primary,
+                                                             replica,
+                                                             connection -> {
+                                                                 probes.incrementAndGet();
+                                                                 return 0L;
+                                                             },
+                                                             new ReplicaRoutingDataSource.Configuration().withLagRefreshInterval(Duration.ofHours(1))));
+        final Dao dao = dbi.onDemand(Dao.class);
+        for (int i = 0; i < 5; i++) {
+            Assert.assertEquals(dao.readFromReplica(), "replica");
+        }
+        Assert.assertEquals(probes.get(), 1);
+    }
+
+    @Test(groups = "slow")
+    public void testReadYourWrites() {
+        final Dao dao = createDBI(new ReplicaRoutingDataSource.Configuration().withReadYourWritesMargin(Duration.ofHours(1))).onDemand(Dao.class);
+
+        Request.setPerThreadRequestData(new RequestData(UUID.randomUUID().toString()));
+        Assert.assertEquals(dao.readFromReplica(), "replica");
+
+        dao.write();
+        Assert.assertFalse(Request.getPerThreadRequestData().hasPendingWrite());
+        Assert.assertTrue(Request.getPerThreadRequestData().getLastWriteCommitMillis() > 0);
+        Assert.assertEquals(dao.readFromReplica(), "primary");
+
+        // Other requests are not affected
+        Request.setPerThreadRequestData(new RequestData(UUID.randomUUID().toString()));
+        Assert.assertEquals(dao.readFromReplica(), "replica");
+        Request.resetPerThreadRequestData();
+        Assert.assertEquals(dao.readFromReplica(), "replica");
+    }
+
+    @Test(groups = "slow")
+    public void testReadYourWritesOnceReplicaCaughtUp() throws InterruptedException {
+        final Dao dao = createDBI(new ReplicaRoutingDataSource.Configuration().withReadYourWritesMargin(Duration.ZERO)
+                                                                               .withLagRefreshInterval(Duration.ZERO)).onDemand(Dao.class);
+        lagMillis.set(50);
+
+        Request.setPerThreadRequestData(new RequestData(UUID.randomUUID().toString()));
+        dao.write();
+        Assert.assertEquals(dao.readFromReplica(), "primary");
+
+        Thread.sleep(100);
+        Assert.assertEquals(dao.readFromReplica(), "replica");
+    }
+
+    @Test(groups = "slow")
+    public void testPendingWrite() {
+        final DBI dbi = createDBI(new ReplicaRoutingDataSource.Configuration());
+        final Dao dao = dbi.onDemand(Dao.class);
+
+        Request.setPerThreadRequestData(new RequestData(UUID.randomUUID().toString()));
+        try (final Handle handle = dbi.open()) {
+            handle.begin();
+            handle.attach(Dao.class).write();
+            Assert.assertTrue(Request.getPerThreadRequestData().hasPendingWrite());
+
+            // Closing other primary connections of the request doesn't commit the write
+            Assert.assertEquals(dao.read(), "primary");
+            Assert.assertTrue(Request.getPerThreadRequestData().hasPendingWrite());
+            Assert.assertEquals(dao.readFromReplica(), "primary");
+
+            handle.commit();
+            Assert.assertFalse(Request.getPerThreadRequestData().hasPendingWrite());
+            Assert.assertTrue(Request.getPerThreadRequestData().getLastWriteCommitMillis() > 0);
+        }
+    }
+
+    @Test(groups = "slow")
+    public void testAsync() throws Exception {
+        final DBI dbi = createDBI(new ReplicaRoutingDataSource.Configuration().withReadYourWritesMargin(Duration.ofHours(1)));
+        final AsyncDao asyncDao = dbi.onDemand(AsyncDao.class);
+
+        Request.setPerThreadRequestData(new RequestData(UUID.randomUUID().toString()));
+        Assert.assertEquals(asyncDao.readFromReplica().get(), "replica");
+        Assert.assertEquals(asyncDao.read().get(), "primary");
+
+        asyncDao.write().get();
+        Assert.assertTrue(Request.getPerThreadRequestData().getLastWriteCommitMillis() > 0);
+        Assert.assertEquals(asyncDao.readFromReplica().get(), "primary");
+    }
+
+    @Test(groups = "slow")
+    public void testNoWriteTrackingWithoutRouting() {
+        final DBI dbi = new DBI(primary);
+
+        Request.setPerThreadRequestData(new RequestData(UUID.randomUUID().toString()));
+        dbi.onDemand(Dao.class).write();
+        Assert.assertFalse(Request.getPerThreadRequestData().hasPendingWrite());
+        Assert.assertEquals(Request.getPerThreadRequestData().getLastWriteCommitMillis(), 0);
+    }
+
+    @Test(groups = "slow")
+    public void testWriteTrackingConnection() throws SQLException {
+        final ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(primary, replica, connection -> lagMillis.get());
+
+        Request.setPerThreadRequestData(new RequestData(UUID.randomUUID().toString()));
+        try (final Connection connection = dataSource.getConnection()) {
+            Assert.assertEquals(connection, connection);
+            Assert.assertTrue(connection.isWrapperFor(JdbcConnection.class));
+            Assert.assertNotNull(connection.unwrap(JdbcConnection.class));
+
+            ReplicaRoutingDataSource.markWrite(connection);
+            Assert.assertTrue(Request.getPerThreadRequestData().hasPendingWrite());
+        }
+        Assert.assertFalse(Request.getPerThreadRequestData().hasPendingWrite());
+    }
+
+    private DBI createDBI(final ReplicaRoutingDataSource.Configuration configuration) {
+        return new DBI(new ReplicaRoutingDataSource(primary, replica, connection -> lagMillis.get(), configuration));
+    }
+
+    private static JdbcDataSource createDataSource(final String name) {
+        final JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "_" + UUID.randomUUID());
+        return dataSource;
+    }
+
+    private static Handle createDatabase(final JdbcDataSource dataSource, final String value) {
+        // The in-memory database lives as long as this handle is open
+        final Handle handle = new DBI(dataSource).open();
+        handle.execute("create table something (id int primary key, name varchar(50))");
+        handle.execute("insert into something (id, name) values (1, ?)", value);
+        return handle;
+    }
+
+    public interface Dao {
+
+        @ReplicaRead
+        @SqlQuery("select name from something where id = 1")
+        String readFromReplica();
+
+        @SqlQuery("select name from something where id = 1")
+        String read();
+
+        @SqlUpdate("update something set name = name where id = 1")
+        void write();
+    }
+
+    public interface AsyncDao {
+
+        @ReplicaRead
+        @SqlQuery("select name from something where id = 1")
+        CompletableFuture<String> readFromReplica();
+
+        @SqlQuery("select name from something where id = 1")
+        CompletableFuture<String> read();
+
+        @SqlUpdate("update something set name = name where id = 1")
+        CompletableFuture<Void> write();
+    }
+
+    @ReplicaRead
+    public interface ReplicaDao {
+
+        @SqlQuery("select name from something where id = 1")
+        String read();
+    }
+}
@@ -0,0 +1,210 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.hikari;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.sqlobject.SqlQuery;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.Test;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+public class TestHikariPoolSupervisor {
+
+    private HikariPoolSupervisor supervisor;
+    private HikariDataSource dataSource;
+
+    @AfterMethod(groups = "slow")
+    public void tearDown() {
+        if (supervisor != null) {
+            supervisor.close();
+        }
+        if (dataSource != null) {
+            dataSource.close();
+        }
+    }
+
+    @Test(groups = "slow")
+    public void testResizeOnSaturation() throws SQLException {
+        createPool(new HikariPoolSupervisor.Configuration().withPoolSizeBounds(2, 4)
+                                                           .withShrinkAfterWindows(1));
+
+        final Connection first = dataSource.getConnection();
+        final Connection second = dataSource.getConnection();
+        try {
+            dataSource.getConnection();
+            Assert.fail("The pool should be exhausted");
+        } catch (final SQLException e) {
+            // Expected, after the connection timeout
+        }
+
+        final HikariPoolSupervisor.WindowStatistics saturated = supervisor.evaluate();
+        Assert.assertEquals(saturated.getTimeouts(), 1);
+        Assert.assertEquals(saturated.getPeakDemand(), 3);
+        Assert.assertEquals(saturated.getRequests(), 3);
+        Assert.assertEquals(saturated.getMaximumPoolSize(), 2);
+        Assert.assertEquals(supervisor.getSaturations(), 1);
+        Assert.assertEquals(supervisor.getResizes(), 1);
+        Assert.assertEquals(dataSource.getHikariConfigMXBean().getMaximumPoolSize(), 3);
+
+        // The pool can grow now
+        final Connection third = dataSource.getConnection();
+        third.close();
+        second.close();
+        first.close();
+
+        // Busy window: no shrinking yet
+        final HikariPoolSupervisor.WindowStatistics busy = supervisor.evaluate();
+        Assert.assertEquals(busy.getTimeouts(), 0);
+        Assert.assertEquals(busy.getPeakDemand(), 3);
+        Assert.assertEquals(dataSource.getHikariConfigMXBean().getMaximumPoolSize(), 3);
+
+        // Idle window: back to the lower bound, not below
+        Assert.assertEquals(supervisor.evaluate().getPeakDemand(), 0);
+        Assert.assertEquals(dataSource.getHikariConfigMXBean().getMaximumPoolSize(), 2);
+        supervisor.evaluate();
+        Assert.assertEquals(dataSource.getHikariConfigMXBean().getMaximumPoolSize(), 2);
+        Assert.assertEquals(supervisor.getSaturations(), 1);
+        Assert.assertEquals(supervisor.getResizes(), 2);
+    }
+
+    @Test(groups = "slow")
+    public void testNoResizeWithoutBounds() throws SQLException {
+        createPool(new HikariPoolSupervisor.Configuration());
+
+        try (final Connection ignored = dataSource.getConnection(); final Connection ignoredToo = dataSource.getConnection()) {
+            dataSource.getConnection();
+            Assert.fail("The pool should be exhausted");
+        } catch (final SQLException e) {
+            // Expected, after the connection timeout
+        }
+
+        Assert.assertEquals(supervisor.evaluate().getTimeouts(), 1);
+        Assert.assertEquals(supervisor.getSaturations(), 1);
+        Assert.assertEquals(supervisor.getResizes(), 0);
+        Assert.assertEquals(dataSource.getHikariConfigMXBean().getMaximumPoolSize(), 2);
+
+        // Stopped with the pool
+        dataSource.close();
+        try {
+            supervisor.evaluate();
+            Assert.fail("The supervisor should be stopped");
+        } catch (final IllegalStateException e) {
+            // Expected
+        }
+    }
+
+    @Test(groups = "slow")
+    public void testPeakDemandWithWaitingThreads() throws Exception {
+        createPool(new HikariPoolSupervisor.Configuration(), 10000);
+
+        final Connection first = dataSource.getConnection();
+        final Connection second = dataSource.getConnection();
+
+        final CountDownLatch served = new CountDownLatch(2);
+        final Thread[] waiters = new Thread[2];
+        for (int i = 0; i < waiters.length; i++) {
+            waiters[i] = new Thread(() -> {
+                try (final Connection ignored = dataSource.getConnection()) {
+                    served.countDown();
+                } catch (final SQLException e) {
+                    throw new RuntimeException(e);
+                }
+            });
+            waiters[i].start();
+        }
+        while (dataSource.getHikariPoolMXBean().getThreadsAwaitingConnection() < 2) {
+            Thread.sleep(10);
+        }
+
+        // Counted while they wait, before being served or timing out
+        final HikariPoolSupervisor.WindowStatistics window = supervisor.evaluate();
+        Assert.assertEquals(window.getPeakDemand(), 4);
+        Assert.assertEquals(window.getWaiting(), 2);
+        Assert.assertEquals(window.getRequests(), 2);
+        Assert.assertEquals(window.getTimeouts(), 0);
+        Assert.assertEquals(supervisor.getSaturations(), 1);
+
+        first.close();
+        second.close();
+        for (final Thread waiter : waiters) {
+            waiter.join();
+        }
+        Assert.assertEquals(served.getCount(), 0);
+        Assert.assertEquals(supervisor.evaluate().getPeakDemand(), 4);
+        Assert.assertEquals(supervisor.evaluate().getPeakDemand(), 0);
+    }
+
+    @Test(groups = "slow")
+    public void testConnectionUsagePerMethod() throws SQLException {
+        createPool(new HikariPoolSupervisor.Configuration());
+
+        final Dao dao = new DBI(dataSource).onDemand(Dao.class);
+        Assert.assertEquals(dao.one(), 1);
+        Assert.assertEquals(dao.one(), 1);
+        Assert.assertEquals(dao.two(), 2);
+
+        // Not invoked through a sql object
+        dataSource.getConnection().close();
+
+        final Map<String, HikariPoolSupervisor.ConnectionUsage> usages = supervisor.getConnectionUsages();
+        Assert.assertEquals(usages.size(), 2);
+        Assert.assertEquals(usages.get("Dao.one").getCount(), 2);
+        Assert.assertEquals(usages.get("Dao.two").getCount(), 1);
+
+        final HikariPoolSupervisor.WindowStatistics window = supervisor.evaluate();
+        Assert.assertEquals(window.getRequests(), 4);
+        Assert.assertEquals(window.getPeakDemand(), 1);
+        Assert.assertEquals(window.getActive(), 0);
+        Assert.assertEquals(supervisor.getSaturations(), 0);
+    }
+
+    private void createPool(final HikariPoolSupervisor.Configuration configuration) {
+        createPool(configuration, 250);
+    }
+
+    private void createPool(final HikariPoolSupervisor.Configuration configuration, final long connectionTimeoutMillis) {
+        final HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setJdbcUrl("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        hikariConfig.setMaximumPoolSize(2);
+        hikariConfig.setMinimumIdle(0);
+        hikariConfig.setConnectionTimeout(connectionTimeoutMillis);
+
+        supervisor = new HikariPoolSupervisor(configuration.withEvaluationInterval(Duration.ZERO), null);
+        hikariConfig.setMetricsTrackerFactory(supervisor.metricsTrackerFactory(null));
+        dataSource = new HikariDataSource(hikariConfig);
+        supervisor.start(dataSource);
+    }
+
+    public interface Dao {
+
+        @SqlQuery("select 1")
+        int one();
+
+        @SqlQuery("select 2")
+        int two();
+    }
+}
@@ -20,6 +20,7 @@
 package org.killbill.commons.jdbi.mapper;
 
 import java.io.IOException;
+import java.util.List;
 
 import org.skife.jdbi.v2.exceptions.DBIException;
 import org.skife.jdbi.v2.sqlobject.Bind;
@@ -70,6 +71,42 @@ public class TestLowerToCamelBeanMapper extends JDBITestBase {
         Assert.assertEquals(foundStephane.getAnotherLowerCasedField(), fieldBStephane);
     }
 
+    @Test(groups = "slow")
+    public void testColumnLayouts() throws Exception {
+        dbi.registerMapper(new LowerToCamelBeanMapperFactory(SomethingBean.class));
+        dbi.registerMapper(new LowerToCamelBeanMapperFactory(SomethingWithSettersBean.class));
+
+        final SomethingSqlDao somethingSqlDao = dbi.onDemand(SomethingSqlDao.class);
+        somethingSqlDao.create(1, "pierre", 12);
+        somethingSqlDao.create(2, "stephane", 29361);
+        somethingSqlDao.createWithNulls(3);
+
+        // Same bean, other column orders and subsets
+        final List<SomethingBean> all = somethingSqlDao.getAll();
+        Assert.assertEquals(all.size(), 3);
+        Assert.assertEquals(all.get(0).getLowerCasedField(), "pierre");
+        Assert.assertEquals(all.get(0).getAnotherLowerCasedField(), 12);
+        Assert.assertEquals(all.get(1).getLowerCasedField(), "stephane");
+        Assert.assertEquals(all.get(1).getAnotherLowerCasedField(), 29361);
+        Assert.assertNull(all.get(2).getLowerCasedField());
+        Assert.assertEquals(all.get(2).getAnotherLowerCasedField(), 0);
+
+        final SomethingBean onlyLowerCasedField = somethingSqlDao.getOnlyLowerCasedField(2);
+        Assert.assertEquals(onlyLowerCasedField.getLowerCasedField(), "stephane");
+        Assert.assertEquals(onlyLowerCasedField.getAnotherLowerCasedField(), 0);
+        Assert.assertEquals(somethingSqlDao.getSomething(1).getAnotherLowerCasedField(), 12);
+
+        // Setters
+        final List<SomethingWithSettersBean> allWithSetters = somethingSqlDao.getAllWithSetters();
+        Assert.assertEquals(allWithSetters.size(), 3);
+        Assert.assertEquals(allWithSetters.get(0).getId(), 1);
+        Assert.assertEquals(allWithSetters.get(0).getLowerCasedField(), "pierre");
+        Assert.assertEquals(allWithSetters.get(0).getAnotherLowerCasedField(), Integer.valueOf(12));
+        Assert.assertEquals(allWithSetters.get(2).getId(), 3);
+        Assert.assertNull(allWithSetters.get(2).getLowerCasedField());
+        Assert.assertNull(allWithSetters.get(2).getAnotherLowerCasedField());
+    }
+
     private interface SomethingSqlDao {
 
         @SqlUpdate("insert into something (id, lower_cased_field, another_lower_cased_field) values (:id, :fieldA, :fieldB)")
@@ -77,8 +114,20 @@ public class TestLowerToCamelBeanMapper extends JDBITestBase {
                            @Bind("fieldA") final String fieldA,
                            @Bind("fieldB") final int fieldB);
 
+        @SqlUpdate("insert into something (id) values (:id)")
+        public void createWithNulls(@Bind("id") final int id);
+
         @SqlQuery("select lower_cased_field, another_lower_cased_field from something where id = :id")
         public SomethingBean getSomething(@Bind("id") final int id);
+
+        @SqlQuery("select lower_cased_field from something where id = :id")
+        public SomethingBean getOnlyLowerCasedField(@Bind("id") final int id);
+
+        @SqlQuery("select another_lower_cased_field, id, lower_cased_field from something order by id")
+        public List<SomethingBean> getAll();
+
+        @SqlQuery("select id, lower_cased_field, another_lower_cased_field from something order by id")
+        public List<SomethingWithSettersBean> getAllWithSetters();
     }
 
     // Needs to be public for the reflection magic
@@ -95,4 +144,35 @@ public class TestLowerToCamelBeanMapper extends JDBITestBase {
             return anotherLowerCasedField;
         }
     }
+
+    public static final class SomethingWithSettersBean {
+
+        private int id;
+        private String lowerCasedField;
+        private Integer anotherLowerCasedField;
+
+        public int getId() {
+            return id;
+        }
+
+        public void setId(final int id) {
+            this.id = id;
+        }
+
+        public String getLowerCasedField() {
+            return lowerCasedField;
+        }
+
+        public void setLowerCasedField(final String lowerCasedField) {
+            this.lowerCasedField = lowerCasedField;
+        }
+
+        public Integer getAnotherLowerCasedField() {
+            return anotherLowerCasedField;
+        }
+
+        public void setAnotherLowerCasedField(final Integer anotherLowerCasedField) {
+            this.anotherLowerCasedField = anotherLowerCasedField;
+        }
+    }
 }
@@ -0,0 +1,149 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.metrics;
+
+import java.sql.PreparedStatement;
+import java.util.concurrent.TimeUnit;
+
+import org.killbill.commons.metrics.api.Histogram;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.metrics.api.Timer;
+import org.mockito.Mockito;
+import org.skife.jdbi.v2.StatementContext;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestKillBillTimingCollector {
+
+    @Test(groups = "fast")
+    public void testMetricsAreResolvedOnce() throws Exception {
+        final MetricRegistry registry = Mockito.mock(MetricRegistry.class);
+        final Timer timer = Mockito.mock(Timer.class);
+        Mockito.when(registry.timer("org.killbill.commons.jdbi.metrics.SomeSqlDao.getSomething")).thenReturn(timer);
+        final Timer otherTimer = Mockito.mock(Timer.class);
+        Mockito.when(registry.timer("org.killbill.commons.jdbi.metrics.OtherSqlDao.getSomething")).thenReturn(otherTimer);
+
+        final KillBillTimingCollector collector = new KillBillTimingCollector(registry);
+        final StatementContext ctx = newContext(SomeSqlDao.class);
+        for (int i = 0; i < 10; i++) {
+            collector.collect(i, ctx);
+        }
+        // Inherited method, reported under the concrete sql-object type
+        collector.collect(5, newContext(OtherSqlDao.class));
+
+        Mockito.verify(registry, Mockito.times(1)).timer("org.killbill.commons.jdbi.metrics.SomeSqlDao.getSomething");
+        Mockito.verify(timer, Mockito.times(10)).update(Mockito.anyLong(), Mockito.eq(TimeUnit.NANOSECONDS));
+        Mockito.verify(otherTimer).update(5, TimeUnit.NANOSECONDS);
+        Mockito.verify(registry, Mockito.never()).histogram(Mockito.anyString());
+    }
+
+    @Test(groups = "fast")
+    public void testRawStatements() throws Exception {
+        final MetricRegistry registry = Mockito.mock(MetricRegistry.class);
+        final Timer timer = Mockito.mock(Timer.class);
+        Mockito.when(registry.timer("sql.raw.select 1")).thenReturn(timer);
+
+        final KillBillTimingCollector collector = new KillBillTimingCollector(registry);
+        final StatementContext ctx = Mockito.mock(StatementContext.class);
+        Mockito.when(ctx.getRawSql()).thenReturn("select 1");
+        collector.collect(1, ctx);
+        collector.collect(2, ctx);
+
+        Mockito.verify(registry, Mockito.times(1)).timer("sql.raw.select 1");
+        Mockito.verify(timer, Mockito.times(2)).update(Mockito.anyLong(), Mockito.eq(TimeUnit.NANOSECONDS));
+    }
+
+    @Test(groups = "fast")
+    public void testSqlObjectStatementsWithoutMethod() throws Exception {
+        final MetricRegistry registry = Mockito.mock(MetricRegistry.class);
+        final Timer timer = Mockito.mock(Timer.class);
+        Mockito.when(registry.timer("org.killbill.commons.jdbi.metrics.SomeSqlDao.select 1")).thenReturn(timer);
+        final Timer otherTimer = Mockito.mock(Timer.class);
+        Mockito.when(registry.timer("org.killbill.commons.jdbi.metrics.OtherSqlDao.select 1")).thenReturn(otherTimer);
+
+        final KillBillTimingCollector collector = new KillBillTimingCollector(registry);
+        for (int i = 0; i < 2; i++) {
+            collector.collect(1, newContextWithoutMethod(SomeSqlDao.class));
+            collector.collect(2, newContextWithoutMethod(OtherSqlDao.class));
+        }
+
+        // Same SQL, but one timer per sql-object type
+        Mockito.verify(registry, Mockito.times(1)).timer("org.killbill.commons.jdbi.metrics.SomeSqlDao.select 1");
+        Mockito.verify(registry, Mockito.times(1)).timer("org.killbill.commons.jdbi.metrics.OtherSqlDao.select 1");
+        Mockito.verify(timer, Mockito.times(2)).update(1, TimeUnit.NANOSECONDS);
+        Mockito.verify(otherTimer, Mockito.times(2)).update(2, TimeUnit.NANOSECONDS);
+    }
+
+    @Test(groups = "fast")
+    public void testRowCounts() throws Exception {
+        final MetricRegistry registry = Mockito.mock(MetricRegistry.class);
+        Mockito.when(registry.timer(Mockito.anyString())).thenReturn(Mockito.mock(Timer.class));
+        final Histogram rows = Mockito.mock(Histogram.class);
+        Mockito.when(registry.histogram("org.killbill.commons.jdbi.metrics.SomeSqlDao.getSomething.rows")).thenReturn(rows);
+
+        final KillBillTimingCollector collector = new KillBillTimingCollector(registry, 1, true);
+        final StatementContext ctx = newContext(SomeSqlDao.class);
+        final PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(statement.getUpdateCount()).thenReturn(3, -1);
+        Mockito.when(ctx.getStatement()).thenReturn(statement);
+
+        collector.collect(1, ctx);
+        collector.collect(1, ctx);
+
+        Mockito.verify(rows, Mockito.times(1)).update(3);
+    }
+
+    @Test(groups = "fast")
+    public void testSampling() throws Exception {
+        final MetricRegistry registry = Mockito.mock(MetricRegistry.class);
+        final Timer timer = Mockito.mock(Timer.class);
+        Mockito.when(registry.timer(Mockito.anyString())).thenReturn(timer);
+
+        final KillBillTimingCollector collector = new KillBillTimingCollector(registry, 10, false);
+        final StatementContext ctx = newContext(SomeSqlDao.class);
+        for (int i = 0; i < 10000; i++) {
+            collector.collect(i, ctx);
+        }
+
+        final int sampled = Mockito.mockingDetails(timer).getInvocations().size();
+        Assert.assertTrue(sampled > 500 && sampled < 1500, "Unexpected number of sampled statements: " + sampled);
+    }
+
+    private static StatementContext newContext(final Class<?> sqlObjectType) throws NoSuchMethodException {
+        final StatementContext ctx = Mockito.mock(StatementContext.class);
+        Mockito.when(ctx.getRawSql()).thenReturn("getSomething");
+        Mockito.when(ctx.getSqlObjectType()).thenAnswer(invocation -> sqlObjectType);
+        Mockito.when(ctx.getSqlObjectMethod()).thenReturn(BaseSqlDao.class.getMethod("getSomething"));
+        return ctx;
+    }
+
+    private static StatementContext newContextWithoutMethod(final Class<?> sqlObjectType) {
+        final StatementContext ctx = Mockito.mock(StatementContext.class);
+        Mockito.when(ctx.getRawSql()).thenReturn("select 1");
+        Mockito.when(ctx.getSqlObjectType()).thenAnswer(invocation -> sqlObjectType);
+        return ctx;
+    }
+
+    public interface BaseSqlDao {
+
+        String getSomething();
+    }
+
+    public interface SomeSqlDao extends BaseSqlDao {}
+
+    public interface OtherSqlDao extends BaseSqlDao {}
+}
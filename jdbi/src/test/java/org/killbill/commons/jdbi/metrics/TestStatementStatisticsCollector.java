@@ -0,0 +1,190 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.metrics;
+
+import java.lang.management.ManagementFactory;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+
+import org.mockito.Mockito;
+import org.skife.jdbi.v2.Binding;
+import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.TimingCollector;
+import org.skife.jdbi.v2.tweak.Argument;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestStatementStatisticsCollector {
+
+    @Test(groups = "fast")
+    public void testFingerprint() {
+        Assert.assertEquals(StatementStatisticsCollector.fingerprint("select * from accounts where id = ?"),
+                            "select * from accounts where id = ?");
+        Assert.assertEquals(StatementStatisticsCollector.fingerprint("select t1.col2\n  from  t1 -- comment\n where status = 'it''s' /* hint */ and amount > 12.5 limit 10"),
+                            "select t1.col2 from t1 where status = ? and amount > ? limit ?");
+        Assert.assertEquals(StatementStatisticsCollector.fingerprint("select \"col1\" from t where id in (?, ?, ?)"),
+                            StatementStatisticsCollector.fingerprint("select \"col1\" from t where id in (?)"));
+        Assert.assertEquals(StatementStatisticsCollector.fingerprint("insert into t (a, b) values (?, ?), (?, ?), (?, ?)"),
+                            "insert into t (a, b) values (...), ...");
+        Assert.assertEquals(StatementStatisticsCollector.fingerprint("insert into t (a, b) values (?, ?), (?, ?)"),
+                            StatementStatisticsCollector.fingerprint("insert into t (a, b) values (?, ?), (?, ?), (?, ?), (?, ?)"));
+    }
+
+    @Test(groups = "fast")
+    public void testStatistics() throws Exception {
+        final TimingCollector delegate = Mockito.mock(TimingCollector.class);
+        final StatementStatisticsCollector collector = new StatementStatisticsCollector(delegate, new StatementStatisticsCollector.Configuration());
+
+        final StatementContext update = newContext("update accounts set name = 'x' where id = ?", 2);
+        for (int i = 1; i <= 100; i++) {
+            collector.collect(TimeUnit.MILLISECONDS.toNanos(i), update);
+        }
+        final StatementContext query = newContext("select * from accounts where id in (?, ?)", -1);
+        collector.collect(TimeUnit.MILLISECONDS.toNanos(1), query);
+        collector.collect(TimeUnit.MILLISECONDS.toNanos(1), newContext("select * from accounts where id in (?)", -1));
+
+        Mockito.verify(delegate, Mockito.times(100)).collect(Mockito.anyLong(), Mockito.eq(update));
+
+        final List<StatementStatistics> statistics = collector.getStatementStatistics();
+        Assert.assertEquals(statistics.size(), 2);
+
+        // By decreasing total time
+        final StatementStatistics updateStatistics = statistics.get(0);
+        Assert.assertEquals(updateStatistics.getFingerprint(), "update accounts set name = ? where id = ?");
+        Assert.assertEquals(updateStatistics.getCount(), 100);
+        Assert.assertEquals(updateStatistics.getTotalTimeMillis(), 5050, 0.001);
+        Assert.assertEquals(updateStatistics.getMeanTimeMillis(), 50.5, 0.001);
+        Assert.assertEquals(updateStatistics.getMaxTimeMillis(), 100, 0.001);
+        Assert.assertTrue(updateStatistics.getP99TimeMillis() >= 99 * 0.8 && updateStatistics.getP99TimeMillis() <= 100,
+                          String.valueOf(updateStatistics.getP99TimeMillis()));
+        Assert.assertEquals(updateStatistics.getRows(), 200);
+
+        final StatementStatistics queryStatistics = statistics.get(1);
+        Assert.assertEquals(queryStatistics.getFingerprint(), "select * from accounts where id in (...)");
+        Assert.assertEquals(queryStatistics.getCount(), 2);
+        Assert.assertEquals(queryStatistics.getRows(), 0);
+
+        collector.reset();
+        Assert.assertTrue(collector.getStatementStatistics().isEmpty());
+    }
+
+    @Test(groups = "fast")
+    public void testBoundedTable() throws Exception {
+        final StatementStatisticsCollector collector = new StatementStatisticsCollector(TimingCollector.NOP_TIMING_COLLECTOR,
+                                                                                        new StatementStatisticsCollector.Configuration().withMaxFingerprints(2));
+        collector.collect(1, newContext("select a from t", -1));
+        collector.collect(1, newContext("select b from t", -1));
+        collector.collect(1, newContext("select c from t", -1));
+        collector.collect(1, newContext("select a from t", -1));
+
+        Assert.assertEquals(collector.getStatementStatistics().size(), 2);
+        Assert.assertEquals(collector.getUntrackedExecutions(), 1);
+    }
+
+    @Test(groups = "fast")
+    public void testSlowStatements() throws Exception {
+        final StatementStatisticsCollector collector = new StatementStatisticsCollector(TimingCollector.NOP_TIMING_COLLECTOR,
+                                                                                        new StatementStatisticsCollector.Configuration().withSlowThreshold(Duration.ofMillis(10))
+                                                                                                                                        .withSlowStatementsBufferSize(2));
+        final StatementContext ctx = newContext("select * from accounts where email = ?", -1);
+        final Binding binding = Mockito.mock(Binding.class);
+        Mockito.when(binding.getPositionalArguments()).thenReturn(Map.of(0, new EmailArgument("john@example.com")));
+        Mockito.when(ctx.getBinding()).thenReturn(binding);
+
+        collector.collect(TimeUnit.MILLISECONDS.toNanos(5), ctx);
+        Assert.assertTrue(collector.getSlowStatements().isEmpty());
+
+        collector.collect(TimeUnit.MILLISECONDS.toNanos(10), ctx);
+        collector.collect(TimeUnit.MILLISECONDS.toNanos(20), ctx);
+        collector.collect(TimeUnit.MILLISECONDS.toNanos(30), ctx);
+
+        // Most recent first, bounded
+        final List<SlowStatement> slowStatements = collector.getSlowStatements();
+        Assert.assertEquals(slowStatements.size(), 2);
+        Assert.assertEquals(slowStatements.get(0).getTimeMillis(), 30, 0.001);
+        Assert.assertEquals(slowStatements.get(1).getTimeMillis(), 20, 0.001);
+        Assert.assertEquals(slowStatements.get(0).getSql(), "select * from accounts where email = ?");
+        Assert.assertEquals(slowStatements.get(0).getBindings(), "0=EmailArgument");
+
+        final StatementStatisticsCollector verboseCollector = new StatementStatisticsCollector(TimingCollector.NOP_TIMING_COLLECTOR,
+                                                                                               new StatementStatisticsCollector.Configuration().withSlowThreshold(Duration.ZERO)
+                                                                                                                                               .withRedactor(StatementStatisticsCollector.REDACT_NONE));
+        verboseCollector.collect(1, ctx);
+        Assert.assertEquals(verboseCollector.getSlowStatements().get(0).getBindings(), "0=john@example.com");
+    }
+
+    @Test(groups = "fast")
+    public void testJmx() throws Exception {
+        final StatementStatisticsCollector collector = new StatementStatisticsCollector(TimingCollector.NOP_TIMING_COLLECTOR,
+                                                                                        new StatementStatisticsCollector.Configuration().withSlowThreshold(Duration.ZERO));
+        collector.collect(TimeUnit.MILLISECONDS.toNanos(1), newContext("select 1", -1));
+
+        final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+        final ObjectName objectName = new ObjectName(StatementStatisticsCollector.OBJECT_NAME);
+        mBeanServer.registerMBean(collector, objectName);
+        try {
+            final CompositeData[] statistics = (CompositeData[]) mBeanServer.getAttribute(objectName, "StatementStatistics");
+            Assert.assertEquals(statistics.length, 1);
+            Assert.assertEquals(statistics[0].get("fingerprint"), "select ?");
+            Assert.assertEquals(statistics[0].get("count"), 1L);
+
+            final CompositeData[] slowStatements = (CompositeData[]) mBeanServer.getAttribute(objectName, "SlowStatements");
+            Assert.assertEquals(slowStatements.length, 1);
+
+            mBeanServer.invoke(objectName, "reset", new Object[0], new String[0]);
+            Assert.assertTrue(collector.getStatementStatistics().isEmpty());
+        } finally {
+            mBeanServer.unregisterMBean(objectName);
+        }
+    }
+
+    private static StatementContext newContext(final String sql, final int updateCount) throws Exception {
+        final StatementContext ctx = Mockito.mock(StatementContext.class);
+        Mockito.when(ctx.getRewrittenSql()).thenReturn(sql);
+        final PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        Mockito.when(statement.getUpdateCount()).thenReturn(updateCount);
+        Mockito.when(ctx.getStatement()).thenReturn(statement);
+        return ctx;
+    }
+
+    private static final class EmailArgument implements Argument {
+
+        private final String value;
+
+        private EmailArgument(final String value) {
+            this.value = value;
+        }
+
+        @Override
+        public void apply(final int position, final PreparedStatement statement, final StatementContext ctx) throws SQLException {
+            statement.setString(position, value);
+        }
+
+        @Override
+        public String toString() {
+            return value;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.paging;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.killbill.commons.jdbi.JDBITestBase;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.PreparedBatch;
+import org.skife.jdbi.v2.exceptions.CallbackFailedException;
+import org.skife.jdbi.v2.exceptions.UnableToCreateStatementException;
+import org.skife.jdbi.v2.sqlobject.stringtemplate.ST4StatementLocator;
+import org.skife.jdbi.v2.tweak.ResultSetMapper;
+import org.skife.jdbi.v2.tweak.StatementLocator;
+import org.stringtemplate.v4.STGroupString;
+import org.testng.Assert;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+public class TestKeysetPaginator extends JDBITestBase {
+
+    private static final String TEMPLATES = "getEvenPage() ::= <<\n" +
+                                            "select record_id, name from paged where <keyset> and mod(record_id, 2) = :remainder;\n" +
+                                            ">>\n" +
+                                            "getPageWithoutKeyset() ::= <<\n" +
+                                            "select record_id, name from paged\n" +
+                                            ">>\n";
+
+    private static final ResultSetMapper<String> NAME_MAPPER = (index, r, ctx) -> r.getString("name");
+
+    private StatementLocator locator;
+
+    @BeforeMethod(groups = "slow")
+    public void setUpTable() throws Exception {
+        cleanupDb("drop table if exists paged;\n" +
+                  "create table paged (record_id bigint primary key, name varchar(100));");
+        try (final Handle handle = dbi.open()) {
+            final PreparedBatch batch = handle.prepareBatch("insert into paged (record_id, name) values (:id, :name)");
+            // Keys aren't contiguous
+            for (int i = 1; i <= 50; i++) {
+                batch.add().bind("id", i * 3).bind("name", "row-" + i * 3);
+            }
+            batch.execute();
+        }
+        locator = new ST4StatementLocator(new STGroupString(TEMPLATES));
+    }
+
+    @Test(groups = "slow")
+    public void testScan() {
+        for (final boolean prefetch : new boolean[]{true, false}) {
+            final KeysetPaginator<String> paginator = new KeysetPaginator<>(dbi, locator, "getEvenPage", "record_id", NAME_MAPPER,
+                                                                            new KeysetPaginator.Configuration().withPageSize(10)
+                                                                                                               .withPrefetch(prefetch));
+            final List<List<String>> pages = new ArrayList<>();
+            try (final KeysetPaginator<String>.Pages it = paginator.pages(Map.of("remainder", 0))) {
+                it.forEachRemaining(pages::add);
+                Assert.assertEquals(it.getLastKey(), 150L);
+            }
+
+            // 25 even keys: 6, 12, ..., 150
+            Assert.assertEquals(pages.size(), 3);
+            Assert.assertEquals(pages.get(0).size(), 10);
+            Assert.assertEquals(pages.get(1).size(), 10);
+            Assert.assertEquals(pages.get(2).size(), 5);
+            Assert.assertEquals(pages.get(0).get(0), "row-6");
+            Assert.assertEquals(pages.get(1).get(0), "row-66");
+            Assert.assertEquals(pages.get(2).get(4), "row-150");
+        }
+    }
+
+    @Test(groups = "slow")
+    public void testFullLastPage() {
+        final KeysetPaginator<String> paginator = new KeysetPaginator<>(dbi, locator, "getEvenPage", "record_id", NAME_MAPPER,
+                                                                        new KeysetPaginator.Configuration().withPageSize(5));
+        final KeysetPaginator<String>.Pages it = paginator.pages(Map.of("remainder", 0));
+        int pages = 0;
+        while (it.hasNext()) {
+            Assert.assertEquals(it.next().size(), 5);
+            pages++;
+        }
+        // The empty page after the last full one isn't returned
+        Assert.assertEquals(pages, 5);
+        Assert.assertFalse(it.hasNext());
+    }
+
+    @Test(groups = "slow")
+    public void testResume() {
+        final KeysetPaginator<String> paginator = new KeysetPaginator<>(dbi, locator, "getEvenPage", "record_id", NAME_MAPPER,
+                                                                        new KeysetPaginator.Configuration().withPageSize(4));
+        final Object lastKey;
+        try (final KeysetPaginator<String>.Pages it = paginator.pages(Map.of("remainder", 1))) {
+            Assert.assertEquals(it.next(), List.of("row-3", "row-9", "row-15", "row-21"));
+            lastKey = it.getLastKey();
+            // Closed with a page being prefetched
+        }
+
+        try (final KeysetPaginator<String>.Pages it = paginator.pages(lastKey, Map.of("remainder", 1))) {
+            Assert.assertEquals(it.next(), List.of("row-27", "row-33", "row-39", "row-45"));
+        }
+        try (final KeysetPaginator<String>.Pages it = paginator.pages(150L, Map.of("remainder", 1))) {
+            Assert.assertFalse(it.hasNext());
+        }
+    }
+
+    @Test(groups = "slow")
+    public void testTemplateWithoutKeyset() {
+        final KeysetPaginator<String> paginator = new KeysetPaginator<>(dbi, locator, "getPageWithoutKeyset", "record_id", NAME_MAPPER);
+        try {
+            paginator.pages(Map.of()).hasNext();
+            Assert.fail("The template doesn't reference the keyset attribute");
+        } catch (final CallbackFailedException e) {
+            Assert.assertTrue(e.getCause() instanceof UnableToCreateStatementException);
+            Assert.assertTrue(e.getCause().getCause() instanceof IllegalArgumentException);
+            Assert.assertEquals(e.getCause().getCause().getMessage(), "Template getPageWithoutKeyset must reference the <keyset> attribute");
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.statement;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.killbill.commons.jdbi.JDBITestBase;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.ResultIterator;
+import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.sqlobject.Bind;
+import org.skife.jdbi.v2.sqlobject.SqlUpdate;
+import org.skife.jdbi.v2.tweak.BaseStatementCustomizer;
+import org.testng.Assert;
+import org.testng.annotations.AfterMethod;
+import org.testng.annotations.BeforeMethod;
+import org.testng.annotations.Test;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+public class TestConnectionCachingStatementBuilderFactory extends JDBITestBase {
+
+    private HikariDataSource dataSource;
+
+    @BeforeMethod(groups = "slow")
+    public void cleanupDb() throws Exception {
+        cleanupDb("drop table if exists something;\n" +
+                  "create table something (id int primary key, name varchar(100))");
+
+        final HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setDataSource(new StatementCachingDataSource(embeddedDB.getDataSource()));
+        hikariConfig.setMaximumPoolSize(1);
+        dataSource = new HikariDataSource(hikariConfig);
+        dbi = new DBI(dataSource);
+    }
+
+    @AfterMethod(groups = "slow")
+    public void closePool() {
+        dataSource.close();
+    }
+
+    @Test(groups = "slow")
+    public void testReuseAcrossHandles() throws Exception {
+        final ConnectionCachingStatementBuilderFactory factory = new ConnectionCachingStatementBuilderFactory("test", new NoOpMetricRegistry());
+        dbi.setStatementBuilderFactory(factory);
+
+        final Dao dao = dbi.onDemand(Dao.class);
+        for (int i = 0; i < 10; i++) {
+            dao.insert(i, "name-" + i);
+        }
+
+        final AtomicReference<PreparedStatement> cachedStatement = new AtomicReference<>();
+        for (int i = 0; i < 10; i++) {
+            final int id = i;
+            // One handle (and pool checkout) per query
+            final String name = dbi.withHandle(handle -> handle.createQuery("select name from something where id = :id")
+                                                              .bind("id", id)
+                                                              .addStatementCustomizer(new BaseStatementCustomizer() {
+                                                                  @Override
+                                                                  public void beforeExecution(final PreparedStatement stmt, final StatementContext ctx) {
+                                                                      cachedStatement.compareAndSet(null, stmt);
+                                                                      Assert.assertSame(stmt, cachedStatement.get());
+                                                                  }
+                                                              })
+                                                              .mapTo(String.class)
+                                                              .first());
+            Assert.assertEquals(name, "name-" + i);
+        }
+
+        Assert.assertEquals(factory.getMisses(), 2);
+        Assert.assertEquals(factory.getHits(), 18);
+        Assert.assertEquals(factory.getNbCachedConnections(), 1);
+        Assert.assertFalse(cachedStatement.get().isClosed());
+
+        // Dropped when the pool closes the physical connection
+        dataSource.close();
+        Assert.assertEquals(factory.getNbCachedConnections(), 0);
+        Assert.assertTrue(cachedStatement.get().isClosed());
+        Assert.assertEquals(factory.getUntrackedConnections(), 0);
+    }
+
+    @Test(groups = "slow")
+    public void testNoCachingWithoutPhysicalConnectionTracking() throws Exception {
+        final ConnectionCachingStatementBuilderFactory factory = new ConnectionCachingStatementBuilderFactory("test", new NoOpMetricRegistry());
+        final DBI untrackedDbi = new DBI(embeddedDB.getDataSource());
+        untrackedDbi.setStatementBuilderFactory(factory);
+
+        for (int i = 0; i < 3; i++) {
+            Assert.assertEquals(untrackedDbi.withHandle(handle -> handle.createQuery("select count(*) from something").mapTo(Integer.class).first()), (Integer) 0);
+        }
+        Assert.assertEquals(factory.getUntrackedConnections(), 3);
+        Assert.assertEquals(factory.getHits() + factory.getMisses(), 0);
+        Assert.assertEquals(factory.getNbCachedConnections(), 0);
+    }
+
+    @Test(groups = "slow")
+    public void testSameStatementWhileIterating() throws Exception {
+        final ConnectionCachingStatementBuilderFactory factory = new ConnectionCachingStatementBuilderFactory("test", new NoOpMetricRegistry());
+        dbi.setStatementBuilderFactory(factory);
+
+        final List<Integer> ids = dbi.withHandle(handle -> {
+            for (int i = 0; i < 3; i++) {
+                handle.insert("insert into something (id, name) values (?, ?)", i, "name-" + i);
+            }
+
+            final List<Integer> result = new ArrayList<>();
+            final ResultIterator<Integer> iterator = handle.createQuery("select id from something order by id").mapTo(Integer.class).iterator();
+            try {
+                while (iterator.hasNext()) {
+                    result.add(iterator.next());
+                    // Same SQL, executed while the first result set is open
+                    Assert.assertEquals(handle.createQuery("select id from something order by id").mapTo(Integer.class).list().size(), 3);
+                }
+            } finally {
+                iterator.close();
+            }
+            return result;
+        });
+        Assert.assertEquals(ids, List.of(0, 1, 2));
+    }
+
+    @Test(groups = "slow")
+    public void testEvictionAndReset() throws Exception {
+        final ConnectionCachingStatementBuilderFactory factory = new ConnectionCachingStatementBuilderFactory("test", 2, new NoOpMetricRegistry());
+        dbi.setStatementBuilderFactory(factory);
+
+        final AtomicReference<PreparedStatement> firstStatement = new AtomicReference<>();
+        final AtomicInteger defaultFetchSize = new AtomicInteger();
+        final AtomicInteger reusedFetchSize = new AtomicInteger(-1);
+        try (final Handle handle = dbi.open()) {
+            handle.createQuery("select id from something")
+                  .addStatementCustomizer(new BaseStatementCustomizer() {
+                      @Override
+                      public void beforeExecution(final PreparedStatement stmt, final StatementContext ctx) throws SQLException {
+                          firstStatement.set(stmt);
+                          defaultFetchSize.set(stmt.getFetchSize());
+                      }
+                  })
+                  .setFetchSize(7)
+                  .list();
+
+            handle.createQuery("select id from something")
+                  .addStatementCustomizer(new BaseStatementCustomizer() {
+                      @Override
+                      public void beforeExecution(final PreparedStatement stmt, final StatementContext ctx) throws SQLException {
+                          Assert.assertSame(stmt, firstStatement.get());
+                          reusedFetchSize.set(stmt.getFetchSize());
+                      }
+                  })
+                  .list();
+            Assert.assertEquals(reusedFetchSize.get(), defaultFetchSize.get());
+            Assert.assertEquals(factory.getEvictions(), 0);
+
+            handle.createQuery("select name from something").list();
+            handle.createQuery("select id, name from something").list();
+            Assert.assertEquals(factory.getEvictions(), 1);
+            // Least recently used one evicted (and closed)
+            Assert.assertTrue(firstStatement.get().isClosed());
+        }
+    }
+
+    public interface Dao {
+
+        @SqlUpdate("insert into something (id, name) values (:id, :name)")
+        void insert(@Bind("id") int id, @Bind("name") String name);
+    }
+}
@@ -0,0 +1,187 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.commons.jdbi.transaction;
+
+import java.lang.reflect.Method;
+import java.sql.SQLException;
+import java.sql.SQLTransientException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.killbill.commons.metrics.api.Counter;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.mockito.Mockito;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.TransactionCallback;
+import org.skife.jdbi.v2.TransactionStatus;
+import org.skife.jdbi.v2.exceptions.TransactionFailedException;
+import org.skife.jdbi.v2.sqlobject.SqlObjectTransactionCallback;
+import org.skife.jdbi.v2.tweak.TransactionHandler;
+import org.skife.jdbi.v2.tweak.transactions.LocalTransactionHandler;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestRestartTransactionRunner {
+
+    @Test(groups = "fast")
+    public void testRetriesWithBackoff() {
+        final RecordingRunner runner = new RecordingRunner(new RestartTransactionRunner.Configuration().withBackoff(Duration.ofMillis(10), Duration.ofMillis(30), 2)
+                                                                                                     .withJitter(0),
+                                                           new FailingTransactionHandler(3, "40001"));
+
+        Assert.assertEquals(runner.inTransaction(Mockito.mock(Handle.class), newCallback()), "done");
+        Assert.assertEquals(runner.sleeps, List.of(10L, 20L, 30L));
+    }
+
+    @Test(groups = "fast")
+    public void testGiveUps() {
+        final MetricRegistry registry = Mockito.mock(MetricRegistry.class);
+        final Counter retries = Mockito.mock(Counter.class);
+        final Counter giveUps = Mockito.mock(Counter.class);
+        Mockito.when(registry.counter("jdbi.transaction.retries.TestRestartTransactionRunner.sqlObjectMethod")).thenReturn(retries);
+        Mockito.when(registry.counter("jdbi.transaction.giveUps.TestRestartTransactionRunner.sqlObjectMethod")).thenReturn(giveUps);
+
+        final RecordingRunner runner = new RecordingRunner(new RestartTransactionRunner.Configuration().withMaxRetries(3)
+                                                                                                     .withMetricRegistry(registry),
+                                                           new FailingTransactionHandler(10, "40001"));
+        try {
+            runner.inTransaction(Mockito.mock(Handle.class), new MethodCallback());
+            Assert.fail();
+        } catch (final TransactionFailedException e) {
+            Assert.assertEquals(((SQLException) e.getCause()).getSQLState(), "40001");
+        }
+
+        Assert.assertEquals(runner.sleeps.size(), 2);
+        for (final long sleep : runner.sleeps) {
+            // Default backoff (10 ms, then 20 ms), cut by up to 50% of jitter
+            Assert.assertTrue(sleep >= 5 && sleep <= 20, "Unexpected backoff " + sleep);
+        }
+        Mockito.verify(retries, Mockito.times(2)).inc(1);
+        Mockito.verify(giveUps, Mockito.times(1)).inc(1);
+    }
+
+    @Test(groups = "fast")
+    public void testMaxTotalTime() {
+        final RecordingRunner runner = new RecordingRunner(new RestartTransactionRunner.Configuration().withBackoff(Duration.ofSeconds(1), Duration.ofSeconds(1), 1)
+                                                                                                     .withMaxTotalTime(Duration.ofMillis(500)),
+                                                           new FailingTransactionHandler(1, "41000"));
+        try {
+            runner.inTransaction(Mockito.mock(Handle.class), newCallback());
+            Assert.fail();
+        } catch (final TransactionFailedException ignored) {
+        }
+        Assert.assertTrue(runner.sleeps.isEmpty());
+    }
+
+    @Test(groups = "fast")
+    public void testExceptionRules() {
+        final RestartTransactionRunner.Configuration configuration = new RestartTransactionRunner.Configuration().withBackoff(Duration.ZERO, Duration.ZERO, 1)
+                                                                                                                 .withExceptionRule(SQLTransientException.class, 2);
+
+        // Matching rule, regardless of the SQLState
+        final FailingTransactionHandler transientFailure = new FailingTransactionHandler(5, null) {
+            @Override
+            protected SQLException newFailure() {
+                return new SQLTransientException("transientFailure");
+            }
+        };
+        try {
+            new RecordingRunner(configuration, transientFailure).inTransaction(Mockito.mock(Handle.class), newCallback());
+            Assert.fail();
+        } catch (final TransactionFailedException ignored) {
+        }
+        Assert.assertEquals(transientFailure.attempts.get(), 2);
+
+        // Not retryable
+        final FailingTransactionHandler other = new FailingTransactionHandler(5, "23000");
+        try {
+            new RecordingRunner(configuration, other).inTransaction(Mockito.mock(Handle.class), newCallback());
+            Assert.fail();
+        } catch (final TransactionFailedException ignored) {
+        }
+        Assert.assertEquals(other.attempts.get(), 1);
+    }
+
+    private static TransactionCallback<String> newCallback() {
+        return (handle, status) -> "done";
+    }
+
+    public void sqlObjectMethod() {
+    }
+
+    private static final class MethodCallback implements SqlObjectTransactionCallback<String> {
+
+        @Override
+        public Method getSqlObjectMethod() {
+            try {
+                return TestRestartTransactionRunner.class.getMethod("sqlObjectMethod");
+            } catch (final NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public String inTransaction(final Handle conn, final TransactionStatus status) {
+            return "done";
+        }
+    }
+
+    private static final class RecordingRunner extends RestartTransactionRunner {
+
+        private final List<Long> sleeps = new ArrayList<>();
+
+        private RecordingRunner(final Configuration configuration, final TransactionHandler delegate) {
+            super(configuration, delegate);
+        }
+
+        @Override
+        protected void sleep(final long millis) {
+            sleeps.add(millis);
+        }
+    }
+
+    // Fails the first attempts, then runs the callback
+    private static class FailingTransactionHandler extends LocalTransactionHandler {
+
+        private final int failures;
+        private final String sqlState;
+        private final AtomicInteger attempts = new AtomicInteger();
+
+        private FailingTransactionHandler(final int failures, final String sqlState) {
+            this.failures = failures;
+            this.sqlState = sqlState;
+        }
+
+        protected SQLException newFailure() {
+            return new SQLException("deadlock", sqlState);
+        }
+
+        @Override
+        public <ReturnType> ReturnType inTransaction(final Handle handle, final TransactionCallback<ReturnType> callback) {
+            if (attempts.incrementAndGet() <= failures) {
+                throw new TransactionFailedException("failed", newFailure());
+            }
+            try {
+                return callback.inTransaction(handle, Mockito.mock(TransactionStatus.class));
+            } catch (final Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+}
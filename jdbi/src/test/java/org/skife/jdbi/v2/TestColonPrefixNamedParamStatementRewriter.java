@@ -0,0 +1,95 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2;
+
+import java.sql.PreparedStatement;
+import java.util.Collections;
+
+import org.junit.Assert;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.mockito.Mockito;
+import org.skife.jdbi.v2.exceptions.UnableToExecuteStatementException;
+import org.skife.jdbi.v2.tweak.Argument;
+import org.skife.jdbi.v2.tweak.RewrittenStatement;
+
+@Category(JDBITests.class)
+public class TestColonPrefixNamedParamStatementRewriter
+{
+    private final ColonPrefixNamedParamStatementRewriter rewriter = new ColonPrefixNamedParamStatementRewriter();
+    private final StatementContext ctx = new ConcreteStatementContext(Collections.<String, Object>emptyMap());
+
+    @Test
+    public void testNamedParams() throws Exception
+    {
+        final Binding binding = new Binding();
+        binding.addNamed("b", (position, statement, context) -> statement.setString(position, "b"));
+        binding.addPositional(0, (position, statement, context) -> statement.setString(position, "first"));
+        binding.addNamed("a", (position, statement, context) -> statement.setString(position, "a"));
+
+        final RewrittenStatement rewritten = rewriter.rewrite("select * from foo where x = :x and a = :a and b = :b", binding, ctx);
+        Assert.assertEquals("select * from foo where x = ? and a = ? and b = ?", rewritten.getSql());
+
+        final PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        rewritten.bind(binding, statement);
+        // :x falls back on the positional param
+        Mockito.verify(statement).setString(1, "first");
+        Mockito.verify(statement).setString(2, "a");
+        Mockito.verify(statement).setString(3, "b");
+
+        // Plan shared by all executions
+        final Binding otherBinding = new Binding();
+        otherBinding.addNamed("x", (position, stmt, context) -> stmt.setInt(position, 1));
+        otherBinding.addNamed("a", (position, stmt, context) -> stmt.setInt(position, 2));
+        otherBinding.addNamed("b", (position, stmt, context) -> stmt.setInt(position, 3));
+        final PreparedStatement otherStatement = Mockito.mock(PreparedStatement.class);
+        rewriter.rewrite("select * from foo where x = :x and a = :a and b = :b", otherBinding, ctx).bind(otherBinding, otherStatement);
+        Mockito.verify(otherStatement).setInt(1, 1);
+        Mockito.verify(otherStatement).setInt(2, 2);
+        Mockito.verify(otherStatement).setInt(3, 3);
+    }
+
+    @Test
+    public void testPositionalParams() throws Exception
+    {
+        final Binding binding = new Binding();
+        binding.addPositional(0, (position, statement, context) -> statement.setString(position, "first"));
+        binding.addPositional(1, (position, statement, context) -> statement.setString(position, "second"));
+        // Never looked up
+        binding.addNamedArgumentFinder(name -> {
+            throw new AssertionError("Unexpected lookup of " + name);
+        });
+
+        final RewrittenStatement rewritten = rewriter.rewrite("select * from foo where a = ? and b = ?", binding, ctx);
+        Assert.assertEquals("select * from foo where a = ? and b = ?", rewritten.getSql());
+
+        final PreparedStatement statement = Mockito.mock(PreparedStatement.class);
+        rewritten.bind(binding, statement);
+        Mockito.verify(statement).setString(1, "first");
+        Mockito.verify(statement).setString(2, "second");
+    }
+
+    @Test(expected = UnableToExecuteStatementException.class)
+    public void testMissingParam() throws Exception
+    {
+        final Binding binding = new Binding();
+        final Argument a = (position, statement, context) -> statement.setString(position, "a");
+        binding.addNamed("a", a);
+
+        rewriter.rewrite("select * from foo where a = :a and b = :b", binding, ctx).bind(binding, Mockito.mock(PreparedStatement.class));
+    }
+}
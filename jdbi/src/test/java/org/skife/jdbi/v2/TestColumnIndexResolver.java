@@ -0,0 +1,158 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.skife.jdbi.v2.tweak.ResultSetMapper;
+import org.skife.jdbi.v2.util.StringMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+@Category(JDBITests.class)
+public class TestColumnIndexResolver extends DBITestCase
+{
+    private BasicHandle h;
+
+    @Override
+    public void doSetUp() throws Exception
+    {
+        h = openHandle();
+        h.insert("insert into something (id, name) values (1, 'eric')");
+        h.insert("insert into something (id, name) values (2, 'brian')");
+        h.insert("insert into something (id, name) values (3, 'keith')");
+    }
+
+    @Override
+    public void doTearDown() throws Exception
+    {
+        if (h != null) h.close();
+    }
+
+    @Test
+    public void testResolvesLabels() throws Exception
+    {
+        final List<Integer> indexes = h.createQuery("select name as Alias, id from something where id = 1")
+                                       .map(new ResultSetMapper<Integer>()
+                                       {
+                                           @Override
+                                           public Integer map(int index, ResultSet r, StatementContext ctx) throws SQLException
+                                           {
+                                               ColumnIndexResolver columns = ColumnIndexResolver.forResultSet(r, ctx);
+                                               assertEquals(2, columns.getColumnCount());
+                                               assertEquals("alias", columns.getLabel(1));
+                                               assertEquals(1, columns.indexOf("ALIAS"));
+                                               assertEquals(-1, columns.indexOf("name"));
+                                               return columns.indexOf("id");
+                                           }
+                                       })
+                                       .list();
+        assertEquals(Arrays.asList(2), indexes);
+    }
+
+    @Test
+    public void testOneResolverPerResultSet() throws Exception
+    {
+        final List<ColumnIndexResolver> resolvers = new ArrayList<ColumnIndexResolver>();
+        final ResultSetMapper<String> mapper = new ResultSetMapper<String>()
+        {
+            @Override
+            public String map(int index, ResultSet r, StatementContext ctx) throws SQLException
+            {
+                resolvers.add(ColumnIndexResolver.forResultSet(r, ctx));
+                return r.getString(ColumnIndexResolver.forResultSet(r, ctx).indexOf("name"));
+            }
+        };
+
+        assertEquals(Arrays.asList("eric", "brian", "keith"), h.createQuery("select id, name from something order by id").map(mapper).list());
+        assertEquals(3, resolvers.size());
+        assertSame(resolvers.get(0), resolvers.get(1));
+        assertSame(resolvers.get(0), resolvers.get(2));
+
+        // Iterators share the resolver as well, but each statement gets its own
+        final ResultIterator<String> it = h.createQuery("select name from something order by id").map(mapper).iterator();
+        try {
+            while (it.hasNext()) {
+                it.next();
+            }
+        }
+        finally {
+            it.close();
+        }
+        assertEquals(6, resolvers.size());
+        assertNotSame(resolvers.get(0), resolvers.get(3));
+        assertSame(resolvers.get(3), resolvers.get(5));
+    }
+
+    @Test
+    public void testAttachments() throws Exception
+    {
+        final List<Object> plans = new ArrayList<Object>();
+        final Object key = new Object();
+        h.createQuery("select id, name from something order by id")
+         .map(new ResultSetMapper<Object>()
+         {
+             @Override
+             public Object map(int index, ResultSet r, StatementContext ctx) throws SQLException
+             {
+                 final Object plan = ColumnIndexResolver.forResultSet(r, ctx).computeIfAbsent(key, columns -> new Object());
+                 plans.add(plan);
+                 return plan;
+             }
+         })
+         .list();
+        assertEquals(3, plans.size());
+        assertSame(plans.get(0), plans.get(2));
+    }
+
+    @Test
+    public void testOneResolverPerResultSetWithoutStatementContext() throws Exception
+    {
+        final Statement statement = h.getConnection().createStatement();
+        try {
+            final ResultSet first = statement.executeQuery("select id, name from something order by id");
+            final ColumnIndexResolver resolver = ColumnIndexResolver.forResultSet(first, null);
+            assertSame(resolver, ColumnIndexResolver.forResultSet(first, null));
+            assertEquals(2, resolver.indexOf("name"));
+            first.close();
+
+            final ResultSet second = statement.executeQuery("select name from something order by id");
+            assertNotSame(resolver, ColumnIndexResolver.forResultSet(second, null));
+            assertEquals(1, ColumnIndexResolver.forResultSet(second, null).indexOf("name"));
+            second.close();
+        }
+        finally {
+            statement.close();
+        }
+    }
+
+    @Test
+    public void testTypedMapperByName() throws Exception
+    {
+        assertEquals(Arrays.asList("eric", "brian", "keith"),
+                     h.createQuery("select id, name from something order by id").map(new StringMapper("NAME")).list());
+    }
+}
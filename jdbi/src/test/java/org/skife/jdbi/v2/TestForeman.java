@@ -23,12 +23,15 @@ import org.junit.Test;
 import org.junit.experimental.categories.Category;
 import org.skife.jdbi.v2.tweak.Argument;
 import org.skife.jdbi.v2.tweak.ArgumentFactory;
+import org.skife.jdbi.v2.tweak.TypedArgumentFactory;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertSame;
 
 import java.sql.PreparedStatement;
 import java.sql.SQLException;
+import java.util.Collection;
+import java.util.List;
 
 @Category(JDBITests.class)
 public class TestForeman
@@ -108,10 +111,57 @@ public class TestForeman
         assertEquals(ObjectArgument.class, foreman.waffle(Object.class, null, null).getClass());
     }
 
+    @Test
+    public void testTypedArgumentFactory()
+    {
+        final Foreman foreman = new Foreman();
+        foreman.register(new WeirdTypedArgumentFactory(Weird.class));
+
+        assertEquals(WeirdArgument.class, foreman.waffle(Weird.class, new Weird(), null).getClass());
+        assertEquals(WeirdArgument.class, foreman.waffle(Object.class, new Weird(), null).getClass());
+        assertEquals(WeirdArgument.class, foreman.waffle(Object.class, new Weirder(), null).getClass());
+        assertEquals(ObjectArgument.class, foreman.waffle(Weird.class, null, null).getClass());
+        assertEquals(ObjectArgument.class, foreman.waffle(Object.class, null, null).getClass());
+
+        // Direct binding of primitives is unaffected
+        assertSame(LongArgument.class, foreman.waffle(Object.class, 3L, null).getClass());
+        assertSame(IntegerArgument.class, foreman.waffle(int.class, null, null).getClass());
+    }
+
+    @Test
+    public void testTypedArgumentFactoryOverridingDirectBinding()
+    {
+        final Foreman foreman = new Foreman();
+        foreman.register(new WeirdTypedArgumentFactory(Number.class));
+
+        assertEquals(WeirdArgument.class, foreman.waffle(Object.class, 3L, null).getClass());
+        assertEquals(WeirdArgument.class, foreman.waffle(long.class, 3L, null).getClass());
+        assertSame(LongArgument.class, foreman.waffle(long.class, null, null).getClass());
+        assertSame(StringArgument.class, foreman.waffle(String.class, "I am a String!", null).getClass());
+    }
+
+    @Test
+    public void testLatestRegistrationWins()
+    {
+        final Foreman foreman = new Foreman();
+        foreman.register(new WeirdTypedArgumentFactory(Weird.class));
+        foreman.register(new WeirdValueArgumentFactory());
+        final WeirdTypedArgumentFactory latest = new WeirdTypedArgumentFactory(Weirder.class);
+        foreman.register(latest);
+
+        assertEquals(WeirdArgument.class, foreman.waffle(Object.class, new Weird(), null).getClass());
+        assertSame(latest.argument, foreman.waffle(Weird.class, new Weirder(), null));
+        assertSame(latest.argument, foreman.waffle(Object.class, new Weirder(), null));
+    }
+
     private static class Weird
     {
     }
 
+    private static class Weirder extends Weird
+    {
+    }
+
     private static class WeirdClassArgumentFactory implements ArgumentFactory<Weird>
     {
         @Override
@@ -142,6 +192,35 @@ public class TestForeman
         }
     }
 
+    private static class WeirdTypedArgumentFactory implements TypedArgumentFactory<Object>
+    {
+        private final Class<?> type;
+        private final Argument argument = new WeirdArgument();
+
+        private WeirdTypedArgumentFactory(Class<?> type)
+        {
+            this.type = type;
+        }
+
+        @Override
+        public Collection<Class<?>> getSupportedTypes()
+        {
+            return List.of(type);
+        }
+
+        @Override
+        public boolean accepts(Class<?> expectedType, Object value, StatementContext ctx)
+        {
+            return type.isInstance(value);
+        }
+
+        @Override
+        public Argument build(Class<?> expectedType, Object value, StatementContext ctx)
+        {
+            return argument;
+        }
+    }
+
     private static class WeirdArgument implements Argument
     {
 
@@ -180,4 +180,45 @@ public class TestPreparedBatch extends DBITestCase
         assertEquals(h.createQuery("select name from something order by id").map(StringMapper.FIRST).list(),
                      Arrays.asList("Jeff", "Tom"));
     }
+
+    @Test
+    public void testMultiRowValues() throws Exception
+    {
+        Handle h = openHandle();
+        PreparedBatch b = h.prepareBatch("insert into something (id, name) values (:id, :name)").setMultiRowValues(3);
+
+        for (int i = 0; i < 7; i++) {
+            b.add().bind("id", i).bind("name", "Name " + i);
+        }
+        int[] counts = b.execute();
+
+        assertEquals(7, counts.length);
+        for (int count : counts) {
+            assertEquals(1, count);
+        }
+        assertEquals(Arrays.asList("Name 0", "Name 1", "Name 2", "Name 3", "Name 4", "Name 5", "Name 6"),
+                     h.createQuery("select name from something order by id").map(StringMapper.FIRST).list());
+    }
+
+    @Test
+    public void testMultiRowValuesIgnoredForUpdates() throws Exception
+    {
+        Handle h = openHandle();
+        h.insert("insert into something (id, name) values (1, 'Jeff')");
+        h.insert("insert into something (id, name) values (2, 'Tom')");
+
+        PreparedBatch b = h.prepareBatch("update something set name = :name where id = :id").setMultiRowValues(10);
+        b.add().bind("id", 1).bind("name", "Brian");
+        b.add().bind("id", 2).bind("name", "Keith");
+        b.add().bind("id", 3).bind("name", "Eric");
+
+        int[] counts = b.execute();
+
+        assertEquals(3, counts.length);
+        assertEquals(1, counts[0]);
+        assertEquals(1, counts[1]);
+        assertEquals(0, counts[2]);
+        assertEquals(Arrays.asList("Brian", "Keith"),
+                     h.createQuery("select name from something order by id").map(StringMapper.FIRST).list());
+    }
 }
@@ -35,6 +35,8 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -258,6 +260,32 @@ public class TestQueries extends DBITestCase
         i.close();
     }
 
+    @Test
+    public void testStream() throws Exception
+    {
+        h.insert("insert into something (id, name) values (1, 'eric')");
+        h.insert("insert into something (id, name) values (2, 'brian')");
+
+        try (Stream<Something> s = h.createQuery("select * from something order by id").map(Something.class).stream()) {
+            assertEquals(Arrays.asList("eric", "brian"), s.map(Something::getName).collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void testForEachBatch() throws Exception
+    {
+        for (int i = 1; i <= 5; i++) {
+            h.insert("insert into something (id, name) values (?, ?)", i, "name" + i);
+        }
+
+        final List<List<Integer>> batches = new ArrayList<List<Integer>>();
+        h.createQuery("select id from something order by id")
+         .mapTo(Integer.class)
+         .forEachBatch(2, batch -> batches.add(new ArrayList<Integer>(batch)));
+
+        assertEquals(Arrays.asList(Arrays.asList(1, 2), Arrays.asList(3, 4), Arrays.asList(5)), batches);
+    }
+
     @Test
     public void testIteratorBehavior2() throws Exception
     {
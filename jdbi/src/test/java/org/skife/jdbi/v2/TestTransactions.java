@@ -24,13 +24,20 @@ import org.junit.experimental.categories.Category;
 import org.skife.jdbi.v2.exceptions.DBIException;
 import org.skife.jdbi.v2.exceptions.TransactionException;
 import org.skife.jdbi.v2.exceptions.TransactionFailedException;
+import org.skife.jdbi.v2.tweak.transactions.LocalTransactionHandler;
 import org.skife.jdbi.v2.util.IntegerMapper;
 
 import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
@@ -192,4 +199,124 @@ public class TestTransactions extends DBITestCase
             fail("Should have been caught at IllegalArgumentException");
         }
     }
+
+    @Test
+    public void testTransactionStateIsDiscarded() throws Exception
+    {
+        Handle h = openHandle();
+
+        h.begin();
+        assertNotNull(h.getTransactionState());
+        h.checkpoint("first");
+        h.insert("insert into something (id, name) values (?, ?)", 1, "Tom");
+        h.rollback("first");
+        h.commit();
+        assertNull(h.getTransactionState());
+        assertTrue(h.getConnection().getAutoCommit());
+
+        h.getConnection().setAutoCommit(false);
+        h.begin();
+        h.rollback();
+        assertNull(h.getTransactionState());
+        assertFalse(h.getConnection().getAutoCommit());
+    }
+
+    @Test
+    public void testTransactionListeners() throws Exception
+    {
+        Handle h = openHandle();
+        final List<String> events = new ArrayList<String>();
+        final TransactionListener listener = new TransactionListener()
+        {
+            @Override
+            public void afterCommit(Handle handle)
+            {
+                events.add("commit");
+            }
+
+            @Override
+            public void afterRollback(Handle handle)
+            {
+                events.add("rollback");
+            }
+        };
+
+        h.inTransaction(new TransactionCallback<Object>()
+        {
+            @Override
+            public Object inTransaction(Handle handle, TransactionStatus status) throws Exception
+            {
+                handle.addTransactionListener(listener);
+                handle.addTransactionListener(new TransactionListener()
+                {
+                    @Override
+                    public void afterCommit(Handle handle)
+                    {
+                        throw new IllegalStateException("Listener failures don't fail the transaction");
+                    }
+                });
+                handle.addTransactionListener(listener);
+                return null;
+            }
+        });
+        assertEquals(Arrays.asList("commit", "commit"), events);
+
+        try {
+            h.inTransaction(new TransactionCallback<Object>()
+            {
+                @Override
+                public Object inTransaction(Handle handle, TransactionStatus status) throws Exception
+                {
+                    handle.addTransactionListener(listener);
+                    throw new IOException();
+                }
+            });
+            fail("Should have thrown exception");
+        }
+        catch (TransactionFailedException e) {
+            assertEquals(Arrays.asList("commit", "commit", "rollback"), events);
+        }
+
+        // Listeners are only notified for the transaction they were registered in
+        h.begin();
+        h.commit();
+        assertEquals(3, events.size());
+    }
+
+    @Test
+    public void testDefaultTransactionState() throws Exception
+    {
+        final Handle h = openHandle();
+        // Only implements the methods without a default, like third party Handle implementations
+        final Handle handle = (Handle) Proxy.newProxyInstance(Handle.class.getClassLoader(), new Class<?>[]{Handle.class}, (proxy, method, args) -> {
+            if (method.isDefault()) {
+                return InvocationHandler.invokeDefault(proxy, method, args);
+            }
+            else if ("hashCode".equals(method.getName())) {
+                return System.identityHashCode(proxy);
+            }
+            else if ("equals".equals(method.getName())) {
+                return proxy == args[0];
+            }
+            return method.invoke(h, args);
+        });
+
+        final LocalTransactionHandler transactions = new LocalTransactionHandler();
+        transactions.begin(handle);
+        assertNotNull(handle.getTransactionState());
+        assertTrue(transactions.isInTransaction(handle));
+        handle.insert("insert into something (id, name) values (?, ?)", 1, "Tom");
+        transactions.rollback(handle);
+        assertNull(handle.getTransactionState());
+        assertFalse(transactions.isInTransaction(handle));
+        assertEquals(0, h.createQuery("select count(*) from something").map(IntegerMapper.FIRST).first().intValue());
+
+        try {
+            handle.addTransactionListener(new TransactionListener() {});
+            fail("Should have thrown exception");
+        }
+        catch (UnsupportedOperationException e) {
+            // expected
+        }
+    }
 }
@@ -454,6 +454,44 @@ public class TestDocumentation
         String findNameById(@Bind int id);
     }
 
+    public static interface MultiRowBatchExample
+    {
+        @SqlBatch(value = "insert into something (id, name) values (:id, :first || ' ' || :last)", multiRowValues = 2)
+        @BatchChunkSize(3)
+        void insertFamily(@Bind("id") List<Integer> ids,
+                          @Bind("first") Iterator<String> firstNames,
+                          @Bind("last") String lastName);
+
+        @SqlUpdate("create table something(id int primary key, name varchar(32))")
+        void createSomethingTable();
+
+        @SqlQuery("select name from something where id = :it")
+        String findNameById(@Bind int id);
+    }
+
+    @Test
+    public void testMultiRowBatchExample() throws Exception
+    {
+        DBI dbi = new DBI("jdbc:h2:mem:" + UUID.randomUUID());
+        Handle h = dbi.open();
+
+        MultiRowBatchExample b = h.attach(MultiRowBatchExample.class);
+        b.createSomethingTable();
+
+        List<Integer> ids = asList(1, 2, 3, 4, 5);
+        Iterator<String> first_names = asList("Tip", "Jane", "Brian", "Keith", "Eric").iterator();
+
+        b.insertFamily(ids, first_names, "McCallister");
+
+        assertThat(b.findNameById(1), equalTo("Tip McCallister"));
+        assertThat(b.findNameById(2), equalTo("Jane McCallister"));
+        assertThat(b.findNameById(3), equalTo("Brian McCallister"));
+        assertThat(b.findNameById(4), equalTo("Keith McCallister"));
+        assertThat(b.findNameById(5), equalTo("Eric McCallister"));
+
+        h.close();
+    }
+
     public static interface BindExamples
     {
         @SqlUpdate("insert into something (id, name) values (:id, :name)")
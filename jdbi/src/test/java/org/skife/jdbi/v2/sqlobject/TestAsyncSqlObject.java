@@ -0,0 +1,246 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2.sqlobject;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.killbill.commons.jdbi.async.AsyncSqlObjectExecutor;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.JDBITests;
+import org.skife.jdbi.v2.Something;
+import org.skife.jdbi.v2.exceptions.DBIException;
+import org.skife.jdbi.v2.sqlobject.customizers.Mapper;
+import org.skife.jdbi.v2.sqlobject.mixins.Transactional;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@Category(JDBITests.class)
+public class TestAsyncSqlObject
+{
+    private JdbcDataSource ds;
+    private DBI dbi;
+    private Handle handle;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        ds = new JdbcDataSource();
+        ds.setURL(String.format("jdbc:h2:mem:%s", UUID.randomUUID()));
+        dbi = new DBI(ds);
+        handle = dbi.open();
+        handle.execute("create table something (id int primary key, name varchar(100))");
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        handle.execute("drop table something");
+        handle.close();
+    }
+
+    @Test
+    public void testOnDemand() throws Exception
+    {
+        AsyncSpiffy spiffy = dbi.onDemand(AsyncSpiffy.class);
+
+        assertNull(spiffy.insert(1, "Tim").get());
+        assertEquals(Integer.valueOf(1), spiffy.insertAndCount(2, "Diego").get());
+        assertNull(spiffy.insertAll(Arrays.asList(3, 4), Arrays.asList("Brian", "Steven")).get());
+
+        assertEquals("Tim", spiffy.findNameById(1).get());
+        List<Something> all = spiffy.findAll().toCompletableFuture().get();
+        assertEquals(4, all.size());
+        assertEquals("Diego", all.get(1).getName());
+        assertEquals(0, dbi.getAsyncSqlObjectExecutor().getPending());
+    }
+
+    @Test
+    public void testRunsOnVirtualThread() throws Exception
+    {
+        dbi.setAsyncSqlObjectExecutor(new AsyncSqlObjectExecutor(1, 10, null));
+        final Thread[] thread = new Thread[1];
+        DBI spyingDbi = new DBI(() -> {
+            thread[0] = Thread.currentThread();
+            return ds.getConnection();
+        });
+
+        assertNull(spyingDbi.onDemand(AsyncSpiffy.class).findNameById(1).get());
+        assertTrue(thread[0].isVirtual());
+    }
+
+    @Test
+    public void testExecutorSizedFromPool() throws Exception
+    {
+        assertEquals(10, dbi.getAsyncSqlObjectExecutor().getAvailableConnections());
+
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setDataSource(ds);
+        hikariConfig.setMaximumPoolSize(3);
+        try (HikariDataSource pool = new HikariDataSource(hikariConfig)) {
+            DBI pooledDbi = new DBI(pool);
+            assertEquals(3, pooledDbi.getAsyncSqlObjectExecutor().getAvailableConnections());
+            assertNull(pooledDbi.onDemand(AsyncSpiffy.class).findNameById(1).get());
+        }
+    }
+
+    @Test
+    public void testFailure() throws Exception
+    {
+        AsyncSpiffy spiffy = dbi.onDemand(AsyncSpiffy.class);
+        spiffy.insert(1, "Tim").get();
+
+        try {
+            spiffy.insert(1, "Tim").get();
+            fail("Expected a duplicate key failure");
+        }
+        catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof DBIException);
+        }
+    }
+
+    @Test
+    public void testAdmissionControl() throws Exception
+    {
+        final CountDownLatch connectionAvailable = new CountDownLatch(1);
+        DBI slowDbi = new DBI(() -> {
+            try {
+                connectionAvailable.await();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return ds.getConnection();
+        });
+        AsyncSqlObjectExecutor executor = new AsyncSqlObjectExecutor(1, 2, null);
+        slowDbi.setAsyncSqlObjectExecutor(executor);
+        AsyncSpiffy spiffy = slowDbi.onDemand(AsyncSpiffy.class);
+
+        CompletableFuture<String> first = spiffy.findNameById(1);
+        CompletableFuture<String> second = spiffy.findNameById(1);
+        CompletableFuture<String> rejected = spiffy.findNameById(1);
+
+        try {
+            rejected.get();
+            fail("Expected the call to be rejected");
+        }
+        catch (ExecutionException e) {
+            assertTrue(e.getCause() instanceof RejectedExecutionException);
+        }
+
+        // The first call holds the only connection
+        long deadline = System.currentTimeMillis() + 5000;
+        while (executor.getAvailableConnections() != 0 && System.currentTimeMillis() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(0, executor.getAvailableConnections());
+        assertEquals(2, executor.getPending());
+        assertFalse(first.isDone());
+
+        connectionAvailable.countDown();
+        assertNull(first.get(5, TimeUnit.SECONDS));
+        assertNull(second.get(5, TimeUnit.SECONDS));
+        assertEquals(0, executor.getPending());
+        assertEquals(1, executor.getAvailableConnections());
+    }
+
+    @Test
+    public void testAttachedRunsOnHandle() throws Exception
+    {
+        AsyncSpiffy spiffy = handle.attach(AsyncSpiffy.class);
+
+        handle.begin();
+        CompletableFuture<Void> insert = spiffy.insert(1, "Tim");
+        assertTrue(insert.isDone());
+        assertEquals("Tim", spiffy.findNameById(1).get());
+        handle.rollback();
+
+        assertNull(spiffy.findNameById(1).get());
+    }
+
+    @Test
+    public void testInTransactionRunsOnHandle() throws Exception
+    {
+        AsyncSpiffy spiffy = dbi.onDemand(AsyncSpiffy.class);
+
+        String name = spiffy.inTransaction((transactional, status) -> {
+            CompletableFuture<Void> insert = transactional.insert(1, "Tim");
+            assertTrue(insert.isDone());
+            return transactional.findNameById(1).get();
+        });
+        assertEquals("Tim", name);
+    }
+
+    @Test
+    public void testLazyResultsAreRejected() throws Exception
+    {
+        try {
+            dbi.onDemand(LazyAsyncSpiffy.class);
+            fail("Expected lazy results to be rejected");
+        }
+        catch (DBIException e) {
+            assertTrue(e.getMessage().contains("lazy"));
+        }
+    }
+
+    public interface AsyncSpiffy extends Transactional<AsyncSpiffy>
+    {
+        @SqlUpdate("insert into something (id, name) values (:id, :name)")
+        CompletableFuture<Void> insert(@Bind("id") int id, @Bind("name") String name);
+
+        @SqlUpdate("insert into something (id, name) values (:id, :name)")
+        CompletableFuture<Integer> insertAndCount(@Bind("id") int id, @Bind("name") String name);
+
+        @SqlBatch("insert into something (id, name) values (:id, :name)")
+        CompletableFuture<Void> insertAll(@Bind("id") List<Integer> ids, @Bind("name") List<String> names);
+
+        @SqlQuery("select name from something where id = :id")
+        CompletableFuture<String> findNameById(@Bind("id") int id);
+
+        @SqlQuery("select id, name from something order by id")
+        @Mapper(SomethingMapper.class)
+        CompletionStage<List<Something>> findAll();
+    }
+
+    public interface LazyAsyncSpiffy
+    {
+        @SqlQuery("select id, name from something")
+        @Mapper(SomethingMapper.class)
+        CompletableFuture<Iterator<Something>> findAll();
+    }
+}
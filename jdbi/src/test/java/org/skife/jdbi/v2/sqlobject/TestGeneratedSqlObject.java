@@ -0,0 +1,287 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.skife.jdbi.v2.sqlobject;
+
+import java.io.File;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.skife.jdbi.v2.DBI;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.JDBITests;
+import org.skife.jdbi.v2.Something;
+import org.skife.jdbi.v2.exceptions.UnableToExecuteStatementException;
+import org.skife.jdbi.v2.sqlobject.customizers.Mapper;
+import org.skife.jdbi.v2.sqlobject.mixins.CloseMe;
+import org.skife.jdbi.v2.sqlobject.mixins.GetHandle;
+import org.skife.jdbi.v2.sqlobject.mixins.Transactional;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+@Category(JDBITests.class)
+public class TestGeneratedSqlObject
+{
+    private DBI dbi;
+    private Handle handle;
+
+    @Before
+    public void setUp() throws Exception
+    {
+        JdbcDataSource ds = new JdbcDataSource();
+        ds.setURL(String.format("jdbc:h2:mem:%s", UUID.randomUUID()));
+        dbi = new DBI(ds);
+        handle = dbi.open();
+        handle.execute("create table something (id int primary key, name varchar(100))");
+    }
+
+    @After
+    public void tearDown() throws Exception
+    {
+        handle.execute("drop table something");
+        handle.close();
+    }
+
+    @Test
+    public void testGeneratedInterface() throws Exception
+    {
+        Spiffy spiffy = dbi.onDemand(Spiffy.class);
+        assertEquals(Spiffy.class.getName() + GeneratedSqlObjects.CLASS_SUFFIX, spiffy.getClass().getName());
+
+        spiffy.insert(1, "Tim");
+        spiffy.insertAll(Arrays.asList(2, 3), Arrays.asList("Diego", "Brian"));
+        assertEquals(3, spiffy.count());
+        assertEquals("Tim", spiffy.findNameById(1));
+        assertNull(spiffy.findNameById(4));
+        assertEquals(3, spiffy.findAll().size());
+        assertEquals("Diego", spiffy.findNameOrDefault(2, "?"));
+        assertEquals("?", spiffy.findNameOrDefault(4, "?"));
+        assertEquals(Integer.valueOf(1), spiffy.identity(1));
+
+        try {
+            spiffy.insert(1, "Tim");
+            fail("Expected a duplicate key failure");
+        }
+        catch (UnableToExecuteStatementException e) {
+            // Propagated as is
+        }
+    }
+
+    @Test
+    public void testHandlerTable() throws Exception
+    {
+        Map<Method, GeneratedSqlObjects.MethodKind> kinds = new LinkedHashMap<Method, GeneratedSqlObjects.MethodKind>();
+        GeneratedSqlObjects.findFactory(Spiffy.class).describe(kinds::put);
+
+        assertEquals(GeneratedSqlObjects.MethodKind.UPDATE, kinds.get(Spiffy.class.getMethod("insert", int.class, String.class)));
+        assertEquals(GeneratedSqlObjects.MethodKind.BATCH, kinds.get(Spiffy.class.getMethod("insertAll", List.class, List.class)));
+        assertEquals(GeneratedSqlObjects.MethodKind.QUERY, kinds.get(Spiffy.class.getMethod("findAll")));
+        assertEquals(GeneratedSqlObjects.MethodKind.CLOSE, kinds.get(CloseMe.class.getMethod("close")));
+        assertEquals(GeneratedSqlObjects.MethodKind.OTHER, kinds.get(Transactional.class.getMethod("begin")));
+        // Same as for the sql objects generated at runtime
+        for (Map.Entry<Method, GeneratedSqlObjects.MethodKind> entry : kinds.entrySet()) {
+            assertEquals(entry.getKey().toString(), SqlObject.kindOf(entry.getKey()), entry.getValue());
+        }
+    }
+
+    @Test
+    public void testMixins() throws Exception
+    {
+        Spiffy spiffy = handle.attach(Spiffy.class);
+        assertSame(handle, spiffy.getHandle());
+
+        int inserted = spiffy.inTransaction((transactional, status) -> {
+            transactional.insert(1, "Tim");
+            transactional.insert(2, "Diego");
+            return transactional.count();
+        });
+        assertEquals(2, inserted);
+
+        spiffy.begin();
+        spiffy.insert(3, "Brian");
+        spiffy.rollback();
+        assertEquals(2, spiffy.count());
+    }
+
+    @Test
+    public void testObjectMethods() throws Exception
+    {
+        Spiffy spiffy = handle.attach(Spiffy.class);
+        Spiffy other = handle.attach(Spiffy.class);
+
+        assertTrue(spiffy.equals(spiffy));
+        assertFalse(spiffy.equals(other));
+        assertEquals(spiffy.hashCode(), spiffy.hashCode());
+        assertTrue(spiffy.toString().contains(Spiffy.class.getName()));
+    }
+
+    @Test
+    public void testClose() throws Exception
+    {
+        Spiffy spiffy = dbi.open(Spiffy.class);
+        Handle spiffyHandle = spiffy.getHandle();
+        spiffy.close();
+        assertTrue(spiffyHandle.getConnection().isClosed());
+
+        Unclosable unclosable = dbi.open(Unclosable.class);
+        dbi.close(unclosable);
+    }
+
+    @Test
+    public void testGeneratedAbstractClass() throws Exception
+    {
+        AbstractSpiffy spiffy = dbi.onDemand(AbstractSpiffy.class);
+        assertEquals(AbstractSpiffy.class.getName() + GeneratedSqlObjects.CLASS_SUFFIX, spiffy.getClass().getName());
+
+        spiffy.insertTwice(1, 2, "Tim");
+        assertEquals("Tim", spiffy.findNameById(2));
+    }
+
+    @Test
+    public void testRuntimeFallback() throws Exception
+    {
+        NotGenerated notGenerated = dbi.onDemand(NotGenerated.class);
+        assertFalse(notGenerated.getClass().getName().endsWith(GeneratedSqlObjects.CLASS_SUFFIX));
+        assertEquals(0, notGenerated.count());
+    }
+
+    @Test
+    public void testWarmUp() throws Exception
+    {
+        assertTrue(SqlObjectBuilder.warmUp(getClass().getClassLoader()) >= 3);
+    }
+
+    @Test
+    public void testIndexKeptOnIncrementalBuilds() throws Exception
+    {
+        Path sourceDirectory = Files.createTempDirectory("sql-objects-src");
+        Path outputDirectory = Files.createTempDirectory("sql-objects-classes");
+        Path first = writeSqlObject(sourceDirectory, "FirstDao");
+        Path second = writeSqlObject(sourceDirectory, "SecondDao");
+
+        compile(outputDirectory, first, second);
+        assertEquals(Arrays.asList("test.FirstDao", "test.SecondDao"), Files.readAllLines(outputDirectory.resolve(GeneratedSqlObjects.INDEX_RESOURCE)));
+
+        // Only the modified source is recompiled
+        compile(outputDirectory, second);
+        assertEquals(Arrays.asList("test.FirstDao", "test.SecondDao"), Files.readAllLines(outputDirectory.resolve(GeneratedSqlObjects.INDEX_RESOURCE)));
+    }
+
+    private static Path writeSqlObject(Path sourceDirectory, String name) throws Exception
+    {
+        Path source = sourceDirectory.resolve(name + ".java");
+        Files.writeString(source, "package test;\n" +
+                                  "@org.skife.jdbi.v2.sqlobject.GenerateSqlObject\n" +
+                                  "public interface " + name + " {\n" +
+                                  "    @org.skife.jdbi.v2.sqlobject.SqlQuery(\"select count(*) from something\")\n" +
+                                  "    int count();\n" +
+                                  "}\n");
+        return source;
+    }
+
+    private static void compile(Path outputDirectory, Path... sources) throws Exception
+    {
+        JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+            // Like build tools, the output of the previous compilations is on the classpath
+            List<String> options = Arrays.asList("-classpath", outputDirectory + File.pathSeparator + System.getProperty("java.class.path"),
+                                                 "-d", outputDirectory.toString(),
+                                                 "-processor", SqlObjectProcessor.class.getName());
+            assertTrue(compiler.getTask(null, fileManager, null, options, null, fileManager.getJavaFileObjects(sources)).call());
+        }
+    }
+
+    @GenerateSqlObject
+    public interface Spiffy extends Transactional<Spiffy>, GetHandle, CloseMe
+    {
+        @SqlUpdate("insert into something (id, name) values (:id, :name)")
+        void insert(@Bind("id") int id, @Bind("name") String name);
+
+        @SqlBatch("insert into something (id, name) values (:id, :name)")
+        void insertAll(@Bind("id") List<Integer> ids, @Bind("name") List<String> names);
+
+        @SqlQuery("select count(*) from something")
+        int count();
+
+        @SqlQuery("select name from something where id = :id")
+        String findNameById(@Bind("id") int id);
+
+        @SqlQuery("select id, name from something order by id")
+        @Mapper(SomethingMapper.class)
+        List<Something> findAll();
+
+        default String findNameOrDefault(int id, String defaultName)
+        {
+            String name = findNameById(id);
+            return name == null ? defaultName : name;
+        }
+
+        default <T extends Comparable<T>> T identity(T value)
+        {
+            return value;
+        }
+    }
+
+    @GenerateSqlObject
+    public interface Unclosable
+    {
+        @SqlQuery("select count(*) from something")
+        int count();
+    }
+
+    @GenerateSqlObject
+    public abstract static class AbstractSpiffy
+    {
+        @SqlUpdate("insert into something (id, name) values (:id, :name)")
+        protected abstract void insert(@Bind("id") int id, @Bind("name") String name);
+
+        @SqlQuery("select name from something where id = :id")
+        public abstract String findNameById(@Bind("id") int id);
+
+        @Transaction
+        public void insertTwice(int firstId, int secondId, String name)
+        {
+            insert(firstId, name);
+            insert(secondId, name);
+        }
+    }
+
+    public interface NotGenerated
+    {
+        @SqlQuery("select count(*) from something")
+        int count();
+    }
+}
@@ -48,6 +48,8 @@ import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
@@ -214,6 +216,51 @@ public class TestOnDemandSqlObject
         assertFalse( dbi.hasOpenedHandle() );
     }
 
+    @Test
+    public void testStreamBindsTheHandle() throws Exception
+    {
+        HandleTrackerDBI dbi = new HandleTrackerDBI(ds);
+
+        Spiffy spiffy = SqlObjectBuilder.onDemand(dbi, Spiffy.class);
+        spiffy.insert(1, "Tom");
+        spiffy.insert(2, "Sam");
+
+        try (Stream<Something> all = spiffy.streamAll()) {
+            assertSame(spiffy.getHandle(), spiffy.getHandle());
+            assertEquals("Sam", all.filter(something -> something.getId() == 2).findFirst().get().getName());
+        }
+
+        assertFalse(dbi.hasOpenedHandle());
+    }
+
+    @Test
+    public void testStreamClosedWhenConsumed() throws Exception
+    {
+        HandleTrackerDBI dbi = new HandleTrackerDBI(ds);
+
+        Spiffy spiffy = SqlObjectBuilder.onDemand(dbi, Spiffy.class);
+        spiffy.insert(1, "Tom");
+        spiffy.insert(2, "Sam");
+
+        List<String> names = spiffy.streamAll().map(Something::getName).sorted().collect(Collectors.toList());
+        assertEquals(2, names.size());
+        assertEquals("Sam", names.get(0));
+
+        assertFalse(dbi.hasOpenedHandle());
+    }
+
+    @Test
+    public void testStreamClosedIfEmpty() throws Exception
+    {
+        HandleTrackerDBI dbi = new HandleTrackerDBI(ds);
+
+        Spiffy spiffy = SqlObjectBuilder.onDemand(dbi, Spiffy.class);
+
+        Stream<Something> nothing = spiffy.streamAll();
+        assertFalse(dbi.hasOpenedHandle());
+        assertEquals(0, nothing.count());
+    }
+
     @Test
     public void testSqlFromExternalFileWorks() throws Exception
     {
@@ -239,6 +286,10 @@ public class TestOnDemandSqlObject
         @Mapper(SomethingMapper.class)
         ResultIterator<Something> findAll();
 
+        @SqlQuery("select name, id from something")
+        @Mapper(SomethingMapper.class)
+        Stream<Something> streamAll();
+
         @SqlQuery("select * from crash now")
         @Mapper(SomethingMapper.class)
         Iterator<Something> crashNow();
@@ -20,7 +20,9 @@
 
 package org.skife.jdbi.v2.sqlobject.stringtemplate;
 
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 
 import org.junit.Assert;
@@ -50,4 +52,102 @@ public class TestST4StatementLocator {
         Assert.assertEquals(3, statementLocator.locatedSqlCache.size());
         Assert.assertEquals("select * from foo where id in (:__ids_0,:__ids_1)", statementLocator.locatedSqlCache.get("get___#___ids___#___:__ids_0,:__ids_1"));
     }
+
+    @Test
+    public void testManyAttributes() throws Exception {
+        final ST4StatementLocator statementLocator = new ST4StatementLocator(new STGroupFile("org/skife/jdbi/v2/sqlobject/stringtemplate/Jun.sql.stg"));
+
+        Assert.assertEquals("select * from foo order by id limit 1",
+                            statementLocator.locate("getWithFlags", new TestingStatementContext(Map.of("tableName", "foo", "withOrder", true, "withLimit", true, "unused", 1))));
+        Assert.assertEquals(1, statementLocator.locatedSqlCache.size());
+        Assert.assertEquals("select * from foo order by id limit 1",
+                            statementLocator.locatedSqlCache.get("getWithFlags___#___tableName___#___foo___#___withLimit___#___true___#___withOrder___#___true"));
+
+        // Attributes not referenced by the template aren't part of the key
+        Assert.assertEquals("select * from foo order by id limit 1",
+                            statementLocator.locate("getWithFlags", new TestingStatementContext(Map.of("tableName", "foo", "withOrder", true, "withLimit", true, "unused", 2))));
+        Assert.assertEquals(1, statementLocator.locatedSqlCache.size());
+
+        Assert.assertEquals("select * from foo",
+                            statementLocator.locate("getWithFlags", new TestingStatementContext(Map.of("tableName", "foo", "withOrder", false, "withLimit", false))));
+        Assert.assertEquals(2, statementLocator.locatedSqlCache.size());
+    }
+
+    @Test
+    public void testIncludedTemplates() throws Exception {
+        final STGroupFile group = new STGroupFile("org/skife/jdbi/v2/sqlobject/stringtemplate/Jun.sql.stg");
+        final ST4StatementLocator statementLocator = new ST4StatementLocator(group);
+
+        Assert.assertArrayEquals(new String[]{"tableName"}, ST4StatementLocator.analyze(group.lookupTemplate("getColumns")).getReferencedAttributes());
+        Assert.assertEquals("select id, name from foo", statementLocator.locate("getColumns", new TestingStatementContext(Map.of("tableName", "foo", "unused", 1))));
+        Assert.assertEquals("select id, name from bar", statementLocator.locate("getColumns", new TestingStatementContext(Map.of("tableName", "bar", "unused", 1))));
+        Assert.assertEquals(2, statementLocator.locatedSqlCache.size());
+        Assert.assertEquals("select id, name from foo", statementLocator.locatedSqlCache.get("getColumns___#___tableName___#___foo"));
+    }
+
+    @Test
+    public void testCollections() throws Exception {
+        final STGroupFile group = new STGroupFile("org/skife/jdbi/v2/sqlobject/stringtemplate/Jun.sql.stg");
+        final ST4StatementLocator statementLocator = new ST4StatementLocator(group);
+
+        // Iterates over the collection contents: not cached, each set of values would get its own entry
+        Assert.assertTrue(ST4StatementLocator.analyze(group.lookupTemplate("getByIds")).isCacheable());
+        Assert.assertFalse(ST4StatementLocator.analyze(group.lookupTemplate("getByIds")).isSizeOnly("ids"));
+        Assert.assertEquals("select * from foo where id in (1,2)", statementLocator.locate("getByIds", new TestingStatementContext(Map.of("ids", List.of(1, 2)))));
+        Assert.assertEquals("select * from foo where id in (3)", statementLocator.locate("getByIds", new TestingStatementContext(Map.of("ids", List.of(3)))));
+        Assert.assertEquals("select * from foo where id in (1,2)", statementLocator.locate("getByIds", new TestingStatementContext(Map.of("ids", new int[]{1, 2}))));
+        Assert.assertEquals(0, statementLocator.locatedSqlCache.size());
+        Assert.assertEquals(3, statementLocator.uncached.sum());
+
+        // Collection value
+        Assert.assertEquals("select * from foo where id in (12)", statementLocator.locate("get", new TestingStatementContext(Map.of("ids", List.of(1, 2)))));
+        Assert.assertEquals(0, statementLocator.locatedSqlCache.size());
+        Assert.assertEquals("select * from foo where id in (12)", statementLocator.locate("get", new TestingStatementContext(Map.of("ids", "12"))));
+        Assert.assertEquals(1, statementLocator.locatedSqlCache.size());
+
+        // Iterators are consumed by the rendering
+        Assert.assertEquals("select * from foo where id in (4)", statementLocator.locate("getByIds", new TestingStatementContext(Map.of("ids", List.of(4).iterator()))));
+        Assert.assertEquals(1, statementLocator.locatedSqlCache.size());
+        Assert.assertEquals(5, statementLocator.uncached.sum());
+    }
+
+    @Test
+    public void testCollectionSizes() throws Exception {
+        final STGroupFile group = new STGroupFile("org/skife/jdbi/v2/sqlobject/stringtemplate/Jun.sql.stg");
+        final ST4StatementLocator statementLocator = new ST4StatementLocator(group);
+
+        // Only the index of the elements is rendered
+        Assert.assertTrue(ST4StatementLocator.analyze(group.lookupTemplate("getByIdPlaceholders")).isSizeOnly("ids"));
+        Assert.assertEquals("select * from foo where id in (:id_0,:id_1)", statementLocator.locate("getByIdPlaceholders", new TestingStatementContext(Map.of("ids", List.of(1, 2)))));
+        Assert.assertEquals("select * from foo where id in (:id_0,:id_1)", statementLocator.locate("getByIdPlaceholders", new TestingStatementContext(Map.of("ids", List.of(3, 4)))));
+        Assert.assertEquals("select * from foo where id in (:id_0)", statementLocator.locate("getByIdPlaceholders", new TestingStatementContext(Map.of("ids", List.of(5)))));
+        Assert.assertEquals(2, statementLocator.locatedSqlCache.size());
+        Assert.assertEquals("select * from foo where id in (:id_0,:id_1)", statementLocator.locatedSqlCache.get("getByIdPlaceholders___#___ids___#[]___2"));
+        Assert.assertEquals(1, statementLocator.hits.sum());
+        Assert.assertEquals(2, statementLocator.misses.sum());
+
+        // Null elements are skipped
+        Assert.assertEquals("select * from foo where id in (:id_0)", statementLocator.locate("getByIdPlaceholders", new TestingStatementContext(Map.of("ids", Arrays.asList(1, null)))));
+        Assert.assertEquals(2, statementLocator.locatedSqlCache.size());
+        Assert.assertEquals(2, statementLocator.hits.sum());
+    }
+
+    @Test
+    public void testEvictionPolicies() throws Exception {
+        final ST4StatementLocator noEviction = new ST4StatementLocator(new STGroupFile("org/skife/jdbi/v2/sqlobject/stringtemplate/Jun.sql.stg"), 2, ST4StatementLocator.EvictionPolicy.NONE);
+        for (final String tableName : List.of("a", "b", "c")) {
+            Assert.assertEquals("select id, name from " + tableName, noEviction.locate("getColumns", new TestingStatementContext(Map.of("tableName", tableName))));
+        }
+        Assert.assertEquals(2, noEviction.locatedSqlCache.size());
+        Assert.assertTrue(noEviction.locatedSqlCache.containsKey("getColumns___#___tableName___#___a"));
+        Assert.assertTrue(noEviction.locatedSqlCache.containsKey("getColumns___#___tableName___#___b"));
+
+        final ST4StatementLocator lru = new ST4StatementLocator(new STGroupFile("org/skife/jdbi/v2/sqlobject/stringtemplate/Jun.sql.stg"), 2, ST4StatementLocator.EvictionPolicy.LRU);
+        for (final String tableName : List.of("a", "b", "a", "c")) {
+            Assert.assertEquals("select id, name from " + tableName, lru.locate("getColumns", new TestingStatementContext(Map.of("tableName", tableName))));
+        }
+        Assert.assertEquals(2, lru.locatedSqlCache.size());
+        Assert.assertTrue(lru.locatedSqlCache.containsKey("getColumns___#___tableName___#___a"));
+        Assert.assertTrue(lru.locatedSqlCache.containsKey("getColumns___#___tableName___#___c"));
+    }
 }
@@ -60,6 +60,7 @@ import org.killbill.queue.DBBackedQueueWithInflightQueue;
 import org.killbill.queue.DBBackedQueueWithPolling;
 import org.killbill.queue.DefaultQueueLifecycle;
 import org.killbill.queue.InTransaction;
+import org.killbill.queue.api.DeadLetterFilter;
 import org.killbill.queue.api.PersistentQueueConfig.PersistentQueueMode;
 import org.killbill.queue.api.QueueEvent;
 import org.killbill.queue.dao.EventEntryModelDao;
@@ -416,6 +417,16 @@ public class DefaultPersistentBus extends DefaultQueueLifecycle implements Persi
         return dao.getNbReadyEntries(maxCreatedDate.toDate());
     }
 
+    @Override
+    public long getNbDeadLetterBusEvents(final DeadLetterFilter filter) {
+        return dao.getNbDeadLetterEntries(filter, null);
+    }
+
+    @Override
+    public long replayDeadLetterBusEvents(final DeadLetterFilter filter) {
+        return dao.replayDeadLetterEntries(filter, null);
+    }
+
     @Override
     public String toString() {
         final StringBuilder sb = new StringBuilder("DefaultPersistentBus{");
@@ -31,6 +31,7 @@ import org.killbill.bus.api.BusEventWithMetadata;
 import org.killbill.bus.api.PersistentBus;
 import org.killbill.bus.api.PersistentBusConfig;
 import org.killbill.commons.eventbus.EventBus;
+import org.killbill.queue.api.DeadLetterFilter;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -214,4 +215,14 @@ public class InMemoryPersistentBus implements PersistentBus {
     public long getNbReadyEntries(final DateTime maxCreatedDate) {
         throw new UnsupportedOperationException("Guava doesn't expose the events to dispatch");
     }
+
+    @Override
+    public long getNbDeadLetterBusEvents(final DeadLetterFilter filter) {
+        throw new UnsupportedOperationException("In memory bus does not keep failed events");
+    }
+
+    @Override
+    public long replayDeadLetterBusEvents(final DeadLetterFilter filter) {
+        throw new UnsupportedOperationException("In memory bus does not keep failed events");
+    }
 }
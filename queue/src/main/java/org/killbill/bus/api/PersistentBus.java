@@ -22,6 +22,7 @@ package org.killbill.bus.api;
 import java.sql.Connection;
 
 import org.joda.time.DateTime;
+import org.killbill.queue.api.DeadLetterFilter;
 import org.killbill.queue.api.QueueLifecycle;
 
 /**
@@ -194,4 +195,21 @@ public interface PersistentBus extends QueueLifecycle {
      * @return the number of ready entries
      */
     long getNbReadyEntries(final DateTime maxCreatedDate);
+
+    /**
+     * Count the number of bus events which exhausted their retries (dead-letter entries)
+     *
+     * @param filter the dead-letter entries to count
+     * @return the number of dead-letter entries
+     */
+    long getNbDeadLetterBusEvents(final DeadLetterFilter filter);
+
+    /**
+     * Re-insert the bus events which exhausted their retries (dead-letter entries) so they get dispatched again.
+     * Entries are re-inserted by batches, at a rate limited by configuration.
+     *
+     * @param filter the dead-letter entries to replay
+     * @return the number of bus events re-inserted
+     */
+    long replayDeadLetterBusEvents(final DeadLetterFilter filter);
 }
@@ -140,4 +140,20 @@ public abstract class PersistentBusConfig implements PersistentQueueConfig {
     @Default("15s")
     @Description("Shutdown sequence timeout")
     public abstract TimeSpan getShutdownTimeout();
+
+    @Override
+    @Config("org.killbill.persistent.bus.${instanceName}.deadLetter.replay.batchSize")
+    @Default("1000")
+    @Description("Number of failed bus events re-inserted per transaction when replaying dead-letter entries")
+    public int getDeadLetterReplayBatchSize() {
+        return PersistentQueueConfig.super.getDeadLetterReplayBatchSize();
+    }
+
+    @Override
+    @Config("org.killbill.persistent.bus.${instanceName}.deadLetter.replay.maxRate")
+    @Default("5000")
+    @Description("Max number of failed bus events re-inserted per second when replaying dead-letter entries (0 for no limit)")
+    public int getDeadLetterReplayMaxEntriesPerSecond() {
+        return PersistentQueueConfig.super.getDeadLetterReplayMaxEntriesPerSecond();
+    }
 }
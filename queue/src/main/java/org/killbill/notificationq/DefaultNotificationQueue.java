@@ -20,13 +20,16 @@
 package org.killbill.notificationq;
 
 import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 import jakarta.annotation.Nullable;
@@ -49,6 +52,7 @@ import org.killbill.notificationq.dao.NotificationSqlDao;
 import org.killbill.queue.DBBackedQueue;
 import org.killbill.queue.InTransaction;
 import org.killbill.queue.QueueObjectMapper;
+import org.killbill.queue.api.DeadLetterFilter;
 import org.killbill.queue.api.PersistentQueueEntryLifecycleState;
 import org.killbill.queue.dao.QueueSqlDao;
 import org.killbill.queue.dispatching.CallableCallbackBase;
@@ -320,11 +324,111 @@ public class DefaultNotificationQueue implements NotificationQueue {
                 }).collect(Collectors.toUnmodifiableList());
     }
 
+    @Override
+    public Long recordFutureNotificationWithPayload(final DateTime futureNotificationTime,
+                                                    final DateTime payloadEffectiveDate,
+                                                    final NotificationEvent payload,
+                                                    final Function<Long, NotificationEvent> notificationBuilder,
+                                                    final UUID userToken,
+                                                    final Long searchKey1,
+                                                    final Long searchKey2) throws IOException {
+        final NotificationEventModelDao payloadEntry = buildPayloadEntry(payloadEffectiveDate, payload, userToken, searchKey1, searchKey2);
+        try {
+            return dao.getSqlDao().inTransaction(new Transaction<Long, QueueSqlDao<NotificationEventModelDao>>() {
+                @Override
+                public Long inTransaction(final QueueSqlDao<NotificationEventModelDao> transactional, final TransactionStatus status) {
+                    return recordFutureNotificationWithPayloadFromSqlDao(transactional, futureNotificationTime, payloadEntry, notificationBuilder, userToken, searchKey1, searchKey2);
+                }
+            });
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    @Override
+    public Long recordFutureNotificationWithPayloadFromTransaction(final Connection connection,
+                                                                   final DateTime futureNotificationTime,
+                                                                   final DateTime payloadEffectiveDate,
+                                                                   final NotificationEvent payload,
+                                                                   final Function<Long, NotificationEvent> notificationBuilder,
+                                                                   final UUID userToken,
+                                                                   final Long searchKey1,
+                                                                   final Long searchKey2) throws IOException {
+        final NotificationEventModelDao payloadEntry = buildPayloadEntry(payloadEffectiveDate, payload, userToken, searchKey1, searchKey2);
+        final InTransaction.InTransactionHandler<NotificationSqlDao, Long> handler = new InTransaction.InTransactionHandler<NotificationSqlDao, Long>() {
+            @Override
+            public Long withSqlDao(final NotificationSqlDao transactional) {
+                return recordFutureNotificationWithPayloadFromSqlDao(transactional, futureNotificationTime, payloadEntry, notificationBuilder, userToken, searchKey1, searchKey2);
+            }
+        };
+        try {
+            return InTransaction.execute(dbi, connection, handler, NotificationSqlDao.class);
+        } catch (final UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private NotificationEventModelDao buildPayloadEntry(final DateTime effectiveDate, final NotificationEvent event, final UUID userToken, final Long searchKey1, final Long searchKey2) throws IOException {
+        final String eventJson = objectWriter.writeValueAsString(event);
+        final Long searchKey2WithNull = Objects.requireNonNullElse(searchKey2, 0L);
+        final NotificationEventModelDao payloadEntry = new NotificationEventModelDao(CreatorName.get(), clock.getUTCNow(), event.getClass().getName(), eventJson, userToken, searchKey1, searchKey2WithNull, UUID.randomUUID(), effectiveDate, getFullQName());
+        payloadEntry.setProcessingState(PersistentQueueEntryLifecycleState.RETRY_PAYLOAD);
+        return payloadEntry;
+    }
+
+    // The notification referencing the payload is only inserted once the payload record_id is known, in the same transaction
+    private Long recordFutureNotificationWithPayloadFromSqlDao(final QueueSqlDao<NotificationEventModelDao> transactional,
+                                                               final DateTime futureNotificationTime,
+                                                               final NotificationEventModelDao payloadEntry,
+                                                               final Function<Long, NotificationEvent> notificationBuilder,
+                                                               final UUID userToken,
+                                                               final Long searchKey1,
+                                                               final Long searchKey2) {
+        final Long payloadRecordId = transactional.insertEntry(payloadEntry, config.getHistoryTableName());
+
+        final NotificationEvent event = notificationBuilder.apply(payloadRecordId);
+        final String eventJson;
+        try {
+            eventJson = objectWriter.writeValueAsString(event);
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        final Long searchKey2WithNull = Objects.requireNonNullElse(searchKey2, 0L);
+        final NotificationEventModelDao notification = new NotificationEventModelDao(CreatorName.get(), clock.getUTCNow(), event.getClass().getName(), eventJson, userToken, searchKey1, searchKey2WithNull, UUID.randomUUID(), futureNotificationTime, getFullQName());
+        dao.insertEntryFromTransaction(transactional, notification);
+        return payloadRecordId;
+    }
+
+    @Override
+    public <T extends NotificationEvent> NotificationEventWithMetadata<T> getHistoricalNotification(final Long recordId) {
+        final NotificationEventModelDao entry = dao.getSqlDao().getByRecordId(recordId, config.getHistoryTableName());
+        if (entry == null) {
+            return null;
+        }
+        final Iterable<NotificationEventWithMetadata<T>> result = toNotificationEventWithMetadata(List.of(entry));
+        return result.iterator().next();
+    }
+
+    @Override
+    public void removeNotificationPayload(final Long recordId) {
+        dao.getSqlDao().removeEntry(recordId, config.getHistoryTableName());
+    }
+
     @Override
     public long getNbReadyEntries(final DateTime maxCreatedDate) {
         return dao.getNbReadyEntries(maxCreatedDate.toDate());
     }
 
+    @Override
+    public long getNbDeadLetterNotifications(final DeadLetterFilter filter) {
+        return dao.getNbDeadLetterEntries(filter, getFullQName());
+    }
+
+    @Override
+    public long replayDeadLetterNotifications(final DeadLetterFilter filter) {
+        return dao.replayDeadLetterEntries(filter, getFullQName());
+    }
+
     @Override
     public void removeNotification(final Long recordId) {
         final NotificationEventModelDao existing = dao.getSqlDao().getByRecordId(recordId, config.getTableName());
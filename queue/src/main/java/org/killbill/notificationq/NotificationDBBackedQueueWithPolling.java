@@ -0,0 +1,70 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.notificationq;
+
+import java.util.Collection;
+import java.util.Date;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+import jakarta.annotation.Nullable;
+
+import org.killbill.clock.Clock;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.notificationq.api.NotificationQueueConfig;
+import org.killbill.notificationq.dao.NotificationEventModelDao;
+import org.killbill.notificationq.dao.NotificationSqlDao;
+import org.killbill.queue.DBBackedQueueWithPolling;
+import org.killbill.queue.dao.QueueSqlDao;
+import org.skife.jdbi.v2.IDBI;
+
+//
+// Polling queue which leaves aside the entries of the queues whose dedicated pool (bulkhead) is saturated, and the entries
+// which would exceed the capacity of such a pool
+//
+class NotificationDBBackedQueueWithPolling extends DBBackedQueueWithPolling<NotificationEventModelDao> {
+
+    private final Supplier<Collection<String>> excludedQueueNamesSupplier;
+    private final UnaryOperator<List<NotificationEventModelDao>> claimCapper;
+
+    NotificationDBBackedQueueWithPolling(final Clock clock,
+                                         final IDBI dbi,
+                                         final NotificationQueueConfig config,
+                                         final String dbBackedQId,
+                                         final MetricRegistry metricRegistry,
+                                         final Supplier<Collection<String>> excludedQueueNamesSupplier,
+                                         final UnaryOperator<List<NotificationEventModelDao>> claimCapper) {
+        super(clock, dbi, NotificationSqlDao.class, config, dbBackedQId, metricRegistry);
+        this.excludedQueueNamesSupplier = excludedQueueNamesSupplier;
+        this.claimCapper = claimCapper;
+    }
+
+    @Override
+    protected List<NotificationEventModelDao> doFetchReadyEntries(final Date now, final int maxEntries, @Nullable final String owner, final QueueSqlDao<NotificationEventModelDao> queueSqlDao) {
+        final Collection<String> excludedQueueNames = excludedQueueNamesSupplier.get();
+        final List<NotificationEventModelDao> candidates;
+        if (excludedQueueNames.isEmpty()) {
+            candidates = super.doFetchReadyEntries(now, maxEntries, owner, queueSqlDao);
+        } else {
+            log.debug("{} Skipping saturated queues {}", DB_QUEUE_LOG_ID, excludedQueueNames);
+            candidates = ((NotificationSqlDao) queueSqlDao).getReadyEntriesExcludingQueueNames(now, maxEntries, owner, excludedQueueNames, config.getTableName());
+        }
+        // Entries left aside aren't claimed and remain available
+        return claimCapper.apply(candidates);
+    }
+}
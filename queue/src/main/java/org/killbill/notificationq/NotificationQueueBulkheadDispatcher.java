@@ -0,0 +1,122 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.notificationq;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.killbill.clock.Clock;
+import org.killbill.commons.concurrent.NamedThreadFactory;
+import org.killbill.commons.metrics.api.Counter;
+import org.killbill.commons.metrics.api.Gauge;
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.notificationq.api.NotificationEvent;
+import org.killbill.notificationq.api.NotificationQueueBulkhead;
+import org.killbill.notificationq.api.NotificationQueueConfig;
+import org.killbill.notificationq.dao.NotificationEventModelDao;
+import org.killbill.notificationq.dispatching.NotificationCallableCallback;
+import org.killbill.queue.dispatching.BlockingRejectionExecutionHandler;
+import org.killbill.queue.dispatching.Dispatcher;
+
+//
+// Dedicated dispatch pool for the queues attached to a given NotificationQueueBulkhead.
+//
+// The work queue is bounded by the bulkhead capacity and back-pressure is applied upstream: the attached queues are skipped
+// when claiming as soon as the backlog reaches that capacity, and each claim is capped to the remaining capacity
+// (see NotificationQueueDispatcher#capClaimToBulkheads). This way, the lifecycle dispatcher thread never blocks on a slow
+// bulkhead: the blocking rejection policy is only a safety net.
+//
+class NotificationQueueBulkheadDispatcher {
+
+    private final NotificationQueueBulkhead bulkhead;
+    private final LinkedBlockingQueue<Runnable> workQueue;
+    private final Dispatcher<NotificationEvent, NotificationEventModelDao> dispatcher;
+    // Claiming loops which skipped the attached queues altogether (their entries are not counted, as they aren't fetched)
+    private final Counter skippedClaims;
+    private final Counter rejectedEntries;
+
+    NotificationQueueBulkheadDispatcher(final NotificationQueueBulkhead bulkhead,
+                                        final NotificationQueueConfig config,
+                                        final Clock clock,
+                                        final NotificationCallableCallback notificationCallableCallback,
+                                        final NotificationQueueDispatcher parentLifeCycle,
+                                        final MetricRegistry metricRegistry) {
+        this.bulkhead = bulkhead;
+        this.workQueue = new LinkedBlockingQueue<Runnable>(bulkhead.getEventQueueCapacity());
+
+        final ThreadFactory threadFactory = new NamedThreadFactory(config.getTableName() + "-" + bulkhead.getName() + "-th");
+        this.dispatcher = new Dispatcher<>(1,
+                                           bulkhead.getMaxDispatchThreads(),
+                                           config,
+                                           10,
+                                           TimeUnit.MINUTES,
+                                           config.getShutdownTimeout().getPeriod(),
+                                           config.getShutdownTimeout().getUnit(),
+                                           workQueue,
+                                           threadFactory,
+                                           new BlockingRejectionExecutionHandler(),
+                                           clock,
+                                           notificationCallableCallback,
+                                           parentLifeCycle);
+
+        final String metricPrefix = String.format("%s.%s.%s", NotificationQueueDispatcher.class.getName(), config.getTableName(), bulkhead.getName());
+        this.skippedClaims = metricRegistry.counter(String.format("%s.%s", metricPrefix, "skippedClaims"));
+        this.rejectedEntries = metricRegistry.counter(String.format("%s.%s", metricPrefix, "rejectedEntries"));
+        metricRegistry.gauge(String.format("%s.%s.%s", metricPrefix, "workQueue", "size"), new Gauge<Integer>() {
+            @Override
+            public Integer getValue() {
+                return workQueue.size();
+            }
+        });
+    }
+
+    void start() {
+        dispatcher.start();
+    }
+
+    boolean stop() {
+        return dispatcher.stopDispatcher();
+    }
+
+    void dispatch(final NotificationEventModelDao entry) {
+        dispatcher.dispatch(entry);
+    }
+
+    // Called once per claiming loop: when saturated, the queues attached to this bulkhead are skipped for that loop
+    boolean isSaturated() {
+        if (getRemainingCapacity() <= 0) {
+            skippedClaims.inc(1);
+            return true;
+        }
+        return false;
+    }
+
+    // Number of entries which can still be dispatched without exceeding the capacity
+    int getRemainingCapacity() {
+        return workQueue.remainingCapacity();
+    }
+
+    // Entries left unclaimed because the claim would have exceeded the capacity
+    void recordRejectedEntries(final int nbEntries) {
+        rejectedEntries.inc(nbEntries);
+    }
+
+    NotificationQueueBulkhead getBulkhead() {
+        return bulkhead;
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.notificationq;
+
+import org.killbill.commons.metrics.api.Counter;
+import org.killbill.commons.metrics.api.MetricRegistry;
+
+//
+// Share of the claimed entries that a given queue may take (e.g. a retry queue), enforced when the claim is contended.
+//
+// Claims are tracked with exponentially decaying counts: when the last claim was full and the queue took more than
+// its share, its entries are left unclaimed until the other queues catch up (see NotificationQueueDispatcher#getExcludedQueueNames).
+// When the claim isn't contended, the budget doesn't apply.
+//
+final class NotificationQueueClaimBudget {
+
+    // Weight of the previous claims at each claiming loop
+    private static final double DECAY = 0.9;
+
+    private final double maxClaimFraction;
+    private final Counter throttledClaims;
+
+    private double nbClaimedForQueue;
+    private double nbClaimed;
+    private boolean lastClaimFull;
+
+    NotificationQueueClaimBudget(final String tableName,
+                                 final String compositeName,
+                                 final double maxClaimFraction,
+                                 final MetricRegistry metricRegistry) {
+        if (maxClaimFraction <= 0 || maxClaimFraction > 1) {
+            throw new IllegalArgumentException("maxClaimFraction should be in ]0, 1]: " + maxClaimFraction);
+        }
+        this.maxClaimFraction = maxClaimFraction;
+        // ':' is not allowed for metric names
+        this.throttledClaims = metricRegistry.counter(String.format("%s.%s.%s.%s", NotificationQueueDispatcher.class.getName(), tableName, compositeName.replace(':', '-'), "throttledClaims"));
+    }
+
+    synchronized void recordClaim(final int nbClaimedForQueue, final int nbClaimed, final boolean claimFull) {
+        this.nbClaimedForQueue = this.nbClaimedForQueue * DECAY + nbClaimedForQueue;
+        this.nbClaimed = this.nbClaimed * DECAY + nbClaimed;
+        this.lastClaimFull = claimFull;
+    }
+
+    // Called once per claiming loop: when exhausted, the queue is skipped for that loop
+    synchronized boolean isExhausted() {
+        if (lastClaimFull && nbClaimedForQueue > maxClaimFraction * nbClaimed) {
+            throttledClaims.inc(1);
+            return true;
+        }
+        return false;
+    }
+
+    double getMaxClaimFraction() {
+        return maxClaimFraction;
+    }
+}
@@ -21,11 +21,13 @@ package org.killbill.notificationq;
 
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ThreadFactory;
 import java.util.concurrent.TimeUnit;
@@ -37,6 +39,7 @@ import org.killbill.commons.metrics.api.Histogram;
 import org.killbill.commons.metrics.api.MetricRegistry;
 import org.killbill.notificationq.api.NotificationEvent;
 import org.killbill.notificationq.api.NotificationQueue;
+import org.killbill.notificationq.api.NotificationQueueBulkhead;
 import org.killbill.notificationq.api.NotificationQueueConfig;
 import org.killbill.notificationq.api.NotificationQueueService.NotificationQueueHandler;
 import org.killbill.notificationq.dao.NotificationEventModelDao;
@@ -44,7 +47,6 @@ import org.killbill.notificationq.dao.NotificationSqlDao;
 import org.killbill.notificationq.dispatching.NotificationCallableCallback;
 import org.killbill.queue.DBBackedQueue;
 import org.killbill.queue.DBBackedQueue.ReadyEntriesWithMetrics;
-import org.killbill.queue.DBBackedQueueWithPolling;
 import org.killbill.queue.DefaultQueueLifecycle;
 import org.killbill.queue.dao.EventEntryModelDao;
 import org.killbill.queue.dispatching.BlockingRejectionExecutionHandler;
@@ -71,6 +73,12 @@ public class NotificationQueueDispatcher extends DefaultQueueLifecycle {
 
     // We could event have one per queue is required...
     private final Dispatcher<NotificationEvent, NotificationEventModelDao> dispatcher;
+    // Optional dedicated pools, keyed by bulkhead name
+    private final Map<String, NotificationQueueBulkheadDispatcher> bulkheadDispatchers;
+    // Queues (composite name) attached to a dedicated pool
+    private final Map<String, NotificationQueueBulkheadDispatcher> queueBulkheadDispatchers;
+    // Optional claim budgets, keyed by queue (composite name)
+    private final Map<String, NotificationQueueClaimBudget> claimBudgets;
     private final AtomicBoolean isInitialized;
 
     private volatile boolean isStarted;
@@ -101,11 +109,14 @@ public class NotificationQueueDispatcher extends DefaultQueueLifecycle {
         this.clock = clock;
         this.config = config;
         this.nbProcessedEvents = new AtomicLong();
-        this.dao = new DBBackedQueueWithPolling<NotificationEventModelDao>(clock, dbi, NotificationSqlDao.class, config, config.getTableName(), metricRegistry);
+        this.dao = new NotificationDBBackedQueueWithPolling(clock, dbi, config, config.getTableName(), metricRegistry, this::getExcludedQueueNames, this::capClaimToBulkheads);
 
         this.queues = new TreeMap<String, NotificationQueue>();
 
         this.perQueueProcessingTime = new HashMap<String, Histogram>();
+        this.bulkheadDispatchers = new ConcurrentHashMap<String, NotificationQueueBulkheadDispatcher>();
+        this.queueBulkheadDispatchers = new ConcurrentHashMap<String, NotificationQueueBulkheadDispatcher>();
+        this.claimBudgets = new ConcurrentHashMap<String, NotificationQueueClaimBudget>();
 
         this.metricRegistry = metricRegistry;
         this.isInitialized = new AtomicBoolean(false);
@@ -134,6 +145,11 @@ public class NotificationQueueDispatcher extends DefaultQueueLifecycle {
         if (isInitialized.compareAndSet(false, true)) {
             dao.initialize();
             dispatcher.start();
+            synchronized (queues) {
+                for (final NotificationQueueBulkheadDispatcher bulkheadDispatcher : bulkheadDispatchers.values()) {
+                    bulkheadDispatcher.start();
+                }
+            }
             return true;
         } else {
             return false;
@@ -194,6 +210,11 @@ public class NotificationQueueDispatcher extends DefaultQueueLifecycle {
                 if (!dispatcher.stopDispatcher()) {
                     terminated = false;
                 }
+                for (final NotificationQueueBulkheadDispatcher bulkheadDispatcher : bulkheadDispatchers.values()) {
+                    if (!bulkheadDispatcher.stop()) {
+                        terminated = false;
+                    }
+                }
                 // Finally, stop the completion threads (cleanup recently finished work)
                 if (!super.stopLifecycleCompletion()) {
                     terminated = false;
@@ -221,7 +242,12 @@ public class NotificationQueueDispatcher extends DefaultQueueLifecycle {
         log.debug("Notifications from {} to process: {}", config.getTableName(), notifications);
 
         for (final NotificationEventModelDao cur : notifications) {
-            dispatcher.dispatch(cur);
+            final NotificationQueueBulkheadDispatcher bulkheadDispatcher = queueBulkheadDispatchers.get(cur.getQueueName());
+            if (bulkheadDispatcher != null) {
+                bulkheadDispatcher.dispatch(cur);
+            } else {
+                dispatcher.dispatch(cur);
+            }
         }
         // No need to return time, this is easy to compute from caller
         return new DispatchResultMetrics(notifications.size(), -1);
@@ -283,9 +309,131 @@ public class NotificationQueueDispatcher extends DefaultQueueLifecycle {
         return queue.getHandler();
     }
 
+    // Must be called while holding the queues lock
+    protected void registerBulkhead(final String compositeName, final NotificationQueueBulkhead bulkhead) {
+        NotificationQueueBulkheadDispatcher bulkheadDispatcher = bulkheadDispatchers.get(bulkhead.getName());
+        if (bulkheadDispatcher == null) {
+            bulkheadDispatcher = new NotificationQueueBulkheadDispatcher(bulkhead, config, clock, notificationCallableCallback, this, metricRegistry);
+            bulkheadDispatchers.put(bulkhead.getName(), bulkheadDispatcher);
+            if (isInitialized.get()) {
+                bulkheadDispatcher.start();
+            }
+        } else if (!bulkheadDispatcher.getBulkhead().equals(bulkhead)) {
+            throw new IllegalArgumentException(String.format("Bulkhead %s already declared as %s", bulkhead, bulkheadDispatcher.getBulkhead()));
+        }
+        queueBulkheadDispatchers.put(compositeName, bulkheadDispatcher);
+    }
+
+    // Must be called while holding the queues lock
+    protected void unregisterBulkhead(final String compositeName) {
+        // The dedicated pool itself is kept around: it may be shared with other queues, and is stopped with the service
+        queueBulkheadDispatchers.remove(compositeName);
+    }
+
+    // Must be called while holding the queues lock
+    protected void registerClaimBudget(final String compositeName, final double maxClaimFraction) {
+        if (maxClaimFraction >= 1) {
+            claimBudgets.remove(compositeName);
+        } else {
+            claimBudgets.put(compositeName, new NotificationQueueClaimBudget(config.getTableName(), compositeName, maxClaimFraction, metricRegistry));
+        }
+    }
+
+    // Must be called while holding the queues lock
+    protected void unregisterClaimBudget(final String compositeName) {
+        claimBudgets.remove(compositeName);
+    }
+
+    // Queues whose entries are left unclaimed for this claiming loop
+    private Collection<String> getExcludedQueueNames() {
+        final Collection<String> saturatedQueueNames = getSaturatedQueueNames();
+        if (claimBudgets.isEmpty()) {
+            return saturatedQueueNames;
+        }
+
+        final Collection<String> excludedQueueNames = new ArrayList<String>(saturatedQueueNames);
+        for (final Map.Entry<String, NotificationQueueClaimBudget> entry : claimBudgets.entrySet()) {
+            if (!excludedQueueNames.contains(entry.getKey()) && entry.getValue().isExhausted()) {
+                excludedQueueNames.add(entry.getKey());
+            }
+        }
+        return excludedQueueNames;
+    }
+
+    private void recordClaim(final List<NotificationEventModelDao> claimed) {
+        if (claimBudgets.isEmpty()) {
+            return;
+        }
+
+        final Map<String, Integer> nbClaimedPerQueue = new HashMap<String, Integer>();
+        for (final NotificationEventModelDao cur : claimed) {
+            nbClaimedPerQueue.merge(cur.getQueueName(), 1, Integer::sum);
+        }
+        final boolean claimFull = claimed.size() >= config.getMaxEntriesClaimed();
+        for (final Map.Entry<String, NotificationQueueClaimBudget> entry : claimBudgets.entrySet()) {
+            entry.getValue().recordClaim(nbClaimedPerQueue.getOrDefault(entry.getKey(), 0), claimed.size(), claimFull);
+        }
+    }
+
+    // Queues whose dedicated pool cannot keep up: their entries are left unclaimed until the pool catches up
+    private Collection<String> getSaturatedQueueNames() {
+        if (queueBulkheadDispatchers.isEmpty()) {
+            return List.of();
+        }
+
+        final Collection<NotificationQueueBulkheadDispatcher> saturatedBulkheads = new ArrayList<NotificationQueueBulkheadDispatcher>();
+        for (final NotificationQueueBulkheadDispatcher bulkheadDispatcher : bulkheadDispatchers.values()) {
+            if (bulkheadDispatcher.isSaturated()) {
+                saturatedBulkheads.add(bulkheadDispatcher);
+            }
+        }
+        if (saturatedBulkheads.isEmpty()) {
+            return List.of();
+        }
+
+        final Collection<String> saturatedQueueNames = new ArrayList<String>();
+        for (final Map.Entry<String, NotificationQueueBulkheadDispatcher> entry : queueBulkheadDispatchers.entrySet()) {
+            if (saturatedBulkheads.contains(entry.getValue())) {
+                saturatedQueueNames.add(entry.getKey());
+            }
+        }
+        return saturatedQueueNames;
+    }
+
+    // Leave aside the entries which would exceed the remaining capacity of their dedicated pool
+    private List<NotificationEventModelDao> capClaimToBulkheads(final List<NotificationEventModelDao> candidates) {
+        if (queueBulkheadDispatchers.isEmpty() || candidates.isEmpty()) {
+            return candidates;
+        }
+
+        final Map<NotificationQueueBulkheadDispatcher, Integer> remainingCapacities = new HashMap<NotificationQueueBulkheadDispatcher, Integer>();
+        final Map<NotificationQueueBulkheadDispatcher, Integer> nbRejected = new HashMap<NotificationQueueBulkheadDispatcher, Integer>();
+        final List<NotificationEventModelDao> capped = new ArrayList<NotificationEventModelDao>(candidates.size());
+        for (final NotificationEventModelDao cur : candidates) {
+            final NotificationQueueBulkheadDispatcher bulkheadDispatcher = queueBulkheadDispatchers.get(cur.getQueueName());
+            if (bulkheadDispatcher == null) {
+                capped.add(cur);
+                continue;
+            }
+
+            final int remainingCapacity = remainingCapacities.computeIfAbsent(bulkheadDispatcher, NotificationQueueBulkheadDispatcher::getRemainingCapacity);
+            if (remainingCapacity > 0) {
+                remainingCapacities.put(bulkheadDispatcher, remainingCapacity - 1);
+                capped.add(cur);
+            } else {
+                nbRejected.merge(bulkheadDispatcher, 1, Integer::sum);
+            }
+        }
+        for (final Map.Entry<NotificationQueueBulkheadDispatcher, Integer> entry : nbRejected.entrySet()) {
+            entry.getKey().recordRejectedEntries(entry.getValue());
+        }
+        return capped;
+    }
+
     private List<NotificationEventModelDao> getReadyNotifications() {
         final ReadyEntriesWithMetrics<NotificationEventModelDao> result = dao.getReadyEntries();
         final List<NotificationEventModelDao> input = result.getEntries();
+        recordClaim(input);
         final List<NotificationEventModelDao> claimedNotifications = new ArrayList<NotificationEventModelDao>();
         for (final NotificationEventModelDao cur : input) {
 
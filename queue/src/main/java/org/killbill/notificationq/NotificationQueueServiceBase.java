@@ -22,9 +22,12 @@ package org.killbill.notificationq;
 import java.util.ArrayList;
 import java.util.List;
 
+import jakarta.annotation.Nullable;
+
 import org.killbill.clock.Clock;
 import org.killbill.commons.metrics.api.MetricRegistry;
 import org.killbill.notificationq.api.NotificationQueue;
+import org.killbill.notificationq.api.NotificationQueueBulkhead;
 import org.killbill.notificationq.api.NotificationQueueConfig;
 import org.killbill.notificationq.api.NotificationQueueService;
 import org.skife.jdbi.v2.IDBI;
@@ -39,6 +42,14 @@ public abstract class NotificationQueueServiceBase extends NotificationQueueDisp
     public NotificationQueue createNotificationQueue(final String svcName,
                                                      final String queueName,
                                                      final NotificationQueueHandler handler) throws NotificationQueueAlreadyExists {
+        return createNotificationQueue(svcName, queueName, handler, null);
+    }
+
+    @Override
+    public NotificationQueue createNotificationQueue(final String svcName,
+                                                     final String queueName,
+                                                     final NotificationQueueHandler handler,
+                                                     @Nullable final NotificationQueueBulkhead bulkhead) throws NotificationQueueAlreadyExists {
         if (svcName == null || queueName == null || handler == null) {
             throw new RuntimeException("Need to specify all parameters");
         }
@@ -51,6 +62,9 @@ public abstract class NotificationQueueServiceBase extends NotificationQueueDisp
                 throw new NotificationQueueAlreadyExists(String.format("Queue for svc %s and name %s already exist",
                                                                        svcName, queueName));
             }
+            if (bulkhead != null) {
+                registerBulkhead(compositeName, bulkhead);
+            }
             result = createNotificationQueueInternal(svcName, queueName, handler);
             queues.put(compositeName, result);
         }
@@ -83,6 +97,20 @@ public abstract class NotificationQueueServiceBase extends NotificationQueueDisp
                                                                 svcName, queueName));
             }
             queues.remove(compositeName);
+            unregisterBulkhead(compositeName);
+            unregisterClaimBudget(compositeName);
+        }
+    }
+
+    @Override
+    public void setClaimBudget(final String svcName, final String queueName, final double maxClaimFraction) throws NoSuchNotificationQueue {
+        final String compositeName = getCompositeName(svcName, queueName);
+        synchronized (queues) {
+            if (queues.get(compositeName) == null) {
+                throw new NoSuchNotificationQueue(String.format("Queue for svc %s and name %s does not exist",
+                                                                svcName, queueName));
+            }
+            registerClaimBudget(compositeName, maxClaimFraction);
         }
     }
 
@@ -22,9 +22,11 @@ package org.killbill.notificationq.api;
 import java.io.IOException;
 import java.sql.Connection;
 import java.util.UUID;
+import java.util.function.Function;
 
 import org.joda.time.DateTime;
 import org.killbill.notificationq.api.NotificationQueueService.NotificationQueueHandler;
+import org.killbill.queue.api.DeadLetterFilter;
 import org.killbill.queue.api.QueueLifecycle;
 
 
@@ -169,7 +171,7 @@ public interface NotificationQueue extends QueueLifecycle {
     <T extends NotificationEvent> Iterable<NotificationEventWithMetadata<T>> getFutureOrInProcessingNotificationFromTransactionForSearchKey2(final DateTime maxEffectiveDate, final Long searchKey2, final Connection connection);
 
     /**
-     * Retrieve all historical notifications associated with that queue and matching that search key
+     * Retrieve all historical notifications associated with that queue and matching that search key (stored retry payloads are excluded)
      *
      * @param searchKey1 the value for key1
      * @param searchKey2 the value for key2
@@ -178,7 +180,7 @@ public interface NotificationQueue extends QueueLifecycle {
     <T extends NotificationEvent> Iterable<NotificationEventWithMetadata<T>> getHistoricalNotificationForSearchKeys(final Long searchKey1, final Long searchKey2);
 
     /**
-     * Retrieve all historical notifications associated with that queue and matching that search key
+     * Retrieve all historical notifications associated with that queue and matching that search key (stored retry payloads are excluded)
      *
      * @param minEffectiveDate effective_date cutoff, to limit the search
      * @param searchKey2 the value for key2
@@ -186,6 +188,68 @@ public interface NotificationQueue extends QueueLifecycle {
      */
     <T extends NotificationEvent> Iterable<NotificationEventWithMetadata<T>> getHistoricalNotificationForSearchKey2(final DateTime minEffectiveDate, final Long searchKey2);
 
+    /**
+     * Store the event payload in the history table (processing_state RETRY_PAYLOAD, never dispatched) and record a future
+     * notification referencing it by record_id instead of embedding it. Both entries are written in the same transaction.
+     *
+     * @param futureNotificationTime the time at which the notification is ready
+     * @param payloadEffectiveDate   the effective date of the original event
+     * @param payload                the event to be serialized on disk in the history table
+     * @param notificationBuilder    builds the notification to record from the record_id of the stored payload
+     * @param userToken              a opaque token that can be attached to that event
+     * @param searchKey1             a key that can be used for search
+     * @param searchKey2             a key that can be used for search
+     * @return the record_id of the stored payload
+     * @throws IOException if the serialization of the event fails
+     */
+    Long recordFutureNotificationWithPayload(final DateTime futureNotificationTime,
+                                             final DateTime payloadEffectiveDate,
+                                             final NotificationEvent payload,
+                                             final Function<Long, NotificationEvent> notificationBuilder,
+                                             final UUID userToken,
+                                             final Long searchKey1,
+                                             final Long searchKey2)
+            throws IOException;
+
+    /**
+     * Store the event payload in the history table and record a future notification referencing it, using the provided connection
+     *
+     * @param connection             the transaction that should be used to record the entries
+     * @param futureNotificationTime the time at which the notification is ready
+     * @param payloadEffectiveDate   the effective date of the original event
+     * @param payload                the event to be serialized on disk in the history table
+     * @param notificationBuilder    builds the notification to record from the record_id of the stored payload
+     * @param userToken              a opaque token that can be attached to that event
+     * @param searchKey1             a key that can be used for search
+     * @param searchKey2             a key that can be used for search
+     * @return the record_id of the stored payload
+     * @throws IOException if the serialization of the event fails
+     */
+    Long recordFutureNotificationWithPayloadFromTransaction(final Connection connection,
+                                                            final DateTime futureNotificationTime,
+                                                            final DateTime payloadEffectiveDate,
+                                                            final NotificationEvent payload,
+                                                            final Function<Long, NotificationEvent> notificationBuilder,
+                                                            final UUID userToken,
+                                                            final Long searchKey1,
+                                                            final Long searchKey2)
+            throws IOException;
+
+    /**
+     * Retrieve a notification from the history table
+     *
+     * @param recordId the record_id of the history entry
+     * @return the notification or null if it does not exist
+     */
+    <T extends NotificationEvent> NotificationEventWithMetadata<T> getHistoricalNotification(final Long recordId);
+
+    /**
+     * Delete an event payload stored by {@link #recordFutureNotificationWithPayload}, once no notification references it anymore
+     *
+     * @param recordId the record_id of the stored payload
+     */
+    void removeNotificationPayload(final Long recordId);
+
     /**
      * Count the number of notifications ready to be processed
      *
@@ -194,6 +258,23 @@ public interface NotificationQueue extends QueueLifecycle {
      */
     long getNbReadyEntries(final DateTime maxEffectiveDate);
 
+    /**
+     * Count the number of notifications for this queue which exhausted their retries (dead-letter entries)
+     *
+     * @param filter the dead-letter entries to count
+     * @return the number of dead-letter entries
+     */
+    long getNbDeadLetterNotifications(final DeadLetterFilter filter);
+
+    /**
+     * Re-insert the notifications for this queue which exhausted their retries (dead-letter entries) so they get dispatched again.
+     * Entries are re-inserted by batches, at a rate limited by configuration.
+     *
+     * @param filter the dead-letter entries to replay
+     * @return the number of notifications re-inserted
+     */
+    long replayDeadLetterNotifications(final DeadLetterFilter filter);
+
     /**
      * Move the notification to history table and mark it as 'removed'
      *
@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.notificationq.api;
+
+import java.util.Objects;
+
+/**
+ * Declares a dedicated, bounded dispatch pool (bulkhead) for one or several notification queues.
+ * <p>
+ * Queues created with the same bulkhead name share the same pool. Once the number of entries waiting
+ * for a thread in that pool reaches <code>eventQueueCapacity</code>, the queues attached to the bulkhead
+ * stop being claimed until the pool catches up: other queues keep being claimed and dispatched normally.
+ */
+public final class NotificationQueueBulkhead {
+
+    private final String name;
+    private final int maxDispatchThreads;
+    private final int eventQueueCapacity;
+
+    /**
+     * @param name               the name of the bulkhead (queues sharing that name share the pool)
+     * @param maxDispatchThreads max number of threads used to run the handlers
+     * @param eventQueueCapacity max number of claimed entries waiting for a thread, before claiming is paused
+     */
+    public NotificationQueueBulkhead(final String name, final int maxDispatchThreads, final int eventQueueCapacity) {
+        if (name == null || maxDispatchThreads <= 0 || eventQueueCapacity <= 0) {
+            throw new IllegalArgumentException(String.format("Invalid bulkhead name=%s, maxDispatchThreads=%s, eventQueueCapacity=%s",
+                                                             name, maxDispatchThreads, eventQueueCapacity));
+        }
+        this.name = name;
+        this.maxDispatchThreads = maxDispatchThreads;
+        this.eventQueueCapacity = eventQueueCapacity;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getMaxDispatchThreads() {
+        return maxDispatchThreads;
+    }
+
+    public int getEventQueueCapacity() {
+        return eventQueueCapacity;
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+        final NotificationQueueBulkhead that = (NotificationQueueBulkhead) o;
+        return maxDispatchThreads == that.maxDispatchThreads &&
+               eventQueueCapacity == that.eventQueueCapacity &&
+               name.equals(that.name);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(name, maxDispatchThreads, eventQueueCapacity);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("NotificationQueueBulkhead{");
+        sb.append("name='").append(name).append('\'');
+        sb.append(", maxDispatchThreads=").append(maxDispatchThreads);
+        sb.append(", eventQueueCapacity=").append(eventQueueCapacity);
+        sb.append('}');
+        return sb.toString();
+    }
+}
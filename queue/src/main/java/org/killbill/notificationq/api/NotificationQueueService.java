@@ -73,6 +73,23 @@ public interface NotificationQueueService extends QueueLifecycle {
     NotificationQueue createNotificationQueue(final String svcName, final String queueName, final NotificationQueueHandler handler)
             throws NotificationQueueAlreadyExists;
 
+    /**
+     * Creates a new NotificationQueue whose notifications are dispatched on a dedicated pool
+     * <p>
+     * Implementations without dedicated pools dispatch the notifications of that queue like any other.
+     *
+     * @param svcName   the name of the service using that queue
+     * @param queueName a name for that queue (unique per service)
+     * @param handler   the handler required for notifying the caller of state change
+     * @param bulkhead  the dedicated dispatch pool for that queue (shared by all queues declaring the same bulkhead name)
+     * @return a new NotificationQueue
+     * @throws NotificationQueueAlreadyExists is the queue associated with that service and name already exits
+     */
+    default NotificationQueue createNotificationQueue(final String svcName, final String queueName, final NotificationQueueHandler handler, final NotificationQueueBulkhead bulkhead)
+            throws NotificationQueueAlreadyExists {
+        return createNotificationQueue(svcName, queueName, handler);
+    }
+
     /**
      * Retrieves an already created NotificationQueue by service and name if it exists
      *
@@ -95,6 +112,18 @@ public interface NotificationQueueService extends QueueLifecycle {
     void deleteNotificationQueue(final String svcName, final String queueName)
             throws NoSuchNotificationQueue;
 
+    /**
+     * Limit the share of the claimed entries that a queue may take when more entries are ready than can be claimed at once
+     * (typically for retry queues, so that retries don't starve the normal traffic during an incident recovery)
+     *
+     * @param svcName          the name of the service using that queue
+     * @param queueName        a name for that queue (unique per service)
+     * @param maxClaimFraction the maximum share of the claimed entries, in ]0, 1] (1 removes the limit)
+     * @throws NoSuchNotificationQueue if queue does not exist
+     */
+    void setClaimBudget(final String svcName, final String queueName, final double maxClaimFraction)
+            throws NoSuchNotificationQueue;
+
     /**
      * Retrieve all the notificationq registered
      *
@@ -19,7 +19,12 @@
 
 package org.killbill.notificationq.dao;
 
+import java.util.Collection;
+import java.util.Date;
 import java.util.Iterator;
+import java.util.List;
+
+import jakarta.annotation.Nullable;
 
 import org.joda.time.DateTime;
 import org.killbill.commons.jdbi.statement.SmartFetchSize;
@@ -29,10 +34,19 @@ import org.skife.jdbi.v2.sqlobject.Bind;
 import org.skife.jdbi.v2.sqlobject.SqlQuery;
 import org.skife.jdbi.v2.sqlobject.SqlUpdate;
 import org.skife.jdbi.v2.sqlobject.customizers.Define;
+import org.skife.jdbi.v2.unstable.BindIn;
 
 @KillBillSqlDaoStringTemplate
 public interface NotificationSqlDao extends QueueSqlDao<NotificationEventModelDao> {
 
+    @SqlQuery
+    List<NotificationEventModelDao> getReadyEntriesExcludingQueueNames(@Bind("now") Date now,
+                                                                       @Bind("max") int max,
+                                                                       // See QueueSqlDao#getReadyEntries
+                                                                       @Nullable @Define("owner") String owner,
+                                                                       @BindIn("queue_names") final Collection<String> excludedQueueNames,
+                                                                       @Define("tableName") final String tableName);
+
     @SqlQuery
     @SmartFetchSize(shouldStream = true)
     Iterator<NotificationEventModelDao> getReadyQueueEntriesForSearchKeys(@Bind("queueName") String queueName,
@@ -29,6 +29,8 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import jakarta.annotation.Nullable;
+
 import org.joda.time.DateTime;
 import org.killbill.CreatorName;
 import org.killbill.clock.Clock;
@@ -37,6 +39,7 @@ import org.killbill.commons.metrics.api.Timer;
 import org.killbill.commons.profiling.Profiling;
 import org.killbill.commons.profiling.ProfilingFeature;
 import org.killbill.commons.utils.collect.Iterables;
+import org.killbill.queue.api.DeadLetterFilter;
 import org.killbill.queue.api.PersistentQueueConfig;
 import org.killbill.queue.api.PersistentQueueConfig.PersistentQueueMode;
 import org.killbill.queue.api.PersistentQueueEntryLifecycleState;
@@ -269,6 +272,148 @@ public abstract class DBBackedQueue<T extends EventEntryModelDao> {
         });
     }
 
+    /**
+     * @param filter    the dead-letter entries to select
+     * @param queueName the (composite) queue name, only used for notification queues
+     * @return the number of dead-letter entries matching the filter
+     */
+    public long getNbDeadLetterEntries(final DeadLetterFilter filter, @Nullable final String queueName) {
+        return executeQuery(new Query<Long, QueueSqlDao<T>>() {
+            @Override
+            public Long execute(final QueueSqlDao<T> queueSqlDao) {
+                return queueSqlDao.getNbDeadLetterEntries(queueName,
+                                                          filter.getClassName(),
+                                                          filter.getSearchKey1(),
+                                                          filter.getSearchKey2(),
+                                                          toDate(filter.getMinCreatedDate()),
+                                                          toDate(filter.getMaxCreatedDate()),
+                                                          filter.getClassName() != null,
+                                                          filter.getSearchKey1() != null,
+                                                          filter.getSearchKey2() != null,
+                                                          filter.getMinCreatedDate() != null,
+                                                          filter.getMaxCreatedDate() != null,
+                                                          config.getHistoryTableName());
+            }
+        });
+    }
+
+    /**
+     * Re-insert the dead-letter entries matching the filter into the queue, and mark them as REPLAYED in the history table.
+     * <p>
+     * Entries are re-inserted by batches (one transaction per batch), and batches are throttled to not swamp the live dispatcher.
+     * This runs in the calling thread.
+     *
+     * @param filter    the dead-letter entries to replay
+     * @param queueName the (composite) queue name, only used for notification queues
+     * @return the number of entries re-inserted
+     */
+    public long replayDeadLetterEntries(final DeadLetterFilter filter, @Nullable final String queueName) {
+        final int batchSize = config.getDeadLetterReplayBatchSize();
+        final long minBatchTimeNanos = config.getDeadLetterReplayMaxEntriesPerSecond() > 0 ?
+                                       TimeUnit.SECONDS.toNanos(batchSize) / config.getDeadLetterReplayMaxEntriesPerSecond() :
+                                       0;
+
+        long nbReplayed = 0;
+        long fromRecordId = 0;
+        while (true) {
+            final long ini = System.nanoTime();
+            final long lastRecordId = fromRecordId;
+            final ReplayedBatch batch = executeTransaction(new Transaction<ReplayedBatch, QueueSqlDao<T>>() {
+                @Override
+                public ReplayedBatch inTransaction(final QueueSqlDao<T> transactional, final TransactionStatus status) throws Exception {
+                    return replayDeadLetterEntriesFromTransaction(transactional, filter, queueName, lastRecordId, batchSize);
+                }
+            });
+            if (batch.nbSelected == 0) {
+                break;
+            }
+
+            nbReplayed += batch.nbReplayed;
+            fromRecordId = batch.lastRecordId;
+            log.info("{} replayDeadLetterEntries: {} entries replayed so far (filter={})", DB_QUEUE_LOG_ID, nbReplayed, filter);
+
+            if (batch.nbSelected < batchSize) {
+                break;
+            }
+
+            final long remainingNanos = minBatchTimeNanos - (System.nanoTime() - ini);
+            if (remainingNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(remainingNanos);
+                } catch (final InterruptedException e) {
+                    log.warn("{} replayDeadLetterEntries: interrupted after {} entries replayed", DB_QUEUE_LOG_ID, nbReplayed);
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        return nbReplayed;
+    }
+
+    private ReplayedBatch replayDeadLetterEntriesFromTransaction(final QueueSqlDao<T> transactional,
+                                                           final DeadLetterFilter filter,
+                                                           @Nullable final String queueName,
+                                                           final long fromRecordId,
+                                                           final int batchSize) {
+        final List<T> entries = transactional.getDeadLetterEntries(fromRecordId,
+                                                                   batchSize,
+                                                                   queueName,
+                                                                   filter.getClassName(),
+                                                                   filter.getSearchKey1(),
+                                                                   filter.getSearchKey2(),
+                                                                   toDate(filter.getMinCreatedDate()),
+                                                                   toDate(filter.getMaxCreatedDate()),
+                                                                   filter.getClassName() != null,
+                                                                   filter.getSearchKey1() != null,
+                                                                   filter.getSearchKey2() != null,
+                                                                   filter.getMinCreatedDate() != null,
+                                                                   filter.getMaxCreatedDate() != null,
+                                                                   config.getHistoryTableName());
+        if (entries.isEmpty()) {
+            return new ReplayedBatch(0, fromRecordId, 0);
+        }
+
+        // The entries are read without lock: only re-insert the ones this transaction moved out of FAILED, the update
+        // blocking (and then skipping the row) if a concurrent replay got there first
+        final List<T> entriesToReplay = new ArrayList<T>(entries.size());
+        for (final T entry : entries) {
+            if (transactional.markDeadLetterEntryAsReplayed(entry.getRecordId(), config.getHistoryTableName()) == 1) {
+                entriesToReplay.add(entry);
+            }
+        }
+        if (entriesToReplay.size() < entries.size()) {
+            log.info("{} replayDeadLetterEntries: {} entries already replayed concurrently", DB_QUEUE_LOG_ID, entries.size() - entriesToReplay.size());
+        }
+
+        // Re-inserted entries are picked up by this node, like reaped entries (they get a new record_id, the paging relies on the history ones)
+        final long lastRecordId = entries.get(entries.size() - 1).getRecordId();
+        for (final T entry : entriesToReplay) {
+            entry.setErrorCount(0L);
+        }
+        if (!entriesToReplay.isEmpty()) {
+            insertReapedEntriesFromTransaction(transactional, entriesToReplay, clock.getUTCNow());
+        }
+
+        return new ReplayedBatch(entries.size(), lastRecordId, entriesToReplay.size());
+    }
+
+    private static final class ReplayedBatch {
+
+        private final int nbSelected;
+        private final long lastRecordId;
+        private final int nbReplayed;
+
+        private ReplayedBatch(final int nbSelected, final long lastRecordId, final int nbReplayed) {
+            this.nbSelected = nbSelected;
+            this.lastRecordId = lastRecordId;
+            this.nbReplayed = nbReplayed;
+        }
+    }
+
+    private static Date toDate(@Nullable final DateTime dateTime) {
+        return dateTime == null ? null : dateTime.toDate();
+    }
+
     // It is a good idea to monitor reapEntries in logs as these entries should rarely happen
     public void reapEntries(final Date reapingDate) {
         executeTransaction(new Transaction<Void, QueueSqlDao<T>>() {
@@ -25,6 +25,8 @@ import java.util.List;
 import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 
+import jakarta.annotation.Nullable;
+
 import org.joda.time.DateTime;
 import org.killbill.CreatorName;
 import org.killbill.clock.Clock;
@@ -112,11 +114,15 @@ public class DBBackedQueueWithPolling<T extends EventEntryModelDao> extends DBBa
     private List<T> fetchReadyEntries(final DateTime now, final int maxEntries, final QueueSqlDao<T> queueSqlDao) {
         final String owner = config.getPersistentQueueMode() == PersistentQueueMode.POLLING ? null : CreatorName.get();
         final long ini = System.nanoTime();
-        final List<T> result = queueSqlDao.getReadyEntries(now.toDate(), maxEntries, owner, config.getTableName());
+        final List<T> result = doFetchReadyEntries(now.toDate(), maxEntries, owner, queueSqlDao);
         rawGetEntriesTime.update(System.nanoTime() - ini, TimeUnit.NANOSECONDS);
         return result;
     }
 
+    protected List<T> doFetchReadyEntries(final Date now, final int maxEntries, @Nullable final String owner, final QueueSqlDao<T> queueSqlDao) {
+        return queueSqlDao.getReadyEntries(now, maxEntries, owner, config.getTableName());
+    }
+
     private List<T> claimEntries(final DateTime now, final List<T> candidates, final QueueSqlDao<T> queueSqlDao) {
         switch (config.getPersistentQueueMode()) {
             case POLLING:
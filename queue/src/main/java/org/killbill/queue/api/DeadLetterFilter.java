@@ -0,0 +1,89 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.queue.api;
+
+import jakarta.annotation.Nullable;
+
+import org.joda.time.DateTime;
+
+/**
+ * Selects the dead-letter entries, i.e. the entries which exhausted their retries and were moved
+ * into the history table with a {@link PersistentQueueEntryLifecycleState#FAILED} state.
+ * <p>
+ * All criteria are optional: a filter without criteria selects all the dead-letter entries.
+ */
+public final class DeadLetterFilter {
+
+    public static final DeadLetterFilter ALL = new DeadLetterFilter(null, null, null, null, null);
+
+    private final String className;
+    private final Long searchKey1;
+    private final Long searchKey2;
+    private final DateTime minCreatedDate;
+    private final DateTime maxCreatedDate;
+
+    /**
+     * @param className      the class name of the events to select
+     * @param searchKey1     the searchKey1 of the events to select
+     * @param searchKey2     the searchKey2 of the events to select
+     * @param minCreatedDate select events created on or after that date
+     * @param maxCreatedDate select events created before that date
+     */
+    public DeadLetterFilter(@Nullable final String className,
+                            @Nullable final Long searchKey1,
+                            @Nullable final Long searchKey2,
+                            @Nullable final DateTime minCreatedDate,
+                            @Nullable final DateTime maxCreatedDate) {
+        this.className = className;
+        this.searchKey1 = searchKey1;
+        this.searchKey2 = searchKey2;
+        this.minCreatedDate = minCreatedDate;
+        this.maxCreatedDate = maxCreatedDate;
+    }
+
+    public String getClassName() {
+        return className;
+    }
+
+    public Long getSearchKey1() {
+        return searchKey1;
+    }
+
+    public Long getSearchKey2() {
+        return searchKey2;
+    }
+
+    public DateTime getMinCreatedDate() {
+        return minCreatedDate;
+    }
+
+    public DateTime getMaxCreatedDate() {
+        return maxCreatedDate;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DeadLetterFilter{");
+        sb.append("className='").append(className).append('\'');
+        sb.append(", searchKey1=").append(searchKey1);
+        sb.append(", searchKey2=").append(searchKey2);
+        sb.append(", minCreatedDate=").append(minCreatedDate);
+        sb.append(", maxCreatedDate=").append(maxCreatedDate);
+        sb.append('}');
+        return sb.toString();
+    }
+}
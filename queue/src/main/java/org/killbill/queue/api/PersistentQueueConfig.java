@@ -70,4 +70,12 @@ public interface PersistentQueueConfig {
     TimeSpan getReapSchedule();
 
     TimeSpan getShutdownTimeout();
+
+    default int getDeadLetterReplayBatchSize() {
+        return 1000;
+    }
+
+    default int getDeadLetterReplayMaxEntriesPerSecond() {
+        return 5000;
+    }
 }
@@ -25,5 +25,9 @@ public enum PersistentQueueEntryLifecycleState {
     PROCESSED,
     REMOVED,
     FAILED,
-    REAPED
+    REAPED,
+    // Dead-letter (FAILED) entry in the history table which has been re-inserted in the queue
+    REPLAYED,
+    // Event payload stored once in the history table, and referenced by record_id by retry notifications
+    RETRY_PAYLOAD
 }
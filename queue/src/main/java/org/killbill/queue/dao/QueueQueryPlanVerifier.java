@@ -0,0 +1,296 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.queue.dao;
+
+import java.lang.annotation.Annotation;
+import java.lang.reflect.Method;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.killbill.bus.api.PersistentBusConfig;
+import org.killbill.bus.dao.PersistentBusSqlDao;
+import org.killbill.notificationq.api.NotificationQueueConfig;
+import org.killbill.notificationq.dao.NotificationSqlDao;
+import org.skife.jdbi.v2.Binding;
+import org.skife.jdbi.v2.ColonPrefixNamedParamStatementRewriter;
+import org.skife.jdbi.v2.Handle;
+import org.skife.jdbi.v2.IDBI;
+import org.skife.jdbi.v2.Query;
+import org.skife.jdbi.v2.StatementContext;
+import org.skife.jdbi.v2.sqlobject.SqlQuery;
+import org.skife.jdbi.v2.sqlobject.SqlUpdate;
+import org.skife.jdbi.v2.sqlobject.customizers.Define;
+import org.skife.jdbi.v2.sqlobject.stringtemplate.ST4StatementLocator;
+import org.skife.jdbi.v2.sqlobject.stringtemplate.ST4StatementLocator.UseSTGroupCache;
+import org.skife.jdbi.v2.tweak.RewrittenStatement;
+import org.skife.jdbi.v2.tweak.StatementRewriter;
+import org.skife.jdbi.v2.unstable.BindIn;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Runs EXPLAIN on every query and update of {@link NotificationSqlDao} and {@link PersistentBusSqlDao} (including the ones
+ * inherited from {@link QueueSqlDao}), rendered from their StringTemplate groups against the configured tables,
+ * and flags the ones relying on a full table scan.
+ * <p>
+ * Supported databases are MySQL (and MariaDB), PostgreSQL and H2. On PostgreSQL, sequential scans are disabled while
+ * explaining, so that a remaining sequential scan means no index can serve the query (the planner would otherwise pick
+ * sequential scans on small tables). On MySQL, the plan depends on the table statistics: run it against representative volumes.
+ */
+public class QueueQueryPlanVerifier {
+
+    private static final Logger log = LoggerFactory.getLogger(QueueQueryPlanVerifier.class);
+
+    private static final Pattern H2_TABLE_SCAN = Pattern.compile("/\\*\\s*\\w+\\.(\\w+)\\.tableScan", Pattern.CASE_INSENSITIVE);
+    private static final Pattern POSTGRESQL_SEQ_SCAN = Pattern.compile("Seq Scan on (\\w+)");
+
+    private final IDBI dbi;
+    private final PersistentBusConfig persistentBusConfig;
+    private final NotificationQueueConfig notificationQueueConfig;
+
+    public QueueQueryPlanVerifier(final IDBI dbi, final PersistentBusConfig persistentBusConfig, final NotificationQueueConfig notificationQueueConfig) {
+        this.dbi = dbi;
+        this.persistentBusConfig = persistentBusConfig;
+        this.notificationQueueConfig = notificationQueueConfig;
+    }
+
+    /**
+     * @return the plan of each query (nothing is modified: updates are explained, not executed)
+     */
+    public List<QueryPlan> verify() {
+        final List<QueryPlan> queryPlans = new ArrayList<QueryPlan>();
+        queryPlans.addAll(verify(NotificationSqlDao.class, notificationQueueConfig.getTableName(), notificationQueueConfig.getHistoryTableName()));
+        queryPlans.addAll(verify(PersistentBusSqlDao.class, persistentBusConfig.getTableName(), persistentBusConfig.getHistoryTableName()));
+        return queryPlans;
+    }
+
+    /**
+     * @return the plans with a full table scan
+     */
+    public List<QueryPlan> getFullScans() {
+        final List<QueryPlan> fullScans = new ArrayList<QueryPlan>();
+        for (final QueryPlan queryPlan : verify()) {
+            if (queryPlan.hasFullScan()) {
+                log.warn("Full scan for {}.{}: {}", queryPlan.getSqlDaoName(), queryPlan.getQueryName(), queryPlan.getPlan());
+                fullScans.add(queryPlan);
+            }
+        }
+        return fullScans;
+    }
+
+    private List<QueryPlan> verify(final Class<?> sqlDaoClass, final String tableName, final String historyTableName) {
+        final List<QueryPlan> queryPlans = new ArrayList<QueryPlan>();
+        // Same template group as the one used at runtime (see KillBillSqlDaoStringTemplate)
+        final String templateGroupPath = "/" + sqlDaoClass.getName().replace('.', '/') + ".sql.stg";
+
+        try (final Handle handle = dbi.open()) {
+            final String databaseProductName = handle.getConnection().getMetaData().getDatabaseProductName().toLowerCase(Locale.ROOT);
+            handle.setStatementLocator(ST4StatementLocator.fromClasspath(UseSTGroupCache.YES, templateGroupPath));
+            handle.setStatementRewriter(new ExplainStatementRewriter(new ColonPrefixNamedParamStatementRewriter()));
+
+            for (final Method method : getQueryMethods(sqlDaoClass)) {
+                queryPlans.add(explain(handle, databaseProductName, sqlDaoClass.getSimpleName(), method, tableName, historyTableName));
+            }
+        } catch (final SQLException e) {
+            throw new IllegalStateException(e);
+        }
+        return queryPlans;
+    }
+
+    private QueryPlan explain(final Handle handle, final String databaseProductName, final String sqlDaoName, final Method method, final String tableName, final String historyTableName) {
+        handle.begin();
+        try {
+            if (databaseProductName.contains("postgresql")) {
+                handle.execute("set local enable_seqscan = off");
+            }
+
+            final Query<Map<String, Object>> query = handle.createQuery(method.getName());
+            for (final Annotation[] parameterAnnotations : method.getParameterAnnotations()) {
+                for (final Annotation annotation : parameterAnnotations) {
+                    if (annotation instanceof Define) {
+                        final String attribute = ((Define) annotation).value();
+                        if ("tableName".equals(attribute)) {
+                            query.define(attribute, tableName);
+                        } else if ("historyTableName".equals(attribute)) {
+                            query.define(attribute, historyTableName);
+                        } else if (attribute.startsWith("with")) {
+                            // Optional filters: explain the query with all of them
+                            query.define(attribute, Boolean.TRUE);
+                        }
+                        // Other attributes (owner) are left undefined
+                    } else if (annotation instanceof BindIn) {
+                        final String key = ((BindIn) annotation).value();
+                        query.define(key, ":__" + key + "_0");
+                        query.bind("__" + key + "_0", key.endsWith("names") ? (Object) "queue" : (Object) 1L);
+                    }
+                }
+            }
+            bindSampleValues(query);
+
+            final List<Map<String, Object>> rows = query.list();
+            return new QueryPlan(sqlDaoName, method.getName(), toPlan(rows), getFullScanTables(databaseProductName, rows));
+        } finally {
+            handle.rollback();
+        }
+    }
+
+    // Extra bindings are ignored, so all the named parameters used by the templates are bound
+    private static void bindSampleValues(final Query<Map<String, Object>> query) {
+        final Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (final String dateParameter : List.of("now", "reapingDate", "nextAvailable", "minCreatedDate", "maxCreatedDate", "minEffectiveDate", "maxEffectiveDate")) {
+            query.bind(dateParameter, now);
+        }
+        for (final String idParameter : List.of("recordId", "fromRecordId", "from", "searchKey1", "searchKey2", "errorCount")) {
+            query.bind(idParameter, 1L);
+        }
+        query.bind("max", 100);
+        query.bind("owner", "owner");
+        query.bind("queueName", "queue");
+        query.bind("className", "className");
+        query.bind("eventJson", "{}");
+    }
+
+    private static List<Method> getQueryMethods(final Class<?> sqlDaoClass) {
+        final Map<String, Method> methods = new HashMap<String, Method>();
+        for (final Method method : sqlDaoClass.getMethods()) {
+            if (method.getAnnotation(SqlQuery.class) == null && method.getAnnotation(SqlUpdate.class) == null) {
+                continue;
+            }
+            // Inserts don't scan anything
+            if (method.getName().startsWith("insert")) {
+                continue;
+            }
+            methods.putIfAbsent(method.getName(), method);
+        }
+        final List<Method> result = new ArrayList<Method>(methods.values());
+        result.sort((o1, o2) -> o1.getName().compareTo(o2.getName()));
+        return result;
+    }
+
+    private static String toPlan(final List<Map<String, Object>> rows) {
+        final StringBuilder plan = new StringBuilder();
+        for (final Map<String, Object> row : rows) {
+            if (plan.length() > 0) {
+                plan.append('\n');
+            }
+            plan.append(row.size() == 1 ? String.valueOf(row.values().iterator().next()) : String.valueOf(row));
+        }
+        return plan.toString();
+    }
+
+    private static Set<String> getFullScanTables(final String databaseProductName, final List<Map<String, Object>> rows) {
+        final Set<String> tables = new LinkedHashSet<String>();
+        for (final Map<String, Object> row : rows) {
+            if (databaseProductName.contains("mysql") || databaseProductName.contains("mariadb")) {
+                if ("ALL".equalsIgnoreCase(String.valueOf(row.get("type")))) {
+                    tables.add(String.valueOf(row.get("table")));
+                }
+            } else {
+                final Pattern pattern = databaseProductName.contains("postgresql") ? POSTGRESQL_SEQ_SCAN : H2_TABLE_SCAN;
+                for (final Object value : row.values()) {
+                    final Matcher matcher = pattern.matcher(String.valueOf(value));
+                    while (matcher.find()) {
+                        tables.add(matcher.group(1).toLowerCase(Locale.ROOT));
+                    }
+                }
+            }
+        }
+        return tables;
+    }
+
+    private static final class ExplainStatementRewriter implements StatementRewriter {
+
+        private final StatementRewriter delegate;
+
+        private ExplainStatementRewriter(final StatementRewriter delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public RewrittenStatement rewrite(final String sql, final Binding params, final StatementContext ctx) {
+            final RewrittenStatement rewrittenStatement = delegate.rewrite(sql, params, ctx);
+            return new RewrittenStatement() {
+                @Override
+                public void bind(final Binding params, final PreparedStatement statement) throws SQLException {
+                    rewrittenStatement.bind(params, statement);
+                }
+
+                @Override
+                public String getSql() {
+                    return "explain " + rewrittenStatement.getSql().trim();
+                }
+            };
+        }
+    }
+
+    public static final class QueryPlan {
+
+        private final String sqlDaoName;
+        private final String queryName;
+        private final String plan;
+        private final Set<String> fullScanTables;
+
+        public QueryPlan(final String sqlDaoName, final String queryName, final String plan, final Set<String> fullScanTables) {
+            this.sqlDaoName = sqlDaoName;
+            this.queryName = queryName;
+            this.plan = plan;
+            this.fullScanTables = Collections.unmodifiableSet(fullScanTables);
+        }
+
+        public String getSqlDaoName() {
+            return sqlDaoName;
+        }
+
+        public String getQueryName() {
+            return queryName;
+        }
+
+        public String getPlan() {
+            return plan;
+        }
+
+        public Set<String> getFullScanTables() {
+            return fullScanTables;
+        }
+
+        public boolean hasFullScan() {
+            return !fullScanTables.isEmpty();
+        }
+
+        @Override
+        public String toString() {
+            final StringBuilder sb = new StringBuilder("QueryPlan{");
+            sb.append("sqlDaoName='").append(sqlDaoName).append('\'');
+            sb.append(", queryName='").append(queryName).append('\'');
+            sb.append(", fullScanTables=").append(fullScanTables);
+            sb.append(", plan='").append(plan).append('\'');
+            sb.append('}');
+            return sb.toString();
+        }
+    }
+}
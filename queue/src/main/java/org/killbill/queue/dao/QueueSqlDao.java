@@ -104,6 +104,42 @@ public interface QueueSqlDao<T extends EventEntryModelDao> extends Transactional
     void removeEntries(@BindIn("record_ids") final Collection<Long> recordIds,
                        @Define("tableName") final String tableName);
 
+    // The with* defines are only used by StringTemplate to include the associated criteria (see DeadLetterFilter)
+    @SqlQuery
+    List<T> getDeadLetterEntries(@Bind("fromRecordId") long fromRecordId,
+                                 @Bind("max") int max,
+                                 @Nullable @Bind("queueName") String queueName,
+                                 @Nullable @Bind("className") String className,
+                                 @Nullable @Bind("searchKey1") Long searchKey1,
+                                 @Nullable @Bind("searchKey2") Long searchKey2,
+                                 @Nullable @Bind("minCreatedDate") Date minCreatedDate,
+                                 @Nullable @Bind("maxCreatedDate") Date maxCreatedDate,
+                                 @Define("withClassName") boolean withClassName,
+                                 @Define("withSearchKey1") boolean withSearchKey1,
+                                 @Define("withSearchKey2") boolean withSearchKey2,
+                                 @Define("withMinCreatedDate") boolean withMinCreatedDate,
+                                 @Define("withMaxCreatedDate") boolean withMaxCreatedDate,
+                                 @Define("historyTableName") final String historyTableName);
+
+    @SqlQuery
+    long getNbDeadLetterEntries(@Nullable @Bind("queueName") String queueName,
+                                @Nullable @Bind("className") String className,
+                                @Nullable @Bind("searchKey1") Long searchKey1,
+                                @Nullable @Bind("searchKey2") Long searchKey2,
+                                @Nullable @Bind("minCreatedDate") Date minCreatedDate,
+                                @Nullable @Bind("maxCreatedDate") Date maxCreatedDate,
+                                @Define("withClassName") boolean withClassName,
+                                @Define("withSearchKey1") boolean withSearchKey1,
+                                @Define("withSearchKey2") boolean withSearchKey2,
+                                @Define("withMinCreatedDate") boolean withMinCreatedDate,
+                                @Define("withMaxCreatedDate") boolean withMaxCreatedDate,
+                                @Define("historyTableName") final String historyTableName);
+
+    // Conditional: returns 0 if the entry was replayed concurrently
+    @SqlUpdate
+    int markDeadLetterEntryAsReplayed(@Bind("recordId") Long recordId,
+                                      @Define("historyTableName") final String historyTableName);
+
     @SqlUpdate
     @GetGeneratedKeys(value = LongMapper.class, columnName = "record_id")
     Long insertEntry(@SmartBindBean T evt,
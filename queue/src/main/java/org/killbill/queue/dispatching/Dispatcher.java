@@ -75,8 +75,24 @@ public class Dispatcher<E extends QueueEvent, M extends EventEntryModelDao> {
                       final Clock clock,
                       final CallableCallback<E, M> handlerCallback,
                       final DefaultQueueLifecycle parentLifeCycle) {
+        this(corePoolSize, config.geMaxDispatchThreads(), config, keepAliveTime, keepAliveTimeUnit, shutdownTimeout, shutdownTimeUnit, workQueue, threadFactory, rejectionHandler, clock, handlerCallback, parentLifeCycle);
+    }
+
+    public Dispatcher(final int corePoolSize,
+                      final int maximumPoolSize,
+                      final PersistentQueueConfig config,
+                      final long keepAliveTime,
+                      final TimeUnit keepAliveTimeUnit,
+                      final long shutdownTimeout,
+                      final TimeUnit shutdownTimeUnit,
+                      final BlockingQueue<Runnable> workQueue,
+                      final ThreadFactory threadFactory,
+                      final RejectedExecutionHandler rejectionHandler,
+                      final Clock clock,
+                      final CallableCallback<E, M> handlerCallback,
+                      final DefaultQueueLifecycle parentLifeCycle) {
         this.corePoolSize = corePoolSize;
-        this.maximumPoolSize = config.geMaxDispatchThreads();
+        this.maximumPoolSize = maximumPoolSize;
         this.keepAliveTime = keepAliveTime;
         this.keepAliveTimeUnit = keepAliveTimeUnit;
         this.shutdownTimeout = shutdownTimeout;
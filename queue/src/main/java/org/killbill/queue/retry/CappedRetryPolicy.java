@@ -0,0 +1,83 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.queue.retry;
+
+import java.util.List;
+import java.util.Random;
+
+import org.joda.time.Period;
+
+/**
+ * Bound the delay between two attempts of another policy, and optionally the total time spent retrying.
+ */
+public final class CappedRetryPolicy implements RetryPolicy {
+
+    private final RetryPolicy delegate;
+    private final long maxDelayMillis;
+    private final long maxElapsedMillis;
+
+    /**
+     * @param delegate the policy to cap
+     * @param maxDelay maximum delay between two attempts (must not use months or years)
+     */
+    public CappedRetryPolicy(final RetryPolicy delegate, final Period maxDelay) {
+        this(delegate, maxDelay, null);
+    }
+
+    /**
+     * @param delegate   the policy to cap
+     * @param maxDelay   maximum delay between two attempts (must not use months or years)
+     * @param maxElapsed if not null, no retry is scheduled past that offset from the original effective date (must not use months or years)
+     */
+    public CappedRetryPolicy(final RetryPolicy delegate, final Period maxDelay, final Period maxElapsed) {
+        this.delegate = delegate;
+        this.maxDelayMillis = maxDelay.toStandardDuration().getMillis();
+        if (maxDelayMillis <= 0) {
+            throw new IllegalArgumentException("maxDelay should be positive: " + maxDelay);
+        }
+        this.maxElapsedMillis = maxElapsed == null ? Long.MAX_VALUE : maxElapsed.toStandardDuration().getMillis();
+        if (maxElapsedMillis <= 0) {
+            throw new IllegalArgumentException("maxElapsed should be positive: " + maxElapsed);
+        }
+    }
+
+    @Override
+    public long getDelayMillis(final int retryNb, final long previousDelayMillis, final Random random) {
+        final long delayMillis = delegate.getDelayMillis(retryNb, previousDelayMillis, random);
+        return delayMillis < 0 ? delayMillis : Math.min(delayMillis, maxDelayMillis);
+    }
+
+    @Override
+    public List<Period> getRetrySchedule(final long seed) {
+        final List<Period> retrySchedule = RetryPolicy.super.getRetrySchedule(seed);
+        int nbRetries = 0;
+        while (nbRetries < retrySchedule.size() && retrySchedule.get(nbRetries).toStandardDuration().getMillis() <= maxElapsedMillis) {
+            nbRetries++;
+        }
+        return retrySchedule.subList(0, nbRetries);
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("CappedRetryPolicy{");
+        sb.append("delegate=").append(delegate);
+        sb.append(", maxDelayMillis=").append(maxDelayMillis);
+        sb.append(", maxElapsedMillis=").append(maxElapsedMillis);
+        sb.append('}');
+        return sb.toString();
+    }
+}
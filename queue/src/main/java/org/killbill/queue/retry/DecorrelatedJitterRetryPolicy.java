@@ -0,0 +1,71 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.queue.retry;
+
+import java.util.Random;
+
+import org.joda.time.Period;
+
+/**
+ * "Decorrelated jitter" backoff: each delay is picked at random between baseDelay and three times the previous delay,
+ * and capped by maxDelay. Events failing at the same time are spread out instead of being retried in lockstep.
+ */
+public final class DecorrelatedJitterRetryPolicy implements RetryPolicy {
+
+    private final long baseDelayMillis;
+    private final long maxDelayMillis;
+    private final int maxRetries;
+
+    /**
+     * @param baseDelay  minimum delay between two attempts (must not use months or years)
+     * @param maxDelay   maximum delay between two attempts (must not use months or years)
+     * @param maxRetries maximum number of retries
+     */
+    public DecorrelatedJitterRetryPolicy(final Period baseDelay, final Period maxDelay, final int maxRetries) {
+        this.baseDelayMillis = baseDelay.toStandardDuration().getMillis();
+        this.maxDelayMillis = maxDelay.toStandardDuration().getMillis();
+        if (baseDelayMillis <= 0 || maxDelayMillis < baseDelayMillis) {
+            throw new IllegalArgumentException(String.format("Invalid delays: baseDelay=%s, maxDelay=%s", baseDelay, maxDelay));
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries should be positive: " + maxRetries);
+        }
+        this.maxRetries = maxRetries;
+    }
+
+    @Override
+    public long getDelayMillis(final int retryNb, final long previousDelayMillis, final Random random) {
+        if (retryNb > maxRetries) {
+            return -1;
+        }
+        final long upperBound = Math.min(maxDelayMillis, 3 * Math.max(previousDelayMillis, baseDelayMillis));
+        if (upperBound <= baseDelayMillis) {
+            return baseDelayMillis;
+        }
+        return baseDelayMillis + (long) (random.nextDouble() * (upperBound - baseDelayMillis));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("DecorrelatedJitterRetryPolicy{");
+        sb.append("baseDelayMillis=").append(baseDelayMillis);
+        sb.append(", maxDelayMillis=").append(maxDelayMillis);
+        sb.append(", maxRetries=").append(maxRetries);
+        sb.append('}');
+        return sb.toString();
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.queue.retry;
+
+import java.util.Random;
+
+import org.joda.time.Period;
+
+/**
+ * initialDelay, initialDelay * multiplier, initialDelay * multiplier^2, ... for maxRetries retries.
+ * <p>
+ * Each delay is shortened by a random share (up to jitterFraction) of its nominal value, so that events failing at the
+ * same time aren't retried in lockstep. The jitter is drawn from the per-event seeded generator: the schedule of a given
+ * event stays the same from one attempt to the next.
+ */
+public final class ExponentialRetryPolicy implements RetryPolicy {
+
+    public static final double DEFAULT_JITTER_FRACTION = 0.1;
+
+    private final long initialDelayMillis;
+    private final double multiplier;
+    private final int maxRetries;
+    private final double jitterFraction;
+
+    /**
+     * @param initialDelay delay before the first retry (must not use months or years)
+     * @param multiplier   factor applied to the delay for each subsequent retry
+     * @param maxRetries   maximum number of retries
+     */
+    public ExponentialRetryPolicy(final Period initialDelay, final double multiplier, final int maxRetries) {
+        this(initialDelay, multiplier, maxRetries, DEFAULT_JITTER_FRACTION);
+    }
+
+    /**
+     * @param initialDelay   delay before the first retry (must not use months or years)
+     * @param multiplier     factor applied to the delay for each subsequent retry
+     * @param maxRetries     maximum number of retries
+     * @param jitterFraction maximum share of each delay removed at random, in [0, 1[ (0 disables the jitter)
+     */
+    public ExponentialRetryPolicy(final Period initialDelay, final double multiplier, final int maxRetries, final double jitterFraction) {
+        this.initialDelayMillis = initialDelay.toStandardDuration().getMillis();
+        if (initialDelayMillis <= 0) {
+            throw new IllegalArgumentException("initialDelay should be positive: " + initialDelay);
+        }
+        if (multiplier < 1.0) {
+            throw new IllegalArgumentException("multiplier should be greater or equal to 1: " + multiplier);
+        }
+        if (maxRetries < 0) {
+            throw new IllegalArgumentException("maxRetries should be positive: " + maxRetries);
+        }
+        if (jitterFraction < 0 || jitterFraction >= 1) {
+            throw new IllegalArgumentException("jitterFraction should be in [0, 1[: " + jitterFraction);
+        }
+        this.multiplier = multiplier;
+        this.maxRetries = maxRetries;
+        this.jitterFraction = jitterFraction;
+    }
+
+    @Override
+    public long getDelayMillis(final int retryNb, final long previousDelayMillis, final Random random) {
+        if (retryNb > maxRetries) {
+            return -1;
+        }
+        // Nominal delays don't depend on the (jittered) previous delay, so the jitter doesn't compound
+        final double nominalDelayMillis = Math.min(initialDelayMillis * Math.pow(multiplier, retryNb - 1), Long.MAX_VALUE / 2);
+        if (jitterFraction == 0) {
+            return (long) nominalDelayMillis;
+        }
+        return Math.max(1, (long) (nominalDelayMillis * (1 - jitterFraction * random.nextDouble())));
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("ExponentialRetryPolicy{");
+        sb.append("initialDelayMillis=").append(initialDelayMillis);
+        sb.append(", multiplier=").append(multiplier);
+        sb.append(", maxRetries=").append(maxRetries);
+        sb.append(", jitterFraction=").append(jitterFraction);
+        sb.append('}');
+        return sb.toString();
+    }
+}
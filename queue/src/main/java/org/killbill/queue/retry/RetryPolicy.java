@@ -0,0 +1,62 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.queue.retry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.joda.time.Period;
+
+/**
+ * Declarative alternative to a hand-built {@link org.killbill.billing.util.queue.QueueRetryException#getRetrySchedule()}:
+ * throw a {@link RetryPolicyException} and the {@link RetryableService} expands the policy for each event.
+ */
+public interface RetryPolicy {
+
+    /**
+     * @param retryNb             the retry number (starts at 1)
+     * @param previousDelayMillis the delay returned for the previous retry (0 for the first retry)
+     * @param random              random generator to use for jitter, seeded per event
+     * @return the delay in milliseconds between the previous attempt and that retry, or a negative value if retries are exhausted
+     */
+    long getDelayMillis(int retryNb, long previousDelayMillis, Random random);
+
+    /**
+     * Expand the policy into a retry schedule, as expected by {@link org.killbill.billing.util.queue.QueueRetryException#getRetrySchedule()}:
+     * the i-th element is the offset of the i-th retry relative to the original effective date.
+     *
+     * @param seed seed for the jitter: the same seed always yields the same schedule, so successive attempts for a given event agree,
+     *             while events with different seeds fire at different times
+     * @return the retry schedule
+     */
+    default List<Period> getRetrySchedule(final long seed) {
+        final Random random = new Random(seed);
+        final List<Period> retrySchedule = new ArrayList<Period>();
+        long previousDelayMillis = 0;
+        long offsetMillis = 0;
+        for (int retryNb = 1; ; retryNb++) {
+            final long delayMillis = getDelayMillis(retryNb, previousDelayMillis, random);
+            if (delayMillis < 0) {
+                return retrySchedule;
+            }
+            offsetMillis += delayMillis;
+            retrySchedule.add(new Period(offsetMillis));
+            previousDelayMillis = delayMillis;
+        }
+    }
+}
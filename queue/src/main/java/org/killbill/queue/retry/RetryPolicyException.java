@@ -0,0 +1,41 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.queue.retry;
+
+import org.killbill.billing.util.queue.QueueRetryException;
+
+/**
+ * {@link QueueRetryException} whose retry schedule is derived from a {@link RetryPolicy}.
+ * <p>
+ * The {@link RetryableService} expands the policy with a seed specific to each event, so jittered policies spread the
+ * retries of events which failed at the same time. {@link #getRetrySchedule()} returns the expansion for seed 0.
+ */
+public class RetryPolicyException extends QueueRetryException {
+
+    private static final long serialVersionUID = 2803529121620738193L;
+
+    private final transient RetryPolicy retryPolicy;
+
+    public RetryPolicyException(final Exception cause, final RetryPolicy retryPolicy) {
+        super(cause, retryPolicy.getRetrySchedule(0));
+        this.retryPolicy = retryPolicy;
+    }
+
+    public RetryPolicy getRetryPolicy() {
+        return retryPolicy;
+    }
+}
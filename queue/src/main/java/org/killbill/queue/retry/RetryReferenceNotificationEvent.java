@@ -0,0 +1,94 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.queue.retry;
+
+import org.joda.time.DateTime;
+import org.killbill.notificationq.api.NotificationEvent;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Lightweight retry notification: the original event payload is stored once in the history table
+ * of the retry queue (see {@link org.killbill.notificationq.api.NotificationQueue#recordFutureNotificationWithPayload}),
+ * and each retry attempt only references it by record_id.
+ */
+public class RetryReferenceNotificationEvent implements NotificationEvent {
+
+    private final Long payloadRecordId;
+    private final DateTime originalEffectiveDate;
+    private final int retryNb;
+
+    @JsonCreator
+    public RetryReferenceNotificationEvent(@JsonProperty("payloadRecordId") final Long payloadRecordId,
+                                           @JsonProperty("originalEffectiveDate") final DateTime originalEffectiveDate,
+                                           @JsonProperty("retryNb") final int retryNb) {
+        this.payloadRecordId = payloadRecordId;
+        this.originalEffectiveDate = originalEffectiveDate;
+        this.retryNb = retryNb;
+    }
+
+    public Long getPayloadRecordId() {
+        return payloadRecordId;
+    }
+
+    public DateTime getOriginalEffectiveDate() {
+        return originalEffectiveDate;
+    }
+
+    public int getRetryNb() {
+        return retryNb;
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder sb = new StringBuilder("RetryReferenceNotificationEvent{");
+        sb.append("payloadRecordId=").append(payloadRecordId);
+        sb.append(", originalEffectiveDate=").append(originalEffectiveDate);
+        sb.append(", retryNb=").append(retryNb);
+        sb.append('}');
+        return sb.toString();
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (o == null || getClass() != o.getClass()) {
+            return false;
+        }
+
+        final RetryReferenceNotificationEvent that = (RetryReferenceNotificationEvent) o;
+
+        if (retryNb != that.retryNb) {
+            return false;
+        }
+        if (payloadRecordId != null ? !payloadRecordId.equals(that.payloadRecordId) : that.payloadRecordId != null) {
+            return false;
+        }
+        return originalEffectiveDate != null ? originalEffectiveDate.compareTo(that.originalEffectiveDate) == 0 : that.originalEffectiveDate == null;
+    }
+
+    @Override
+    public int hashCode() {
+        int result = payloadRecordId != null ? payloadRecordId.hashCode() : 0;
+        result = 31 * result + (originalEffectiveDate != null ? originalEffectiveDate.hashCode() : 0);
+        result = 31 * result + retryNb;
+        return result;
+    }
+}
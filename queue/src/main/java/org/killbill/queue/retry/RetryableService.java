@@ -21,12 +21,17 @@ package org.killbill.queue.retry;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jakarta.annotation.Nullable;
 
 import org.joda.time.DateTime;
 import org.joda.time.Period;
 import org.killbill.billing.util.queue.QueueRetryException;
 import org.killbill.notificationq.api.NotificationEvent;
+import org.killbill.notificationq.api.NotificationEventWithMetadata;
 import org.killbill.notificationq.api.NotificationQueue;
 import org.killbill.notificationq.api.NotificationQueueService;
 import org.killbill.notificationq.api.NotificationQueueService.NoSuchNotificationQueue;
@@ -52,6 +57,11 @@ public abstract class RetryableService {
 
     private final NotificationQueueService notificationQueueService;
 
+    // When true, the original event is stored once and retry notifications only reference it by record_id
+    private final boolean referencePayload;
+    // Bus events can't be referenced: warn once when their payload is embedded instead
+    private final AtomicBoolean inlinePayloadFallbackLogged = new AtomicBoolean(false);
+
     private NotificationQueue retryNotificationQueue;
 
     public RetryableService(NotificationQueueService notificationQueueService) {
@@ -59,7 +69,18 @@ public abstract class RetryableService {
     }
 
     public RetryableService(final NotificationQueueService notificationQueueService, final ObjectMapper objectMapper) {
+        this(notificationQueueService, objectMapper, false);
+    }
+
+    /**
+     * @param referencePayload if true, the original event is serialized once in the history table of the retry queue and
+     *                         each retry notification only references it (see {@link RetryReferenceNotificationEvent}),
+     *                         instead of embedding it again for each attempt (see {@link RetryNotificationEvent}).
+     *                         Only notification events can be referenced: bus event payloads are still embedded.
+     */
+    public RetryableService(final NotificationQueueService notificationQueueService, final ObjectMapper objectMapper, final boolean referencePayload) {
         this.notificationQueueService = notificationQueueService;
+        this.referencePayload = referencePayload;
         this.objectReader = objectMapper.reader();
         this.objectWriter = objectMapper.writer();
     }
@@ -97,12 +118,42 @@ public abstract class RetryableService {
                         } catch (final QueueRetryException e) {
                             scheduleRetry(e,
                                           notificationEvent,
+                                          null,
                                           retryNotificationEvent.getOriginalEffectiveDate(),
                                           userToken,
                                           searchKey1,
                                           searchKey2,
                                           retryNotificationEvent.getRetryNb() + 1);
                         }
+                    } else if (eventJson instanceof RetryReferenceNotificationEvent) {
+                        final RetryReferenceNotificationEvent retryReferenceNotificationEvent = (RetryReferenceNotificationEvent) eventJson;
+
+                        // The payload is typed directly from its history entry (no JSON embedded in JSON)
+                        final NotificationEventWithMetadata<NotificationEvent> payload = retryNotificationQueue.getHistoricalNotification(retryReferenceNotificationEvent.getPayloadRecordId());
+                        if (payload == null || payload.getEvent() == null) {
+                            throw new IllegalStateException(String.format("Unable to load retry payload recordId='%s'", retryReferenceNotificationEvent.getPayloadRecordId()));
+                        }
+                        final NotificationEvent notificationEvent = payload.getEvent();
+
+                        try {
+                            originalQueueHandler.handleReadyNotification(notificationEvent,
+                                                                         eventDateTime,
+                                                                         userToken,
+                                                                         searchKey1,
+                                                                         searchKey2);
+                        } catch (final QueueRetryException e) {
+                            // Removes the payload if no retry can be scheduled
+                            scheduleRetry(e,
+                                          notificationEvent,
+                                          retryReferenceNotificationEvent.getPayloadRecordId(),
+                                          retryReferenceNotificationEvent.getOriginalEffectiveDate(),
+                                          userToken,
+                                          searchKey1,
+                                          searchKey2,
+                                          retryReferenceNotificationEvent.getRetryNb() + 1);
+                        }
+                        // The retry chain is over: the payload isn't referenced anymore
+                        retryNotificationQueue.removeNotificationPayload(retryReferenceNotificationEvent.getPayloadRecordId());
                     } else {
                         log.error("Retry service received an unexpected event className='{}'", eventJson.getClass());
                     }
@@ -117,6 +168,20 @@ public abstract class RetryableService {
         }
     }
 
+    /**
+     * Limit the share of the claimed notifications that the retries may take when the notification queue is busy
+     * (see {@link NotificationQueueService#setClaimBudget(String, String, double)}). Must be called after initialize.
+     *
+     * @param maxClaimFraction the maximum share of the claimed notifications, in ]0, 1] (1 removes the limit)
+     */
+    public void useRetryBudget(final double maxClaimFraction) {
+        try {
+            notificationQueueService.setClaimBudget(retryNotificationQueue.getServiceName(), retryNotificationQueue.getQueueName(), maxClaimFraction);
+        } catch (final NoSuchNotificationQueue noSuchNotificationQueue) {
+            throw new IllegalStateException(noSuchNotificationQueue);
+        }
+    }
+
     public void start() {
         retryNotificationQueue.startQueue();
     }
@@ -135,25 +200,61 @@ public abstract class RetryableService {
                               final Long searchKey1,
                               final Long searchKey2,
                               final int retryNb) {
-        final DateTime effectiveDate = computeRetryDate(exception, originalEffectiveDate, retryNb);
+        scheduleRetry(exception, originalNotificationEvent, null, originalEffectiveDate, userToken, searchKey1, searchKey2, retryNb);
+    }
+
+    private void scheduleRetry(final QueueRetryException exception,
+                               final QueueEvent originalNotificationEvent,
+                               @Nullable final Long payloadRecordId,
+                               final DateTime originalEffectiveDate,
+                               final UUID userToken,
+                               final Long searchKey1,
+                               final Long searchKey2,
+                               final int retryNb) {
+        final DateTime effectiveDate = computeRetryDate(exception, originalEffectiveDate, retryNb, Objects.hash(userToken, searchKey1, searchKey2, originalEffectiveDate.getMillis()));
         if (effectiveDate == null) {
             log.warn("Error processing event, NOT scheduling retry for event='{}', retryNb='{}'", originalNotificationEvent, retryNb, exception);
+            removePayload(payloadRecordId);
             onRetriesExhausted(originalNotificationEvent, searchKey1, searchKey2);
             throw new RetryableInternalException(false);
         }
         log.warn("Error processing event, scheduling retry for event='{}', effectiveDate='{}', retryNb='{}'", originalNotificationEvent, effectiveDate, retryNb, exception);
 
         try {
-            final NotificationEvent retryNotificationEvent = new RetryNotificationEvent(objectWriter.writeValueAsString(originalNotificationEvent), originalNotificationEvent.getClass(), originalEffectiveDate, retryNb);
-            retryNotificationQueue.recordFutureNotification(effectiveDate, retryNotificationEvent, userToken, searchKey1, searchKey2);
+            if (payloadRecordId != null) {
+                retryNotificationQueue.recordFutureNotification(effectiveDate, new RetryReferenceNotificationEvent(payloadRecordId, originalEffectiveDate, retryNb), userToken, searchKey1, searchKey2);
+            } else if (referencePayload && originalNotificationEvent instanceof NotificationEvent) {
+                // The payload and the first retry notification referencing it are written in the same transaction
+                retryNotificationQueue.recordFutureNotificationWithPayload(effectiveDate,
+                                                                           originalEffectiveDate,
+                                                                           (NotificationEvent) originalNotificationEvent,
+                                                                           recordId -> new RetryReferenceNotificationEvent(recordId, originalEffectiveDate, retryNb),
+                                                                           userToken,
+                                                                           searchKey1,
+                                                                           searchKey2);
+            } else {
+                if (referencePayload && inlinePayloadFallbackLogged.compareAndSet(false, true)) {
+                    log.warn("Retry payloads can only be referenced for notification events, embedding the payload of event className='{}' instead", originalNotificationEvent.getClass());
+                }
+                final NotificationEvent retryNotificationEvent = new RetryNotificationEvent(objectWriter.writeValueAsString(originalNotificationEvent), originalNotificationEvent.getClass(), originalEffectiveDate, retryNb);
+                retryNotificationQueue.recordFutureNotification(effectiveDate, retryNotificationEvent, userToken, searchKey1, searchKey2);
+            }
             throw new RetryableInternalException(true);
         } catch (final IOException e) {
             log.error("Unable to schedule retry for event='{}', effectiveDate='{}'", originalNotificationEvent, effectiveDate, e);
+            removePayload(payloadRecordId);
             onRetriesExhausted(originalNotificationEvent, searchKey1, searchKey2);
             throw new RetryableInternalException(false);
         }
     }
 
+    // The original event remains in the history of its own queue (e.g. to replay it), only the copy made for the retries is deleted
+    private void removePayload(@Nullable final Long payloadRecordId) {
+        if (payloadRecordId != null) {
+            retryNotificationQueue.removeNotificationPayload(payloadRecordId);
+        }
+    }
+
     /**
      * Called when the retry schedule is exhausted for an event, or when a retry cannot be scheduled
      * due to a serialization error. Subclasses can override to take remedial action (e.g. parking
@@ -163,8 +264,11 @@ public abstract class RetryableService {
         // no-op by default
     }
 
-    private DateTime computeRetryDate(final QueueRetryException queueRetryException, final DateTime initialEventDateTime, final int retryNb) {
-        final List<Period> retrySchedule = queueRetryException.getRetrySchedule();
+    private DateTime computeRetryDate(final QueueRetryException queueRetryException, final DateTime initialEventDateTime, final int retryNb, final long seed) {
+        // The seed is stable across the attempts of a given event, so the jittered schedule is consistent from one attempt to the next
+        final List<Period> retrySchedule = queueRetryException instanceof RetryPolicyException ?
+                                           ((RetryPolicyException) queueRetryException).getRetryPolicy().getRetrySchedule(seed) :
+                                           queueRetryException.getRetrySchedule();
         if (retrySchedule == null || retryNb > retrySchedule.size()) {
             return null;
         } else {
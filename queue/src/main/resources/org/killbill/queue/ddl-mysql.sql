@@ -0,0 +1,124 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+--
+-- MySQL variant of ddl.sql
+--
+-- * record_id is the (clustered) primary key only: no extra unique index
+-- * InnoDB secondary indexes implicitly end with the primary key, which makes them covering for the record_id lookups
+--   and keeps the claim order (record_id) without a filesort
+-- * the ready indexes start with processing_state, so that the claim queries only read the AVAILABLE entries
+--
+
+SET default_storage_engine=INNODB;
+
+DROP TABLE IF EXISTS notifications;
+CREATE TABLE notifications (
+    record_id bigint unsigned NOT NULL AUTO_INCREMENT,
+    class_name varchar(256) NOT NULL,
+    event_json varchar(2048) NOT NULL,
+    user_token varchar(36),
+    created_date datetime NOT NULL,
+    creating_owner varchar(50) NOT NULL,
+    processing_owner varchar(50) DEFAULT NULL,
+    processing_available_date datetime DEFAULT NULL,
+    processing_state varchar(14) DEFAULT 'AVAILABLE',
+    error_count int unsigned DEFAULT 0,
+    search_key1 bigint unsigned default null,
+    search_key2 bigint unsigned default null,
+    queue_name varchar(64) NOT NULL,
+    effective_date datetime NOT NULL,
+    future_user_token varchar(36),
+    PRIMARY KEY(record_id)
+) CHARACTER SET utf8 COLLATE utf8_bin;
+-- getReadyEntries / getNbReadyEntries (effective_date range, ordered by effective_date, created_date, record_id)
+CREATE INDEX idx_get_ready ON notifications(processing_state, effective_date, created_date);
+-- Same, for the sticky modes (creating_owner = ...)
+CREATE INDEX idx_get_ready_owner ON notifications(processing_state, creating_owner, effective_date, created_date);
+-- getEntriesLeftBehind: the processing_owner / processing_available_date predicates are evaluated from the index
+CREATE INDEX idx_comp_where ON notifications(effective_date, processing_state, processing_owner, processing_available_date);
+-- Same as ddl.sql: processing_state / processing_owner lookups outside of the effective_date range
+CREATE INDEX idx_update ON notifications(processing_state, processing_owner, processing_available_date);
+CREATE INDEX notifications_search_keys ON notifications(search_key2, search_key1, queue_name, processing_state, effective_date);
+
+DROP TABLE IF EXISTS notifications_history;
+CREATE TABLE notifications_history (
+    record_id bigint unsigned NOT NULL AUTO_INCREMENT,
+    class_name varchar(256) NOT NULL,
+    event_json varchar(2048) NOT NULL,
+    user_token varchar(36),
+    created_date datetime NOT NULL,
+    creating_owner varchar(50) NOT NULL,
+    processing_owner varchar(50) DEFAULT NULL,
+    processing_available_date datetime DEFAULT NULL,
+    processing_state varchar(14) DEFAULT 'AVAILABLE',
+    error_count int unsigned DEFAULT 0,
+    search_key1 bigint unsigned default null,
+    search_key2 bigint unsigned default null,
+    queue_name varchar(64) NOT NULL,
+    effective_date datetime NOT NULL,
+    future_user_token varchar(36),
+    PRIMARY KEY(record_id)
+) CHARACTER SET utf8 COLLATE utf8_bin;
+CREATE INDEX notifications_history_search_keys ON notifications_history(search_key2, search_key1, queue_name);
+-- Dead-letter queries (processing_state = 'FAILED', paged by record_id)
+CREATE INDEX notifications_history_state ON notifications_history(processing_state, queue_name);
+
+DROP TABLE IF EXISTS bus_events;
+CREATE TABLE bus_events (
+    record_id bigint unsigned NOT NULL AUTO_INCREMENT,
+    class_name varchar(128) NOT NULL,
+    event_json varchar(2048) NOT NULL,
+    user_token varchar(36),
+    created_date datetime NOT NULL,
+    creating_owner varchar(50) NOT NULL,
+    processing_owner varchar(50) DEFAULT NULL,
+    processing_available_date datetime DEFAULT NULL,
+    processing_state varchar(14) DEFAULT 'AVAILABLE',
+    error_count int unsigned DEFAULT 0,
+    search_key1 bigint unsigned default null,
+    search_key2 bigint unsigned default null,
+    PRIMARY KEY(record_id)
+) CHARACTER SET utf8 COLLATE utf8_bin;
+-- getReadyEntries / getReadyEntryIds / getNbReadyEntries (ordered by record_id, covering for getReadyEntryIds)
+CREATE INDEX idx_bus_ready ON bus_events(processing_state, record_id);
+-- Same, for the sticky modes (creating_owner = ...)
+CREATE INDEX idx_bus_ready_owner ON bus_events(processing_state, creating_owner, record_id);
+-- getEntriesLeftBehind (ordered by created_date): the processing_owner / processing_available_date predicates are evaluated from the index
+CREATE INDEX idx_bus_where ON bus_events(created_date, processing_state, processing_owner, processing_available_date);
+-- Same as idx_bus_where in ddl.sql: processing_state / processing_owner lookups outside of the created_date range
+CREATE INDEX idx_bus_update ON bus_events(processing_state, processing_owner, processing_available_date);
+CREATE INDEX bus_events_tenant_account_record_id ON bus_events(search_key2, search_key1, processing_state);
+
+DROP TABLE IF EXISTS bus_events_history;
+CREATE TABLE bus_events_history (
+    record_id bigint unsigned NOT NULL AUTO_INCREMENT,
+    class_name varchar(128) NOT NULL,
+    event_json varchar(2048) NOT NULL,
+    user_token varchar(36),
+    created_date datetime NOT NULL,
+    creating_owner varchar(50) NOT NULL,
+    processing_owner varchar(50) DEFAULT NULL,
+    processing_available_date datetime DEFAULT NULL,
+    processing_state varchar(14) DEFAULT 'AVAILABLE',
+    error_count int unsigned DEFAULT 0,
+    search_key1 bigint unsigned default null,
+    search_key2 bigint unsigned default null,
+    PRIMARY KEY(record_id)
+) CHARACTER SET utf8 COLLATE utf8_bin;
+CREATE INDEX bus_events_history_tenant_account_record_id ON bus_events_history(search_key2, search_key1);
+-- Dead-letter queries (processing_state = 'FAILED', paged by record_id)
+CREATE INDEX bus_events_history_state ON bus_events_history(processing_state);
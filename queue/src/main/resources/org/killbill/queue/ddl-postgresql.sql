@@ -0,0 +1,117 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+--
+-- PostgreSQL variant of ddl.sql
+--
+-- * partial indexes on the live tables only contain the entries the queries look for (e.g. processing_state = 'AVAILABLE'),
+--   so they stay small no matter how many entries are in flight
+-- * INCLUDE columns make the count and record_id queries index-only scans
+--
+
+DROP TABLE IF EXISTS notifications;
+CREATE TABLE notifications (
+    record_id bigserial,
+    class_name varchar(256) NOT NULL,
+    event_json varchar(2048) NOT NULL,
+    user_token varchar(36),
+    created_date timestamp without time zone NOT NULL,
+    creating_owner varchar(50) NOT NULL,
+    processing_owner varchar(50) DEFAULT NULL,
+    processing_available_date timestamp without time zone DEFAULT NULL,
+    processing_state varchar(14) DEFAULT 'AVAILABLE',
+    error_count int DEFAULT 0,
+    search_key1 bigint default null,
+    search_key2 bigint default null,
+    queue_name varchar(64) NOT NULL,
+    effective_date timestamp without time zone NOT NULL,
+    future_user_token varchar(36),
+    PRIMARY KEY(record_id)
+);
+-- getReadyEntries / getNbReadyEntries / getReadyEntriesExcludingQueueNames
+CREATE INDEX idx_get_ready ON notifications(effective_date, created_date, record_id) INCLUDE (queue_name, creating_owner) WHERE processing_state = 'AVAILABLE';
+-- getEntriesLeftBehind
+CREATE INDEX idx_comp_where ON notifications(effective_date) INCLUDE (processing_owner, processing_available_date) WHERE processing_state <> 'PROCESSED' AND processing_state <> 'REMOVED';
+-- getInProcessingEntries
+CREATE INDEX idx_in_processing ON notifications(effective_date, created_date, record_id) WHERE processing_state = 'IN_PROCESSING';
+CREATE INDEX notifications_search_keys ON notifications(search_key2, search_key1, queue_name) INCLUDE (processing_state, effective_date);
+
+DROP TABLE IF EXISTS notifications_history;
+CREATE TABLE notifications_history (
+    record_id bigserial,
+    class_name varchar(256) NOT NULL,
+    event_json varchar(2048) NOT NULL,
+    user_token varchar(36),
+    created_date timestamp without time zone NOT NULL,
+    creating_owner varchar(50) NOT NULL,
+    processing_owner varchar(50) DEFAULT NULL,
+    processing_available_date timestamp without time zone DEFAULT NULL,
+    processing_state varchar(14) DEFAULT 'AVAILABLE',
+    error_count int DEFAULT 0,
+    search_key1 bigint default null,
+    search_key2 bigint default null,
+    queue_name varchar(64) NOT NULL,
+    effective_date timestamp without time zone NOT NULL,
+    future_user_token varchar(36),
+    PRIMARY KEY(record_id)
+);
+CREATE INDEX notifications_history_search_keys ON notifications_history(search_key2, search_key1, queue_name);
+-- Dead-letter queries
+CREATE INDEX notifications_history_failed ON notifications_history(queue_name, record_id) WHERE processing_state = 'FAILED';
+
+DROP TABLE IF EXISTS bus_events;
+CREATE TABLE bus_events (
+    record_id bigserial,
+    class_name varchar(128) NOT NULL,
+    event_json varchar(2048) NOT NULL,
+    user_token varchar(36),
+    created_date timestamp without time zone NOT NULL,
+    creating_owner varchar(50) NOT NULL,
+    processing_owner varchar(50) DEFAULT NULL,
+    processing_available_date timestamp without time zone DEFAULT NULL,
+    processing_state varchar(14) DEFAULT 'AVAILABLE',
+    error_count int DEFAULT 0,
+    search_key1 bigint default null,
+    search_key2 bigint default null,
+    PRIMARY KEY(record_id)
+);
+-- getReadyEntries / getReadyEntryIds / getNbReadyEntries
+CREATE INDEX idx_bus_ready ON bus_events(record_id) INCLUDE (creating_owner) WHERE processing_state = 'AVAILABLE';
+-- getEntriesLeftBehind
+CREATE INDEX idx_bus_where ON bus_events(created_date) INCLUDE (processing_owner, processing_available_date) WHERE processing_state <> 'PROCESSED' AND processing_state <> 'REMOVED';
+-- getInProcessingEntries
+CREATE INDEX idx_bus_in_processing ON bus_events(record_id) WHERE processing_state = 'IN_PROCESSING';
+CREATE INDEX bus_events_tenant_account_record_id ON bus_events(search_key2, search_key1) INCLUDE (processing_state, created_date);
+
+DROP TABLE IF EXISTS bus_events_history;
+CREATE TABLE bus_events_history (
+    record_id bigserial,
+    class_name varchar(128) NOT NULL,
+    event_json varchar(2048) NOT NULL,
+    user_token varchar(36),
+    created_date timestamp without time zone NOT NULL,
+    creating_owner varchar(50) NOT NULL,
+    processing_owner varchar(50) DEFAULT NULL,
+    processing_available_date timestamp without time zone DEFAULT NULL,
+    processing_state varchar(14) DEFAULT 'AVAILABLE',
+    error_count int DEFAULT 0,
+    search_key1 bigint default null,
+    search_key2 bigint default null,
+    PRIMARY KEY(record_id)
+);
+CREATE INDEX bus_events_history_tenant_account_record_id ON bus_events_history(search_key2, search_key1);
+-- Dead-letter queries
+CREATE INDEX bus_events_history_failed ON bus_events_history(record_id) WHERE processing_state = 'FAILED';
@@ -38,11 +38,14 @@ import org.killbill.notificationq.DefaultNotificationQueueService;
 import org.killbill.notificationq.api.NotificationQueueService;
 import org.killbill.notificationq.dao.NotificationEventModelDao;
 import org.killbill.notificationq.dao.NotificationSqlDao;
+import org.killbill.queue.QueueObjectMapper;
 import org.killbill.queue.api.PersistentQueueEntryLifecycleState;
+import org.killbill.queue.retry.RetryReferenceNotificationEvent;
 import org.killbill.queue.retry.RetryableService;
 import org.killbill.queue.retry.RetryableSubscriber;
 import org.killbill.queue.retry.RetryableSubscriber.SubscriberAction;
 import org.killbill.queue.retry.RetryableSubscriber.SubscriberQueueHandler;
+import org.killbill.queue.retry.SubscriberNotificationEvent;
 import org.testng.Assert;
 import org.testng.annotations.AfterMethod;
 import org.testng.annotations.BeforeMethod;
@@ -142,21 +145,77 @@ public class TestRetries extends TestSetup {
         }
     }
 
+    @Test(groups = "slow")
+    public void testRetryStateForBusWithPayloadReference() throws Exception {
+        final RetryableBusService retryableBusService = new RetryableBusService(queueService, true);
+        retryableBusService.initialize();
+        busService.register(retryableBusService);
+
+        try {
+            retryableBusService.start();
+
+            final MyEvent myEvent = new MyEvent("Foo", 1L, "Baz", SEARCH_KEY_1, SEARCH_KEY_2, TOKEN_ID);
+            busService.post(myEvent);
+
+            final NotificationSqlDao notificationSqlDao = dbi.onDemand(NotificationSqlDao.class);
+
+            // 3 retries processed, the payload stored once isn't part of the history
+            await().atMost(10, TimeUnit.SECONDS)
+                   .until(() -> Iterators.size(notificationSqlDao.getHistoricalQueueEntriesForSearchKeys("notifications-retries:myEvent-listener", SEARCH_KEY_1, SEARCH_KEY_2, notificationQueueConfig.getHistoryTableName())) == 3);
+
+            List<NotificationEventModelDao> historicalEntriesForRetries = Iterators.toUnmodifiableList(notificationSqlDao.getHistoricalQueueEntriesForSearchKeys("notifications-retries:myEvent-listener", SEARCH_KEY_1, SEARCH_KEY_2, notificationQueueConfig.getHistoryTableName()));
+            final Long payloadRecordId = QueueObjectMapper.get().readValue(historicalEntriesForRetries.get(0).getEventJson(), RetryReferenceNotificationEvent.class).getPayloadRecordId();
+            final NotificationEventModelDao payloadEntry = notificationSqlDao.getByRecordId(payloadRecordId, notificationQueueConfig.getHistoryTableName());
+            Assert.assertEquals(payloadEntry.getProcessingState(), PersistentQueueEntryLifecycleState.RETRY_PAYLOAD);
+            Assert.assertEquals(payloadEntry.getClassName(), SubscriberNotificationEvent.class.getName());
+            for (final NotificationEventModelDao historicalEntriesForRetry : historicalEntriesForRetries) {
+                Assert.assertEquals(historicalEntriesForRetry.getProcessingState(), PersistentQueueEntryLifecycleState.FAILED);
+                Assert.assertEquals(historicalEntriesForRetry.getClassName(), RetryReferenceNotificationEvent.class.getName());
+                // Retries only reference the payload
+                Assert.assertFalse(historicalEntriesForRetry.getEventJson().contains("Foo"));
+                Assert.assertTrue(historicalEntriesForRetry.getEventJson().contains(String.valueOf(payloadRecordId)));
+            }
+
+            // Make the next retry work
+            retryableBusService.shouldFail(false);
+
+            clock.addDays(1);
+
+            await().atMost(10, TimeUnit.SECONDS)
+                   .until(() -> Iterators.size(notificationSqlDao.getHistoricalQueueEntriesForSearchKeys("notifications-retries:myEvent-listener", SEARCH_KEY_1, SEARCH_KEY_2, notificationQueueConfig.getHistoryTableName())) == 4);
+
+            historicalEntriesForRetries = Iterators.toUnmodifiableList(notificationSqlDao.getHistoricalQueueEntriesForSearchKeys("notifications-retries:myEvent-listener", SEARCH_KEY_1, SEARCH_KEY_2, notificationQueueConfig.getHistoryTableName()));
+            Assert.assertEquals(historicalEntriesForRetries.get(3).getProcessingState(), PersistentQueueEntryLifecycleState.PROCESSED);
+            Assert.assertEquals(retryableBusService.getNbProcessedEvents(), 1);
+            // The payload is deleted once the retries are over
+            Assert.assertNull(notificationSqlDao.getByRecordId(payloadRecordId, notificationQueueConfig.getHistoryTableName()));
+        } finally {
+            retryableBusService.stop();
+        }
+    }
+
     private final class RetryableBusService extends RetryableService {
 
         private final SubscriberQueueHandler subscriberQueueHandler = new SubscriberQueueHandler();
         private final RetryableSubscriber retryableSubscriber;
 
         private boolean shouldFail = true;
+        private int nbProcessedEvents;
 
         public RetryableBusService(final NotificationQueueService notificationQueueService) {
-            super(notificationQueueService);
+            this(notificationQueueService, false);
+        }
+
+        public RetryableBusService(final NotificationQueueService notificationQueueService, final boolean referencePayload) {
+            super(notificationQueueService, QueueObjectMapper.get(), referencePayload);
 
             subscriberQueueHandler.subscribe(MyEvent.class,
                                              new SubscriberAction<MyEvent>() {
                                                  @Override
                                                  public void run(final MyEvent event) {
                                                      if (!shouldFail) {
+                                                         Assert.assertEquals(event.getName(), "Foo");
+                                                         nbProcessedEvents++;
                                                          return;
                                                      }
 
@@ -185,5 +244,9 @@ public class TestRetries extends TestSetup {
         public void shouldFail(final boolean shouldFail) {
             this.shouldFail = shouldFail;
         }
+
+        public int getNbProcessedEvents() {
+            return nbProcessedEvents;
+        }
     }
 }
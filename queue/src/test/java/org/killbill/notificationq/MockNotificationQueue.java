@@ -28,6 +28,7 @@ import java.util.Objects;
 import java.util.TreeSet;
 import java.util.UUID;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
 
 import org.joda.time.DateTime;
 import org.killbill.CreatorName;
@@ -37,6 +38,7 @@ import org.killbill.notificationq.api.NotificationEventWithMetadata;
 import org.killbill.notificationq.api.NotificationQueue;
 import org.killbill.notificationq.api.NotificationQueueService.NotificationQueueHandler;
 import org.killbill.notificationq.dao.NotificationEventModelDao;
+import org.killbill.queue.api.DeadLetterFilter;
 import org.killbill.queue.api.PersistentQueueEntryLifecycleState;
 import org.killbill.queue.dispatching.EventEntryDeserializer;
 import org.slf4j.Logger;
@@ -184,11 +186,42 @@ public class MockNotificationQueue implements NotificationQueue {
         return result;
     }
 
+    @Override
+    public Long recordFutureNotificationWithPayload(final DateTime futureNotificationTime, final DateTime payloadEffectiveDate, final NotificationEvent payload,
+                                                    final Function<Long, NotificationEvent> notificationBuilder, final UUID userToken, final Long searchKey1, final Long searchKey2) throws IOException {
+        return null;
+    }
+
+    @Override
+    public Long recordFutureNotificationWithPayloadFromTransaction(final Connection connection, final DateTime futureNotificationTime, final DateTime payloadEffectiveDate, final NotificationEvent payload,
+                                                                   final Function<Long, NotificationEvent> notificationBuilder, final UUID userToken, final Long searchKey1, final Long searchKey2) throws IOException {
+        return null;
+    }
+
+    @Override
+    public <T extends NotificationEvent> NotificationEventWithMetadata<T> getHistoricalNotification(final Long recordId) {
+        return null;
+    }
+
+    @Override
+    public void removeNotificationPayload(final Long recordId) {
+    }
+
     @Override
     public long getNbReadyEntries(final DateTime maxEffectiveDate) {
         return 0;
     }
 
+    @Override
+    public long getNbDeadLetterNotifications(final DeadLetterFilter filter) {
+        return 0;
+    }
+
+    @Override
+    public long replayDeadLetterNotifications(final DeadLetterFilter filter) {
+        return 0;
+    }
+
     @Override
     public void removeNotification(final Long recordId) {
         removeNotificationFromTransaction(null, recordId);
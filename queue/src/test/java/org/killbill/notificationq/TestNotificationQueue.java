@@ -25,7 +25,9 @@ import java.util.Map;
 import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 import org.joda.time.DateTime;
@@ -38,10 +40,12 @@ import org.killbill.commons.utils.collect.Iterators;
 import org.killbill.notificationq.api.NotificationEvent;
 import org.killbill.notificationq.api.NotificationEventWithMetadata;
 import org.killbill.notificationq.api.NotificationQueue;
+import org.killbill.notificationq.api.NotificationQueueBulkhead;
 import org.killbill.notificationq.api.NotificationQueueService;
 import org.killbill.notificationq.api.NotificationQueueService.NotificationQueueHandler;
 import org.killbill.notificationq.dao.NotificationEventModelDao;
 import org.killbill.notificationq.dao.NotificationSqlDao;
+import org.killbill.queue.api.DeadLetterFilter;
 import org.killbill.queue.api.PersistentQueueEntryLifecycleState;
 import org.killbill.queue.retry.RetryableHandler;
 import org.killbill.queue.retry.RetryableService;
@@ -378,6 +382,77 @@ public class TestNotificationQueue extends TestSetup {
         assertTrue(success);
     }
 
+    /**
+     * Test that a slow handler running in its own bulkhead does not prevent other queues from being processed
+     *
+     * @throws Exception
+     */
+    @Test(groups = "slow")
+    public void testBulkheadIsolation() throws Exception {
+        final CountDownLatch slowHandlerLatch = new CountDownLatch(1);
+        final AtomicInteger slowNotifications = new AtomicInteger();
+        final AtomicInteger fastNotifications = new AtomicInteger();
+
+        final NotificationQueue slowQueue = queueService.createNotificationQueue("test-svc",
+                                                                                 "slow",
+                                                                                 new NotificationQueueHandler() {
+                                                                                     @Override
+                                                                                     public void handleReadyNotification(final NotificationEvent eventJson, final DateTime eventDateTime, final UUID userToken, final Long searchKey1, final Long searchKey2) {
+                                                                                         try {
+                                                                                             slowHandlerLatch.await();
+                                                                                         } catch (final InterruptedException e) {
+                                                                                             Thread.currentThread().interrupt();
+                                                                                         }
+                                                                                         slowNotifications.incrementAndGet();
+                                                                                     }
+                                                                                 },
+                                                                                 new NotificationQueueBulkhead("slow-bulkhead", 1, 1));
+        final NotificationQueue fastQueue = queueService.createNotificationQueue("test-svc",
+                                                                                 "fast",
+                                                                                 new NotificationQueueHandler() {
+                                                                                     @Override
+                                                                                     public void handleReadyNotification(final NotificationEvent eventJson, final DateTime eventDateTime, final UUID userToken, final Long searchKey1, final Long searchKey2) {
+                                                                                         fastNotifications.incrementAndGet();
+                                                                                     }
+                                                                                 });
+        slowQueue.startQueue();
+        fastQueue.startQueue();
+
+        final DateTime readyTime = clock.getUTCNow();
+        for (int i = 0; i < 5; i++) {
+            slowQueue.recordFutureNotification(readyTime, new TestNotificationKey("slow-" + i), TOKEN_ID, SEARCH_KEY_1, SEARCH_KEY_2);
+        }
+        fastQueue.recordFutureNotification(readyTime, new TestNotificationKey("fast-0"), TOKEN_ID, SEARCH_KEY_1, SEARCH_KEY_2);
+
+        await().atMost(10, TimeUnit.SECONDS).until(() -> fastNotifications.get() == 1);
+
+        // The slow bulkhead is saturated, its entries are no longer claimed but the other queues keep going
+        for (int i = 0; i < 5; i++) {
+            slowQueue.recordFutureNotification(readyTime, new TestNotificationKey("slow-" + (5 + i)), TOKEN_ID, SEARCH_KEY_1, SEARCH_KEY_2);
+        }
+        fastQueue.recordFutureNotification(readyTime, new TestNotificationKey("fast-1"), TOKEN_ID, SEARCH_KEY_1, SEARCH_KEY_2);
+
+        await().atMost(10, TimeUnit.SECONDS).until(() -> fastNotifications.get() == 2);
+        Assert.assertEquals(slowNotifications.get(), 0);
+        // Claims are capped to the bulkhead capacity: one entry running and one waiting in the work queue
+        final Integer nbSlowInProcessing = dbi.withHandle(new HandleCallback<Integer>() {
+            @Override
+            public Integer withHandle(final Handle handle) throws Exception {
+                return handle.createQuery(String.format("select count(*) from %s where queue_name = :queueName and processing_state = 'IN_PROCESSING'", notificationQueueConfig.getTableName()))
+                             .bind("queueName", slowQueue.getFullQName())
+                             .map(IntegerMapper.FIRST)
+                             .first();
+            }
+        });
+        Assert.assertTrue(nbSlowInProcessing <= 2, "Slow entries in processing: " + nbSlowInProcessing);
+
+        slowHandlerLatch.countDown();
+        await().atMost(10, TimeUnit.SECONDS).until(() -> slowNotifications.get() == 10);
+
+        slowQueue.stopQueue();
+        fastQueue.stopQueue();
+    }
+
     /**
      * Test that we can post a notification in the future from a transaction and get the notification
      * callback with the correct key when the time is ready
@@ -566,6 +641,45 @@ public class TestNotificationQueue extends TestSetup {
         }
     }
 
+    @Test(groups = "slow")
+    public void testDeadLetterReplay() throws Exception {
+        final NotificationQueueHandlerWithExceptions handler = new NotificationQueueHandlerWithExceptions(Integer.MAX_VALUE);
+        final NotificationQueue queueWithDeadLetters = queueService.createNotificationQueue("DeadLetterReplay", "svc", handler);
+        try {
+            queueWithDeadLetters.startQueue();
+
+            final DateTime now = new DateTime();
+            final DateTime readyTime = now.plusMillis(2000);
+            final NotificationEvent eventJson = new TestNotificationKey("Foo");
+
+            queueWithDeadLetters.recordFutureNotification(readyTime, eventJson, TOKEN_ID, SEARCH_KEY_1, SEARCH_KEY_2);
+
+            // Move time in the future after the notification effectiveDate
+            clock.setDeltaFromReality(3000);
+
+            await().atMost(10, TimeUnit.SECONDS).until(() -> queueWithDeadLetters.getNbDeadLetterNotifications(DeadLetterFilter.ALL) == 1);
+            Assert.assertEquals(eventsReceived, 0);
+
+            Assert.assertEquals(queueWithDeadLetters.getNbDeadLetterNotifications(new DeadLetterFilter(TestNotificationKey.class.getName(), SEARCH_KEY_1, SEARCH_KEY_2, now.minusDays(1), null)), 1);
+            Assert.assertEquals(queueWithDeadLetters.getNbDeadLetterNotifications(new DeadLetterFilter(null, SEARCH_KEY_1 + 1, null, null, null)), 0);
+            Assert.assertEquals(queueWithDeadLetters.getNbDeadLetterNotifications(new DeadLetterFilter(null, null, null, null, now.minusDays(1))), 0);
+            Assert.assertEquals(queueService.createNotificationQueue("DeadLetterReplay", "other", new NotificationQueueHandlerWithExceptions(0))
+                                            .getNbDeadLetterNotifications(DeadLetterFilter.ALL), 0);
+            queueService.deleteNotificationQueue("DeadLetterReplay", "other");
+
+            handler.shouldFail(false);
+            Assert.assertEquals(queueWithDeadLetters.replayDeadLetterNotifications(DeadLetterFilter.ALL), 1);
+            Assert.assertEquals(queueWithDeadLetters.getNbDeadLetterNotifications(DeadLetterFilter.ALL), 0);
+
+            await().atMost(10, TimeUnit.SECONDS).until(() -> eventsReceived == 1);
+
+            // Nothing left to replay
+            Assert.assertEquals(queueWithDeadLetters.replayDeadLetterNotifications(DeadLetterFilter.ALL), 0);
+        } finally {
+            queueWithDeadLetters.stopQueue();
+        }
+    }
+
     @Test(groups = "slow")
     public void testRetryStateForNotifications() throws Exception {
         // 4 retries
@@ -0,0 +1,47 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.notificationq;
+
+import org.killbill.commons.metrics.api.MetricRegistry;
+import org.killbill.commons.metrics.impl.NoOpMetricRegistry;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestNotificationQueueClaimBudget {
+
+    @Test(groups = "fast")
+    public void testBudget() {
+        final MetricRegistry metricRegistry = new NoOpMetricRegistry();
+        final NotificationQueueClaimBudget budget = new NotificationQueueClaimBudget("notifications", "notifications-retries:queue", 0.25, metricRegistry);
+
+        // Claim not contended: no limit
+        budget.recordClaim(5, 5, false);
+        Assert.assertFalse(budget.isExhausted());
+
+        // Contended claim, mostly retries
+        budget.recordClaim(10, 10, true);
+        Assert.assertTrue(budget.isExhausted());
+
+        // Retries are left aside until the other queues catch up
+        int nbLoops = 0;
+        while (budget.isExhausted()) {
+            budget.recordClaim(0, 10, true);
+            nbLoops++;
+        }
+        Assert.assertTrue(nbLoops > 1);
+    }
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.queue.dao;
+
+import java.util.List;
+import java.util.Locale;
+
+import org.killbill.TestSetup;
+import org.killbill.commons.utils.io.Resources;
+import org.killbill.queue.dao.QueueQueryPlanVerifier.QueryPlan;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestQueueQueryPlanVerifier extends TestSetup {
+
+    @Test(groups = "slow")
+    public void testNoFullScan() throws Exception {
+        // The other tests run against the generic ddl.sql: verify the tuned variant for the current engine
+        loadDDL(String.format("org/killbill/queue/ddl-%s.sql", embeddedDB.getDBEngine().name().toLowerCase(Locale.ROOT)));
+        try {
+            final QueueQueryPlanVerifier verifier = new QueueQueryPlanVerifier(getDBI(), getPersistentBusConfig(), getNotificationQueueConfig());
+
+            final List<QueryPlan> queryPlans = verifier.verify();
+            Assert.assertTrue(queryPlans.stream().anyMatch(queryPlan -> "NotificationSqlDao".equals(queryPlan.getSqlDaoName()) && "getReadyEntries".equals(queryPlan.getQueryName())));
+            Assert.assertTrue(queryPlans.stream().anyMatch(queryPlan -> "PersistentBusSqlDao".equals(queryPlan.getSqlDaoName()) && "getReadyEntryIds".equals(queryPlan.getQueryName())));
+
+            Assert.assertEquals(verifier.getFullScans(), List.of());
+        } finally {
+            loadDDL("org/killbill/queue/ddl.sql");
+        }
+    }
+
+    private void loadDDL(final String resourceName) throws Exception {
+        embeddedDB.executeScript(TestSetup.toString(Resources.getResource(resourceName).openStream()));
+        embeddedDB.refreshTableNames();
+    }
+}
@@ -0,0 +1,104 @@
+/*
+ * Copyright 2026 The Billing Project, LLC
+ *
+ * The Billing Project licenses this file to you under the Apache License, version 2.0
+ * (the "License"); you may not use this file except in compliance with the
+ * License.  You may obtain a copy of the License at:
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS, WITHOUT
+ * WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.  See the
+ * License for the specific language governing permissions and limitations
+ * under the License.
+ */
+
+package org.killbill.queue.retry;
+
+import java.util.List;
+
+import org.joda.time.Period;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class TestRetryPolicy {
+
+    @Test(groups = "fast")
+    public void testExponential() {
+        final List<Period> retrySchedule = new ExponentialRetryPolicy(Period.seconds(1), 2.0, 4, 0).getRetrySchedule(0);
+        // Offsets relative to the original effective date: 1s, 1s + 2s, 1s + 2s + 4s, ...
+        Assert.assertEquals(toMillis(retrySchedule), new long[]{1000, 3000, 7000, 15000});
+    }
+
+    @Test(groups = "fast")
+    public void testExponentialWithJitter() {
+        final RetryPolicy retryPolicy = new ExponentialRetryPolicy(Period.seconds(1), 2.0, 4);
+
+        Assert.assertEquals(toMillis(retryPolicy.getRetrySchedule(12)), toMillis(retryPolicy.getRetrySchedule(12)));
+        Assert.assertNotEquals(toMillis(retryPolicy.getRetrySchedule(12)), toMillis(retryPolicy.getRetrySchedule(13)));
+
+        for (int seed = 0; seed < 100; seed++) {
+            final long[] offsets = toMillis(retryPolicy.getRetrySchedule(seed));
+            Assert.assertEquals(offsets.length, 4);
+            long previousOffset = 0;
+            long nominalDelay = 1000;
+            for (final long offset : offsets) {
+                // At most 10% shorter than the nominal delay, never longer
+                Assert.assertTrue(offset - previousOffset >= nominalDelay * 0.9);
+                Assert.assertTrue(offset - previousOffset <= nominalDelay);
+                previousOffset = offset;
+                nominalDelay *= 2;
+            }
+        }
+    }
+
+    @Test(groups = "fast")
+    public void testExponentialValidation() {
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ExponentialRetryPolicy(Period.ZERO, 2.0, 4));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ExponentialRetryPolicy(Period.seconds(-1), 2.0, 4));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ExponentialRetryPolicy(Period.seconds(1), 2.0, 4, 1));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new ExponentialRetryPolicy(Period.seconds(1), 2.0, 4, -0.1));
+    }
+
+    @Test(groups = "fast")
+    public void testCapped() {
+        final RetryPolicy exponential = new ExponentialRetryPolicy(Period.seconds(1), 2.0, 6, 0);
+        Assert.assertEquals(toMillis(new CappedRetryPolicy(exponential, Period.seconds(3)).getRetrySchedule(0)), new long[]{1000, 3000, 6000, 9000, 12000, 15000});
+        Assert.assertEquals(toMillis(new CappedRetryPolicy(exponential, Period.seconds(3), Period.seconds(10)).getRetrySchedule(0)), new long[]{1000, 3000, 6000, 9000});
+    }
+
+    @Test(groups = "fast")
+    public void testCappedValidation() {
+        final RetryPolicy exponential = new ExponentialRetryPolicy(Period.seconds(1), 2.0, 6, 0);
+        Assert.assertThrows(IllegalArgumentException.class, () -> new CappedRetryPolicy(exponential, Period.ZERO));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new CappedRetryPolicy(exponential, Period.seconds(-1)));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new CappedRetryPolicy(exponential, Period.seconds(3), Period.ZERO));
+        Assert.assertThrows(IllegalArgumentException.class, () -> new CappedRetryPolicy(exponential, Period.seconds(3), Period.seconds(-1)));
+    }
+
+    @Test(groups = "fast")
+    public void testDecorrelatedJitter() {
+        final RetryPolicy retryPolicy = new DecorrelatedJitterRetryPolicy(Period.seconds(1), Period.minutes(1), 10);
+
+        // Same seed, same schedule (the schedule is recomputed for each attempt of a given event)
+        Assert.assertEquals(toMillis(retryPolicy.getRetrySchedule(12)), toMillis(retryPolicy.getRetrySchedule(12)));
+        // Different events are spread out
+        Assert.assertNotEquals(toMillis(retryPolicy.getRetrySchedule(12)), toMillis(retryPolicy.getRetrySchedule(13)));
+
+        for (int seed = 0; seed < 100; seed++) {
+            final long[] offsets = toMillis(retryPolicy.getRetrySchedule(seed));
+            Assert.assertEquals(offsets.length, 10);
+            long previousOffset = 0;
+            for (final long offset : offsets) {
+                Assert.assertTrue(offset - previousOffset >= 1000);
+                Assert.assertTrue(offset - previousOffset <= 60000);
+                previousOffset = offset;
+            }
+        }
+    }
+
+    private static long[] toMillis(final List<Period> retrySchedule) {
+        return retrySchedule.stream().mapToLong(period -> period.toStandardDuration().getMillis()).toArray();
+    }
+}